@@ -12,6 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2015-2016 ForgeRock AS.
+ * Portions copyright 2026 Open Source Solution Technology Corporation
  */
 package org.forgerock.audit;
 
@@ -32,6 +33,8 @@ import org.forgerock.audit.filter.FilterPolicy;
  * <pre>
  *   {
  *     "handlerForQueries" : "csv",
+ *     "parallelHandlerDispatch" : true,
+ *     "handlerDispatchQueueCapacity" : 10000,
  *     "availableAuditEventHandlers" : [
  *          "org.forgerock.audit.events.handler.MyHandler",
  *          "org.forgerock.audit.events.handler.AnotherHandler"
@@ -55,6 +58,9 @@ import org.forgerock.audit.filter.FilterPolicy;
  */
 public class AuditServiceConfiguration {
 
+    /** Default number of events that may wait to be published to each handler when dispatching in parallel. */
+    public static final int DEFAULT_HANDLER_DISPATCH_QUEUE_CAPACITY = 10_000;
+
     @JsonProperty(required = true)
     @JsonPropertyDescription("audit.service.handlerForQueries")
     private String handlerForQueries;
@@ -65,6 +71,12 @@ public class AuditServiceConfiguration {
     @JsonPropertyDescription("audit.service.filter.policies")
     private Map<String, FilterPolicy> filterPolicies = new LinkedHashMap<>();
 
+    @JsonPropertyDescription("audit.service.parallelHandlerDispatch")
+    private boolean parallelHandlerDispatch;
+
+    @JsonPropertyDescription("audit.service.handlerDispatchQueueCapacity")
+    private int handlerDispatchQueueCapacity = DEFAULT_HANDLER_DISPATCH_QUEUE_CAPACITY;
+
     /**
      * Empty constructor.
      */
@@ -80,6 +92,8 @@ public class AuditServiceConfiguration {
     public AuditServiceConfiguration(AuditServiceConfiguration config) {
         handlerForQueries = config.getHandlerForQueries();
         availableAuditEventHandlers = config.availableAuditEventHandlers;
+        parallelHandlerDispatch = config.parallelHandlerDispatch;
+        handlerDispatchQueueCapacity = config.handlerDispatchQueueCapacity;
     }
 
     /**
@@ -138,4 +152,44 @@ public class AuditServiceConfiguration {
     public void setFilterPolicies(Map<String, FilterPolicy> filterPolicies) {
         this.filterPolicies.putAll(filterPolicies);
     }
+
+    /**
+     * Indicates if the events are published to the handlers in parallel, each handler being fed by its own thread
+     * from a bounded queue, rather than sequentially on the thread creating the event. Each handler then receives its
+     * own copy of the event, so the encodings of the event are not shared between handlers.
+     *
+     * @return {@code true} if the events are published to the handlers in parallel.
+     */
+    public boolean isParallelHandlerDispatch() {
+        return parallelHandlerDispatch;
+    }
+
+    /**
+     * Sets whether the events are published to the handlers in parallel.
+     *
+     * @param parallelHandlerDispatch {@code true} to publish the events to the handlers in parallel.
+     */
+    public void setParallelHandlerDispatch(boolean parallelHandlerDispatch) {
+        this.parallelHandlerDispatch = parallelHandlerDispatch;
+    }
+
+    /**
+     * Returns the maximum number of events that may wait to be published to each handler when dispatching in
+     * parallel. Events are dropped for a handler whose queue is full.
+     *
+     * @return the capacity of the queue of each handler.
+     */
+    public int getHandlerDispatchQueueCapacity() {
+        return handlerDispatchQueueCapacity;
+    }
+
+    /**
+     * Sets the maximum number of events that may wait to be published to each handler when dispatching in
+     * parallel.
+     *
+     * @param handlerDispatchQueueCapacity the capacity of the queue of each handler.
+     */
+    public void setHandlerDispatchQueueCapacity(int handlerDispatchQueueCapacity) {
+        this.handlerDispatchQueueCapacity = handlerDispatchQueueCapacity;
+    }
 }
@@ -12,10 +12,12 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2015-2016 ForgeRock AS.
+ * Portions copyright 2026 Open Source Solution Technology Corporation
  */
 package org.forgerock.audit;
 
 import static java.lang.String.format;
+import static org.forgerock.audit.AuditServiceProxy.ACTION_DISPATCH_STATISTICS;
 import static org.forgerock.audit.AuditServiceProxy.ACTION_PARAM_TARGET_HANDLER;
 import static org.forgerock.audit.events.AuditEventBuilder.TIMESTAMP;
 import static org.forgerock.audit.events.AuditEventBuilder.TRANSACTION_ID;
@@ -23,6 +25,7 @@ import static org.forgerock.audit.util.ResourceExceptionsUtil.adapt;
 import static org.forgerock.audit.util.ResourceExceptionsUtil.notSupported;
 import static org.forgerock.json.JsonValue.json;
 import static org.forgerock.json.JsonValue.object;
+import static org.forgerock.json.resource.Responses.newActionResponse;
 import static org.forgerock.json.resource.Responses.newResourceResponse;
 
 import java.util.Collection;
@@ -32,6 +35,7 @@ import java.util.LinkedHashSet;
 import java.util.Map;
 import java.util.Set;
 
+import org.forgerock.audit.events.AuditEventEncodingContext;
 import org.forgerock.audit.events.EventTopicsMetaData;
 import org.forgerock.audit.events.handlers.AuditEventHandler;
 import org.forgerock.audit.filter.Filter;
@@ -115,6 +119,11 @@ final class AuditServiceImpl implements AuditService {
      * The filters to apply to the audit event.
      */
     private final Filter filters;
+    /**
+     * The dispatchers publishing the events to the handlers, other than the query handler, indexed by the name of
+     * the handlers; empty if the events are published to the handlers sequentially.
+     */
+    private final Map<String, HandlerDispatcher> dispatchersByName;
 
     /**
      * Constructs a new instance.
@@ -149,6 +158,22 @@ final class AuditServiceImpl implements AuditService {
                 .withAuditTopics(eventTopicsMetaData.getTopics())
                 .withPolicies(configuration.getFilterPolicies())
                 .build();
+
+        this.dispatchersByName = getDispatchersByName(config);
+    }
+
+    private Map<String, HandlerDispatcher> getDispatchersByName(AuditServiceConfiguration configuration) {
+        if (!configuration.isParallelHandlerDispatch()) {
+            return Collections.emptyMap();
+        }
+        Map<String, HandlerDispatcher> dispatchers = new HashMap<>(auditEventHandlersByName.size());
+        for (Map.Entry<String, AuditEventHandler> entry : auditEventHandlersByName.entrySet()) {
+            if (entry.getValue() != queryHandler) {
+                dispatchers.put(entry.getKey(), new HandlerDispatcher(entry.getKey(), entry.getValue(),
+                        configuration.getHandlerDispatchQueueCapacity()));
+            }
+        }
+        return dispatchers;
     }
 
     private Map<String, AuditEventHandler> getAuditEventHandlersByName(Set<AuditEventHandler> handlers) {
@@ -257,6 +282,9 @@ final class AuditServiceImpl implements AuditService {
      *         result that would be received for a call to handleRead or handleQuery for the provided event.
      *         If no queryHandler is registered to receive events of this type, then return a success result
      *         with an empty body.
+     *         When dispatching in parallel, a copy of the event is queued for each of the other handlers before the
+     *         event is published to the query handler on the calling thread, so that the caller only waits for the
+     *         query handler and that no handler sees the changes another one makes to the event.
      */
     private Promise<ResourceResponse, ResourceException> publishEventToHandlers(Context context, JsonValue event,
             String topic, Collection<AuditEventHandler> auditEventHandlersForEvent) {
@@ -269,14 +297,24 @@ final class AuditServiceImpl implements AuditService {
         // Otherwise, return the result generated by the handler used for queries or a generic response if
         // that handler isn't bound to the event's topic
         logger.debug("Cascading the event of topic {} to the handlers : {}", topic, auditEventHandlersForEvent);
-        for (AuditEventHandler auditEventHandler : auditEventHandlersForEvent) {
-            Promise<ResourceResponse, ResourceException> handlerResult;
-            try {
-                handlerResult = auditEventHandler.publishEvent(context, topic, event);
-            } catch (Exception ex) {
-                logger.warn(ex.getMessage());
-                handlerResult = adapt(ex).asPromise();
+        if (!dispatchersByName.isEmpty()) {
+            for (AuditEventHandler auditEventHandler : auditEventHandlersForEvent) {
+                if (auditEventHandler != queryHandler) {
+                    // Copied before any handler may modify the event, the copy being only used by that handler
+                    final JsonValue copy = event.copy();
+                    dispatchersByName.get(auditEventHandler.getName())
+                            .dispatch(new AuditEventEncodingContext(context, copy), topic, copy);
+                }
             }
+            return auditEventHandlersForEvent.contains(queryHandler)
+                    ? publishEventToHandler(new AuditEventEncodingContext(context, event), topic, event, queryHandler)
+                    : promise;
+        }
+        // Lets the handlers share the encodings of the event
+        final Context encodingContext = new AuditEventEncodingContext(context, event);
+        for (AuditEventHandler auditEventHandler : auditEventHandlersForEvent) {
+            Promise<ResourceResponse, ResourceException> handlerResult =
+                    publishEventToHandler(encodingContext, topic, event, auditEventHandler);
             if (auditEventHandler == queryHandler) {
                 promise = handlerResult;
             }
@@ -284,6 +322,17 @@ final class AuditServiceImpl implements AuditService {
         return promise;
     }
 
+    private Promise<ResourceResponse, ResourceException> publishEventToHandler(Context context, String topic,
+            JsonValue event, AuditEventHandler auditEventHandler) {
+        try {
+            return auditEventHandler.publishEvent(context, topic, event);
+        } catch (Exception ex) {
+            logger.warn(ex.getMessage());
+            return adapt(ex).asPromise();
+        }
+    }
+
+
     @Override
     public Promise<ResourceResponse, ResourceException> handleUpdate(
             final Context context, final UpdateRequest request) {
@@ -317,9 +366,12 @@ final class AuditServiceImpl implements AuditService {
     public Promise<ActionResponse, ResourceException> handleAction(final Context context, final ActionRequest request) {
         try {
             String handlerName = request.getAdditionalParameter(ACTION_PARAM_TARGET_HANDLER);
+            if (handlerName == null && ACTION_DISPATCH_STATISTICS.equals(request.getAction())) {
+                return newActionResponse(getDispatchStatistics()).asPromise();
+            }
             String topic = establishTopic(request.getResourcePathObject(), false);
             if (handlerName == null) {
-                // no action is currently managed at the audit service level, so throw an exception
+                // no other action is currently managed at the audit service level, so throw an exception
                 return new BadRequestException(format("Unable to handle action: %s", request.getAction())).asPromise();
             }
             // Propagate the action to the given handler
@@ -334,6 +386,14 @@ final class AuditServiceImpl implements AuditService {
         }
     }
 
+    private JsonValue getDispatchStatistics() {
+        JsonValue statistics = json(object());
+        for (Map.Entry<String, HandlerDispatcher> entry : dispatchersByName.entrySet()) {
+            statistics.put(entry.getKey(), entry.getValue().getStatistics().getObject());
+        }
+        return statistics;
+    }
+
     private Collection<AuditEventHandler> getAuditEventHandlersForEvent(final String auditEvent) {
         if (auditEventHandlersByTopic.containsKey(auditEvent)) {
             return auditEventHandlersByTopic.get(auditEvent);
@@ -384,6 +444,9 @@ final class AuditServiceImpl implements AuditService {
                     logger.warn("Unable to startup handler " + handlerName,  e);
                 }
             }
+            for (HandlerDispatcher dispatcher : dispatchersByName.values()) {
+                dispatcher.startup();
+            }
             lifecycleState = LifecycleState.RUNNING;
             break;
         case RUNNING:
@@ -410,6 +473,8 @@ final class AuditServiceImpl implements AuditService {
             lifecycleState = LifecycleState.SHUTDOWN;
             break;
         case RUNNING:
+            // Publish the queued events before the handlers are shutdown
+            shutdownDispatchers();
             for (Map.Entry<String, AuditEventHandler> entry : auditEventHandlersByName.entrySet()) {
                 String handlerName = entry.getKey();
                 AuditEventHandler handler = entry.getValue();
@@ -429,6 +494,12 @@ final class AuditServiceImpl implements AuditService {
         }
     }
 
+    private void shutdownDispatchers() {
+        for (HandlerDispatcher dispatcher : dispatchersByName.values()) {
+            dispatcher.shutdown();
+        }
+    }
+
     @Override
     public boolean isRunning() {
         return lifecycleState == LifecycleState.RUNNING;
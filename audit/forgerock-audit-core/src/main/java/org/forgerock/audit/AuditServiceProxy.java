@@ -12,6 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2015-2016 ForgeRock AS.
+ * Portions copyright 2026 Open Source Solution Technology Corporation
  */
 
 package org.forgerock.audit;
@@ -52,6 +53,15 @@ public class AuditServiceProxy implements AuditService {
     /** Parameter that may be used when using an action, to provide the name of the handler to use as a target. */
     public static final String ACTION_PARAM_TARGET_HANDLER = "handler";
 
+    /**
+     * Action, not targeting any handler, returning for each handler the depth of its queue, the number of events
+     * dispatched, published, dropped and failed, and the publishing latency, when the events are published to the
+     * handlers in parallel.
+     *
+     * @see AuditServiceConfiguration#isParallelHandlerDispatch()
+     */
+    public static final String ACTION_DISPATCH_STATISTICS = "dispatchStatistics";
+
     private final ReentrantReadWriteLock delegateLock;
     private AuditService delegate;
 
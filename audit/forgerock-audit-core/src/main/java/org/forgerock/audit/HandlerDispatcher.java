@@ -0,0 +1,222 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Open Source Solution Technology Corporation
+ */
+package org.forgerock.audit;
+
+import static org.forgerock.json.JsonValue.field;
+import static org.forgerock.json.JsonValue.json;
+import static org.forgerock.json.JsonValue.object;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.forgerock.audit.events.handlers.AuditEventHandler;
+import org.forgerock.json.JsonValue;
+import org.forgerock.json.resource.ResourceException;
+import org.forgerock.json.resource.ResourceResponse;
+import org.forgerock.services.context.Context;
+import org.forgerock.util.promise.ExceptionHandler;
+import org.forgerock.util.promise.Promise;
+import org.forgerock.util.promise.ResultHandler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Publishes audit events to a single {@link AuditEventHandler} from a dedicated thread.
+ * <p/>
+ * Events are queued in a bounded queue and published in the order they were dispatched. When the handler cannot
+ * keep up and its queue is full, further events are dropped for that handler only, so that neither the caller nor
+ * the other handlers are slowed down. The number of dispatched, dropped and failed events, as well as the publishing
+ * latency, are recorded.
+ * <p/>
+ * The dispatching thread is only created on {@link #startup()}: events dispatched before then are dropped.
+ */
+final class HandlerDispatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(HandlerDispatcher.class);
+
+    /** Maximum time to wait for the queued events to be published when shutting down. */
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 30L;
+
+    private final String handlerName;
+    private final AuditEventHandler handler;
+    private final int queueCapacity;
+    /** Created on startup, guarded by this. */
+    private volatile ThreadPoolExecutor executor;
+
+    private final AtomicLong dispatched = new AtomicLong();
+    private final AtomicLong published = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong processed = new AtomicLong();
+    private final AtomicLong totalLatencyNanos = new AtomicLong();
+    private final AtomicLong maxLatencyNanos = new AtomicLong();
+    private final AtomicBoolean saturated = new AtomicBoolean();
+
+    /**
+     * Creates a new dispatcher.
+     *
+     * @param handlerName
+     *            the name of the handler.
+     * @param handler
+     *            the handler to publish the events to.
+     * @param queueCapacity
+     *            the maximum number of events waiting to be published.
+     */
+    HandlerDispatcher(final String handlerName, final AuditEventHandler handler, final int queueCapacity) {
+        this.handlerName = handlerName;
+        this.handler = handler;
+        this.queueCapacity = queueCapacity;
+    }
+
+    /**
+     * Creates the thread publishing the events to the handler, unless it has already been created.
+     */
+    synchronized void startup() {
+        if (executor != null) {
+            return;
+        }
+        executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<Runnable>(queueCapacity), new ThreadFactory() {
+                    @Override
+                    public Thread newThread(Runnable runnable) {
+                        Thread thread = new Thread(runnable, "audit-dispatcher-" + handlerName);
+                        thread.setDaemon(true);
+                        return thread;
+                    }
+                });
+    }
+
+    /**
+     * Queues the event to be published to the handler.
+     *
+     * @param context
+     *            the context of the event.
+     * @param topic
+     *            the topic of the event.
+     * @param event
+     *            the event to publish.
+     * @return {@code false} if the event has been dropped because the queue is full or the dispatcher is not
+     *         running.
+     */
+    boolean dispatch(final Context context, final String topic, final JsonValue event) {
+        final long queuedAt = System.nanoTime();
+        final ThreadPoolExecutor executor = this.executor;
+        if (executor == null) {
+            dropped.incrementAndGet();
+            return false;
+        }
+        try {
+            executor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    publish(context, topic, event, queuedAt);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            dropped.incrementAndGet();
+            if (saturated.compareAndSet(false, true)) {
+                logger.warn("Audit events are dropped for handler {}, which cannot keep up", handlerName);
+            }
+            return false;
+        }
+        dispatched.incrementAndGet();
+        if (saturated.get() && executor.getQueue().remainingCapacity() > 0 && saturated.compareAndSet(true, false)) {
+            logger.info("Audit events are no longer dropped for handler {}", handlerName);
+        }
+        return true;
+    }
+
+    private void publish(final Context context, final String topic, final JsonValue event, final long queuedAt) {
+        final Promise<ResourceResponse, ResourceException> result;
+        try {
+            result = handler.publishEvent(context, topic, event);
+        } catch (Exception e) {
+            failed.incrementAndGet();
+            logger.warn("Unable to publish event of topic {} to handler {}", topic, handlerName, e);
+            return;
+        } finally {
+            recordLatency(System.nanoTime() - queuedAt);
+        }
+        result.thenOnResultOrException(new ResultHandler<ResourceResponse>() {
+            @Override
+            public void handleResult(ResourceResponse response) {
+                published.incrementAndGet();
+            }
+        }, new ExceptionHandler<ResourceException>() {
+            @Override
+            public void handleException(ResourceException e) {
+                failed.incrementAndGet();
+                logger.warn("Unable to publish event of topic {} to handler {}", topic, handlerName, e);
+            }
+        });
+    }
+
+    private void recordLatency(final long latencyNanos) {
+        processed.incrementAndGet();
+        totalLatencyNanos.addAndGet(latencyNanos);
+        long max = maxLatencyNanos.get();
+        while (latencyNanos > max && !maxLatencyNanos.compareAndSet(max, latencyNanos)) {
+            max = maxLatencyNanos.get();
+        }
+    }
+
+    /**
+     * Stops accepting events and waits for the queued events to be published.
+     */
+    synchronized void shutdown() {
+        if (executor == null) {
+            return;
+        }
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                logger.warn("{} audit events have not been published to handler {} before shutdown",
+                        executor.getQueue().size(), handlerName);
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Returns the statistics of this dispatcher.
+     * <p/>
+     * The latency is measured from the time an event is dispatched to the time the handler returns from
+     * {@link AuditEventHandler#publishEvent}, it therefore includes the time spent in the queue.
+     *
+     * @return the statistics as a JSON object.
+     */
+    JsonValue getStatistics() {
+        final ThreadPoolExecutor executor = this.executor;
+        final long count = processed.get();
+        return json(object(
+                field("queueDepth", executor != null ? executor.getQueue().size() : 0),
+                field("dispatched", dispatched.get()),
+                field("published", published.get()),
+                field("dropped", dropped.get()),
+                field("failed", failed.get()),
+                field("meanLatencyMicros",
+                        count == 0 ? 0L : TimeUnit.NANOSECONDS.toMicros(totalLatencyNanos.get() / count)),
+                field("maxLatencyMicros", TimeUnit.NANOSECONDS.toMicros(maxLatencyNanos.get()))));
+    }
+}
@@ -0,0 +1,146 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Open Source Solution Technology Corporation
+ */
+
+package org.forgerock.audit.events;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.forgerock.audit.util.JsonValueUtils;
+import org.forgerock.json.JsonPointer;
+import org.forgerock.json.JsonValue;
+import org.forgerock.services.context.Context;
+import org.forgerock.util.Reject;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Memoizes the encodings of an audit event, so that the event is serialized once however many audit event handlers
+ * it is published to.
+ * <p>
+ * The audit service attaches an instance to each published event through an {@link AuditEventEncodingContext};
+ * handlers obtain it with {@link #of(Context, JsonValue)} and ask it for the encodings they need, which are computed
+ * on first use and shared with the other handlers. The event must therefore not be modified once it has been
+ * published.
+ * <p>
+ * Instances are thread-safe: handlers may use them from their own publishing threads. Two threads asking for the
+ * same encoding at the same time may both compute it, which is harmless as the results are equal.
+ */
+public final class AuditEventEncoding {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    /** Marks fields whose string representation is {@code null}, as the map cannot hold {@code null} values. */
+    private static final Object NO_VALUE = new Object();
+
+    private final JsonValue event;
+    private volatile byte[] jsonBytes;
+    /** String representations of fields, keyed by field identifier or by {@link JsonPointer}. */
+    private final ConcurrentMap<Object, Object> fieldStrings = new ConcurrentHashMap<>();
+
+    /**
+     * Creates the encodings of an event.
+     *
+     * @param event The audit event, which must not be modified anymore.
+     */
+    public AuditEventEncoding(final JsonValue event) {
+        Reject.ifNull(event);
+        this.event = event;
+    }
+
+    /**
+     * Returns the encodings attached to the provided event by the audit service, or new encodings, only used by the
+     * caller, if the event is not the one the context has been created for.
+     *
+     * @param context The context of the event publication, may be {@code null}.
+     * @param event The audit event being published.
+     * @return The encodings of the event.
+     */
+    public static AuditEventEncoding of(final Context context, final JsonValue event) {
+        if (context != null && context.containsContext(AuditEventEncodingContext.class)) {
+            final AuditEventEncoding encoding = context.asContext(AuditEventEncodingContext.class).getEncoding();
+            if (encoding != null && encoding.event == event) {
+                return encoding;
+            }
+        }
+        return new AuditEventEncoding(event);
+    }
+
+    /**
+     * Returns the audit event.
+     *
+     * @return The audit event.
+     */
+    public JsonValue getEvent() {
+        return event;
+    }
+
+    /**
+     * Returns the UTF-8 encoded JSON representation of the event. The returned array is shared and must not be
+     * modified.
+     *
+     * @return The JSON representation of the event.
+     * @throws JsonProcessingException If the event cannot be serialized.
+     */
+    public byte[] getJsonBytes() throws JsonProcessingException {
+        byte[] bytes = jsonBytes;
+        if (bytes == null) {
+            bytes = MAPPER.writeValueAsBytes(event.getObject());
+            jsonBytes = bytes;
+        }
+        return bytes;
+    }
+
+    /**
+     * Returns the string representation of a field of the event, as
+     * {@link JsonValueUtils#extractValueAsString(JsonValue, String)} does.
+     *
+     * @param fieldName The field identifier in a form consumable by {@link org.forgerock.json.JsonPointer}.
+     * @return The string value of the field, the JSON representation of non string values, or {@code null} if the
+     *         field is not present or has a {@code null} value.
+     */
+    public String getFieldAsString(final String fieldName) {
+        final Object memoized = fieldStrings.get(fieldName);
+        if (memoized == null) {
+            return memoizeFieldAsString(fieldName, new JsonPointer(fieldName));
+        }
+        return memoized != NO_VALUE ? (String) memoized : null;
+    }
+
+    /**
+     * Returns the string representation of a field of the event, as
+     * {@link JsonValueUtils#extractValueAsString(JsonValue, JsonPointer)} does. Callers reading the same fields of
+     * many events should hold pre-parsed pointers rather than parse field identifiers again for every event.
+     *
+     * @param field The pointer to the field.
+     * @return The string value of the field, the JSON representation of non string values, or {@code null} if the
+     *         field is not present or has a {@code null} value.
+     */
+    public String getFieldAsString(final JsonPointer field) {
+        final Object memoized = fieldStrings.get(field);
+        if (memoized == null) {
+            return memoizeFieldAsString(field, field);
+        }
+        return memoized != NO_VALUE ? (String) memoized : null;
+    }
+
+    private String memoizeFieldAsString(final Object key, final JsonPointer field) {
+        final String value = JsonValueUtils.extractValueAsString(event, field);
+        fieldStrings.put(key, value != null ? value : NO_VALUE);
+        return value;
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Open Source Solution Technology Corporation
+ */
+
+package org.forgerock.audit.events;
+
+import org.forgerock.json.JsonValue;
+import org.forgerock.services.context.AbstractContext;
+import org.forgerock.services.context.Context;
+
+/**
+ * A Context carrying the {@link AuditEventEncoding encodings} of the audit event being published to the audit event
+ * handlers.
+ */
+public class AuditEventEncodingContext extends AbstractContext {
+
+    /**
+     * Encodings of the audit event being published. This field is not serialized in the {@link JsonValue}
+     * representation of this context, nor is the event.
+     */
+    private final AuditEventEncoding encoding;
+
+    /**
+     * Construct a new audit event encoding context with the provided parent.
+     *
+     * @param parent The parent context.
+     * @param event The audit event being published.
+     */
+    public AuditEventEncodingContext(final Context parent, final JsonValue event) {
+        super(parent, "auditEventEncoding");
+        this.encoding = new AuditEventEncoding(event);
+    }
+
+    /**
+     * Restore a serialized audit event encoding context, which carries no encodings.
+     *
+     * @param savedContext The saved context.
+     * @param classLoader The classloader to use.
+     */
+    public AuditEventEncodingContext(final JsonValue savedContext, final ClassLoader classLoader) {
+        super(savedContext, classLoader);
+        this.encoding = null;
+    }
+
+    /**
+     * Returns the encodings of the audit event being published.
+     *
+     * @return The encodings of the audit event, or {@code null} if this context has been restored from its JSON
+     *         representation.
+     */
+    public AuditEventEncoding getEncoding() {
+        return encoding;
+    }
+}
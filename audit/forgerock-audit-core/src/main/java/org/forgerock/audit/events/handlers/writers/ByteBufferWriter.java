@@ -0,0 +1,91 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Open Source Solution Technology Corporation
+ */
+package org.forgerock.audit.events.handlers.writers;
+
+import static java.nio.file.StandardOpenOption.APPEND;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * A ByteBufferWriter writes already encoded bytes to a file, in bulk.
+ */
+public interface ByteBufferWriter extends Closeable {
+
+    /**
+     * Writes all the remaining bytes of the buffer.
+     *
+     * @param buffer
+     *            The bytes to write.
+     * @throws IOException
+     *             If a problem occurs.
+     */
+    void write(ByteBuffer buffer) throws IOException;
+
+    /**
+     * Forces the bytes written so far to the storage device.
+     *
+     * @throws IOException
+     *             If a problem occurs.
+     */
+    void sync() throws IOException;
+
+    /**
+     * A ByteBufferWriter implementation which appends to a file through a {@link FileChannel}.
+     */
+    public class Channel implements ByteBufferWriter {
+        private final FileChannel channel;
+
+        /**
+         * Creates a new writer to the provided file, which is created if it does not exist.
+         *
+         * @param file
+         *            The file to write to.
+         * @param append
+         *            Whether to append to the file or to truncate it.
+         * @throws IOException
+         *             If the file cannot be opened.
+         */
+        public Channel(File file, boolean append) throws IOException {
+            channel = append
+                    ? FileChannel.open(file.toPath(), CREATE, WRITE, APPEND)
+                    : FileChannel.open(file.toPath(), CREATE, WRITE, TRUNCATE_EXISTING);
+        }
+
+        @Override
+        public void write(ByteBuffer buffer) throws IOException {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+
+        @Override
+        public void sync() throws IOException {
+            channel.force(false);
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+}
@@ -0,0 +1,373 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Open Source Solution Technology Corporation
+ */
+package org.forgerock.audit.events.handlers.writers;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.forgerock.audit.batch.CommonAuditBatchConfiguration.POLLING_TIMEOUT;
+import static org.forgerock.audit.batch.CommonAuditBatchConfiguration.POLLING_TIMEOUT_UNIT;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.forgerock.util.Reject;
+import org.forgerock.util.time.Duration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A Text Writer which writes log records asynchronously, by batches, to a {@link ByteBufferWriter}.
+ * <p>
+ * The records are buffered in a queue, which is drained by a single thread. All the records of a batch are encoded
+ * in UTF-8 into a reusable direct buffer and written with a single call to the {@link ByteBufferWriter}. Rather than
+ * after each record, the written records are forced to the storage device at most once per sync interval. If
+ * maximum CAPACITY of the queue is reached, then calls to {@code write()} method are blocked.
+ * <p>
+ * The records are written in the order they have been queued. {@link #flush()} waits for the records queued so far
+ * to be written. A record may be queued with an attachment, which is handed to the {@link BatchListener} once the
+ * batch containing that record has been written.
+ */
+public class GroupCommitTextWriter implements TextWriter {
+
+    private static final Logger logger = LoggerFactory.getLogger(GroupCommitTextWriter.class);
+    /** Maximum number of messages that can be queued before producers start to block. */
+    private static final int CAPACITY = 5000;
+    /** Initial size of the buffer in which a batch is encoded. */
+    private static final int INITIAL_BUFFER_SIZE = 64 * 1024;
+    /** Size beyond which the buffer is no longer grown, larger batches are written in several chunks. */
+    private static final int MAX_BUFFER_SIZE = 1024 * 1024;
+
+    /**
+     * Listener notified, from the writer thread, once a batch has been written.
+     */
+    public interface BatchListener {
+        /**
+         * Invoked once a batch of records has been written.
+         *
+         * @param lastAttachment
+         *             the attachment of the last record of the batch queued with one, or {@code null} if there is
+         *             none or if the batch could not be written.
+         * @throws IOException
+         *             If a problem occurs.
+         */
+        void batchWritten(Object lastAttachment) throws IOException;
+    }
+
+    /** A queued record along with its attachment. */
+    private static final class Record {
+        private final String text;
+        private final Object attachment;
+
+        private Record(String text, Object attachment) {
+            this.text = text;
+            this.attachment = attachment;
+        }
+    }
+
+    /** The wrapped writer. */
+    private final ByteBufferWriter writer;
+    /** Queue to store unpublished records. */
+    private final BlockingQueue<Record> queue;
+    /** Single threaded executor which runs the WriterTask. */
+    private final ExecutorService executorService;
+    /** Minimum time between two syncs in nanoseconds, 0 to sync after every batch and -1 to sync only on shutdown. */
+    private final long syncIntervalNanos;
+    /** Notified once a batch has been written, may be {@code null}. */
+    private final BatchListener listener;
+    private final AtomicLong bytesWritten = new AtomicLong();
+    /** Number of records queued so far. */
+    private final AtomicLong recordsQueued = new AtomicLong();
+    /** Guards {@link #recordsWritten}. */
+    private final Object recordsWrittenLock = new Object();
+    /** Number of records written so far. */
+    private long recordsWritten;
+    /** Flag for notifying the WriterTask to exit. */
+    private volatile boolean stopRequested;
+
+    /**
+     * Construct a new GroupCommitTextWriter.
+     *
+     * @param name
+     *            the name of the thread.
+     * @param syncInterval
+     *            the minimum interval between two syncs of the written records to the storage device; zero to sync
+     *            after each batch, unlimited to only sync when the writer is shutdown.
+     * @param writer
+     *            the writer to which the records are written.
+     * @param listener
+     *            notified once a batch has been written, may be {@code null}.
+     */
+    public GroupCommitTextWriter(final String name, final Duration syncInterval, final ByteBufferWriter writer,
+            final BatchListener listener) {
+        Reject.ifNull(syncInterval, writer);
+        this.writer = writer;
+        this.listener = listener;
+        this.syncIntervalNanos = syncInterval.isUnlimited() ? -1L : syncInterval.to(TimeUnit.NANOSECONDS);
+        this.queue = new LinkedBlockingQueue<>(CAPACITY);
+        this.stopRequested = false;
+        this.executorService = Executors.newSingleThreadExecutor(new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable runnable) {
+                return new Thread(runnable, name);
+            }
+        });
+        executorService.execute(new WriterTask());
+    }
+
+    /**
+     * The writer thread is responsible for emptying the queue of log records waiting to be written.
+     */
+    private class WriterTask implements Runnable {
+
+        private final CharsetEncoder encoder = UTF_8.newEncoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        private ByteBuffer buffer = ByteBuffer.allocateDirect(INITIAL_BUFFER_SIZE);
+        private long lastSync = System.nanoTime();
+        private boolean unsynced;
+        /** Number of bytes of the current batch already written because they did not fit in the buffer. */
+        private long spilled;
+
+        /**
+         * Runs until queue is empty AND we've been asked to terminate.
+         */
+        @Override
+        public void run() {
+            List<Record> batch = new ArrayList<>(CAPACITY);
+
+            boolean interrupted = false;
+            while (!stopRequested || !queue.isEmpty()) {
+                try {
+                    queue.drainTo(batch, CAPACITY);
+                    if (batch.isEmpty()) {
+                        Record record = queue.poll(POLLING_TIMEOUT, POLLING_TIMEOUT_UNIT);
+                        if (record != null) {
+                            batch.add(record);
+                            queue.drainTo(batch, CAPACITY - 1);
+                        }
+                    }
+                    if (!batch.isEmpty()) {
+                        writeBatch(batch);
+                        batch.clear();
+                    }
+                    if (unsynced && syncIntervalNanos >= 0 && System.nanoTime() - lastSync >= syncIntervalNanos) {
+                        sync();
+                    }
+                } catch (InterruptedException ex) {
+                    // Ignore. We'll rerun the loop
+                    // and presumably fall out.
+                    interrupted = true;
+                }
+            }
+            if (unsynced) {
+                sync();
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        private void writeBatch(List<Record> batch) {
+            Object lastAttachment = null;
+            try {
+                buffer.clear();
+                spilled = 0;
+                for (Record record : batch) {
+                    encode(record.text);
+                    if (record.attachment != null) {
+                        lastAttachment = record.attachment;
+                    }
+                }
+                buffer.flip();
+                final int size = buffer.remaining();
+                writer.write(buffer);
+                bytesWritten.addAndGet(spilled + size);
+                unsynced = true;
+            } catch (IOException e) {
+                logger.error("Error when writing a batch of {} messages", batch.size(), e);
+                lastAttachment = null;
+            }
+            if (listener != null) {
+                try {
+                    listener.batchWritten(lastAttachment);
+                } catch (Exception e) {
+                    logger.error("Error when notifying that a batch of messages has been written", e);
+                }
+            }
+            synchronized (recordsWrittenLock) {
+                recordsWritten += batch.size();
+                recordsWrittenLock.notifyAll();
+            }
+        }
+
+        /** Encodes the record at the end of the buffer. */
+        private void encode(String record) throws IOException {
+            final CharBuffer chars = CharBuffer.wrap(record);
+            encoder.reset();
+            CoderResult result;
+            while ((result = encoder.encode(chars, buffer, true)).isOverflow()) {
+                makeRoom();
+            }
+            if (result.isError()) {
+                result.throwException();
+            }
+            while (encoder.flush(buffer).isOverflow()) {
+                makeRoom();
+            }
+        }
+
+        /** Grows the buffer or, once it has reached its maximum size, writes out its content. */
+        private void makeRoom() throws IOException {
+            buffer.flip();
+            if (buffer.capacity() < MAX_BUFFER_SIZE) {
+                final ByteBuffer larger = ByteBuffer.allocateDirect(Math.min(buffer.capacity() * 2, MAX_BUFFER_SIZE));
+                larger.put(buffer);
+                buffer = larger;
+            } else {
+                spilled += buffer.remaining();
+                writer.write(buffer);
+                buffer.clear();
+            }
+        }
+
+        private void sync() {
+            try {
+                writer.sync();
+            } catch (IOException e) {
+                logger.error("Error when syncing the written messages", e);
+            }
+            lastSync = System.nanoTime();
+            unsynced = false;
+        }
+    }
+
+    /**
+     * Write the log record asynchronously.
+     *
+     * @param record
+     *            the log record to write.
+     */
+    @Override
+    public void write(String record) throws IOException {
+        write(record, null);
+    }
+
+    /**
+     * Write the log record asynchronously, along with an attachment handed to the {@link BatchListener} once the
+     * record has been written.
+     *
+     * @param record
+     *            the log record to write.
+     * @param attachment
+     *            the attachment of the record, may be {@code null}.
+     * @throws IOException
+     *            If this writer has been shutdown.
+     */
+    public void write(String record, Object attachment) throws IOException {
+        final Record queued = new Record(record, attachment);
+        boolean interrupted = false;
+        boolean enqueued = false;
+        while (!stopRequested) {
+            // Put request on queue for writer
+            try {
+                queue.put(queued);
+                recordsQueued.incrementAndGet();
+                enqueued = true;
+                break;
+            } catch (InterruptedException e) {
+                // We expect this to happen. Just ignore it and hopefully
+                // drop out in the next try.
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        // Inform caller if this writer has been shutdown
+        if (!enqueued) {
+            throw new IOException("Writer closed");
+        }
+    }
+
+    /**
+     * Waits for the records queued so far to be written. The records are not synced, they are synced according to
+     * the sync interval.
+     */
+    @Override
+    public void flush() {
+        final long queued = recordsQueued.get();
+        boolean interrupted = false;
+        synchronized (recordsWrittenLock) {
+            while (recordsWritten < queued && !executorService.isTerminated()) {
+                try {
+                    recordsWrittenLock.wait(POLLING_TIMEOUT_UNIT.toMillis(POLLING_TIMEOUT));
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public long getBytesWritten() {
+        return bytesWritten.get();
+    }
+
+    /**
+     * Writes and syncs the queued records, then closes the wrapped writer.
+     */
+    @Override
+    public void shutdown() {
+        stopRequested = true;
+
+        // Wait for writer thread to terminate
+        executorService.shutdown();
+        boolean interrupted = false;
+        while (!executorService.isTerminated()) {
+            try {
+                executorService.awaitTermination(1, TimeUnit.MINUTES);
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+
+        try {
+            writer.close();
+        } catch (IOException e) {
+            logger.error("Error when closing the writer", e);
+        }
+
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
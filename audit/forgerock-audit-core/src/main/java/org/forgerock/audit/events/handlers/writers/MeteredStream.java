@@ -12,6 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2015-2016 ForgeRock AS.
+ * Portions copyright 2026 Open Source Solution Technology Corporation
  */
 package org.forgerock.audit.events.handlers.writers;
 
@@ -109,6 +110,16 @@ public final class MeteredStream extends OutputStream {
         out.close();
     }
 
+    /**
+     * Accounts for bytes written directly to the target output stream, for example through its channel.
+     *
+     * @param length
+     *            The number of bytes written to the target output stream.
+     */
+    void addBytesWritten(long length) {
+        written += length;
+    }
+
     /**
      * Returns the number of bytes written in this stream.
      *
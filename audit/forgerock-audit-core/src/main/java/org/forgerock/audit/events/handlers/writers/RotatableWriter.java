@@ -12,6 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2015-2016 ForgeRock AS.
+ * Portions copyright 2026 Open Source Solution Technology Corporation
  */
 
 package org.forgerock.audit.events.handlers.writers;
@@ -23,6 +24,8 @@ import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.OutputStreamWriter;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.charset.StandardCharsets;
 import java.util.HashSet;
 import java.util.LinkedList;
@@ -61,7 +64,7 @@ import org.slf4j.LoggerFactory;
 /**
  * Creates an {@link RotatableWriter} that supports file rotation and retention.
  */
-public class RotatableWriter implements TextWriter, RotatableObject {
+public class RotatableWriter implements TextWriter, ByteBufferWriter, RotatableObject {
 
     private static final Logger logger = LoggerFactory.getLogger(RotatableWriter.class);
     private static final Duration ZERO = Duration.duration("zero");
@@ -80,6 +83,7 @@ public class RotatableWriter implements TextWriter, RotatableObject {
     private MeteredStream meteredStream;
     /** The underlying buffered writer using the output stream. */
     private BufferedWriter writer;
+    private FileChannel channel;
     private final ReentrantReadWriteLock readWriteLock = new ReentrantReadWriteLock();
     private final RolloverLifecycleHook rolloverLifecycleHook;
 
@@ -318,6 +322,46 @@ public class RotatableWriter implements TextWriter, RotatableObject {
         rotateIfNeeded();
     }
 
+    /**
+     * Writes the remaining bytes of the buffer to the current file.
+     * <p>
+     * Unlike {@link #write(String)}, this method does not check whether the file must be rotated: the caller is
+     * expected to call {@link #rotateIfNeeded()} when appropriate, or to rely on the scheduled checks.
+     *
+     * @param buffer
+     *            The bytes to write.
+     * @throws IOException
+     *             If a problem occurs.
+     */
+    @Override
+    public void write(ByteBuffer buffer) throws IOException {
+        ReadLock lock = readWriteLock.readLock();
+        try {
+            lock.lock();
+            // Text written by the rotation hooks must come first
+            writer.flush();
+            final int length = buffer.remaining();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            meteredStream.addBytesWritten(length);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void sync() throws IOException {
+        ReadLock lock = readWriteLock.readLock();
+        try {
+            lock.lock();
+            writer.flush();
+            channel.force(false);
+        } finally {
+            lock.unlock();
+        }
+    }
+
     /**
      * Forces a rotation of the writer.
      *
@@ -344,6 +388,7 @@ public class RotatableWriter implements TextWriter, RotatableObject {
     private BufferedWriter constructWriter(File csvFile, boolean append)
             throws IOException {
         FileOutputStream stream = new FileOutputStream(csvFile, append);
+        channel = stream.getChannel();
         meteredStream = new MeteredStream(stream, file.length());
         OutputStreamWriter osw = new OutputStreamWriter(meteredStream, StandardCharsets.UTF_8);
         return new BufferedWriter(osw);
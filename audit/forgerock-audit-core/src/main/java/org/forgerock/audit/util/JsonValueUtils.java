@@ -12,10 +12,13 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2015-2016 ForgeRock AS.
+ * Portions copyright 2026 Open Source Solution Technology Corporation
  */
 
 package org.forgerock.audit.util;
 
+import static org.forgerock.util.query.QueryFilterOperators.EQUALS;
+
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
@@ -28,6 +31,8 @@ import java.util.TreeMap;
 
 import org.forgerock.json.JsonPointer;
 import org.forgerock.json.JsonValue;
+import org.forgerock.json.JsonValueFilterCompiler;
+import org.forgerock.util.Predicate;
 import org.forgerock.util.query.QueryFilter;
 import org.forgerock.util.query.QueryFilterVisitor;
 import org.slf4j.Logger;
@@ -133,7 +138,20 @@ public final class JsonValueUtils {
      *         a null value, an empty string will be returned.
      */
     public static String extractValueAsString(final JsonValue json, final String fieldName) {
-        JsonValue value = json.get(new JsonPointer(fieldName));
+        return extractValueAsString(json, new JsonPointer(fieldName));
+    }
+
+    /**
+     * Extracts String representation of field identified by <code>field</code> from <code>json</code> object.
+     *
+     * @param json the {@link JsonValue} object from which to extract a value.
+     * @param field the pointer to the field.
+     *
+     * @return A String representation of the field's value, or {@code null} if the specified field is not present
+     *         or has a null value.
+     */
+    public static String extractValueAsString(final JsonValue json, final JsonPointer field) {
+        JsonValue value = json.get(field);
         if (value == null || value.isNull()) {
             return null;
         } else if (value.isString()) {
@@ -143,7 +161,7 @@ public final class JsonValueUtils {
             try {
                 rawStr = MAPPER.writeValueAsString(value.getObject());
             } catch (JsonProcessingException e) {
-                LOGGER.error("Unable to write the value for field {} as a string.", fieldName);
+                LOGGER.error("Unable to write the value for field {} as a string.", field);
             }
             return rawStr;
         }
@@ -267,6 +285,24 @@ public final class JsonValueUtils {
 
     }
 
+    /**
+     * Compiles query filters into predicates matching JsonValues as {@link #JSONVALUE_FILTER_VISITOR} does.
+     */
+    public static final JsonValueFilterCompiler JSONVALUE_FILTER_COMPILER = new JsonValueFilterCompiler() {
+        @Override
+        public Predicate<JsonValue> visitEqualsFilter(final Void p, final JsonPointer field,
+                final Object valueAssertion) {
+            return everyValue(field, EQUALS, valueAssertion);
+        }
+
+        @Override
+        public Predicate<JsonValue> visitExtendedMatchFilter(final Void p, final JsonPointer field,
+                final String matchingRuleId, final Object valueAssertion) {
+            // Extended filters are not supported
+            return literal(false);
+        }
+    };
+
     /**
      * A generic JsonValue Query Filter Visitor.
      */
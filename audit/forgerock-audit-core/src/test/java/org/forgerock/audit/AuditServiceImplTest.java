@@ -14,6 +14,7 @@
  * Copyright 2015-2016 ForgeRock AS.
  * 
  * Portions Copyrighted 2019 OGIS-RI Co., Ltd.
+ * Portions copyright 2026 Open Source Solution Technology Corporation
  */
 
 package org.forgerock.audit;
@@ -31,6 +32,7 @@ import static org.forgerock.json.resource.Requests.newQueryRequest;
 import static org.forgerock.json.resource.Responses.newQueryResponse;
 import static org.forgerock.json.resource.Responses.newResourceResponse;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willAnswer;
 import static org.mockito.Mockito.any;
 import static org.mockito.Mockito.eq;
 import static org.mockito.Mockito.mock;
@@ -48,7 +50,9 @@ import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CountDownLatch;
 
+import org.forgerock.audit.events.AuditEventEncoding;
 import org.forgerock.audit.events.EventTopicsMetaData;
 import org.forgerock.audit.events.handlers.AuditEventHandler;
 import org.forgerock.audit.events.handlers.impl.PassThroughAuditEventHandler;
@@ -72,6 +76,9 @@ import org.forgerock.services.context.Context;
 import org.forgerock.services.context.RootContext;
 import org.forgerock.util.promise.Promise;
 import org.forgerock.util.test.assertj.AssertJPromiseAssert;
+import org.mockito.ArgumentCaptor;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
@@ -194,6 +201,188 @@ public class AuditServiceImplTest {
                 .isInstanceOf(InternalServerErrorException.class);
     }
 
+    @Test
+    public void shouldShareEventEncodingsBetweenHandlers() throws Exception {
+        //given
+        final AuditServiceConfiguration configuration = getAuditServiceConfiguration(QUERY_HANDLER_NAME, "access");
+        final PassThroughAuditEventHandler queryHandler = spyPassThroughAuditEventHandler(QUERY_HANDLER_NAME);
+        final PassThroughAuditEventHandler otherHandler = spyPassThroughAuditEventHandler("otherHandler");
+        final Set<AuditEventHandler> handlers = asSet(queryHandler, otherHandler);
+        final AuditService auditService = new AuditServiceImpl(configuration, eventTopicsMetaData, handlers);
+        auditService.startup();
+        final CreateRequest createRequest = makeCreateRequest();
+
+        //when
+        auditService.handleCreate(new RootContext(), createRequest);
+
+        //then
+        final ArgumentCaptor<Context> queryContext = ArgumentCaptor.forClass(Context.class);
+        final ArgumentCaptor<JsonValue> queryEvent = ArgumentCaptor.forClass(JsonValue.class);
+        verify(queryHandler).publishEvent(queryContext.capture(), eq("access"), queryEvent.capture());
+        final ArgumentCaptor<Context> otherContext = ArgumentCaptor.forClass(Context.class);
+        final ArgumentCaptor<JsonValue> otherEvent = ArgumentCaptor.forClass(JsonValue.class);
+        verify(otherHandler).publishEvent(otherContext.capture(), eq("access"), otherEvent.capture());
+        final AuditEventEncoding encoding = AuditEventEncoding.of(queryContext.getValue(), queryEvent.getValue());
+        assertThat(AuditEventEncoding.of(otherContext.getValue(), otherEvent.getValue())).isSameAs(encoding);
+        assertThat(encoding.getEvent()).isSameAs(createRequest.getContent());
+    }
+
+    @Test
+    public void shouldNotWaitForSlowHandlersWhenDispatchingInParallel() throws Exception {
+        //given
+        final AuditServiceConfiguration configuration = getAuditServiceConfiguration(QUERY_HANDLER_NAME, "access");
+        configuration.setParallelHandlerDispatch(true);
+        configuration.setHandlerDispatchQueueCapacity(1);
+        final PassThroughAuditEventHandler queryHandler = spyPassThroughAuditEventHandler(QUERY_HANDLER_NAME);
+        final AuditEventHandler slowHandler = mock(AuditEventHandler.class);
+        given(slowHandler.isEnabled()).willReturn(true);
+        given(slowHandler.getName()).willReturn("slowHandler");
+        given(slowHandler.getHandledTopics()).willReturn(new HashSet<>(Arrays.asList("access")));
+        final CountDownLatch release = new CountDownLatch(1);
+        willAnswer(new Answer<Promise<ResourceResponse, ResourceException>>() {
+            @Override
+            public Promise<ResourceResponse, ResourceException> answer(InvocationOnMock invocation) throws Throwable {
+                release.await();
+                return newResourceResponse(null, null, json(object())).asPromise();
+            }
+        }).given(slowHandler).publishEvent(any(Context.class), eq("access"), any(JsonValue.class));
+        final Set<AuditEventHandler> handlers = asSet(queryHandler, slowHandler);
+        final AuditService auditService = new AuditServiceImpl(configuration, eventTopicsMetaData, handlers);
+        auditService.startup();
+
+        //when
+        final CreateRequest createRequest = makeCreateRequest();
+        final Promise<ResourceResponse, ResourceException> promise =
+                auditService.handleCreate(new RootContext(), createRequest);
+        // the first event is being published, the second one is queued and the third one is dropped
+        auditService.handleCreate(new RootContext(), makeCreateRequest());
+        auditService.handleCreate(new RootContext(), makeCreateRequest());
+        final JsonValue statistics = auditService.handleAction(new RootContext(),
+                Requests.newActionRequest("", AuditServiceProxy.ACTION_DISPATCH_STATISTICS)).get().getJsonContent();
+        release.countDown();
+        auditService.shutdown();
+
+        //then
+        assertThat(promise.get().getContent().asMap()).isEqualTo(createRequest.getContent().asMap());
+        verify(queryHandler, times(3)).publishEvent(any(Context.class), eq("access"), any(JsonValue.class));
+        verify(slowHandler, times(2)).publishEvent(any(Context.class), eq("access"), any(JsonValue.class));
+        assertThat(statistics.get("slowHandler").get("dispatched").asLong()).isEqualTo(2L);
+        assertThat(statistics.get("slowHandler").get("dropped").asLong()).isEqualTo(1L);
+        assertThat(statistics.isDefined(QUERY_HANDLER_NAME)).isFalse();
+    }
+
+    @Test
+    public void shouldNotShareEventsModifiedByHandlersWhenDispatchingInParallel() throws Exception {
+        //given
+        final AuditServiceConfiguration configuration = getAuditServiceConfiguration(QUERY_HANDLER_NAME, "access");
+        configuration.setParallelHandlerDispatch(true);
+        final PassThroughAuditEventHandler queryHandler = spyPassThroughAuditEventHandler(QUERY_HANDLER_NAME);
+        final CountDownLatch modified = new CountDownLatch(1);
+        final AuditEventHandler mutatingHandler = mock(AuditEventHandler.class);
+        given(mutatingHandler.isEnabled()).willReturn(true);
+        given(mutatingHandler.getName()).willReturn("mutatingHandler");
+        given(mutatingHandler.getHandledTopics()).willReturn(new HashSet<>(Arrays.asList("access")));
+        willAnswer(new Answer<Promise<ResourceResponse, ResourceException>>() {
+            @Override
+            public Promise<ResourceResponse, ResourceException> answer(InvocationOnMock invocation) throws Throwable {
+                final JsonValue event = (JsonValue) invocation.getArguments()[2];
+                event.remove("transactionId");
+                event.put("modified", true);
+                modified.countDown();
+                return newResourceResponse(null, null, event).asPromise();
+            }
+        }).given(mutatingHandler).publishEvent(any(Context.class), eq("access"), any(JsonValue.class));
+        final Map<String, Object> received = new HashMap<>();
+        final CountDownLatch read = new CountDownLatch(1);
+        final AuditEventHandler readingHandler = mock(AuditEventHandler.class);
+        given(readingHandler.isEnabled()).willReturn(true);
+        given(readingHandler.getName()).willReturn("readingHandler");
+        given(readingHandler.getHandledTopics()).willReturn(new HashSet<>(Arrays.asList("access")));
+        willAnswer(new Answer<Promise<ResourceResponse, ResourceException>>() {
+            @Override
+            public Promise<ResourceResponse, ResourceException> answer(InvocationOnMock invocation) throws Throwable {
+                // only reads the event once the other handler has modified its own
+                modified.await();
+                final JsonValue event = (JsonValue) invocation.getArguments()[2];
+                final Context context = (Context) invocation.getArguments()[0];
+                received.putAll(event.asMap());
+                received.put("encodedEvent", AuditEventEncoding.of(context, event).getEvent().asMap());
+                read.countDown();
+                return newResourceResponse(null, null, event).asPromise();
+            }
+        }).given(readingHandler).publishEvent(any(Context.class), eq("access"), any(JsonValue.class));
+        final Set<AuditEventHandler> handlers = asSet(queryHandler, mutatingHandler, readingHandler);
+        final AuditService auditService = new AuditServiceImpl(configuration, eventTopicsMetaData, handlers);
+        auditService.startup();
+        final CreateRequest createRequest = makeCreateRequest();
+
+        //when
+        final Promise<ResourceResponse, ResourceException> promise =
+                auditService.handleCreate(new RootContext(), createRequest);
+        read.await();
+        auditService.shutdown();
+
+        //then
+        final Map<String, Object> published = createRequest.getContent().asMap();
+        assertThat(published.containsKey("modified")).isFalse();
+        assertThat(published.get("transactionId")).isEqualTo("transactionId");
+        assertThat(promise.get().getContent().asMap()).isEqualTo(published);
+        assertThat(received.remove("encodedEvent")).isEqualTo(published);
+        assertThat(received).isEqualTo(published);
+    }
+
+    @Test
+    public void shouldCountFailedEventsOnlyAsFailedWhenDispatchingInParallel() throws Exception {
+        //given
+        final AuditServiceConfiguration configuration = getAuditServiceConfiguration(QUERY_HANDLER_NAME, "access");
+        configuration.setParallelHandlerDispatch(true);
+        final PassThroughAuditEventHandler queryHandler = spyPassThroughAuditEventHandler(QUERY_HANDLER_NAME);
+        final AuditEventHandler failingHandler = mock(AuditEventHandler.class);
+        given(failingHandler.isEnabled()).willReturn(true);
+        given(failingHandler.getName()).willReturn("failingHandler");
+        given(failingHandler.getHandledTopics()).willReturn(new HashSet<>(Arrays.asList("access")));
+        given(failingHandler.publishEvent(any(Context.class), eq("access"), any(JsonValue.class)))
+                .willReturn(new InternalServerErrorException().<ResourceResponse>asPromise())
+                .willReturn(newResourceResponse(null, null, json(object())).asPromise());
+        final Set<AuditEventHandler> handlers = asSet(queryHandler, failingHandler);
+        final AuditService auditService = new AuditServiceImpl(configuration, eventTopicsMetaData, handlers);
+        auditService.startup();
+
+        //when
+        auditService.handleCreate(new RootContext(), makeCreateRequest());
+        auditService.handleCreate(new RootContext(), makeCreateRequest());
+        auditService.shutdown();
+        final JsonValue statistics = auditService.handleAction(new RootContext(),
+                Requests.newActionRequest("", AuditServiceProxy.ACTION_DISPATCH_STATISTICS)).get().getJsonContent();
+
+        //then
+        assertThat(statistics.get("failingHandler").get("dispatched").asLong()).isEqualTo(2L);
+        assertThat(statistics.get("failingHandler").get("published").asLong()).isEqualTo(1L);
+        assertThat(statistics.get("failingHandler").get("failed").asLong()).isEqualTo(1L);
+    }
+
+    @Test
+    public void shouldNotCreateDispatchingThreadsBeforeStartup() throws Exception {
+        //given
+        final AuditServiceConfiguration configuration = getAuditServiceConfiguration(QUERY_HANDLER_NAME, "access");
+        configuration.setParallelHandlerDispatch(true);
+        final PassThroughAuditEventHandler queryHandler = spyPassThroughAuditEventHandler(QUERY_HANDLER_NAME);
+        final PassThroughAuditEventHandler otherHandler = spyPassThroughAuditEventHandler("unstartedHandler");
+        final Set<AuditEventHandler> handlers = asSet(queryHandler, otherHandler);
+
+        //when
+        final AuditService auditService = new AuditServiceImpl(configuration, eventTopicsMetaData, handlers);
+        final boolean createdBeforeStartup = isDispatchingThreadAlive("unstartedHandler");
+        auditService.startup();
+        auditService.handleCreate(new RootContext(), makeCreateRequest());
+        final boolean createdOnStartup = isDispatchingThreadAlive("unstartedHandler");
+        auditService.shutdown();
+
+        //then
+        assertThat(createdBeforeStartup).isFalse();
+        assertThat(createdOnStartup).isTrue();
+    }
+
     @Test
     public void shouldIgnoreCreateRequestExceptionsNotComingFromHandlerConfiguredForQueries() throws Exception {
         //given
@@ -808,6 +997,15 @@ public class AuditServiceImplTest {
         return spy(new PassThroughAuditEventHandler(configuration, eventTopicsMetaData));
     }
 
+    private static boolean isDispatchingThreadAlive(String handlerName) {
+        for (Thread thread : Thread.getAllStackTraces().keySet()) {
+            if (thread.getName().equals("audit-dispatcher-" + handlerName) && thread.isAlive()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     private Set<AuditEventHandler> asSet(AuditEventHandler... entries) {
         return new HashSet<>(Arrays.asList(entries));
 
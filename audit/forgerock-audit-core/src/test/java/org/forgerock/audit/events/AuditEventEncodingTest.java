@@ -0,0 +1,96 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Open Source Solution Technology Corporation
+ */
+package org.forgerock.audit.events;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.forgerock.json.JsonValue.array;
+import static org.forgerock.json.JsonValue.field;
+import static org.forgerock.json.JsonValue.json;
+import static org.forgerock.json.JsonValue.object;
+
+import java.util.Map;
+
+import org.forgerock.json.JsonPointer;
+import org.forgerock.json.JsonValue;
+import org.forgerock.services.context.RootContext;
+import org.testng.annotations.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+@SuppressWarnings("javadoc")
+public class AuditEventEncodingTest {
+
+    private final JsonValue event = json(object(
+            field("_id", "id"),
+            field("eventName", "AM-ACCESS-OUTCOME"),
+            field("response", object(field("status", "SUCCESSFUL"), field("detail", array("a", 1))))));
+
+    @Test
+    public void shouldMemoizeJsonBytes() throws Exception {
+        AuditEventEncoding encoding = new AuditEventEncoding(event);
+
+        byte[] bytes = encoding.getJsonBytes();
+
+        assertThat(encoding.getJsonBytes()).isSameAs(bytes);
+        assertThat(new ObjectMapper().readValue(bytes, Map.class)).isEqualTo(event.getObject());
+    }
+
+    @Test
+    public void shouldExtractFieldsAsStrings() throws Exception {
+        AuditEventEncoding encoding = new AuditEventEncoding(event);
+
+        assertThat(encoding.getFieldAsString("/eventName")).isEqualTo("AM-ACCESS-OUTCOME");
+        assertThat(encoding.getFieldAsString("/response/detail")).isEqualTo("[\"a\",1]");
+        assertThat(encoding.getFieldAsString("/response/missing")).isNull();
+        assertThat(encoding.getFieldAsString("/response/missing")).isNull();
+        String detail = encoding.getFieldAsString("/response/detail");
+        assertThat(encoding.getFieldAsString("/response/detail")).isSameAs(detail);
+    }
+
+    @Test
+    public void shouldExtractFieldsAsStringsThroughPointers() throws Exception {
+        AuditEventEncoding encoding = new AuditEventEncoding(event);
+        JsonPointer detail = new JsonPointer("/response/detail");
+
+        assertThat(encoding.getFieldAsString(new JsonPointer("/eventName"))).isEqualTo("AM-ACCESS-OUTCOME");
+        assertThat(encoding.getFieldAsString(detail)).isEqualTo("[\"a\",1]");
+        assertThat(encoding.getFieldAsString(new JsonPointer("/response/missing"))).isNull();
+        assertThat(encoding.getFieldAsString(detail)).isSameAs(encoding.getFieldAsString(detail));
+    }
+
+    @Test
+    public void shouldShareEncodingsOfTheEventAttachedToTheContext() throws Exception {
+        AuditEventEncodingContext context = new AuditEventEncodingContext(new RootContext(), event);
+
+        assertThat(AuditEventEncoding.of(context, event)).isSameAs(context.getEncoding());
+        assertThat(AuditEventEncoding.of(context, event.copy())).isNotSameAs(context.getEncoding());
+        assertThat(AuditEventEncoding.of(new RootContext(), event).getEvent()).isSameAs(event);
+        assertThat(AuditEventEncoding.of(null, event).getEvent()).isSameAs(event);
+    }
+
+    @Test
+    public void shouldNotSerializeTheEventWithTheContext() throws Exception {
+        AuditEventEncodingContext context = new AuditEventEncodingContext(new RootContext(), event);
+
+        JsonValue saved = context.toJsonValue();
+        AuditEventEncodingContext restored =
+                new AuditEventEncodingContext(saved, getClass().getClassLoader());
+
+        assertThat(saved.toString()).doesNotContain("AM-ACCESS-OUTCOME");
+        assertThat(restored.getEncoding()).isNull();
+        assertThat(AuditEventEncoding.of(restored, event).getEvent()).isSameAs(event);
+    }
+}
@@ -12,6 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2015-2016 ForgeRock AS.
+ * Portions copyright 2026 Open Source Solution Technology Corporation
  */
 package org.forgerock.audit.handlers.csv;
 
@@ -24,7 +25,7 @@ import static org.forgerock.audit.events.AuditEventHelper.getAuditEventSchema;
 import static org.forgerock.audit.events.AuditEventHelper.getPropertyType;
 import static org.forgerock.audit.events.AuditEventHelper.jsonPointerToDotNotation;
 import static org.forgerock.audit.util.JsonSchemaUtils.generateJsonPointers;
-import static org.forgerock.audit.util.JsonValueUtils.JSONVALUE_FILTER_VISITOR;
+import static org.forgerock.audit.util.JsonValueUtils.JSONVALUE_FILTER_COMPILER;
 import static org.forgerock.audit.util.JsonValueUtils.expand;
 import static org.forgerock.json.JsonValue.field;
 import static org.forgerock.json.JsonValue.json;
@@ -55,6 +56,7 @@ import java.util.concurrent.ConcurrentMap;
 import javax.inject.Inject;
 
 import org.forgerock.audit.Audit;
+import org.forgerock.audit.events.AuditEventEncoding;
 import org.forgerock.audit.events.EventTopicsMetaData;
 import org.forgerock.audit.events.handlers.AuditEventHandlerBase;
 import org.forgerock.audit.handlers.csv.CsvAuditEventHandlerConfiguration.CsvSecurity;
@@ -63,7 +65,6 @@ import org.forgerock.audit.providers.KeyStoreHandlerProvider;
 import org.forgerock.audit.retention.TimeStampFileNamingPolicy;
 import org.forgerock.audit.secure.JcaKeyStoreHandler;
 import org.forgerock.audit.secure.KeyStoreHandler;
-import org.forgerock.audit.util.JsonValueUtils;
 import org.forgerock.json.JsonPointer;
 import org.forgerock.json.JsonValue;
 import org.forgerock.json.resource.ActionRequest;
@@ -79,6 +80,7 @@ import org.forgerock.json.resource.ResourceException;
 import org.forgerock.json.resource.ResourceResponse;
 import org.forgerock.json.resource.Responses;
 import org.forgerock.services.context.Context;
+import org.forgerock.util.Predicate;
 import org.forgerock.util.Reject;
 import org.forgerock.util.promise.Promise;
 import org.forgerock.util.query.QueryFilter;
@@ -237,7 +239,7 @@ public class CsvAuditEventHandler extends AuditEventHandlerBase {
     public Promise<ResourceResponse, ResourceException> publishEvent(Context context, String topic, JsonValue event) {
         try {
             checkTopic(topic);
-            publishEventWithRetry(topic, event);
+            publishEventWithRetry(topic, AuditEventEncoding.of(context, event));
             return newResourceResponse(
                     event.get(ResourceResponse.FIELD_CONTENT_ID).asString(), null, event).asPromise();
         } catch (ResourceException e) {
@@ -255,7 +257,7 @@ public class CsvAuditEventHandler extends AuditEventHandlerBase {
     /**
      * Publishes the provided event, and returns the writer used.
      */
-    private void publishEventWithRetry(final String topic, final JsonValue event)
+    private void publishEventWithRetry(final String topic, final AuditEventEncoding event)
                     throws ResourceException {
         final CsvWriter csvWriter = getWriter(topic);
         try {
@@ -292,7 +294,7 @@ public class CsvAuditEventHandler extends AuditEventHandlerBase {
      * Uses lazy synchronization in case another thread may be resetting the writer. If the writer is still null
      * after synchronizing then the writer is reset.
      * <br/>
-     * This method is only intended for use by {@link #publishEventWithRetry(String, JsonValue)}.
+     * This method is only intended for use by {@link #publishEventWithRetry(String, AuditEventEncoding)}.
      */
     private CsvWriter getWriter(String topic) throws BadRequestException {
         CsvWriter csvWriter = writers.get(topic);
@@ -309,11 +311,11 @@ public class CsvAuditEventHandler extends AuditEventHandlerBase {
         return csvWriter;
     }
 
-    private CsvWriter writeEvent(final String topic, CsvWriter csvWriter, final JsonValue event)
+    private CsvWriter writeEvent(final String topic, CsvWriter csvWriter, final AuditEventEncoding event)
                     throws IOException {
         writeEntry(topic, csvWriter, event);
         EventBufferingConfiguration bufferConfig = configuration.getBuffering();
-        if (!bufferConfig.isEnabled() || !bufferConfig.isAutoFlush()) {
+        if (!bufferConfig.isEnabled() || (!bufferConfig.isAutoFlush() && !bufferConfig.isGroupCommit())) {
             csvWriter.flush();
         }
         return csvWriter;
@@ -445,11 +447,12 @@ public class CsvAuditEventHandler extends AuditEventHandlerBase {
         return new File(configuration.getLogDirectory(), prefix + type + ".csv");
     }
 
-    private void writeEntry(final String topic, final CsvWriter csvWriter, final JsonValue obj) throws IOException {
+    private void writeEntry(final String topic, final CsvWriter csvWriter, final AuditEventEncoding event)
+            throws IOException {
         Set<String> fieldOrder = fieldOrderByTopic.get(topic);
         Map<String, String> cells = new HashMap<>(fieldOrder.size());
         for (String key : fieldOrder) {
-            final String value = JsonValueUtils.extractValueAsString(obj, key);
+            final String value = event.getFieldAsString(key);
             if (value != null && !value.isEmpty()) {
                 cells.put(fieldDotNotationByField.get(key), value);
             }
@@ -505,6 +508,7 @@ public class CsvAuditEventHandler extends AuditEventHandlerBase {
             queryFilter = QueryFilter.alwaysTrue();
         }
         if (auditFile.exists()) {
+            final Predicate<JsonValue> predicate = JSONVALUE_FILTER_COMPILER.compile(queryFilter);
             try (ICsvMapReader reader = createCsvMapReader(auditFile)) {
                 // the header elements are used to map the values to the bean (names must match)
                 final String[] header = convertDotNotationToSlashes(reader.getHeader(true));
@@ -513,7 +517,7 @@ public class CsvAuditEventHandler extends AuditEventHandlerBase {
                 while ((entry = reader.read(header, processors)) != null) {
                     entry = convertDotNotationToSlashes(entry);
                     final JsonValue jsonEntry = expand(entry);
-                    if (queryFilter.accept(JSONVALUE_FILTER_VISITOR, jsonEntry)) {
+                    if (predicate.test(jsonEntry)) {
                         results.add(jsonEntry);
                     }
                 }
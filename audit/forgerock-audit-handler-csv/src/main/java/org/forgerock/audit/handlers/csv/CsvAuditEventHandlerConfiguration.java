@@ -12,6 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2015-2016 ForgeRock AS.
+ * Portions copyright 2026 Open Source Solution Technology Corporation
  */
 package org.forgerock.audit.handlers.csv;
 
@@ -46,7 +47,9 @@ import com.fasterxml.jackson.annotation.JsonPropertyDescription;
  *    },
  *    "buffering" : {
  *      "enabled" : "true",
- *      "autoFlush" : "true"
+ *      "autoFlush" : "true",
+ *      "groupCommit" : "true",
+ *      "syncInterval" : "1 second"
  *    }
  *  }
  * </pre>
@@ -332,12 +335,24 @@ public class CsvAuditEventHandlerConfiguration extends FileBasedEventHandlerConf
      */
     public static class EventBufferingConfiguration {
 
+        /** By default, events written by group commit are synced to disk every second. */
+        private static final String DEFAULT_SYNC_INTERVAL = "1 second";
+
         @JsonPropertyDescription("audit.handlers.csv.buffering.enabled")
         private boolean enabled;
 
         @JsonPropertyDescription("audit.handlers.csv.buffering.autoFlush")
         private boolean autoFlush = true;
 
+        @JsonPropertyDescription("audit.handlers.csv.buffering.groupCommit")
+        private boolean groupCommit;
+
+        @JsonPropertyDescription("audit.handlers.csv.buffering.syncInterval")
+        private String syncInterval = DEFAULT_SYNC_INTERVAL;
+
+        @JsonIgnore
+        private Duration syncIntervalDuration = Duration.duration(DEFAULT_SYNC_INTERVAL);
+
         /**
          * Indicates if event buffering is enabled.
          *
@@ -376,5 +391,58 @@ public class CsvAuditEventHandlerConfiguration extends FileBasedEventHandlerConf
             this.autoFlush = auto;
         }
 
+        /**
+         * Indicates if the buffered events are written by group commit: batches of events are written to the file
+         * at once, and synced to disk at most once per {@link #getSyncInterval() sync interval}. Group commit is
+         * also supported when security is enabled, the events being still chained by their HMAC one after the
+         * other.
+         *
+         * @return {@code true} if the buffered events are written by group commit.
+         */
+        public boolean isGroupCommit() {
+            return groupCommit;
+        }
+
+        /**
+         * Sets whether the buffered events are written by group commit.
+         *
+         * @param groupCommit
+         *            Indicates if the buffered events are written by group commit.
+         */
+        public void setGroupCommit(boolean groupCommit) {
+            this.groupCommit = groupCommit;
+        }
+
+        /**
+         * Gets the minimum interval between two syncs to disk of the events written by group commit.
+         *
+         * @return The sync interval, "zero" to sync after each batch or "unlimited" to only sync when the file is
+         *         closed.
+         */
+        public String getSyncInterval() {
+            return syncInterval;
+        }
+
+        /**
+         * Sets the minimum interval between two syncs to disk of the events written by group commit.
+         *
+         * @param syncInterval
+         *            The sync interval, "zero" to sync after each batch or "unlimited" to only sync when the file is
+         *            closed.
+         */
+        public void setSyncInterval(String syncInterval) {
+            this.syncInterval = syncInterval;
+            this.syncIntervalDuration = Duration.duration(syncInterval);
+        }
+
+        /**
+         * Get's {@link #getSyncInterval()} value as a {@link Duration}.
+         *
+         * @return The sync interval as a Duration object.
+         */
+        public Duration getSyncIntervalDuration() {
+            return syncIntervalDuration;
+        }
+
     }
 }
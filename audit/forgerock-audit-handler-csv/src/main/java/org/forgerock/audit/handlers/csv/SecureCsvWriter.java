@@ -12,6 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2015-2016 ForgeRock AS.
+ * Portions copyright 2026 Open Source Solution Technology Corporation
  */
 package org.forgerock.audit.handlers.csv;
 
@@ -43,6 +44,9 @@ import java.util.concurrent.locks.ReentrantLock;
 import javax.crypto.SecretKey;
 import javax.crypto.spec.SecretKeySpec;
 
+import org.forgerock.audit.events.handlers.writers.ByteBufferWriter;
+import org.forgerock.audit.events.handlers.writers.GroupCommitTextWriter;
+import org.forgerock.audit.events.handlers.writers.GroupCommitTextWriter.BatchListener;
 import org.forgerock.audit.events.handlers.writers.RotatableWriter;
 import org.forgerock.audit.events.handlers.writers.TextWriter;
 import org.forgerock.audit.events.handlers.writers.TextWriterAdapter;
@@ -73,6 +77,9 @@ class SecureCsvWriter implements CsvWriter, RolloverLifecycleHook {
 
     private final CsvFormatter csvFormatter;
     private final String[] headers;
+    private final boolean groupCommit;
+    /** The writer to which the rows are queued with group commit, {@code null} otherwise. */
+    private GroupCommitTextWriter groupCommitWriter;
     private Writer csvWriter;
     private RotatableWriter rotatableWriter;
 
@@ -81,6 +88,8 @@ class SecureCsvWriter implements CsvWriter, RolloverLifecycleHook {
     private final ReentrantLock signatureLock = new ReentrantLock();
     private final Runnable signatureTask;
     private KeyStoreSecureStorage secureStorage;
+    /** Guards the writes to the secureStorage, which may also be done by the group commit writer thread. */
+    private final Object storageLock = new Object();
     private final Duration signatureInterval;
     private ScheduledFuture<?> scheduledSignature;
 
@@ -100,6 +109,7 @@ class SecureCsvWriter implements CsvWriter, RolloverLifecycleHook {
         this.keyStoreFile = new File(csvFile.getPath() + ".keystore");
         this.headers = checkNotNull(headers, "The headers can't be null.");
         this.csvFormatter = new CsvFormatter(csvPreference);
+        this.groupCommit = config.getBuffering().isEnabled() && config.getBuffering().isGroupCommit();
         this.csvWriter = constructWriter(csvFile, fileAlreadyInitialized, config);
         this.hmacCalculator = new HmacCalculator(CsvSecureConstants.HMAC_ALGORITHM);
 
@@ -183,6 +193,14 @@ class SecureCsvWriter implements CsvWriter, RolloverLifecycleHook {
         // Rotation will trigger pre and post rotation actions which write to the file,
         // so no concurrent write must be performed during this time.
         signatureLock.lock();
+        if (groupCommit) {
+            // The queued rows belong to the current file, before its final signature
+            try {
+                csvWriter.flush();
+            } catch (IOException e) {
+                logger.error("Unable to write the queued rows before rolling over", e);
+            }
+        }
     }
 
     @Override
@@ -193,8 +211,16 @@ class SecureCsvWriter implements CsvWriter, RolloverLifecycleHook {
     private void initHmacCalculatorWithRandomData() throws SecureStorageException {
         this.hmacCalculator.setCurrentKey(getRandomBytes());
         // As we start to work, store the key as the initial one and the current one too
-        secureStorage.writeInitialKey(hmacCalculator.getCurrentKey());
-        secureStorage.writeCurrentKey(hmacCalculator.getCurrentKey());
+        synchronized (storageLock) {
+            secureStorage.writeInitialKey(hmacCalculator.getCurrentKey());
+            secureStorage.writeCurrentKey(hmacCalculator.getCurrentKey());
+        }
+    }
+
+    private void writeCurrentKey(SecretKey currentKey) throws SecureStorageException {
+        synchronized (storageLock) {
+            secureStorage.writeCurrentKey(currentKey);
+        }
     }
 
     private byte[] getRandomBytes() {
@@ -205,6 +231,10 @@ class SecureCsvWriter implements CsvWriter, RolloverLifecycleHook {
 
     private Writer constructWriter(File csvFile, boolean append, CsvAuditEventHandlerConfiguration config)
             throws IOException {
+        if (groupCommit) {
+            return new TextWriterAdapter(constructGroupCommitWriter(csvFile, append, config));
+        }
+
         TextWriter textWriter;
         if (config.getFileRotation().isRotationEnabled()) {
             rotatableWriter = new RotatableWriter(csvFile, config, append, this);
@@ -215,11 +245,42 @@ class SecureCsvWriter implements CsvWriter, RolloverLifecycleHook {
         }
 
         if (config.getBuffering().isEnabled()) {
-            logger.warn("Secure CSV logging does not support buffering. Buffering config will be ignored.");
+            logger.warn("Secure CSV logging only supports buffering with group commit. Buffering config will be "
+                    + "ignored.");
         }
         return new TextWriterAdapter(textWriter);
     }
 
+    private TextWriter constructGroupCommitWriter(File csvFile, boolean append,
+            CsvAuditEventHandlerConfiguration config) throws IOException {
+        ByteBufferWriter byteBufferWriter;
+        if (config.getFileRotation().isRotationEnabled()) {
+            // Rotation is left to the scheduled checks: the writer thread must never wait for the signatureLock,
+            // which may be held by a thread waiting for room in the queue.
+            rotatableWriter = new RotatableWriter(csvFile, config, append, this);
+            rotatableWriter.registerRotationHooks(new SecureCsvWriterRotationHooks());
+            byteBufferWriter = rotatableWriter;
+        } else {
+            byteBufferWriter = new ByteBufferWriter.Channel(csvFile, append);
+        }
+        // Each row is queued with the key following it, the key of the last row of a batch is stored once the batch
+        // has been written, so that the stored key always matches the rows found in the file.
+        groupCommitWriter = new GroupCommitTextWriter("SecureCsvHandler",
+                config.getBuffering().getSyncIntervalDuration(), byteBufferWriter, new BatchListener() {
+                    @Override
+                    public void batchWritten(Object lastAttachment) throws IOException {
+                        if (lastAttachment != null) {
+                            try {
+                                writeCurrentKey((SecretKey) lastAttachment);
+                            } catch (SecureStorageException ex) {
+                                throw new IOException(ex);
+                            }
+                        }
+                    }
+                });
+        return groupCommitWriter;
+    }
+
     @Override
     public void flush() throws IOException {
         csvWriter.flush();
@@ -277,7 +338,9 @@ class SecureCsvWriter implements CsvWriter, RolloverLifecycleHook {
             logger.trace("Signature written to file");
 
             // Store the current signature into the Keystore
-            secureStorage.writeCurrentSignatureKey(new SecretKeySpec(lastSignature, SIGNATURE_ALGORITHM));
+            synchronized (storageLock) {
+                secureStorage.writeCurrentSignatureKey(new SecretKeySpec(lastSignature, SIGNATURE_ALGORITHM));
+            }
             logger.trace("Signature written to secureStorage");
         } catch (SecureStorageException ex) {
             logger.error(ex.getMessage(), ex);
@@ -299,7 +362,15 @@ class SecureCsvWriter implements CsvWriter, RolloverLifecycleHook {
      */
     @Override
     public boolean forceRotation() throws IOException {
-        return rotatableWriter != null ? rotatableWriter.forceRotation() : false;
+        if (rotatableWriter == null) {
+            return false;
+        }
+        beforeRollingOver();
+        try {
+            return rotatableWriter.forceRotation();
+        } finally {
+            afterRollingOver();
+        }
     }
 
     /**
@@ -330,10 +401,16 @@ class SecureCsvWriter implements CsvWriter, RolloverLifecycleHook {
                 insertHMACSignature(extendedValues, headers);
             }
 
-            writer.write(csvFormatter.formatEvent(extendedValues, extendedHeaders));
-            writer.flush();
-            // Store the current key
-            secureStorage.writeCurrentKey(hmacCalculator.getCurrentKey());
+            final String row = csvFormatter.formatEvent(extendedValues, extendedHeaders);
+            if (groupCommit && writer == csvWriter) {
+                // The key is stored by the writer thread, once the row has been written
+                groupCommitWriter.write(row, hmacCalculator.getCurrentKey());
+            } else {
+                writer.write(row);
+                writer.flush();
+                // Store the current key
+                writeCurrentKey(hmacCalculator.getCurrentKey());
+            }
 
             // Schedule a signature task only if needed.
             if (!values.containsKey(HEADER_SIGNATURE)
@@ -416,8 +493,10 @@ class SecureCsvWriter implements CsvWriter, RolloverLifecycleHook {
                 logger.error("Unable to rename {} to {}", keyStoreFile.getAbsolutePath(), nextFile.getAbsolutePath());
             }
             try {
-                secureStorage.setKeyStoreHandler(new JcaKeyStoreHandler(CsvSecureConstants.KEYSTORE_TYPE,
-                        keyStoreFile.getPath(), keyStorePassword));
+                synchronized (storageLock) {
+                    secureStorage.setKeyStoreHandler(new JcaKeyStoreHandler(CsvSecureConstants.KEYSTORE_TYPE,
+                            keyStoreFile.getPath(), keyStorePassword));
+                }
                 logger.trace("Updated secureStorage to reference new keyStoreFile");
                 initHmacCalculatorWithRandomData();
             } catch (Exception ex) {
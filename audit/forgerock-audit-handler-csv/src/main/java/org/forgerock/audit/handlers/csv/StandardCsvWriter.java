@@ -12,6 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2015-2016 ForgeRock AS.
+ * Portions copyright 2026 Open Source Solution Technology Corporation
  */
 package org.forgerock.audit.handlers.csv;
 
@@ -26,6 +27,9 @@ import java.io.Writer;
 import java.util.Map;
 
 import org.forgerock.audit.events.handlers.writers.AsynchronousTextWriter;
+import org.forgerock.audit.events.handlers.writers.ByteBufferWriter;
+import org.forgerock.audit.events.handlers.writers.GroupCommitTextWriter;
+import org.forgerock.audit.events.handlers.writers.GroupCommitTextWriter.BatchListener;
 import org.forgerock.audit.events.handlers.writers.RotatableWriter;
 import org.forgerock.audit.events.handlers.writers.TextWriter;
 import org.forgerock.audit.events.handlers.writers.TextWriterAdapter;
@@ -87,6 +91,11 @@ class StandardCsvWriter implements CsvWriter {
 
     private Writer constructWriter(File csvFile, boolean append, CsvAuditEventHandlerConfiguration config)
             throws IOException {
+        EventBufferingConfiguration bufferConfig = config.getBuffering();
+        if (bufferConfig.isEnabled() && bufferConfig.isGroupCommit()) {
+            return new TextWriterAdapter(constructGroupCommitWriter(csvFile, append, config));
+        }
+
         TextWriter textWriter;
         if (config.getFileRotation().isRotationEnabled()) {
             rotatableWriter = new RotatableWriter(csvFile, config, append);
@@ -95,13 +104,33 @@ class StandardCsvWriter implements CsvWriter {
             textWriter = new TextWriter.Stream(new FileOutputStream(csvFile, append));
         }
 
-        if (config.getBuffering().isEnabled()) {
-            EventBufferingConfiguration bufferConfig = config.getBuffering();
+        if (bufferConfig.isEnabled()) {
             textWriter = new AsynchronousTextWriter("CsvHandler", bufferConfig.isAutoFlush(), textWriter);
         }
         return new TextWriterAdapter(textWriter);
     }
 
+    private TextWriter constructGroupCommitWriter(File csvFile, boolean append,
+            CsvAuditEventHandlerConfiguration config) throws IOException {
+        ByteBufferWriter byteBufferWriter;
+        BatchListener batchListener = null;
+        if (config.getFileRotation().isRotationEnabled()) {
+            rotatableWriter = new RotatableWriter(csvFile, config, append);
+            byteBufferWriter = rotatableWriter;
+            // Batches are written without checking for rotation
+            batchListener = new BatchListener() {
+                @Override
+                public void batchWritten(Object lastAttachment) throws IOException {
+                    rotatableWriter.rotateIfNeeded();
+                }
+            };
+        } else {
+            byteBufferWriter = new ByteBufferWriter.Channel(csvFile, append);
+        }
+        return new GroupCommitTextWriter("CsvHandler", config.getBuffering().getSyncIntervalDuration(),
+                byteBufferWriter, batchListener);
+    }
+
     /**
      * Forces rotation of the writer.
      * <p>
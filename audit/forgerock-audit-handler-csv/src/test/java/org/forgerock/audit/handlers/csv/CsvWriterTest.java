@@ -12,6 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2015-2016 ForgeRock AS.
+ * Portions copyright 2026 Open Source Solution Technology Corporation
  */
 package org.forgerock.audit.handlers.csv;
 
@@ -93,6 +94,117 @@ public class CsvWriterTest {
         assertThat(verifier.verify().hasPassedVerification()).isTrue();
     }
 
+    @Test
+    public void shouldCreateGroupCommittedSecureCsvFile() throws Exception {
+        final CsvPreference csvPreference = CsvPreference.EXCEL_PREFERENCE;
+        final String[] header = new String[] { "child1", "child2", "child3" };
+
+        final Path logDirectory = Files.createTempDirectory("CsvWriterTest");
+        logDirectory.toFile().deleteOnExit();
+        File csvFile = new File(logDirectory.toFile(), "shouldCreateGroupCommittedSecureCsvFile.csv");
+
+        EventBufferingConfiguration bufferConfig = new EventBufferingConfiguration();
+        bufferConfig.setEnabled(true);
+        bufferConfig.setGroupCommit(true);
+        CsvSecurity csvSecurity = new CsvSecurity();
+        csvSecurity.setEnabled(true);
+        csvSecurity.setSignatureInterval("3 seconds");
+        CsvAuditEventHandlerConfiguration configuration = new CsvAuditEventHandlerConfiguration();
+        configuration.setBufferingConfiguration(bufferConfig);
+        configuration.setSecurity(csvSecurity);
+        try (SecureCsvWriter writer = new SecureCsvWriter(csvFile, header, csvPreference, configuration,
+                keyStoreHandler, random)) {
+            writeNRows(header, writer, 100);
+        }
+
+        String password = Base64.encode(
+                keyStoreHandler.readSecretKeyFromKeyStore(CsvSecureConstants.ENTRY_PASSWORD).getEncoded());
+        KeyStoreHandler csvKeyStoreHandler = new JcaKeyStoreHandler(CsvSecureConstants.KEYSTORE_TYPE,
+                csvFile.getPath() + ".keystore", password);
+        SecureStorage secureStorage = new KeyStoreSecureStorage(csvKeyStoreHandler,
+                keyStoreHandler.readPublicKeyFromKeyStore(KeyStoreSecureStorage.ENTRY_SIGNATURE));
+        CsvSecureVerifier verifier = new CsvSecureVerifier(csvFile, CsvPreference.EXCEL_PREFERENCE, secureStorage);
+        assertThat(verifier.verify().hasPassedVerification()).isTrue();
+    }
+
+    @Test
+    public void shouldResumeGroupCommittedSecureCsvFile() throws Exception {
+        final CsvPreference csvPreference = CsvPreference.EXCEL_PREFERENCE;
+        final String[] header = new String[] { "child1", "child2", "child3" };
+
+        final Path logDirectory = Files.createTempDirectory("CsvWriterTest");
+        logDirectory.toFile().deleteOnExit();
+        File csvFile = new File(logDirectory.toFile(), "shouldResumeGroupCommittedSecureCsvFile.csv");
+
+        EventBufferingConfiguration bufferConfig = new EventBufferingConfiguration();
+        bufferConfig.setEnabled(true);
+        bufferConfig.setGroupCommit(true);
+        CsvSecurity csvSecurity = new CsvSecurity();
+        csvSecurity.setEnabled(true);
+        csvSecurity.setSignatureInterval("3 seconds");
+        CsvAuditEventHandlerConfiguration configuration = new CsvAuditEventHandlerConfiguration();
+        configuration.setBufferingConfiguration(bufferConfig);
+        configuration.setSecurity(csvSecurity);
+        try (SecureCsvWriter writer = new SecureCsvWriter(csvFile, header, csvPreference, configuration,
+                keyStoreHandler, random)) {
+            writeNRows(header, writer, 100);
+            writer.flush();
+            writeNRows(header, writer, 100);
+        }
+
+        String password = Base64.encode(
+                keyStoreHandler.readSecretKeyFromKeyStore(CsvSecureConstants.ENTRY_PASSWORD).getEncoded());
+        KeyStoreHandler csvKeyStoreHandler = new JcaKeyStoreHandler(CsvSecureConstants.KEYSTORE_TYPE,
+                csvFile.getPath() + ".keystore", password);
+        SecureStorage secureStorage = new KeyStoreSecureStorage(csvKeyStoreHandler,
+                keyStoreHandler.readPublicKeyFromKeyStore(KeyStoreSecureStorage.ENTRY_SIGNATURE));
+        CsvSecureVerifier verifier = new CsvSecureVerifier(csvFile, CsvPreference.EXCEL_PREFERENCE, secureStorage);
+        assertThat(verifier.verify().hasPassedVerification()).isTrue();
+
+        // The writer verifies the file and resumes it with the stored key
+        try (SecureCsvWriter writer = new SecureCsvWriter(csvFile, header, csvPreference, configuration,
+                keyStoreHandler, random)) {
+            writeNRows(header, writer, 100);
+        }
+
+        csvKeyStoreHandler = new JcaKeyStoreHandler(CsvSecureConstants.KEYSTORE_TYPE,
+                csvFile.getPath() + ".keystore", password);
+        secureStorage = new KeyStoreSecureStorage(csvKeyStoreHandler,
+                keyStoreHandler.readPublicKeyFromKeyStore(KeyStoreSecureStorage.ENTRY_SIGNATURE));
+        verifier = new CsvSecureVerifier(csvFile, CsvPreference.EXCEL_PREFERENCE, secureStorage);
+        assertThat(verifier.verify().hasPassedVerification()).isTrue();
+    }
+
+    @Test
+    public void shouldWriteAllRowsInOrderWithGroupCommit() throws Exception {
+        final CsvPreference csvPreference = CsvPreference.EXCEL_PREFERENCE;
+        final String[] header = new String[] { "child1", "child2", "child3" };
+
+        final Path logDirectory = Files.createTempDirectory("CsvWriterTest");
+        logDirectory.toFile().deleteOnExit();
+        File csvFile = new File(logDirectory.toFile(), "shouldWriteAllRowsInOrderWithGroupCommit.csv");
+
+        EventBufferingConfiguration bufferConfig = new EventBufferingConfiguration();
+        bufferConfig.setEnabled(true);
+        bufferConfig.setGroupCommit(true);
+        bufferConfig.setSyncInterval("0 seconds");
+        CsvAuditEventHandlerConfiguration configuration = new CsvAuditEventHandlerConfiguration();
+        configuration.setBufferingConfiguration(bufferConfig);
+        try (StandardCsvWriter writer = new StandardCsvWriter(csvFile, header, csvPreference, configuration)) {
+            writeNRows(header, writer, 100);
+            writer.flush();
+            assertThat(Files.readAllLines(csvFile.toPath(), Charset.forName("UTF-8"))).hasSize(101);
+        }
+
+        List<String> lines = Files.readAllLines(csvFile.toPath(), Charset.forName("UTF-8"));
+        assertThat(lines).hasSize(101);
+        assertThat(lines.get(0)).isEqualTo("child1,child2,child3");
+        for (int i = 1; i <= 100; i++) {
+            String number = "________________" + i;
+            assertThat(lines.get(i)).isEqualTo(number + "-A," + number + "-B," + number + "-C");
+        }
+    }
+
     @Test
     public void shouldResumeExistingCsvSecureFile() throws Exception {
         // This is more an integration test rather than a unit test.
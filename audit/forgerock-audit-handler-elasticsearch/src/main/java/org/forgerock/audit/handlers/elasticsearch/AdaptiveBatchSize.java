@@ -0,0 +1,86 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Open Source Solution Technology Corporation
+ */
+package org.forgerock.audit.handlers.elasticsearch;
+
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+
+/**
+ * Adapts the number of events sent per Bulk API request to the load of the Elasticsearch cluster, using an
+ * additive-increase/multiplicative-decrease scheme:
+ * <ul>
+ * <li>a request rejected because the cluster is overloaded ({@code 429 Too Many Requests}) halves the batch
+ * size;</li>
+ * <li>a request slower than the target latency reduces the batch size by a quarter;</li>
+ * <li>any other successful request increases the batch size by a tenth of the maximum.</li>
+ * </ul>
+ * The batch size always stays between the configured minimum and maximum, and starts at the maximum. This class is
+ * thread-safe, since requests complete on HTTP client threads.
+ */
+final class AdaptiveBatchSize {
+
+    private final int minimum;
+    private final int maximum;
+    private final int increment;
+    private final long targetLatencyMillis;
+
+    private volatile int size;
+
+    /**
+     * Creates a new adaptive batch size.
+     *
+     * @param minimum Minimum batch size
+     * @param maximum Maximum, and initial, batch size
+     * @param targetLatencyMillis Latency above which the batch size is reduced, or {@code 0} to only adapt to
+     * rejections
+     */
+    AdaptiveBatchSize(final int minimum, final int maximum, final long targetLatencyMillis) {
+        this.minimum = min(minimum, maximum);
+        this.maximum = maximum;
+        this.increment = max(1, maximum / 10);
+        this.targetLatencyMillis = targetLatencyMillis;
+        this.size = maximum;
+    }
+
+    /**
+     * Gets the current batch size.
+     *
+     * @return Batch size
+     */
+    int get() {
+        return size;
+    }
+
+    /**
+     * Records a successfully indexed batch.
+     *
+     * @param latencyMillis Time taken by the Bulk API request, in milliseconds
+     */
+    synchronized void onSuccess(final long latencyMillis) {
+        if (targetLatencyMillis > 0 && latencyMillis > targetLatencyMillis) {
+            size = max(minimum, size - size / 4);
+        } else {
+            size = min(maximum, size + increment);
+        }
+    }
+
+    /**
+     * Records a batch rejected because Elasticsearch is overloaded.
+     */
+    synchronized void onRejected() {
+        size = max(minimum, size / 2);
+    }
+}
@@ -0,0 +1,209 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Open Source Solution Technology Corporation
+ */
+package org.forgerock.audit.handlers.elasticsearch;
+
+import static org.forgerock.audit.handlers.elasticsearch.ElasticsearchUtil.OBJECT_MAPPER;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.forgerock.http.io.BranchingInputStream;
+import org.forgerock.http.io.IO;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+
+/**
+ * A reusable Elasticsearch Bulk API payload. Each entry is serialised into a scratch buffer, then appended, and
+ * optionally gzip compressed, to a growable byte array which is sent as-is, without any intermediate {@code String}
+ * or copy. An entry which fails to serialise is discarded without leaving a partial line in the payload. Once the
+ * request has completed, the payload is {@linkplain #reset() reset} and reused for another batch.
+ * <p>
+ * This class is not thread-safe: a payload is written by the batch indexer thread, then read by the HTTP client,
+ * but never concurrently.
+ */
+final class BulkPayload {
+
+    /** Bytes buffer, exposing its backing array so that the content can be sent without copying it. */
+    private static final class Bytes extends ByteArrayOutputStream {
+
+        Bytes(final int size) {
+            super(size);
+        }
+
+        BranchingInputStream newInputStream() {
+            return IO.newBranchingInputStream(buf, 0, count);
+        }
+
+        int capacity() {
+            return buf.length;
+        }
+    }
+
+    /** Largest initial size of the scratch buffer of an entry, which grows as needed. */
+    private static final int ENTRY_CAPACITY = 8 * 1024;
+
+    private final int initialCapacity;
+    private final boolean compressed;
+    private Bytes bytes;
+    private OutputStream out;
+    private Bytes entry;
+    private JsonGenerator entryGenerator;
+    private int entries;
+
+    /**
+     * Creates a new empty payload.
+     *
+     * @param initialCapacity Initial size of the buffer, which grows as needed
+     * @param compressed {@code true} if the payload must be gzip compressed
+     */
+    BulkPayload(final int initialCapacity, final boolean compressed) {
+        this.initialCapacity = initialCapacity;
+        this.compressed = compressed;
+        this.bytes = new Bytes(initialCapacity);
+    }
+
+    /**
+     * Starts a new entry, returning the generator writing to the scratch buffer of the entry. The generator is
+     * created on first use, and entries are expected to be written as a sequence of root-level values separated by
+     * newlines. The entry must then be either {@linkplain #endEntry() ended} or {@linkplain #discardEntry()
+     * discarded}.
+     *
+     * @return JSON generator writing the entry
+     * @throws IOException if the generator cannot be created
+     */
+    JsonGenerator startEntry() throws IOException {
+        if (entry == null) {
+            entry = new Bytes(Math.min(initialCapacity, ENTRY_CAPACITY));
+        } else {
+            entry.reset();
+        }
+        if (entryGenerator == null) {
+            entryGenerator = OBJECT_MAPPER.getFactory().createGenerator(entry);
+            // entries are separated with newlines instead
+            entryGenerator.setRootValueSeparator(null);
+        }
+        return entryGenerator;
+    }
+
+    /**
+     * Appends the entry which has been written since {@link #startEntry()} to this payload.
+     *
+     * @throws IOException if the entry cannot be appended
+     */
+    void endEntry() throws IOException {
+        entryGenerator.flush();
+        if (out == null) {
+            out = compressed ? new GZIPOutputStream(bytes) : bytes;
+        }
+        entry.writeTo(out);
+        entries++;
+    }
+
+    /**
+     * Discards the entry which has been written since {@link #startEntry()}, leaving this payload untouched.
+     */
+    void discardEntry() {
+        if (entryGenerator != null) {
+            // the generator may have been left in the middle of a value, so it cannot be reused
+            closeQuietly(entryGenerator);
+            entryGenerator = null;
+        }
+        if (entry != null) {
+            entry.reset();
+        }
+    }
+
+    /**
+     * Gets the number of entries written to this payload.
+     *
+     * @return Number of entries
+     */
+    int getEntries() {
+        return entries;
+    }
+
+    /**
+     * Indicates whether this payload is gzip compressed.
+     *
+     * @return {@code true} if the payload is gzip compressed
+     */
+    boolean isCompressed() {
+        return compressed;
+    }
+
+    /**
+     * Completes the payload: when compressed, the gzip trailer is written. No entry can be added afterwards until
+     * the payload is {@linkplain #reset() reset}.
+     *
+     * @throws IOException if the payload cannot be completed
+     */
+    void finish() throws IOException {
+        if (out != null) {
+            // also ends the deflater of the gzip stream
+            out.close();
+        }
+    }
+
+    /**
+     * Gets the number of bytes of this payload, as sent to Elasticsearch.
+     *
+     * @return Payload length
+     */
+    int length() {
+        return bytes.size();
+    }
+
+    /**
+     * Creates a stream reading the payload bytes, sharing the underlying buffer.
+     *
+     * @return A stream reading the payload
+     */
+    BranchingInputStream newInputStream() {
+        return bytes.newInputStream();
+    }
+
+    /**
+     * Empties this payload so that it can be reused. A buffer that has grown well beyond its initial capacity is
+     * released rather than retained for the lifetime of the handler.
+     */
+    void reset() {
+        if (out != null) {
+            closeQuietly(out);
+            out = null;
+        }
+        entries = 0;
+        if (bytes.capacity() > 4 * initialCapacity) {
+            bytes = new Bytes(initialCapacity);
+        } else {
+            bytes.reset();
+        }
+        if (entry != null && entry.capacity() > 4 * ENTRY_CAPACITY) {
+            discardEntry();
+            entry = null;
+        }
+    }
+
+    private static void closeQuietly(final Closeable closeable) {
+        try {
+            closeable.close();
+        } catch (IOException e) {
+            // writing to memory, not expected
+        }
+    }
+}
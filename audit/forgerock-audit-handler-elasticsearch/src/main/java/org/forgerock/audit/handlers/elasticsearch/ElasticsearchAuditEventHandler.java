@@ -12,6 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2016 ForgeRock AS.
+ * Portions copyright 2026 Open Source Solution Technology Corporation
  */
 package org.forgerock.audit.handlers.elasticsearch;
 
@@ -25,12 +26,13 @@ import static org.forgerock.json.resource.ResourceException.newResourceException
 import static org.forgerock.json.resource.ResourceResponse.FIELD_CONTENT_ID;
 import static org.forgerock.json.resource.Responses.newQueryResponse;
 import static org.forgerock.json.resource.Responses.newResourceResponse;
+import static org.forgerock.util.promise.Promises.newExceptionPromise;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.net.URISyntaxException;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.concurrent.ExecutionException;
 
 import org.forgerock.audit.Audit;
 import org.forgerock.audit.events.EventTopicsMetaData;
@@ -41,10 +43,13 @@ import org.forgerock.http.Client;
 import org.forgerock.http.HttpApplicationException;
 import org.forgerock.http.apache.async.AsyncHttpClientProvider;
 import org.forgerock.http.handler.HttpClientHandler;
+import org.forgerock.http.header.ContentEncodingHeader;
+import org.forgerock.http.header.ContentLengthHeader;
 import org.forgerock.http.header.ContentTypeHeader;
 import org.forgerock.http.protocol.Request;
 import org.forgerock.http.protocol.Response;
 import org.forgerock.http.protocol.Responses;
+import org.forgerock.http.protocol.Status;
 import org.forgerock.http.spi.Loader;
 import org.forgerock.json.JsonValue;
 import org.forgerock.json.resource.CountPolicy;
@@ -66,6 +71,9 @@ import org.forgerock.util.time.Duration;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
+
 /**
  * {@link AuditEventHandler} for Elasticsearch.
  */
@@ -88,7 +96,7 @@ public class ElasticsearchAuditEventHandler extends AuditEventHandlerBase implem
     private static final String POST = "POST";
 
     /**
-     * Average number of characters, per event, for batch indexing via Elasticsearch Bulk API. This value
+     * Average number of bytes, per event, for batch indexing via Elasticsearch Bulk API. This value
      * is used to initialize the size of buffers, but if the value is too low, the buffers will automatically resize
      * as needed.
      */
@@ -141,9 +149,14 @@ public class ElasticsearchAuditEventHandler extends AuditEventHandlerBase implem
                     bufferConfig.getWriteInterval() == null || bufferConfig.getWriteInterval().isEmpty()
                             ? null
                             : Duration.duration(bufferConfig.getWriteInterval());
+            final Duration targetLatency =
+                    bufferConfig.getTargetLatency() == null || bufferConfig.getTargetLatency().isEmpty()
+                            ? null
+                            : Duration.duration(bufferConfig.getTargetLatency());
             batchIndexer = new ElasticsearchBatchIndexer(bufferConfig.getMaxSize(),
                     writeInterval, bufferConfig.getMaxBatchedEvents(),
-                    BATCH_INDEX_AVERAGE_PER_EVENT_PAYLOAD_SIZE, ALWAYS_FLUSH_BATCH_QUEUE, this);
+                    BATCH_INDEX_AVERAGE_PER_EVENT_PAYLOAD_SIZE, bufferConfig.getMaxConcurrentRequests(),
+                    bufferConfig.isUseCompression(), targetLatency, ALWAYS_FLUSH_BATCH_QUEUE, this);
         } else {
             batchIndexer = null;
         }
@@ -286,16 +299,18 @@ public class ElasticsearchAuditEventHandler extends AuditEventHandlerBase implem
      */
     protected Promise<ResourceResponse, ResourceException> publishSingleEvent(final String topic,
             final JsonValue event) {
-        // _id is a protected Elasticsearch field, so read it and remove it
+        // _id is a protected Elasticsearch field, so it is only part of the URI
         final String resourceId = event.get(FIELD_CONTENT_ID).asString();
-        event.remove(FIELD_CONTENT_ID);
 
         try {
-            final JsonValue normalizedEvent = ElasticsearchUtil.normalizeJson(event);
-            final String jsonPayload = OBJECT_MAPPER.writeValueAsString(normalizedEvent.getObject());
-            event.put(FIELD_CONTENT_ID, resourceId);
+            // the event is not modified, as it may be shared with other handlers
+            final ByteArrayOutputStream jsonPayload = new ByteArrayOutputStream();
+            try (JsonGenerator generator = OBJECT_MAPPER.getFactory().createGenerator(jsonPayload)) {
+                ElasticsearchUtil.writeNormalizedJson(event, FIELD_CONTENT_ID, generator);
+            }
 
-            final Request request = createRequest(PUT, buildEventUri(topic, resourceId), jsonPayload);
+            final Request request =
+                    createRequest(PUT, buildEventUri(topic, resourceId), jsonPayload.toByteArray());
 
             return client.send(request).then(new Function<Response, ResourceResponse, ResourceException>() {
                     @Override
@@ -318,69 +333,119 @@ public class ElasticsearchAuditEventHandler extends AuditEventHandlerBase implem
      * Adds an audit event to an Elasticsearch Bulk API payload.
      *
      * @param topic Event topic
-     * @param event Event JSON payload
+     * @param event Event JSON payload, which is not modified
      * @param payload Elasticsearch Bulk API payload
      * @throws BatchException indicates failure to add-to-batch
      */
     @Override
-    public void addToBatch(final String topic, final JsonValue event, final StringBuilder payload)
+    public void addToBatch(final String topic, final JsonValue event, final BulkPayload payload)
             throws BatchException {
+        if (event.get(ElasticsearchUtil.NORMALIZED_FIELD).isNotNull()) {
+            // checked before anything is written, so that the payload is left untouched
+            throw new BatchException(ElasticsearchUtil.NORMALIZED_FIELD + " is a reserved JsonValue field");
+        }
+        boolean added = false;
         try {
-            // _id is a protected Elasticsearch field
+            // _id is a protected Elasticsearch field, so it is written in the action line only
             final String resourceId = event.get(FIELD_CONTENT_ID).asString();
-            event.remove(FIELD_CONTENT_ID);
-            final JsonValue normalizedEvent = ElasticsearchUtil.normalizeJson(event);
-            final String jsonPayload = OBJECT_MAPPER.writeValueAsString(normalizedEvent.getObject());
+            // written to a scratch buffer, so that an event which cannot be serialised does not corrupt the payload
+            final JsonGenerator generator = payload.startEntry();
 
             // newlines have special significance in the Bulk API
             // https://www.elastic.co/guide/en/elasticsearch/reference/current/docs-bulk.html
-            payload.append("{ \"index\" : { \"_type\" : ")
-                    .append(OBJECT_MAPPER.writeValueAsString(topic))
-                    .append(", \"_id\" : ")
-                    .append(OBJECT_MAPPER.writeValueAsString(resourceId))
-                    .append(" } }\n")
-                    .append(jsonPayload)
-                    .append('\n');
+            generator.writeRaw("{ \"index\" : { \"_type\" : ");
+            writeRawString(generator, topic);
+            generator.writeRaw(", \"_id\" : ");
+            writeRawString(generator, resourceId);
+            generator.writeRaw(" } }\n");
+            ElasticsearchUtil.writeNormalizedJson(event, FIELD_CONTENT_ID, generator);
+            generator.writeRaw('\n');
+            payload.endEntry();
+            added = true;
         } catch (IOException e) {
             throw new BatchException("Unexpected error while adding to batch", e);
+        } finally {
+            if (!added) {
+                payload.discardEntry();
+            }
+        }
+    }
+
+    private static void writeRawString(final JsonGenerator generator, final String value) throws IOException {
+        if (value == null) {
+            generator.writeRaw("null");
+        } else {
+            generator.writeRaw('"');
+            generator.writeRaw(new String(JsonStringEncoder.getInstance().quoteAsString(value)));
+            generator.writeRaw('"');
         }
     }
 
     /**
      * Publishes a <a href="https://www.elastic.co/guide/en/elasticsearch/reference/current/docs-bulk.html">Bulk API</a>
-     * payload to Elasticsearch.
+     * payload to Elasticsearch. The payload bytes are sent as they are, gzip compressed if the payload is.
      *
-     * @param payload Elasticsearch Bulk API payload
-     * @throws BatchException indicates (full or partial) failure to publish batch
+     * @param payload Completed Elasticsearch Bulk API payload, which must not be modified until the returned promise
+     * is completed
+     * @return A promise completed once Elasticsearch has responded, or with a {@link BatchException} indicating
+     * (full or partial) failure to publish batch, which is a {@link BulkRejectedException} when Elasticsearch is
+     * overloaded
      */
     @Override
-    public void publishBatch(final String payload) throws BatchException {
+    public Promise<Void, BatchException> publishBatch(final BulkPayload payload) {
+        final Request request;
         try {
-            final Request request = createRequest(POST, buildBulkUri(), payload);
-
-            final Response response = client.send(request).get();
-            if (!response.getStatus().isSuccessful()) {
-                throw new BatchException("Elasticsearch batch index failed: " + response.getEntity());
-            } else {
-                final JsonValue responseJson = json(response.getEntity().getJson());
-                if (responseJson.get("errors").asBoolean()) {
-                    // one or more batch index operations failed, so log failures
-                    final JsonValue items = responseJson.get("items");
-                    final int n = items.size();
-                    final List<Object> failureItems = new ArrayList<>(n);
-                    for (int i = 0; i < n; ++i) {
-                        final JsonValue item = items.get(i).get("index");
-                        final Integer status = item.get("status").asInteger();
-                        if (status >= 400) {
-                            failureItems.add(item);
-                        }
+            request = createRequest(POST, buildBulkUri(), null);
+        } catch (URISyntaxException e) {
+            return newExceptionPromise(new BatchException("Unexpected error while publishing batch", e));
+        }
+        request.getEntity().setRawContentInputStream(payload.newInputStream());
+        request.getHeaders().put(ContentTypeHeader.NAME, "application/json; charset=UTF-8");
+        request.getHeaders().put(ContentLengthHeader.NAME, String.valueOf(payload.length()));
+        if (payload.isCompressed()) {
+            request.getHeaders().put(ContentEncodingHeader.NAME, "gzip");
+        }
+
+        return client.send(request).then(new Function<Response, Void, BatchException>() {
+                @Override
+                public Void apply(Response response) throws BatchException {
+                    try {
+                        checkBatchResponse(response);
+                        return null;
+                    } finally {
+                        response.close();
+                    }
+                }
+        }, Responses.<Void, BatchException>noopExceptionFunction());
+    }
+
+    private static void checkBatchResponse(final Response response) throws BatchException {
+        if (Status.TOO_MANY_REQUESTS.equals(response.getStatus())) {
+            throw new BulkRejectedException("Elasticsearch rejected batch: " + response.getEntity());
+        } else if (!response.getStatus().isSuccessful()) {
+            throw new BatchException("Elasticsearch batch index failed: " + response.getEntity());
+        }
+        try {
+            final JsonValue responseJson = json(response.getEntity().getJson());
+            if (responseJson.get("errors").asBoolean()) {
+                // one or more batch index operations failed, so log failures
+                final JsonValue items = responseJson.get("items");
+                final int n = items.size();
+                final List<Object> failureItems = new ArrayList<>(n);
+                boolean rejected = false;
+                for (int i = 0; i < n; ++i) {
+                    final JsonValue item = items.get(i).get("index");
+                    final Integer status = item.get("status").asInteger();
+                    if (status >= 400) {
+                        failureItems.add(item);
+                        rejected |= status == Status.TOO_MANY_REQUESTS.getCode();
                     }
-                    final String message = "One or more Elasticsearch batch index entries failed: "
-                            + OBJECT_MAPPER.writeValueAsString(failureItems);
-                    throw new BatchException(message);
                 }
+                final String message = "One or more Elasticsearch batch index entries failed: "
+                        + OBJECT_MAPPER.writeValueAsString(failureItems);
+                throw rejected ? new BulkRejectedException(message) : new BatchException(message);
             }
-        } catch (IOException | URISyntaxException | ExecutionException | InterruptedException e) {
+        } catch (IOException e) {
             throw new BatchException("Unexpected error while publishing batch", e);
         }
     }
@@ -12,6 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2016 ForgeRock AS.
+ * Portions copyright 2026 Open Source Solution Technology Corporation
  */
 package org.forgerock.audit.handlers.elasticsearch;
 
@@ -41,7 +42,10 @@ import com.fasterxml.jackson.annotation.JsonPropertyDescription;
  *      "enabled" : true,
  *      "maxSize" : 10000,
  *      "writeInterval" : "250 millis",
- *      "maxBatchedEvents" : 500
+ *      "maxBatchedEvents" : 500,
+ *      "maxConcurrentRequests" : 2,
+ *      "useCompression" : true,
+ *      "targetLatency" : "1 second"
  *    }
  *  }
  * </pre>
@@ -283,6 +287,15 @@ public class ElasticsearchAuditEventHandlerConfiguration extends EventHandlerCon
         @JsonPropertyDescription("audit.handlers.elasticsearch.buffering.maxBatchedEvents")
         private int maxBatchedEvents;
 
+        @JsonPropertyDescription("audit.handlers.elasticsearch.buffering.maxConcurrentRequests")
+        private int maxConcurrentRequests;
+
+        @JsonPropertyDescription("audit.handlers.elasticsearch.buffering.useCompression")
+        private boolean useCompression;
+
+        @JsonPropertyDescription("audit.handlers.elasticsearch.buffering.targetLatency")
+        private String targetLatency;
+
         /**
          * Indicates if event buffering is enabled.
          *
@@ -354,5 +367,59 @@ public class ElasticsearchAuditEventHandlerConfiguration extends EventHandlerCon
         public void setMaxBatchedEvents(int maxBatchedEvents) {
             this.maxBatchedEvents = maxBatchedEvents;
         }
+
+        /**
+         * Gets the maximum number of Bulk API requests sent concurrently to Elasticsearch.
+         *
+         * @return Maximum number of concurrent requests
+         */
+        public int getMaxConcurrentRequests() {
+            return maxConcurrentRequests;
+        }
+
+        /**
+         * Sets the maximum number of Bulk API requests sent concurrently to Elasticsearch.
+         *
+         * @param maxConcurrentRequests Maximum number of concurrent requests
+         */
+        public void setMaxConcurrentRequests(int maxConcurrentRequests) {
+            this.maxConcurrentRequests = maxConcurrentRequests;
+        }
+
+        /**
+         * Indicates if Bulk API requests are gzip compressed.
+         *
+         * @return {@code true} if Bulk API requests are compressed.
+         */
+        public boolean isUseCompression() {
+            return useCompression;
+        }
+
+        /**
+         * Sets whether Bulk API requests are gzip compressed.
+         *
+         * @param useCompression {@code true} if Bulk API requests are compressed.
+         */
+        public void setUseCompression(boolean useCompression) {
+            this.useCompression = useCompression;
+        }
+
+        /**
+         * Gets the Bulk API request latency above which fewer events are sent per batch.
+         *
+         * @return Latency (e.g., "1 second"), or {@code null} to only adapt to rejected requests
+         */
+        public String getTargetLatency() {
+            return targetLatency;
+        }
+
+        /**
+         * Sets the Bulk API request latency above which fewer events are sent per batch.
+         *
+         * @param targetLatency Latency (e.g., "1 second"), or {@code null} to only adapt to rejected requests
+         */
+        public void setTargetLatency(String targetLatency) {
+            this.targetLatency = targetLatency;
+        }
     }
 }
@@ -12,10 +12,12 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2016 ForgeRock AS.
+ * Portions copyright 2026 Open Source Solution Technology Corporation
  */
 package org.forgerock.audit.handlers.elasticsearch;
 
 import org.forgerock.json.JsonValue;
+import org.forgerock.util.promise.Promise;
 
 /**
  * Elasticsearch batch audit event handler.
@@ -30,14 +32,17 @@ interface ElasticsearchBatchAuditEventHandler {
      * @param payload Elasticsearch Bulk API payload
      * @throws BatchException indicates failure to add-to-batch
      */
-    void addToBatch(String topic, JsonValue event, StringBuilder payload) throws BatchException;
+    void addToBatch(String topic, JsonValue event, BulkPayload payload) throws BatchException;
 
     /**
      * Publishes a <a href="https://www.elastic.co/guide/en/elasticsearch/reference/current/docs-bulk.html">Bulk API</a>
      * payload to Elasticsearch.
      *
-     * @param payload Elasticsearch Bulk API payload
-     * @throws BatchException indicates (full or partial) failure to publish batch
+     * @param payload Completed Elasticsearch Bulk API payload, which must not be modified until the returned promise
+     * is completed
+     * @return A promise completed once Elasticsearch has responded, or with a {@link BatchException} indicating
+     * (full or partial) failure to publish batch, which is a {@link BulkRejectedException} when Elasticsearch is
+     * overloaded
      */
-    void publishBatch(String payload) throws BatchException;
+    Promise<Void, BatchException> publishBatch(BulkPayload payload);
 }
@@ -12,9 +12,11 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2016 ForgeRock AS.
+ * Portions copyright 2026 Open Source Solution Technology Corporation
  */
 package org.forgerock.audit.handlers.elasticsearch;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.ArrayBlockingQueue;
@@ -25,6 +27,8 @@ import java.util.concurrent.TimeUnit;
 
 import org.forgerock.json.JsonValue;
 import org.forgerock.util.Reject;
+import org.forgerock.util.promise.ExceptionHandler;
+import org.forgerock.util.promise.ResultHandler;
 import org.forgerock.util.time.Duration;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -34,6 +38,11 @@ import static org.forgerock.audit.batch.CommonAuditBatchConfiguration.POLLING_IN
 
 /**
  * Uses Elasticsearch Bulk API to index audit events in batches.
+ * <p>
+ * Batches are serialised into a fixed pool of reusable {@link BulkPayload payloads}, one per allowed concurrent
+ * request: when all payloads are in flight, the indexer waits for a request to complete before sending the next
+ * batch, events accumulating in the queue meanwhile. The number of events per batch adapts to the observed request
+ * latency and to rejections by an overloaded cluster (see {@link AdaptiveBatchSize}).
  */
 class ElasticsearchBatchIndexer {
 
@@ -41,7 +50,9 @@ class ElasticsearchBatchIndexer {
 
     private static final int MIN_QUEUE_SIZE = 10000;
     private static final int MIN_BATCH_SIZE = 500;
+    private static final int MIN_ADAPTIVE_BATCH_SIZE = 50;
     private static final int MIN_PER_EVENT_PAYLOAD_SIZE = 32;
+    private static final int MIN_CONCURRENT_REQUESTS = 1;
 
     private final BlockingQueue<BatchEntry> queue;
     private final ScheduledExecutorService scheduler;
@@ -55,20 +66,29 @@ class ElasticsearchBatchIndexer {
      * @param capacity Fixed queue size (min. is 10000)
      * @param writeInterval Interval to read up to {@code maxBatchedEvents} from the queue,
      * or {@code null} (default 1 second)
-     * @param maxBatchedEvents Batch size (min. is 500)
-     * @param averagePerEventPayloadSize Average number of characters, per event, in a batch payload (min. is 32)
+     * @param maxBatchedEvents Maximum batch size (min. is 500)
+     * @param averagePerEventPayloadSize Average number of bytes, per event, in a batch payload (min. is 32)
+     * @param maxConcurrentRequests Maximum number of Bulk API requests in flight (min. is 1)
+     * @param compressed {@code true} when Bulk API payloads must be gzip compressed
+     * @param targetLatency Request latency above which the batch size is reduced, or {@code null} to only reduce it
+     * when Elasticsearch rejects requests
      * @param autoFlush {@code true} when data in queue should always be flushed on shutdown and {@code false} when
      * it is acceptable to drop events in the queue
      * @param eventHandler Batch audit event handler
      */
     public ElasticsearchBatchIndexer(final int capacity, final Duration writeInterval, final int maxBatchedEvents,
-            final int averagePerEventPayloadSize, final boolean autoFlush,
+            final int averagePerEventPayloadSize, final int maxConcurrentRequests, final boolean compressed,
+            final Duration targetLatency, final boolean autoFlush,
             final ElasticsearchBatchAuditEventHandler eventHandler) {
         queue = new ArrayBlockingQueue<>(max(capacity, MIN_QUEUE_SIZE));
         scheduler = Executors.newScheduledThreadPool(1);
+        final int maxBatchSize = max(maxBatchedEvents, MIN_BATCH_SIZE);
+        final long targetLatencyMillis = targetLatency == null || targetLatency.isUnlimited()
+                ? 0 : targetLatency.to(TimeUnit.MILLISECONDS);
         queueConsumer = new QueueConsumer(
-                max(maxBatchedEvents, MIN_BATCH_SIZE),
-                max(averagePerEventPayloadSize, MIN_PER_EVENT_PAYLOAD_SIZE),
+                new AdaptiveBatchSize(MIN_ADAPTIVE_BATCH_SIZE, maxBatchSize, targetLatencyMillis),
+                maxBatchSize * max(averagePerEventPayloadSize, MIN_PER_EVENT_PAYLOAD_SIZE),
+                max(maxConcurrentRequests, MIN_CONCURRENT_REQUESTS), compressed,
                 autoFlush, queue, scheduler, Reject.checkNotNull(eventHandler));
         this.writeInterval = writeInterval == null || writeInterval.getValue() <= 0
                 ? POLLING_INTERVAL : writeInterval;
@@ -142,16 +162,17 @@ class ElasticsearchBatchIndexer {
     }
 
     /**
-     * Consumer of the audit-event batch queue, which can be scheduled to run periodically. This class is not
-     * thread-safe, and is intended to be run by a single thread.
+     * Consumer of the audit-event batch queue, which can be scheduled to run periodically. Batches are built by a
+     * single thread, but their requests complete on HTTP client threads.
      */
     private static class QueueConsumer implements Runnable {
 
-        private final int maxBatchedEvents;
+        private final AdaptiveBatchSize batchSize;
+        private final int maxConcurrentRequests;
         private final boolean flushOnShutdown;
         private final BlockingQueue<BatchEntry> queue;
         private final List<BatchEntry> batch;
-        private final StringBuilder payload;
+        private final BlockingQueue<BulkPayload> payloads;
         private final ElasticsearchBatchAuditEventHandler eventHandler;
         private final ScheduledExecutorService scheduler;
 
@@ -160,24 +181,31 @@ class ElasticsearchBatchIndexer {
         /**
          * Creates a {@code QueueConsumer}.
          *
-         * @param maxBatchedEvents Batch size
-         * @param averagePerEventPayloadSize Average number of characters, per event, in a batch payload
+         * @param batchSize Adaptive batch size
+         * @param payloadSize Initial size of each payload buffer, in bytes
+         * @param maxConcurrentRequests Maximum number of Bulk API requests in flight
+         * @param compressed {@code true} when Bulk API payloads must be gzip compressed
          * @param flushOnShutdown When {@code true}, the queue will be flushed on shutdown and when {@code false},
          * items in the queue will be dropped
          * @param queue Audit-event queue
          * @param scheduler This runnable's scheduler
          * @param eventHandler Batch audit event handler
          */
-        public QueueConsumer(final int maxBatchedEvents, final int averagePerEventPayloadSize,
-                final boolean flushOnShutdown, final BlockingQueue<BatchEntry> queue,
-                final ScheduledExecutorService scheduler, final ElasticsearchBatchAuditEventHandler eventHandler) {
+        public QueueConsumer(final AdaptiveBatchSize batchSize, final int payloadSize,
+                final int maxConcurrentRequests, final boolean compressed, final boolean flushOnShutdown,
+                final BlockingQueue<BatchEntry> queue, final ScheduledExecutorService scheduler,
+                final ElasticsearchBatchAuditEventHandler eventHandler) {
             this.queue = queue;
             this.flushOnShutdown = flushOnShutdown;
             this.scheduler = scheduler;
             this.eventHandler = eventHandler;
-            this.maxBatchedEvents = maxBatchedEvents;
-            batch = new ArrayList<>(maxBatchedEvents);
-            payload = new StringBuilder(maxBatchedEvents * averagePerEventPayloadSize);
+            this.batchSize = batchSize;
+            this.maxConcurrentRequests = maxConcurrentRequests;
+            batch = new ArrayList<>(batchSize.get());
+            payloads = new ArrayBlockingQueue<>(maxConcurrentRequests);
+            for (int i = 0; i < maxConcurrentRequests; i++) {
+                payloads.add(new BulkPayload(payloadSize, compressed));
+            }
         }
 
         /**
@@ -206,35 +234,111 @@ class ElasticsearchBatchIndexer {
         }
 
         /**
-         * Performs batch operation.
+         * Performs batch operation, waiting for a payload to be available if all of them are in flight.
+         *
+         * @return {@code true} if a full batch has been read from the queue, which might hold more events
          */
-        private void batch() {
-            queue.drainTo(batch, maxBatchedEvents);
-            if (!batch.isEmpty()) {
-                try {
-                    // add to batch
-                    for (final BatchEntry entry : batch) {
-                        try {
-                            eventHandler.addToBatch(entry.getTopic(), entry.getEvent(), payload);
-                        } catch (Exception e) {
-                            logger.error("addToBatch failed", e);
-                        }
+        private boolean batch() {
+            final BulkPayload payload = acquirePayload();
+            boolean sent = false;
+            try {
+                final int size = batchSize.get();
+                queue.drainTo(batch, size);
+                // add to batch
+                for (final BatchEntry entry : batch) {
+                    try {
+                        eventHandler.addToBatch(entry.getTopic(), entry.getEvent(), payload);
+                    } catch (Exception e) {
+                        logger.error("addToBatch failed", e);
                     }
+                }
 
-                    // send batch
-                    if (payload.length() != 0) {
-                        try {
-                            eventHandler.publishBatch(payload.toString());
-                        } catch (Exception e) {
-                            logger.error("publishBatch failed", e);
-                        }
+                // send batch
+                if (payload.getEntries() != 0) {
+                    sent = publish(payload);
+                }
+                return batch.size() == size;
+            } finally {
+                // clear buffers to prepare for next batch
+                batch.clear();
+                if (!sent) {
+                    releasePayload(payload);
+                }
+            }
+        }
+
+        /**
+         * Sends the payload without waiting for the response.
+         *
+         * @param payload Bulk API payload
+         * @return {@code true} if the payload is in flight, and will be released once the request completes
+         */
+        private boolean publish(final BulkPayload payload) {
+            try {
+                payload.finish();
+                final long start = System.nanoTime();
+                eventHandler.publishBatch(payload)
+                        .thenOnResult(new ResultHandler<Void>() {
+                            @Override
+                            public void handleResult(final Void result) {
+                                batchSize.onSuccess(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+                            }
+                        })
+                        .thenOnException(new ExceptionHandler<BatchException>() {
+                            @Override
+                            public void handleException(final BatchException e) {
+                                if (e instanceof BulkRejectedException) {
+                                    batchSize.onRejected();
+                                }
+                                logger.error("publishBatch failed", e);
+                            }
+                        })
+                        .thenAlways(new Runnable() {
+                            @Override
+                            public void run() {
+                                releasePayload(payload);
+                            }
+                        });
+                return true;
+            } catch (IOException | RuntimeException e) {
+                logger.error("publishBatch failed", e);
+                return false;
+            }
+        }
+
+        private BulkPayload acquirePayload() {
+            boolean interrupted = false;
+            try {
+                while (true) {
+                    try {
+                        // waits for an in-flight request to complete
+                        return payloads.take();
+                    } catch (InterruptedException e) {
+                        // pending events must still be sent
+                        interrupted = true;
                     }
-                } finally {
-                    // clear buffers to prepare for next batch
-                    batch.clear();
-                    payload.setLength(0);
                 }
+            } finally {
+                if (interrupted) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+
+        private void releasePayload(final BulkPayload payload) {
+            payload.reset();
+            payloads.add(payload);
+        }
+
+        /**
+         * Waits for all in-flight requests to complete.
+         */
+        private void awaitPublished() {
+            final List<BulkPayload> idle = new ArrayList<>(maxConcurrentRequests);
+            while (idle.size() < maxConcurrentRequests) {
+                idle.add(acquirePayload());
             }
+            payloads.addAll(idle);
         }
 
         @Override
@@ -247,11 +351,15 @@ class ElasticsearchBatchIndexer {
                     while (!queue.isEmpty()) {
                         batch();
                     }
+                    awaitPublished();
                 }
             }
 
-            // normal run of batch operation
-            batch();
+            // normal run of batch operation, going on while the queue is backed up
+            boolean backedUp;
+            do {
+                backedUp = batch();
+            } while (backedUp && !shutdown);
         }
     }
 
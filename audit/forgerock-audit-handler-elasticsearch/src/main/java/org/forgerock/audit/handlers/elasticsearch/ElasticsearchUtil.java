@@ -12,6 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2016 ForgeRock AS.
+ * Portions copyright 2026 Open Source Solution Technology Corporation
  */
 package org.forgerock.audit.handlers.elasticsearch;
 
@@ -20,6 +21,7 @@ import static org.forgerock.json.JsonValue.json;
 
 import java.io.IOException;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -28,6 +30,7 @@ import org.forgerock.json.JsonPointer;
 import org.forgerock.json.JsonValue;
 import org.forgerock.util.annotations.VisibleForTesting;
 
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 /**
@@ -123,6 +126,79 @@ final class ElasticsearchUtil {
         return null;
     }
 
+    /**
+     * Writes JSON normalized as per {@link #normalizeJson(JsonValue)}, without copying it: field names are normalized
+     * while the value is written, and the de-normalization metadata, if any, is appended as the last field of the
+     * resulting JSON object.
+     *
+     * @param value JSON value, which is not modified
+     * @param excludedField Name of a top-level field which must not be written, or {@code null}
+     * @param generator Generator to write the normalized JSON to
+     * @throws IOException If unable to write the json.
+     */
+    public static void writeNormalizedJson(final JsonValue value, final String excludedField,
+            final JsonGenerator generator) throws IOException {
+        if (!value.isMap()) {
+            writeNormalizedValue(value.getObject(), generator, new LinkedHashMap<String, String>(0));
+            return;
+        }
+        final Map<String, Object> object = value.asMap();
+        if (object.get(NORMALIZED_FIELD) != null) {
+            throw new IllegalStateException(NORMALIZED_FIELD + " is a reserved JsonValue field");
+        }
+        final Map<String, String> fieldNames = new LinkedHashMap<>(2);
+        generator.writeStartObject();
+        for (final Map.Entry<String, Object> field : object.entrySet()) {
+            final String name = field.getKey();
+            if (!name.equals(excludedField) && !name.equals(NORMALIZED_FIELD)) {
+                generator.writeFieldName(normalizeFieldName(name, fieldNames));
+                writeNormalizedValue(field.getValue(), generator, fieldNames);
+            }
+        }
+        if (!fieldNames.isEmpty()) {
+            // add metadata for de-normalization
+            generator.writeObjectFieldStart(NORMALIZED_FIELD);
+            generator.writeObjectFieldStart(FIELD_NAMES_FIELD);
+            for (final Map.Entry<String, String> fieldName : fieldNames.entrySet()) {
+                generator.writeStringField(fieldName.getKey(), fieldName.getValue());
+            }
+            generator.writeEndObject();
+            generator.writeEndObject();
+        }
+        generator.writeEndObject();
+    }
+
+    private static void writeNormalizedValue(final Object value, final JsonGenerator generator,
+            final Map<String, String> fieldNames) throws IOException {
+        if (value instanceof JsonValue) {
+            writeNormalizedValue(((JsonValue) value).getObject(), generator, fieldNames);
+        } else if (value instanceof Map) {
+            generator.writeStartObject();
+            for (final Map.Entry<?, ?> field : ((Map<?, ?>) value).entrySet()) {
+                generator.writeFieldName(normalizeFieldName(String.valueOf(field.getKey()), fieldNames));
+                writeNormalizedValue(field.getValue(), generator, fieldNames);
+            }
+            generator.writeEndObject();
+        } else if (value instanceof List) {
+            generator.writeStartArray();
+            for (final Object element : (List<?>) value) {
+                writeNormalizedValue(element, generator, fieldNames);
+            }
+            generator.writeEndArray();
+        } else {
+            generator.writeObject(value);
+        }
+    }
+
+    private static String normalizeFieldName(final String name, final Map<String, String> fieldNames) {
+        if (name.indexOf('.') < 0) {
+            return name;
+        }
+        final String normalized = name.replace('.', '_');
+        fieldNames.put(normalized, name);
+        return normalized;
+    }
+
     /**
      * De-normalizes JSON that was previously normalized by  {@link #normalizeJson(JsonValue)}.
      *
@@ -0,0 +1,73 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Open Source Solution Technology Corporation
+ */
+package org.forgerock.audit.handlers.elasticsearch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.testng.annotations.Test;
+
+public class AdaptiveBatchSizeTest {
+
+    @Test
+    public void shouldStartAtMaximum() {
+        assertThat(new AdaptiveBatchSize(50, 500, 0).get()).isEqualTo(500);
+    }
+
+    @Test
+    public void shouldHalveOnRejectionDownToMinimum() {
+        final AdaptiveBatchSize batchSize = new AdaptiveBatchSize(50, 500, 0);
+
+        batchSize.onRejected();
+        assertThat(batchSize.get()).isEqualTo(250);
+
+        for (int i = 0; i < 10; i++) {
+            batchSize.onRejected();
+        }
+        assertThat(batchSize.get()).isEqualTo(50);
+    }
+
+    @Test
+    public void shouldGrowBackUpToMaximumOnSuccess() {
+        final AdaptiveBatchSize batchSize = new AdaptiveBatchSize(50, 500, 1000);
+        batchSize.onRejected();
+
+        batchSize.onSuccess(10);
+        assertThat(batchSize.get()).isEqualTo(300);
+
+        for (int i = 0; i < 10; i++) {
+            batchSize.onSuccess(10);
+        }
+        assertThat(batchSize.get()).isEqualTo(500);
+    }
+
+    @Test
+    public void shouldShrinkWhenSlowerThanTargetLatency() {
+        final AdaptiveBatchSize batchSize = new AdaptiveBatchSize(50, 500, 1000);
+
+        batchSize.onSuccess(1500);
+
+        assertThat(batchSize.get()).isEqualTo(375);
+    }
+
+    @Test
+    public void shouldIgnoreLatencyWithoutTarget() {
+        final AdaptiveBatchSize batchSize = new AdaptiveBatchSize(50, 500, 0);
+
+        batchSize.onSuccess(60000);
+
+        assertThat(batchSize.get()).isEqualTo(500);
+    }
+}
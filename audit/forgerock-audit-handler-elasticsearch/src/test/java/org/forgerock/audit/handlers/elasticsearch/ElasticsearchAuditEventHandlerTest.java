@@ -14,10 +14,13 @@
  * Copyright 2016 ForgeRock AS.
  * 
  * Portions Copyrighted 2019 OGIS-RI Co., Ltd.
+ * Portions copyright 2026 Open Source Solution Technology Corporation
  */
 package org.forgerock.audit.handlers.elasticsearch;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.failBecauseExceptionWasNotThrown;
 import static org.forgerock.audit.AuditServiceBuilder.newAuditService;
 import static org.forgerock.json.JsonValue.array;
 import static org.forgerock.json.JsonValue.field;
@@ -28,6 +31,7 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
+import java.io.ByteArrayOutputStream;
 import java.io.InputStream;
 import java.util.Arrays;
 import java.util.HashSet;
@@ -36,6 +40,7 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Scanner;
+import java.util.zip.GZIPInputStream;
 
 import org.forgerock.audit.AuditService;
 import org.forgerock.audit.AuditServiceBuilder;
@@ -282,13 +287,84 @@ public class ElasticsearchAuditEventHandlerTest {
         final ElasticsearchBatchAuditEventHandler batchHandler =
                 createElasticSearchAuditEventHandler(createClient(promise), config);
         final JsonValue event = resourceAsJsonValue(RESOURCE_PATH + "authEventBeforeNormalization.json");
-        final StringBuilder builder = new StringBuilder();
+        final BulkPayload payload = new BulkPayload(1024, false);
 
         // when
-        batchHandler.addToBatch("authentication", event, builder);
+        batchHandler.addToBatch("authentication", event, payload);
+        payload.finish();
 
         // then
-        assertThat(builder.toString()).isEqualTo(authEventBatchPayload);
+        assertThat(payload.getEntries()).isEqualTo(1);
+        assertThat(new String(readFully(payload.newInputStream()), UTF_8)).isEqualTo(authEventBatchPayload);
+    }
+
+    @Test
+    public void testAddToCompressedBatch() throws Exception {
+
+        // given
+        final ElasticsearchAuditEventHandlerConfiguration config = new ElasticsearchAuditEventHandlerConfiguration();
+        config.getBuffering().setEnabled(true);
+
+        final ElasticsearchBatchAuditEventHandler batchHandler =
+                createElasticSearchAuditEventHandler(createClient(newResultPromise(new Response(Status.OK))), config);
+        final JsonValue event = resourceAsJsonValue(RESOURCE_PATH + "authEventBeforeNormalization.json");
+        final BulkPayload payload = new BulkPayload(1024, true);
+
+        // when
+        batchHandler.addToBatch("authentication", event, payload);
+        payload.finish();
+
+        // then
+        assertThat(payload.isCompressed()).isTrue();
+        assertThat(new String(readFully(new GZIPInputStream(payload.newInputStream())), UTF_8))
+                .isEqualTo(authEventBatchPayload);
+    }
+
+    @Test(expectedExceptions = BatchException.class)
+    public void testAddToBatchRejectsReservedField() throws Exception {
+
+        // given
+        final ElasticsearchAuditEventHandlerConfiguration config = new ElasticsearchAuditEventHandlerConfiguration();
+        config.getBuffering().setEnabled(true);
+
+        final ElasticsearchBatchAuditEventHandler batchHandler =
+                createElasticSearchAuditEventHandler(createClient(newResultPromise(new Response(Status.OK))), config);
+        final JsonValue event = json(object(field("_id", ID), field("_normalized", object())));
+
+        // when
+        batchHandler.addToBatch("authentication", event, new BulkPayload(1024, false));
+    }
+
+    @Test
+    public void testAddToBatchDiscardsEventWhichCannotBeSerialised() throws Exception {
+
+        // given
+        final ElasticsearchAuditEventHandlerConfiguration config = new ElasticsearchAuditEventHandlerConfiguration();
+        config.getBuffering().setEnabled(true);
+
+        final ElasticsearchBatchAuditEventHandler batchHandler =
+                createElasticSearchAuditEventHandler(createClient(newResultPromise(new Response(Status.OK))), config);
+        final JsonValue event = resourceAsJsonValue(RESOURCE_PATH + "authEventBeforeNormalization.json");
+        // fails once the action line and the first field have been written
+        final JsonValue invalidEvent = json(object(field("_id", ID), field("eventName", "authentication"),
+                field("unserialisable", new Object())));
+        final BulkPayload payload = new BulkPayload(1024, false);
+
+        // when
+        batchHandler.addToBatch("authentication", event, payload);
+        try {
+            batchHandler.addToBatch("authentication", invalidEvent, payload);
+            failBecauseExceptionWasNotThrown(BatchException.class);
+        } catch (BatchException e) {
+            // expected
+        }
+        batchHandler.addToBatch("authentication", event, payload);
+        payload.finish();
+
+        // then
+        assertThat(payload.getEntries()).isEqualTo(2);
+        assertThat(new String(readFully(payload.newInputStream()), UTF_8))
+                .isEqualTo(authEventBatchPayload + authEventBatchPayload);
     }
 
     @Test
@@ -307,7 +383,7 @@ public class ElasticsearchAuditEventHandlerTest {
                 createElasticSearchAuditEventHandler(createClient(promise), config);
 
         // when (we expect no exception be thrown)
-        batchHandler.publishBatch(authEventBatchPayload);
+        batchHandler.publishBatch(payload(authEventBatchPayload)).getOrThrow();
     }
 
     @Test(expectedExceptions = BatchException.class)
@@ -326,7 +402,81 @@ public class ElasticsearchAuditEventHandlerTest {
                 createElasticSearchAuditEventHandler(createClient(promise), config);
 
         // when
-        batchHandler.publishBatch(invalidAuthEventBatchPayload);
+        batchHandler.publishBatch(payload(invalidAuthEventBatchPayload)).getOrThrow();
+    }
+
+    @Test(expectedExceptions = BulkRejectedException.class)
+    public void testPublishBatchRejected() throws Exception {
+
+        // given
+        final Response response = createClientResponse(Status.TOO_MANY_REQUESTS, null);
+
+        final ElasticsearchAuditEventHandlerConfiguration config = new ElasticsearchAuditEventHandlerConfiguration();
+        config.getBuffering().setEnabled(true);
+
+        final ElasticsearchBatchAuditEventHandler batchHandler =
+                createElasticSearchAuditEventHandler(createClient(newResultPromise(response)), config);
+
+        // when
+        batchHandler.publishBatch(payload(authEventBatchPayload)).getOrThrow();
+    }
+
+    @Test(expectedExceptions = BulkRejectedException.class)
+    public void testPublishBatchWithRejectedEntries() throws Exception {
+
+        // given
+        final JsonValue responseJson = json(object(
+                field("errors", true),
+                field("items", array(object(field("index", object(field("_id", ID), field("status", 429))))))));
+        final Response response = createClientResponse(Status.OK, responseJson.getObject());
+
+        final ElasticsearchAuditEventHandlerConfiguration config = new ElasticsearchAuditEventHandlerConfiguration();
+        config.getBuffering().setEnabled(true);
+
+        final ElasticsearchBatchAuditEventHandler batchHandler =
+                createElasticSearchAuditEventHandler(createClient(newResultPromise(response)), config);
+
+        // when
+        batchHandler.publishBatch(payload(authEventBatchPayload)).getOrThrow();
+    }
+
+    @Test
+    public void testPublishCompressedBatch() throws Exception {
+
+        // given
+        final JsonValue responseJson = resourceAsJsonValue(RESOURCE_PATH + "authEventBatchPayloadResponse.json");
+        final Handler handler = mock(Handler.class);
+        final List<Request> requests = new LinkedList<>();
+        when(handler.handle(any(Context.class), any(Request.class))).thenAnswer(
+                new Answer<Promise<Response, NeverThrowsException>>() {
+                    @Override
+                    public Promise<Response, NeverThrowsException> answer(InvocationOnMock invocation) {
+                        requests.add((Request) invocation.getArguments()[1]);
+                        return newResultPromise(createClientResponse(Status.OK, responseJson));
+                    }
+                });
+
+        final ElasticsearchAuditEventHandlerConfiguration config = new ElasticsearchAuditEventHandlerConfiguration();
+        config.getBuffering().setEnabled(true);
+        config.getBuffering().setUseCompression(true);
+
+        final ElasticsearchBatchAuditEventHandler batchHandler =
+                createElasticSearchAuditEventHandler(new Client(handler), config);
+        final BulkPayload payload = new BulkPayload(1024, true);
+        batchHandler.addToBatch("authentication",
+                resourceAsJsonValue(RESOURCE_PATH + "authEventBeforeNormalization.json"), payload);
+        payload.finish();
+
+        // when
+        batchHandler.publishBatch(payload).getOrThrow();
+
+        // then
+        assertThat(requests).hasSize(1);
+        final Request request = requests.get(0);
+        assertThat(request.getHeaders().getFirst("Content-Encoding")).isEqualTo("gzip");
+        assertThat(request.getHeaders().getFirst("Content-Length")).isEqualTo(String.valueOf(payload.length()));
+        assertThat(new String(readFully(new GZIPInputStream(request.getEntity().getRawContentInputStream())), UTF_8))
+                .isEqualTo(authEventBatchPayload);
     }
 
     /**
@@ -405,6 +555,26 @@ public class ElasticsearchAuditEventHandlerTest {
         }
     }
 
+    private BulkPayload payload(final String content) throws Exception {
+        final BulkPayload payload = new BulkPayload(content.length(), false);
+        payload.startEntry().writeRaw(content);
+        payload.endEntry();
+        payload.finish();
+        return payload;
+    }
+
+    private static byte[] readFully(final InputStream in) throws Exception {
+        try (InputStream stream = in) {
+            final ByteArrayOutputStream out = new ByteArrayOutputStream();
+            final byte[] buffer = new byte[4096];
+            int n;
+            while ((n = stream.read(buffer)) != -1) {
+                out.write(buffer, 0, n);
+            }
+            return out.toByteArray();
+        }
+    }
+
     private InputStream getResource(String resourceName) {
         return getClass().getResourceAsStream(resourceName);
     }
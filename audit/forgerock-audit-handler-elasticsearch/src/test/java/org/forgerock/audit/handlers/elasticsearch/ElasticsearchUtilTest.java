@@ -12,9 +12,11 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2016 ForgeRock AS.
+ * Portions copyright 2026 Open Source Solution Technology Corporation
  */
 package org.forgerock.audit.handlers.elasticsearch;
 
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.assertj.core.data.MapEntry;
 import org.forgerock.json.JsonValue;
@@ -24,6 +26,7 @@ import static org.assertj.core.api.Assertions.*;
 import static org.forgerock.audit.handlers.elasticsearch.ElasticsearchUtil.*;
 
 import java.io.InputStream;
+import java.io.StringWriter;
 import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.Map;
@@ -78,6 +81,24 @@ public class ElasticsearchUtilTest {
                 .isEqualTo(OBJECT_MAPPER.writeValueAsString(beforeNormalization.getObject()));
     }
 
+    @Test
+    public void writeNormalizedJsonShouldMatchNormalizeJson() throws Exception {
+        // given
+        final JsonValue event = resourceAsJsonValue(RESOURCE_PATH + "authEventBeforeNormalization.json");
+        final String before = OBJECT_MAPPER.writeValueAsString(event.getObject());
+
+        // when
+        final StringWriter writer = new StringWriter();
+        try (JsonGenerator generator = OBJECT_MAPPER.getFactory().createGenerator(writer)) {
+            writeNormalizedJson(event, "_id", generator);
+        }
+
+        // then
+        assertThat(OBJECT_MAPPER.writeValueAsString(event.getObject())).isEqualTo(before);
+        event.remove("_id");
+        assertThat(writer.toString()).isEqualTo(OBJECT_MAPPER.writeValueAsString(normalizeJson(event).getObject()));
+    }
+
     private JsonValue resourceAsJsonValue(final String resourcePath) throws Exception {
         try (final InputStream configStream = getClass().getResourceAsStream(resourcePath)) {
             return new JsonValue(OBJECT_MAPPER.readValue(configStream, Map.class));
@@ -12,26 +12,33 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2016 ForgeRock AS.
+ * Portions copyright 2026 Open Source Solution Technology Corporation
  */
 
 package org.forgerock.audit.handlers.jms;
 
 import static org.forgerock.audit.util.ResourceExceptionsUtil.*;
-import static org.forgerock.json.JsonValue.*;
 import static org.forgerock.json.resource.Responses.newResourceResponse;
 
 import javax.inject.Inject;
+import javax.jms.BytesMessage;
 import javax.jms.JMSException;
+import javax.jms.Message;
 import javax.jms.MessageProducer;
 import javax.jms.Session;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.Collections;
 import java.util.List;
+import java.util.zip.GZIPOutputStream;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.forgerock.audit.Audit;
+import org.forgerock.audit.events.AuditEventEncoding;
 import org.forgerock.audit.events.EventTopicsMetaData;
 import org.forgerock.audit.events.handlers.AuditEventHandlerBase;
+import org.forgerock.audit.handlers.jms.JmsResourceManager.PooledSession;
 import org.forgerock.json.JsonValue;
 import org.forgerock.json.resource.InternalServerErrorException;
 import org.forgerock.json.resource.NotSupportedException;
@@ -47,13 +54,28 @@ import org.slf4j.LoggerFactory;
 
 /**
  * Publishes Audit events on a JMS Topic.
+ * <p>
+ * Each audit event is published as a {@link javax.jms.TextMessage} holding its JSON representation or, when
+ * compression is enabled, as a {@link BytesMessage} holding its gzip compressed JSON representation, with the
+ * {@value #CONTENT_ENCODING_PROPERTY} message property set to {@code gzip}.
+ * <p>
+ * JMS sessions and producers are pooled and reused across publications. With the {@link SessionModeConfig#TRANSACTED}
+ * session mode, all the events of a publication, which is a whole batch when batching is enabled, are committed at
+ * once and a failed publication is rolled back before being retried.
  */
 public class JmsAuditEventHandler extends AuditEventHandlerBase {
     private static final Logger LOGGER = LoggerFactory.getLogger(JmsAuditEventHandler.class);
     private static final ObjectMapper MAPPER = new ObjectMapper();
 
+    /** Name of the message property holding the encoding of compressed {@link BytesMessage}s. */
+    public static final String CONTENT_ENCODING_PROPERTY = "contentEncoding";
+
+    private static final byte[] ENVELOPE_TOPIC = "{\"auditTopic\":".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] ENVELOPE_EVENT = ",\"event\":".getBytes(StandardCharsets.UTF_8);
+
     private final JmsResourceManager jmsResourceManager;
-    private final Publisher<JsonValue> publisher;
+    private final Publisher<byte[]> publisher;
+    private final boolean compressed;
 
     /**
      * Creates a new AuditEventHandler instance that publishes JMS messages on a JMS Topic for each Audit event.
@@ -72,6 +94,7 @@ public class JmsAuditEventHandler extends AuditEventHandlerBase {
         super(configuration.getName(), eventTopicsMetaData, configuration.getTopics(), configuration.isEnabled());
 
         publisher = buildPublisher(configuration);
+        compressed = configuration.isUseCompression();
         this.jmsResourceManager =
                 jmsContextManager == null
                         ? new JmsResourceManager(
@@ -86,7 +109,7 @@ public class JmsAuditEventHandler extends AuditEventHandlerBase {
      * @param configuration used to determine if a batched publisher is needed or not.
      * @return the constructed publisher.
      */
-    Publisher<JsonValue> buildPublisher(JmsAuditEventHandlerConfiguration configuration) {
+    Publisher<byte[]> buildPublisher(JmsAuditEventHandlerConfiguration configuration) {
         return configuration.getBatch().isBatchEnabled()
                 ? new JmsBatchPublisher(configuration.getBatch())
                 : new JmsPublisher();
@@ -121,10 +144,7 @@ public class JmsAuditEventHandler extends AuditEventHandlerBase {
     public Promise<ResourceResponse, ResourceException> publishEvent(Context context, String auditTopic,
             JsonValue auditEvent) {
         try {
-            publisher.publish(json(object(
-                    field("auditTopic", auditTopic),
-                    field("event", auditEvent.getObject())
-            )));
+            publisher.publish(createEnvelope(auditTopic, AuditEventEncoding.of(context, auditEvent)));
 
             // Return the auditEvent as the response.
             return newResourceResponse(
@@ -138,13 +158,34 @@ public class JmsAuditEventHandler extends AuditEventHandlerBase {
     }
 
 
+    /**
+     * Creates the UTF-8 encoded JSON message published for an audit event, <code>{"auditTopic": topic, "event":
+     * event}</code>, reusing the JSON representation of the event shared with the other handlers.
+     */
+    private static byte[] createEnvelope(String auditTopic, AuditEventEncoding encoding) throws IOException {
+        final byte[] topic = MAPPER.writeValueAsBytes(auditTopic);
+        final byte[] event = encoding.getJsonBytes();
+        final byte[] envelope = new byte[ENVELOPE_TOPIC.length + topic.length + ENVELOPE_EVENT.length
+                + event.length + 1];
+        int offset = 0;
+        System.arraycopy(ENVELOPE_TOPIC, 0, envelope, offset, ENVELOPE_TOPIC.length);
+        offset += ENVELOPE_TOPIC.length;
+        System.arraycopy(topic, 0, envelope, offset, topic.length);
+        offset += topic.length;
+        System.arraycopy(ENVELOPE_EVENT, 0, envelope, offset, ENVELOPE_EVENT.length);
+        offset += ENVELOPE_EVENT.length;
+        System.arraycopy(event, 0, envelope, offset, event.length);
+        envelope[envelope.length - 1] = '}';
+        return envelope;
+    }
+
     /**
      * Publishes the list of messages using a single producer.
      *
      * @param messages the messages to send.
      * @throws InternalServerErrorException if unable to publish jms messages.
      */
-    private void publishJmsMessagesWithRetry(List<JsonValue> messages) throws InternalServerErrorException {
+    private void publishJmsMessagesWithRetry(List<byte[]> messages) throws InternalServerErrorException {
         try {
             publishJmsMessages(messages);
         } catch (JMSException e) {
@@ -161,42 +202,57 @@ public class JmsAuditEventHandler extends AuditEventHandlerBase {
     }
 
     /**
-     * Publishes the list of messages using a single producer.
+     * Publishes the list of messages using a single pooled producer, and commits them at once if the session is
+     * transacted.
      *
      * @param messages the messages to send.
      * @throws JMSException if unable to publish jms messages and a retry is possible.
      *         InternalServerErrorException if unable to publish jms messages and a retry is not possible.
      */
-    private void publishJmsMessages(List<JsonValue> messages) throws JMSException, InternalServerErrorException {
-        Session session = null;
+    private void publishJmsMessages(List<byte[]> messages) throws JMSException, InternalServerErrorException {
+        final PooledSession pooled = jmsResourceManager.acquireSession();
+        boolean published = false;
         try {
-            session = jmsResourceManager.createSession();
-            MessageProducer producer = null;
-            try {
-                producer = jmsResourceManager.createProducer(session);
-                for (JsonValue message : messages) {
-                    String text = MAPPER.writeValueAsString(message.getObject());
-                    producer.send(session.createTextMessage(text));
-                }
-            } finally {
-                if (null != producer) {
-                    producer.close();
-                }
+            final Session session = pooled.getSession();
+            final MessageProducer producer = pooled.getProducer();
+            for (byte[] message : messages) {
+                producer.send(createMessage(session, message));
+            }
+            if (jmsResourceManager.isTransacted()) {
+                session.commit();
             }
+            published = true;
         } catch (JMSException e) {
             LOGGER.debug("Failed to publish messages", e);
             throw e;
-        } catch (JsonProcessingException e) {
+        } catch (IOException e) {
             final String message = "Unable to publish JMS messages, messages are likely lost";
             LOGGER.error(message, e);
             throw new InternalServerErrorException(message, e);
         } finally {
-            if (null != session) {
-                session.close();
+            if (published) {
+                jmsResourceManager.releaseSession(pooled);
+            } else {
+                // closing the session also rolls back the messages sent in a transacted session
+                jmsResourceManager.discardSession(pooled);
             }
         }
     }
 
+    private Message createMessage(Session session, byte[] message) throws JMSException, IOException {
+        if (!compressed) {
+            return session.createTextMessage(new String(message, StandardCharsets.UTF_8));
+        }
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream(message.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(bytes)) {
+            gzip.write(message);
+        }
+        final BytesMessage bytesMessage = session.createBytesMessage();
+        bytesMessage.writeBytes(bytes.toByteArray());
+        bytesMessage.setStringProperty(CONTENT_ENCODING_PROPERTY, "gzip");
+        return bytesMessage;
+    }
+
     /**
      * Returns NotSupportedException as query is not implemented for JMS.
      * <br/>
@@ -226,7 +282,7 @@ public class JmsAuditEventHandler extends AuditEventHandlerBase {
     /**
      * Implementation of the BatchPublisher to handle publishing groups of audit event data to JMS.
      */
-    private class JmsBatchPublisher extends BatchPublisher<JsonValue> {
+    private class JmsBatchPublisher extends BatchPublisher<byte[]> {
 
         /**
          * Constructor that passes the configuration to {@link BatchPublisher}.
@@ -248,7 +304,7 @@ public class JmsAuditEventHandler extends AuditEventHandlerBase {
         }
 
         @Override
-        protected void publishMessages(List<JsonValue> messages) {
+        protected void publishMessages(List<byte[]> messages) {
             try {
                 publishJmsMessagesWithRetry(messages);
             } catch (InternalServerErrorException e) {
@@ -260,7 +316,7 @@ public class JmsAuditEventHandler extends AuditEventHandlerBase {
     /**
      * Implementation of the Publisher to handle publishing singleton audit event data to JMS.
      */
-    private class JmsPublisher implements Publisher<JsonValue> {
+    private class JmsPublisher implements Publisher<byte[]> {
 
         @Override
         public void startup() throws ResourceException {
@@ -273,7 +329,7 @@ public class JmsAuditEventHandler extends AuditEventHandlerBase {
         }
 
         @Override
-        public void publish(JsonValue message) throws ResourceException {
+        public void publish(byte[] message) throws ResourceException {
             publishJmsMessagesWithRetry(Collections.singletonList(message));
         }
     }
@@ -12,6 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2016 ForgeRock AS.
+ * Portions copyright 2026 Open Source Solution Technology Corporation
  */
 
 package org.forgerock.audit.handlers.jms;
@@ -39,6 +40,7 @@ import org.forgerock.util.Reject;
  *     "topics": [ "access", "activity", "config", "authentication" ],
  *     "deliveryMode" : "NON_PERSISTENT",
  *     "sessionMode" : "AUTO",
+ *     "useCompression" : false,
  *     "jndi" :  {
  *          "contextProperties" : {
  *              "initialContextFactory" : "org.apache.activemq.jndi.ActiveMQInitialContextFactory",
@@ -60,6 +62,9 @@ public class JmsAuditEventHandlerConfiguration extends EventHandlerConfiguration
     @JsonPropertyDescription("audit.handlers.jms.sessionMode")
     private SessionModeConfig sessionMode;
 
+    @JsonPropertyDescription("audit.handlers.jms.useCompression")
+    private boolean useCompression;
+
     @JsonPropertyDescription("audit.handlers.jms.batch")
     private BatchPublisherConfiguration batch = new BatchPublisherConfiguration();
 
@@ -104,6 +109,26 @@ public class JmsAuditEventHandlerConfiguration extends EventHandlerConfiguration
         this.sessionMode = sessionMode;
     }
 
+    /**
+     * Indicates whether audit events are published as gzip compressed {@link javax.jms.BytesMessage}s rather than
+     * as {@link javax.jms.TextMessage}s.
+     *
+     * @return {@code true} if audit events are published compressed.
+     */
+    public boolean isUseCompression() {
+        return useCompression;
+    }
+
+    /**
+     * Sets whether audit events are published as gzip compressed {@link javax.jms.BytesMessage}s rather than as
+     * {@link javax.jms.TextMessage}s.
+     *
+     * @param useCompression {@code true} if audit events are published compressed.
+     */
+    public void setUseCompression(boolean useCompression) {
+        this.useCompression = useCompression;
+    }
+
     /**
      * Returns the configuration used to initialize the batch publisher.
      *
@@ -12,12 +12,17 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2016 ForgeRock AS.
+ * Portions copyright 2026 Open Source Solution Technology Corporation
  */
 
 package org.forgerock.audit.handlers.jms;
 
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
 import javax.jms.Connection;
 import javax.jms.ConnectionFactory;
+import javax.jms.ExceptionListener;
 import javax.jms.JMSException;
 import javax.jms.MessageProducer;
 import javax.jms.Session;
@@ -31,6 +36,11 @@ import org.slf4j.LoggerFactory;
 
 /**
  * Manages the Connection to the JMS services and does the JNDI lookup for the JMS configuration settings.
+ * <p>
+ * Sessions, and their producer, are pooled: a {@linkplain #acquireSession() session acquired} by a thread is
+ * {@linkplain #releaseSession(PooledSession) released} once its messages have been sent, and then reused by the next
+ * publication instead of being closed. Sessions belonging to a connection which has been closed, or which has
+ * failed, are discarded.
  */
 class JmsResourceManager {
     private static final Logger logger = LoggerFactory.getLogger(JmsResourceManager.class);
@@ -53,7 +63,18 @@ class JmsResourceManager {
     /**
      * The Current JMS broker connection, if open.
      */
-    private Connection connection;
+    private volatile Connection connection;
+
+    /**
+     * Incremented each time the connection is closed or fails, so that sessions created from a previous connection
+     * are not reused.
+     */
+    private volatile int generation;
+
+    /**
+     * Sessions ready to be reused.
+     */
+    private final BlockingQueue<PooledSession> idleSessions;
 
     /**
      * The JMS Topic used to publish the audit TextMessages.
@@ -82,15 +103,28 @@ class JmsResourceManager {
         Reject.ifNull(this.connectionFactory, "Null ConnectionFactory is not permitted.");
         Reject.ifNull(this.topic, "Null topic is not permitted.");
 
+        final BatchPublisherConfiguration batch = configuration.getBatch();
+        this.idleSessions = new ArrayBlockingQueue<>(batch.isBatchEnabled()
+                ? Math.max(1, batch.getThreadCount())
+                : 2 * Runtime.getRuntime().availableProcessors());
     }
 
     /**
      * Opens the connection to the JMS services with the configured session mode.
      * @throws JMSException
      */
-    public void openConnection() throws JMSException {
-        connection = connectionFactory.createConnection();
-        connection.start();
+    public synchronized void openConnection() throws JMSException {
+        final Connection opened = connectionFactory.createConnection();
+        final int openedGeneration = generation;
+        opened.setExceptionListener(new ExceptionListener() {
+            @Override
+            public void onException(JMSException exception) {
+                logger.debug("JMS Connection failed, its sessions will be recreated", exception);
+                invalidateSessions(openedGeneration);
+            }
+        });
+        opened.start();
+        connection = opened;
         logger.debug("JMS Connection created and started");
     }
 
@@ -99,7 +133,8 @@ class JmsResourceManager {
      *
      * @throws JMSException
      */
-    public void closeConnection() throws JMSException {
+    public synchronized void closeConnection() throws JMSException {
+        invalidateSessions(generation);
         if (null != connection) {
             try {
                 connection.close();
@@ -112,8 +147,8 @@ class JmsResourceManager {
     }
 
     /**
-     * Creates and returns a jms session created from the connection with the sessionMode configured and without
-     * transaction management.
+     * Creates and returns a jms session created from the connection with the sessionMode configured, which is
+     * transacted when the {@link SessionModeConfig#TRANSACTED TRANSACTED} session mode is configured.
      *
      * @return a new session.
      * @throws JMSException if trouble is encountered creating the session.
@@ -121,11 +156,22 @@ class JmsResourceManager {
      * @see Connection#createSession(boolean, int)
      */
     public Session createSession() throws JMSException {
-        if (null == connection) {
+        final Connection current = connection;
+        if (null == current) {
             throw new IllegalStateException(
                     "JMS Connection not available to create session. The JMS Audit Service requires a restart.");
         }
-        return connection.createSession(false, sessionMode.getMode());
+        return current.createSession(isTransacted(), sessionMode.getMode());
+    }
+
+    /**
+     * Indicates whether sessions are transacted, in which case messages are only delivered once the session is
+     * committed.
+     *
+     * @return {@code true} if sessions are transacted.
+     */
+    public boolean isTransacted() {
+        return sessionMode == SessionModeConfig.TRANSACTED;
     }
 
     /**
@@ -142,4 +188,106 @@ class JmsResourceManager {
         producer.setDeliveryMode(deliveryMode.getMode());
         return producer;
     }
+
+    /**
+     * Returns an idle pooled session, or creates a new one with its producer if none is available. The session must
+     * be used by the calling thread only, then either {@linkplain #releaseSession(PooledSession) released} or
+     * {@linkplain #discardSession(PooledSession) discarded}.
+     *
+     * @return a session and its producer.
+     * @throws JMSException if trouble is encountered creating the session or its producer.
+     * @throws IllegalStateException if the connection hasn't been opened.
+     */
+    public PooledSession acquireSession() throws JMSException {
+        PooledSession pooled;
+        while ((pooled = idleSessions.poll()) != null) {
+            if (pooled.generation == generation) {
+                return pooled;
+            }
+            pooled.close();
+        }
+        final int currentGeneration = generation;
+        final Session session = createSession();
+        try {
+            return new PooledSession(session, createProducer(session), currentGeneration);
+        } catch (JMSException | RuntimeException e) {
+            session.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Returns a session to the pool once its messages have been sent. The session is closed instead if the pool is
+     * full, or if the connection it belongs to has been closed or has failed in the meantime.
+     *
+     * @param pooled the session to release.
+     */
+    public void releaseSession(PooledSession pooled) {
+        if (pooled.generation != generation || !idleSessions.offer(pooled)) {
+            pooled.close();
+        }
+    }
+
+    /**
+     * Closes a session which failed to send messages, rather than returning it to the pool.
+     *
+     * @param pooled the session to discard.
+     */
+    public void discardSession(PooledSession pooled) {
+        pooled.close();
+    }
+
+    private void invalidateSessions(int failedGeneration) {
+        synchronized (idleSessions) {
+            if (generation == failedGeneration) {
+                generation++;
+                PooledSession pooled;
+                while ((pooled = idleSessions.poll()) != null) {
+                    pooled.close();
+                }
+            }
+        }
+    }
+
+    /**
+     * A session and its producer, reused across publications.
+     */
+    static final class PooledSession {
+        private final Session session;
+        private final MessageProducer producer;
+        private final int generation;
+
+        private PooledSession(Session session, MessageProducer producer, int generation) {
+            this.session = session;
+            this.producer = producer;
+            this.generation = generation;
+        }
+
+        /**
+         * Returns the session.
+         *
+         * @return the session.
+         */
+        Session getSession() {
+            return session;
+        }
+
+        /**
+         * Returns the producer publishing on the configured JMS topic.
+         *
+         * @return the producer.
+         */
+        MessageProducer getProducer() {
+            return producer;
+        }
+
+        private void close() {
+            try {
+                // also closes the producer
+                session.close();
+            } catch (JMSException | RuntimeException e) {
+                logger.debug("Unable to close JMS session", e);
+            }
+        }
+    }
 }
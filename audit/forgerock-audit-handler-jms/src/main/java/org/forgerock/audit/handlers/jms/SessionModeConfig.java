@@ -12,6 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2016 ForgeRock AS.
+ * Portions copyright 2026 Open Source Solution Technology Corporation
  */
 
 package org.forgerock.audit.handlers.jms;
@@ -27,7 +28,12 @@ public enum SessionModeConfig {
     /** Client-acknowledge session mode. */
     CLIENT(Session.CLIENT_ACKNOWLEDGE),
     /** Dups-OK-acknowledge session mode. */
-    DUPS_OK(Session.DUPS_OK_ACKNOWLEDGE);
+    DUPS_OK(Session.DUPS_OK_ACKNOWLEDGE),
+    /**
+     * Transacted session mode: the messages of a publication, that is a whole batch when batching is enabled, are
+     * committed at once.
+     */
+    TRANSACTED(Session.SESSION_TRANSACTED);
 
     private int mode;
 
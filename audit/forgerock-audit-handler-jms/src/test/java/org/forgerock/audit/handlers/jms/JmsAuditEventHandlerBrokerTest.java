@@ -0,0 +1,209 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Open Source Solution Technology Corporation
+ */
+
+package org.forgerock.audit.handlers.jms;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.forgerock.audit.json.AuditJsonConfig.parseAuditEventHandlerConfiguration;
+import static org.forgerock.json.JsonValue.field;
+import static org.forgerock.json.JsonValue.json;
+import static org.forgerock.json.JsonValue.object;
+
+import javax.jms.BytesMessage;
+import javax.jms.Connection;
+import javax.jms.ConnectionFactory;
+import javax.jms.JMSContext;
+import javax.jms.JMSException;
+import javax.jms.Message;
+import javax.jms.MessageConsumer;
+import javax.jms.Session;
+import javax.jms.TextMessage;
+import javax.jms.Topic;
+import java.io.ByteArrayInputStream;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.zip.GZIPInputStream;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.activemq.ActiveMQConnectionFactory;
+import org.apache.activemq.command.ActiveMQTopic;
+import org.forgerock.audit.events.EventTopicsMetaData;
+import org.forgerock.audit.events.EventTopicsMetaDataBuilder;
+import org.forgerock.audit.handlers.jms.JmsAuditEventHandlerTest.DefaultJmsContextManager;
+import org.forgerock.json.JsonValue;
+import org.forgerock.json.resource.ResourceException;
+import org.forgerock.json.resource.ResourceResponse;
+import org.forgerock.util.promise.Promise;
+import org.forgerock.util.test.assertj.AssertJPromiseAssert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/**
+ * Tests the JMS Audit event handler against an embedded, non persistent, in-VM ActiveMQ broker.
+ */
+@SuppressWarnings("javadoc")
+public class JmsAuditEventHandlerBrokerTest {
+    private static final String BROKER_URL = "vm://audit?broker.persistent=false&broker.useJmx=false";
+    private static final long RECEIVE_TIMEOUT = 5000L;
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final EventTopicsMetaData CORE_EVENT_TOPICS =
+            EventTopicsMetaDataBuilder.coreTopicSchemas().build();
+
+    private RecordingConnectionFactory connectionFactory;
+    private Topic topic;
+    private Connection consumerConnection;
+    private MessageConsumer consumer;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+        connectionFactory = new RecordingConnectionFactory(new ActiveMQConnectionFactory(BROKER_URL));
+        topic = new ActiveMQTopic("audit");
+        // the consumer connection keeps the broker alive, and must subscribe before anything is published
+        consumerConnection = new ActiveMQConnectionFactory(BROKER_URL).createConnection();
+        consumerConnection.start();
+        consumer = consumerConnection.createSession(false, Session.AUTO_ACKNOWLEDGE).createConsumer(topic);
+    }
+
+    @AfterMethod
+    public void tearDown() throws Exception {
+        consumerConnection.close();
+    }
+
+    @Test
+    public void testTransactedCompressedBatches() throws Exception {
+        // given
+        JmsAuditEventHandlerConfiguration configuration = parseAuditEventHandlerConfiguration(
+                JmsAuditEventHandlerConfiguration.class,
+                JmsAuditEventHandlerTest.getAuditConfig("batch-handler-config.json"));
+        configuration.setSessionMode(SessionModeConfig.TRANSACTED);
+        configuration.setUseCompression(true);
+        JmsAuditEventHandler handler = new JmsAuditEventHandler(
+                new DefaultJmsContextManager(connectionFactory, topic), configuration, CORE_EVENT_TOPICS);
+        handler.startup();
+
+        // when
+        int messagesToSend = 50;
+        for (int i = 0; i < messagesToSend; i++) {
+            handler.publishEvent(null, "access", json(object(field("name", "BatchedEvent"), field("index", i))));
+        }
+        // shutdown to clear out the queue.
+        handler.shutdown();
+
+        // then
+        Set<Integer> indexes = new HashSet<>();
+        for (int i = 0; i < messagesToSend; i++) {
+            Message message = consumer.receive(RECEIVE_TIMEOUT);
+            assertThat(message).isInstanceOf(BytesMessage.class);
+            assertThat(message.getStringProperty(JmsAuditEventHandler.CONTENT_ENCODING_PROPERTY)).isEqualTo("gzip");
+            JsonValue event = readCompressed((BytesMessage) message);
+            assertThat(event.get("auditTopic").asString()).isEqualTo("access");
+            indexes.add(event.get("event").get("index").asInteger());
+        }
+        assertThat(indexes).hasSize(messagesToSend);
+        assertThat(consumer.receive(100L)).isNull();
+    }
+
+    @Test
+    public void testRecoversFromConnectionFailure() throws Exception {
+        // given
+        JmsAuditEventHandlerConfiguration configuration = parseAuditEventHandlerConfiguration(
+                JmsAuditEventHandlerConfiguration.class,
+                JmsAuditEventHandlerTest.getAuditConfig("event-handler-config.json"));
+        JmsAuditEventHandler handler = new JmsAuditEventHandler(
+                new DefaultJmsContextManager(connectionFactory, topic), configuration, CORE_EVENT_TOPICS);
+        handler.startup();
+        try {
+            handler.publishEvent(null, "access", json(object(field("name", "BeforeFailure"))));
+            assertThat(connectionFactory.connections).hasSize(1);
+
+            // when
+            connectionFactory.connections.get(0).close();
+            Promise<ResourceResponse, ResourceException> promise =
+                    handler.publishEvent(null, "access", json(object(field("name", "AfterFailure"))));
+
+            // then
+            AssertJPromiseAssert.assertThat(promise).succeeded();
+            assertThat(connectionFactory.connections).hasSize(2);
+            List<String> names = new ArrayList<>();
+            for (int i = 0; i < 2; i++) {
+                TextMessage message = (TextMessage) consumer.receive(RECEIVE_TIMEOUT);
+                assertThat(message).isNotNull();
+                names.add(json(MAPPER.readValue(message.getText(), Map.class)).get("event").get("name").asString());
+            }
+            assertThat(names).containsExactly("BeforeFailure", "AfterFailure");
+        } finally {
+            handler.shutdown();
+        }
+    }
+
+    private static JsonValue readCompressed(BytesMessage message) throws Exception {
+        byte[] bytes = new byte[(int) message.getBodyLength()];
+        message.readBytes(bytes);
+        return json(MAPPER.readValue(new GZIPInputStream(new ByteArrayInputStream(bytes)), Map.class));
+    }
+
+    /**
+     * Records the connections it creates, so that tests can break them.
+     */
+    private static final class RecordingConnectionFactory implements ConnectionFactory {
+
+        private final ConnectionFactory delegate;
+        private final List<Connection> connections = new CopyOnWriteArrayList<>();
+
+        private RecordingConnectionFactory(ConnectionFactory delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public Connection createConnection() throws JMSException {
+            Connection connection = delegate.createConnection();
+            connections.add(connection);
+            return connection;
+        }
+
+        @Override
+        public Connection createConnection(String userName, String password) throws JMSException {
+            Connection connection = delegate.createConnection(userName, password);
+            connections.add(connection);
+            return connection;
+        }
+
+        @Override
+        public JMSContext createContext() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public JMSContext createContext(String userName, String password) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public JMSContext createContext(String userName, String password, int sessionMode) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public JMSContext createContext(int sessionMode) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
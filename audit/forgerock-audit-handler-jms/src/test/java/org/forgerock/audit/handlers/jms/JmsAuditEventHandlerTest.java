@@ -14,6 +14,7 @@
  * Copyright 2016 ForgeRock AS.
  * 
  * Portions Copyrighted 2019 OGIS-RI Co., Ltd.
+ * Portions copyright 2026 Open Source Solution Technology Corporation
  */
 
 package org.forgerock.audit.handlers.jms;
@@ -29,6 +30,7 @@ import static org.mockito.Mockito.anyBoolean;
 import static org.mockito.Mockito.anyString;
 import static org.mockito.Mockito.*;
 
+import javax.jms.BytesMessage;
 import javax.jms.Connection;
 import javax.jms.ConnectionFactory;
 import javax.jms.Destination;
@@ -38,7 +40,9 @@ import javax.jms.MessageProducer;
 import javax.jms.Session;
 import javax.jms.TextMessage;
 import javax.jms.Topic;
+import java.io.ByteArrayInputStream;
 import java.util.Map;
+import java.util.zip.GZIPInputStream;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.forgerock.audit.AuditException;
@@ -304,6 +308,112 @@ public class JmsAuditEventHandlerTest {
 
     }
 
+    @Test
+    public void testSessionAndProducerAreReused() throws Exception {
+        // given
+        ConnectionFactory connectionFactory = mock(ConnectionFactory.class);
+        Topic topic = mock(Topic.class);
+        Connection connection = mock(Connection.class);
+        Session session = mock(Session.class);
+        MessageProducer producer = mock(MessageProducer.class);
+
+        when(connectionFactory.createConnection()).thenReturn(connection);
+        when(connection.createSession(anyBoolean(), anyInt())).thenReturn(session);
+        when(session.createProducer(topic)).thenReturn(producer);
+        when(session.createTextMessage(anyString())).thenReturn(mock(TextMessage.class));
+        JmsAuditEventHandler jmsAuditEventHandler =
+                new JmsAuditEventHandler(
+                        new DefaultJmsContextManager(connectionFactory, topic),
+                        getDefaultConfiguration(),
+                        CORE_EVENT_TOPICS);
+        jmsAuditEventHandler.startup();
+
+        // when
+        for (int i = 0; i < 3; i++) {
+            jmsAuditEventHandler.publishEvent(null, "TEST_AUDIT", json(object(field("name", "TestEvent"))));
+        }
+
+        // then
+        verify(connection, times(1)).createSession(false, Session.AUTO_ACKNOWLEDGE);
+        verify(session, times(1)).createProducer(topic);
+        verify(producer, times(3)).send(any(TextMessage.class));
+        verify(session, never()).close();
+    }
+
+    @Test
+    public void testTransactedSessionIsCommittedAndDiscardedOnFailure() throws Exception {
+        // given
+        ConnectionFactory connectionFactory = mock(ConnectionFactory.class);
+        Topic topic = mock(Topic.class);
+        Connection connection = mock(Connection.class);
+        Session session = mock(Session.class);
+        MessageProducer producer = mock(MessageProducer.class);
+
+        when(connectionFactory.createConnection()).thenReturn(connection);
+        when(connection.createSession(anyBoolean(), anyInt())).thenReturn(session);
+        when(session.createProducer(topic)).thenReturn(producer);
+        when(session.createTextMessage(anyString())).thenReturn(mock(TextMessage.class));
+        // fail once, the retry succeeds
+        doThrow(mock(JMSException.class)).doNothing().when(producer).send(any(Message.class));
+        JmsAuditEventHandlerConfiguration configuration = getDefaultConfiguration();
+        configuration.setSessionMode(SessionModeConfig.TRANSACTED);
+        JmsAuditEventHandler jmsAuditEventHandler =
+                new JmsAuditEventHandler(
+                        new DefaultJmsContextManager(connectionFactory, topic),
+                        configuration,
+                        CORE_EVENT_TOPICS);
+        jmsAuditEventHandler.startup();
+
+        // when
+        final Promise<ResourceResponse, ResourceException> promise =
+                jmsAuditEventHandler.publishEvent(null, "TEST_AUDIT", json(object(field("name", "TestEvent"))));
+
+        // then
+        AssertJPromiseAssert.assertThat(promise).succeeded();
+        verify(connection, times(2)).createSession(true, Session.SESSION_TRANSACTED);
+        // the failed session is closed, which rolls back its transaction
+        verify(session, times(1)).close();
+        verify(session, times(1)).commit();
+    }
+
+    @Test
+    public void testCompressedMessages() throws Exception {
+        // given
+        ConnectionFactory connectionFactory = mock(ConnectionFactory.class);
+        Topic topic = mock(Topic.class);
+        Connection connection = mock(Connection.class);
+        Session session = mock(Session.class);
+        MessageProducer producer = mock(MessageProducer.class);
+        BytesMessage bytesMessage = mock(BytesMessage.class);
+
+        when(connectionFactory.createConnection()).thenReturn(connection);
+        when(connection.createSession(anyBoolean(), anyInt())).thenReturn(session);
+        when(session.createProducer(topic)).thenReturn(producer);
+        when(session.createBytesMessage()).thenReturn(bytesMessage);
+        JmsAuditEventHandlerConfiguration configuration = getDefaultConfiguration();
+        configuration.setUseCompression(true);
+        JmsAuditEventHandler jmsAuditEventHandler =
+                new JmsAuditEventHandler(
+                        new DefaultJmsContextManager(connectionFactory, topic),
+                        configuration,
+                        CORE_EVENT_TOPICS);
+        jmsAuditEventHandler.startup();
+
+        // when
+        jmsAuditEventHandler.publishEvent(null, "TEST_AUDIT", json(object(field("name", "TestEvent"))));
+
+        // then
+        verify(producer).send(bytesMessage);
+        verify(bytesMessage).setStringProperty(JmsAuditEventHandler.CONTENT_ENCODING_PROPERTY, "gzip");
+        ArgumentCaptor<byte[]> bytesCaptor = ArgumentCaptor.forClass(byte[].class);
+        verify(bytesMessage).writeBytes(bytesCaptor.capture());
+
+        JsonValue jsonValue = new JsonValue(MAPPER.readValue(
+                new GZIPInputStream(new ByteArrayInputStream(bytesCaptor.getValue())), Map.class));
+        assertThat(jsonValue).stringAt("auditTopic").isEqualTo("TEST_AUDIT");
+        assertThat(jsonValue).stringAt("event/name").isEqualTo("TestEvent");
+    }
+
     @Test
     public void testQueryNotSupported() throws Exception {
 
@@ -369,7 +479,7 @@ public class JmsAuditEventHandlerTest {
                 JmsAuditEventHandlerTest.class.getResourceAsStream(RESOURCE_PATH + testConfigFile));
     }
 
-    private static class DefaultJmsContextManager implements JmsContextManager {
+    static class DefaultJmsContextManager implements JmsContextManager {
 
         private final ConnectionFactory connectionFactory;
         private final Topic topic;
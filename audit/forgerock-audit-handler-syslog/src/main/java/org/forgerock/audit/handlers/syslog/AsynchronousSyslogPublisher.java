@@ -13,6 +13,7 @@
  *
  * Copyright 2013 Cybernetica AS
  * Portions copyright 2014-2015 ForgeRock AS.
+ * Portions copyright 2026 Open Source Solution Technology Corporation
  */
 package org.forgerock.audit.handlers.syslog;
 
@@ -21,7 +22,6 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
-import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
@@ -77,12 +77,13 @@ class AsynchronousSyslogPublisher implements SyslogPublisher {
     }
 
     @Override
-    public void publishMessage(String syslogMessage) throws IOException {
+    public void publishMessage(byte[] syslogMessage, int length) throws IOException {
+        final byte[] message = Arrays.copyOf(syslogMessage, length);
         boolean interrupted = false;
         while (!stopRequested) {
             // Put request on queue for writer
             try {
-                queue.put(syslogMessage.getBytes(StandardCharsets.UTF_8));
+                queue.put(message);
                 break;
             } catch (InterruptedException e) {
                 // We expect this to happen. Just ignore it and hopefully
@@ -117,21 +118,31 @@ class AsynchronousSyslogPublisher implements SyslogPublisher {
         }
     }
 
+    /**
+     * Sends the drained messages as a single batch, TCP connections framing them into as few writes as possible.
+     * A batch which fails is sent again once through a new connection, so that a connection dropped by the Syslog
+     * daemon does not lose the whole batch; messages which had been written before the failure may then be received
+     * twice.
+     */
     private void publishBufferedMessages(List<byte[]> syslogMessages) {
-        for (byte[] syslogMessage : syslogMessages) {
+        try {
+            sendBatch(syslogMessages);
+        } catch (IOException ex) {
+            logger.warn("Error when writing a batch of " + syslogMessages.size() + " messages, retrying", ex);
+            connection.close();
             try {
-                connection.reconnect();
-                connection.send(syslogMessage);
-            } catch (IOException ex) {
-                logger.error("Error when writing a message, message size: " + syslogMessage.length, ex);
+                sendBatch(syslogMessages);
+            } catch (IOException retryEx) {
+                logger.error("Error when writing a batch of " + syslogMessages.size() + " messages", retryEx);
                 connection.close();
             }
         }
-        try {
-            connection.flush();
-        } catch (IOException ex) {
-            logger.error("Error when flushing the connection", ex);
-        }
+    }
+
+    private void sendBatch(List<byte[]> syslogMessages) throws IOException {
+        connection.reconnect();
+        connection.send(syslogMessages);
+        connection.flush();
     }
 
     /**
@@ -153,9 +164,12 @@ class AsynchronousSyslogPublisher implements SyslogPublisher {
                     if (drainList.isEmpty()) {
                         byte[] message = queue.poll(POLLING_TIMEOUT, POLLING_TIMEOUT_UNIT);
                         if (message != null) {
-                            publishBufferedMessages(Arrays.asList(message));
+                            // pick up whatever has been queued meanwhile, to batch it with this message
+                            drainList.add(message);
+                            queue.drainTo(drainList, CAPACITY - 1);
                         }
-                    } else {
+                    }
+                    if (!drainList.isEmpty()) {
                         publishBufferedMessages(drainList);
                         drainList.clear();
                     }
@@ -13,13 +13,13 @@
  *
  * Copyright 2013 Cybernetica AS
  * Portions copyright 2014-2015 ForgeRock AS.
+ * Portions copyright 2026 Open Source Solution Technology Corporation
  */
 package org.forgerock.audit.handlers.syslog;
 
 import org.forgerock.util.Reject;
 
 import java.io.IOException;
-import java.nio.charset.StandardCharsets;
 
 /**
  * SyslogPublisher that transmits messages using the current thread.
@@ -41,10 +41,16 @@ class SynchronousSyslogPublisher implements SyslogPublisher {
     }
 
     @Override
-    public void publishMessage(String syslogMessage) throws IOException {
-        connection.reconnect();
-        connection.send(syslogMessage.getBytes(StandardCharsets.UTF_8));
-        connection.flush();
+    public void publishMessage(byte[] syslogMessage, int length) throws IOException {
+        try {
+            connection.reconnect();
+            connection.send(syslogMessage, length);
+            connection.flush();
+        } catch (IOException e) {
+            // so that the next message is sent through a new connection
+            connection.close();
+            throw e;
+        }
     }
 
     @Override
@@ -13,6 +13,7 @@
  *
  * Copyright 2013 Cybernetica AS
  * Portions copyright 2014-2016 ForgeRock AS.
+ * Portions copyright 2026 Open Source Solution Technology Corporation
  */
 package org.forgerock.audit.handlers.syslog;
 
@@ -24,6 +25,7 @@ import java.net.InetSocketAddress;
 import javax.inject.Inject;
 
 import org.forgerock.audit.Audit;
+import org.forgerock.audit.events.AuditEventEncoding;
 import org.forgerock.audit.events.EventTopicsMetaData;
 import org.forgerock.audit.events.handlers.AuditEventHandlerBase;
 import org.forgerock.audit.providers.DefaultLocalHostNameProvider;
@@ -54,6 +56,13 @@ public class SyslogAuditEventHandler extends AuditEventHandlerBase {
 
     private final SyslogPublisher publisher;
     private final SyslogFormatter formatter;
+    /** Buffers into which each thread encodes its events, so that they are reused for every event. */
+    private final ThreadLocal<SyslogMessageBuffer> buffers = new ThreadLocal<SyslogMessageBuffer>() {
+        @Override
+        protected SyslogMessageBuffer initialValue() {
+            return new SyslogMessageBuffer();
+        }
+    };
 
     /**
      * Create a new SyslogAuditEventHandler instance.
@@ -135,9 +144,10 @@ public class SyslogAuditEventHandler extends AuditEventHandlerBase {
     public Promise<ResourceResponse, ResourceException> publishEvent(Context context, String topic, JsonValue event) {
 
         try {
-            final String syslogMessage = formatAsSyslogMessage(topic, event);
+            final SyslogMessageBuffer syslogMessage =
+                    formatAsSyslogMessage(topic, AuditEventEncoding.of(context, event));
             synchronized (publisher) {
-                publisher.publishMessage(syslogMessage);
+                publisher.publishMessage(syslogMessage.getBytes(), syslogMessage.length());
             }
 
             return newResourceResponse(
@@ -150,12 +160,16 @@ public class SyslogAuditEventHandler extends AuditEventHandlerBase {
         }
     }
 
-    private String formatAsSyslogMessage(String topic, JsonValue auditEvent) throws ResourceException {
+    private SyslogMessageBuffer formatAsSyslogMessage(String topic, AuditEventEncoding encoding)
+            throws ResourceException {
         if (!formatter.canFormat(topic)) {
             throw new InternalServerErrorException("Unable to format " + topic + " audit event");
         }
         try {
-            return formatter.format(topic, auditEvent);
+            final SyslogMessageBuffer buffer = buffers.get();
+            buffer.reset();
+            formatter.encode(topic, encoding, buffer);
+            return buffer;
         } catch (Exception ex) {
             throw new BadRequestException(ex);
         }
@@ -13,10 +13,12 @@
  *
  * Copyright 2013 Cybernetica AS
  * Portions copyright 2014-2015 ForgeRock AS.
+ * Portions copyright 2026 Open Source Solution Technology Corporation
  */
 package org.forgerock.audit.handlers.syslog;
 
 import java.io.IOException;
+import java.util.List;
 
 /**
  * Abstraction over Syslog connection types such as TCP or UDP.
@@ -25,7 +27,22 @@ interface SyslogConnection extends AutoCloseable {
 
     void reconnect() throws IOException;
 
-    void send(byte[] syslogMessage) throws IOException;
+    /**
+     * Sends a single Syslog message, which may be buffered until {@link #flush()} is called.
+     *
+     * @param syslogMessage The array holding the Syslog message bytes, which are not retained.
+     * @param length The number of bytes of the Syslog message, starting at index 0.
+     * @throws IOException If the message could not be sent.
+     */
+    void send(byte[] syslogMessage, int length) throws IOException;
+
+    /**
+     * Sends a batch of Syslog messages, which may be buffered until {@link #flush()} is called.
+     *
+     * @param syslogMessages The Syslog messages bytes.
+     * @throws IOException If the messages could not be sent.
+     */
+    void send(List<byte[]> syslogMessages) throws IOException;
 
     void flush() throws IOException;
 
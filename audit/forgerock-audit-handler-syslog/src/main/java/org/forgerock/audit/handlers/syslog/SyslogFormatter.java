@@ -13,6 +13,7 @@
  *
  * Copyright 2013 Cybernetica AS
  * Portions copyright 2014-2016 ForgeRock AS.
+ * Portions copyright 2026 Open Source Solution Technology Corporation
  */
 package org.forgerock.audit.handlers.syslog;
 
@@ -22,13 +23,13 @@ import static org.forgerock.audit.events.AuditEventBuilder.*;
 import static org.forgerock.audit.events.AuditEventHelper.getAuditEventSchema;
 import static org.forgerock.audit.events.AuditEventHelper.jsonPointerToDotNotation;
 import static org.forgerock.audit.util.JsonSchemaUtils.generateJsonPointers;
-import static org.forgerock.audit.util.JsonValueUtils.extractValueAsString;
 
 import org.forgerock.audit.AuditService;
 import org.forgerock.audit.events.EventTopicsMetaData;
 import org.forgerock.audit.providers.LocalHostNameProvider;
 import org.forgerock.audit.providers.ProductInfoProvider;
 import org.forgerock.audit.events.AuditEvent;
+import org.forgerock.audit.events.AuditEventEncoding;
 import org.forgerock.audit.handlers.syslog.SyslogAuditEventHandlerConfiguration.SeverityFieldMapping;
 import org.forgerock.json.JsonPointer;
 import org.forgerock.json.JsonValue;
@@ -37,6 +38,8 @@ import org.forgerock.util.Reject;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -64,6 +67,10 @@ class SyslogFormatter {
     private final String appName;
     private final String procId;
     private final Facility facility;
+    /** The encoded "PRI VERSION SP" header prefixes, indexed by severity. */
+    private final byte[][] priorityAndVersion;
+    /** The encoded "SP HOSTNAME SP APP-NAME SP PROCID SP" header part, which never changes. */
+    private final byte[] hostnameAppNameAndProcId;
 
     /**
      * Construct a new SyslogFormatter.
@@ -86,6 +93,15 @@ class SyslogFormatter {
                 createSeverityFieldMappings(config.getSeverityFieldMappings(), eventTopicsMetaData);
         this.structuredDataFormatters = Collections.unmodifiableMap(
                 createStructuredDataFormatters(appName, eventTopicsMetaData));
+
+        // https://tools.ietf.org/html/rfc5424#section-6.2
+        final Severity[] severities = Severity.values();
+        this.priorityAndVersion = new byte[severities.length][];
+        for (Severity severity : severities) {
+            priorityAndVersion[severity.ordinal()] = utf8("<" + calculatePriorityValue(facility, severity) + ">"
+                    + SYSLOG_SPEC_VERSION + " ");
+        }
+        this.hostnameAppNameAndProcId = utf8(" " + hostname + " " + appName + " " + procId + " ");
     }
 
     /**
@@ -99,25 +115,34 @@ class SyslogFormatter {
      * @throws IllegalArgumentException If this formatter has no meta-data for the specified <code>topic</code>.
      */
     public String format(String topic, JsonValue auditEvent) {
+        final SyslogMessageBuffer buffer = new SyslogMessageBuffer();
+        encode(topic, new AuditEventEncoding(auditEvent), buffer);
+        return buffer.toString();
+    }
 
-        Reject.ifFalse(canFormat(topic), "Unknown event topic");
+    /**
+     * Encodes the provided <code>auditEvent</code> as an RFC-5424 compliant Syslog message, appending its UTF-8
+     * bytes to the provided <code>buffer</code>.
+     *
+     * @param topic The topic of the provided <code>auditEvent</code>.
+     * @param encoding The encodings of the audit event to be encoded, shared with other handlers.
+     * @param buffer The buffer to which the Syslog message is appended.
+     *
+     * @throws IllegalArgumentException If this formatter has no meta-data for the specified <code>topic</code>.
+     */
+    void encode(String topic, AuditEventEncoding encoding, SyslogMessageBuffer buffer) {
+        final StructuredDataFormatter structuredDataFormatter = structuredDataFormatters.get(topic);
+        Reject.ifTrue(structuredDataFormatter == null, "Unknown event topic");
 
+        final JsonValue auditEvent = encoding.getEvent();
         final Severity severity = getSeverityLevel(topic, auditEvent);
-        final String priority = String.valueOf(calculatePriorityValue(facility, severity));
-        final String timestamp = auditEvent.get(TIMESTAMP).asString();
-        final String msgId = auditEvent.get(EVENT_NAME).asString();
-        final String structuredData = structuredDataFormatters.get(topic).format(auditEvent);
-        final String msg = "";
-
-        return "<" + priority + ">"         // https://tools.ietf.org/html/rfc5424#section-6.2.1    PRI
-                + SYSLOG_SPEC_VERSION + " " // https://tools.ietf.org/html/rfc5424#section-6.2.2    VERSION
-                + timestamp + " "           // https://tools.ietf.org/html/rfc5424#section-6.2.3    TIMESTAMP
-                + hostname + " "            // https://tools.ietf.org/html/rfc5424#section-6.2.4    HOSTNAME
-                + appName + " "             // https://tools.ietf.org/html/rfc5424#section-6.2.5    APP-NAME
-                + procId + " "              // https://tools.ietf.org/html/rfc5424#section-6.2.6    PROCID
-                + msgId + " "               // https://tools.ietf.org/html/rfc5424#section-6.2.7    MSGID
-                + structuredData + " "      // https://tools.ietf.org/html/rfc5424#section-6.3      STRUCTURED-DATA
-                + msg;                      // https://tools.ietf.org/html/rfc5424#section-6.4      MSG
+        buffer.append(priorityAndVersion[severity.ordinal()])      // PRI and VERSION
+                .append(auditEvent.get(TIMESTAMP).asString())      // TIMESTAMP
+                .append(hostnameAppNameAndProcId)                   // HOSTNAME, APP-NAME and PROCID
+                .append(auditEvent.get(EVENT_NAME).asString())     // MSGID
+                .append(' ');
+        structuredDataFormatter.encode(encoding, buffer);          // STRUCTURED-DATA
+        buffer.append(' ');                                         // empty MSG
     }
 
     /**
@@ -216,6 +241,10 @@ class SyslogFormatter {
         return (facility.getCode() * 8) + severityLevel.getCode();
     }
 
+    private static byte[] utf8(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
     /**
      * Calculates the Syslog message HOSTNAME value.
      *
@@ -252,8 +281,12 @@ class SyslogFormatter {
         private static final Set<String> IGNORED_FIELDS = unmodifiableSet(
                 new HashSet<>(asList("_id", TIMESTAMP, EVENT_NAME)));
 
-        private final String id;
-        private final Set<String> fieldNames;
+        /** The encoded "[SD-ID" opening of the SD-ELEMENT. */
+        private final byte[] opening;
+        /** The fields copied to SD-PARAMs. */
+        private final JsonPointer[] fields;
+        /** The encoded " PARAM-NAME=\"" prefixes of the SD-PARAMs, in the same order as {@link #fields}. */
+        private final byte[][] paramPrefixes;
 
         /**
          * Construct a new StructuredDataFormatter.
@@ -278,49 +311,38 @@ class SyslogFormatter {
                 throw new IllegalArgumentException(e.getMessage(), e);
             }
 
-            id = topic + "." + productName + "@" + FORGEROCK_IANA_ENTERPRISE_ID;
-            fieldNames = unmodifiableSet(generateJsonPointers(auditEventSchema));
+            opening = utf8("[" + topic + "." + productName + "@" + FORGEROCK_IANA_ENTERPRISE_ID);
+            final List<JsonPointer> fieldList = new ArrayList<>();
+            final List<byte[]> prefixList = new ArrayList<>();
+            for (String fieldName : generateJsonPointers(auditEventSchema)) {
+                String formattedName = formatParamName(fieldName);
+                if (!IGNORED_FIELDS.contains(formattedName)) {
+                    fieldList.add(new JsonPointer(fieldName));
+                    prefixList.add(utf8(" " + formattedName + "=\""));
+                }
+            }
+            fields = fieldList.toArray(new JsonPointer[fieldList.size()]);
+            paramPrefixes = prefixList.toArray(new byte[prefixList.size()][]);
         }
 
         /**
-         * Translate the provided <code>auditEvent</code> to an RFC-5424 compliant SD-ELEMENT.
-         *
-         * @param auditEvent The audit event to be formatted.
+         * Encodes the provided audit event as an RFC-5424 compliant SD-ELEMENT.
          *
-         * @return an RFC-5424 compliant SD-ELEMENT.
+         * @param encoding The encodings of the audit event to be encoded.
+         * @param buffer The buffer to which the SD-ELEMENT is appended.
          */
-        public String format(JsonValue auditEvent) {
-
-            StringBuilder sd = new StringBuilder();
-
-            sd.append("[");
-            sd.append(id);
-            for (String fieldName : fieldNames) {
-                String formattedName = formatParamName(fieldName);
-                if (IGNORED_FIELDS.contains(formattedName)) {
-                    continue;
-                }
-                sd.append(" ");
-                sd.append(formattedName);
-                sd.append("=\"");
-                sd.append(formatParamValue(extractValueAsString(auditEvent, fieldName)));
-                sd.append("\"");
+        public void encode(AuditEventEncoding encoding, SyslogMessageBuffer buffer) {
+            buffer.append(opening);
+            for (int i = 0; i < fields.length; i++) {
+                buffer.append(paramPrefixes[i])
+                        .appendParamValue(encoding.getFieldAsString(fields[i]))
+                        .append('"');
             }
-            sd.append("]");
-
-            return sd.toString();
+            buffer.append(']');
         }
 
         private String formatParamName(String name) {
             return jsonPointerToDotNotation(name);
         }
-
-        private String formatParamValue(String value) {
-            if (value == null) {
-                return "";
-            } else {
-                return value.replaceAll("[\\\\\"\\]]", "\\\\$0");
-            }
-        }
     }
 }
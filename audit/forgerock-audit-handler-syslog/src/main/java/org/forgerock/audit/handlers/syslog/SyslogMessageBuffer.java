@@ -0,0 +1,158 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Open Source Solution Technology Corporation
+ */
+package org.forgerock.audit.handlers.syslog;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Growable byte buffer into which Syslog messages are encoded, so that a message reaches the connection without
+ * any intermediate {@link String}.
+ * <p/>
+ * Strings are UTF-8 encoded as they are appended; malformed surrogates are replaced by {@code '?'}, as
+ * {@link String#getBytes(java.nio.charset.Charset)} does.
+ * <p/>
+ * Objects are mutable and not thread-safe, they are meant to be reused by a single thread.
+ */
+final class SyslogMessageBuffer {
+
+    /** Initial capacity, large enough for most audit events. */
+    private static final int INITIAL_CAPACITY = 1024;
+    /** Buffers grown beyond this capacity by an unusually large message are released when reset. */
+    private static final int MAX_RETAINED_CAPACITY = 64 * 1024;
+
+    private byte[] bytes = new byte[INITIAL_CAPACITY];
+    private int length;
+
+    /**
+     * Discards the content of this buffer.
+     */
+    void reset() {
+        length = 0;
+        if (bytes.length > MAX_RETAINED_CAPACITY) {
+            bytes = new byte[INITIAL_CAPACITY];
+        }
+    }
+
+    /**
+     * Returns the backing array of this buffer, only its first {@link #length()} bytes are meaningful.
+     *
+     * @return the backing array.
+     */
+    byte[] getBytes() {
+        return bytes;
+    }
+
+    /**
+     * Returns the number of bytes written to this buffer.
+     *
+     * @return the number of bytes written.
+     */
+    int length() {
+        return length;
+    }
+
+    /**
+     * Appends the provided bytes.
+     *
+     * @param value the bytes to append.
+     * @return this buffer.
+     */
+    SyslogMessageBuffer append(byte[] value) {
+        ensureCapacity(value.length);
+        System.arraycopy(value, 0, bytes, length, value.length);
+        length += value.length;
+        return this;
+    }
+
+    /**
+     * Appends a single ASCII character.
+     *
+     * @param value the character to append.
+     * @return this buffer.
+     */
+    SyslogMessageBuffer append(char value) {
+        ensureCapacity(1);
+        bytes[length++] = (byte) value;
+        return this;
+    }
+
+    /**
+     * Appends the UTF-8 encoding of the provided string, {@code "null"} if it is {@code null}.
+     *
+     * @param value the string to append.
+     * @return this buffer.
+     */
+    SyslogMessageBuffer append(String value) {
+        return appendUtf8(value != null ? value : "null", false);
+    }
+
+    /**
+     * Appends the UTF-8 encoding of the provided PARAM-VALUE, escaping {@code '"'}, {@code '\'} and {@code ']'}
+     * with a backslash, nothing if it is {@code null}.
+     *
+     * @param value the PARAM-VALUE to append.
+     * @return this buffer.
+     * @see <a href="https://tools.ietf.org/html/rfc5424#section-6.3.3">RFC-5424 section 6.3.3</a>
+     */
+    SyslogMessageBuffer appendParamValue(String value) {
+        return value != null ? appendUtf8(value, true) : this;
+    }
+
+    private SyslogMessageBuffer appendUtf8(String value, boolean escape) {
+        final int count = value.length();
+        // Worst case of 3 bytes per char, or a backslash and the char
+        ensureCapacity(count * 3);
+        for (int i = 0; i < count; i++) {
+            final char c = value.charAt(i);
+            if (c < 0x80) {
+                if (escape && (c == '"' || c == '\\' || c == ']')) {
+                    bytes[length++] = '\\';
+                }
+                bytes[length++] = (byte) c;
+            } else if (c < 0x800) {
+                bytes[length++] = (byte) (0xc0 | (c >> 6));
+                bytes[length++] = (byte) (0x80 | (c & 0x3f));
+            } else if (Character.isHighSurrogate(c) && i + 1 < count
+                    && Character.isLowSurrogate(value.charAt(i + 1))) {
+                final int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                bytes[length++] = (byte) (0xf0 | (codePoint >> 18));
+                bytes[length++] = (byte) (0x80 | ((codePoint >> 12) & 0x3f));
+                bytes[length++] = (byte) (0x80 | ((codePoint >> 6) & 0x3f));
+                bytes[length++] = (byte) (0x80 | (codePoint & 0x3f));
+            } else if (Character.isSurrogate(c)) {
+                bytes[length++] = '?';
+            } else {
+                bytes[length++] = (byte) (0xe0 | (c >> 12));
+                bytes[length++] = (byte) (0x80 | ((c >> 6) & 0x3f));
+                bytes[length++] = (byte) (0x80 | (c & 0x3f));
+            }
+        }
+        return this;
+    }
+
+    private void ensureCapacity(int additional) {
+        final int required = length + additional;
+        if (required > bytes.length) {
+            bytes = Arrays.copyOf(bytes, Math.max(required, bytes.length * 2));
+        }
+    }
+
+    @Override
+    public String toString() {
+        return new String(bytes, 0, length, StandardCharsets.UTF_8);
+    }
+}
@@ -13,6 +13,7 @@
  *
  * Copyright 2013 Cybernetica AS
  * Portions copyright 2014-2015 ForgeRock AS.
+ * Portions copyright 2026 Open Source Solution Technology Corporation
  */
 package org.forgerock.audit.handlers.syslog;
 
@@ -26,11 +27,13 @@ interface SyslogPublisher extends AutoCloseable {
     /**
      * Send the provided message to the Syslog server.
      *
-     * @param syslogMessage The message to transmit to the Syslog server.
+     * @param syslogMessage The array holding the UTF-8 encoded message to transmit to the Syslog server; it is not
+     *                      retained after this method returns and can therefore be reused by the caller.
+     * @param length The number of bytes of the message, starting at index 0.
      *
      * @throws IOException If connecting or publishing events to the Syslog daemon failed.
      */
-    void publishMessage(String syslogMessage) throws IOException;
+    void publishMessage(byte[] syslogMessage, int length) throws IOException;
 
     /**
      * Closes the underlying connection.
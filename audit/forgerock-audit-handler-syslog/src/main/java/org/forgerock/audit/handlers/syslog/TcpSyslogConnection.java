@@ -13,6 +13,7 @@
  *
  * Copyright 2013 Cybernetica AS
  * Portions copyright 2014-2016 ForgeRock AS.
+ * Portions copyright 2026 Open Source Solution Technology Corporation
  */
 package org.forgerock.audit.handlers.syslog;
 
@@ -20,25 +21,46 @@ import org.forgerock.util.Reject;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.io.BufferedOutputStream;
 import java.io.IOException;
-import java.io.OutputStream;
 import java.net.InetSocketAddress;
-import java.net.Socket;
 import java.net.SocketAddress;
-import java.nio.charset.StandardCharsets;
+import java.net.SocketTimeoutException;
+import java.net.StandardSocketOptions;
+import java.net.UnknownHostException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.nio.channels.UnresolvedAddressException;
+import java.util.List;
 
 /**
- * A {@link SyslogConnection} implementation that publishes Syslog messages using the TCP protocol.
+ * Sends Syslog messages over TCP through a non-blocking {@link SocketChannel}.
+ * <p/>
+ * Messages are framed with octet-counting into a reusable buffer, which is written to the channel when the next
+ * frame does not fit in it or when {@link #flush()} is called, so that a batch of messages is sent with a few large
+ * writes. The buffer only ever holds whole frames, and a frame larger than the buffer is written at once. Waiting
+ * for the connection to be established, or for the channel to accept more data, is bounded by the connect timeout:
+ * a Syslog daemon that does not accept any data for that long is considered unreachable.
+ * <p/>
+ * When a write fails or times out, the channel is closed, so that the next call to {@link #reconnect()} opens a new
+ * connection rather than appending frames to one which may have been cut in the middle of a frame.
  */
 class TcpSyslogConnection implements SyslogConnection {
 
     private static final Logger logger = LoggerFactory.getLogger(TcpSyslogConnection.class);
 
+    /** Size of the buffer into which messages are framed. */
+    private static final int BUFFER_SIZE = 64 * 1024;
+    /** Largest number of digits of a message length. */
+    private static final int MAX_LENGTH_DIGITS = 10;
+
     private final SocketAddress socketAddress;
     private final int connectTimeout; // ms
-    private Socket socket = null;
-    private OutputStream outputStream;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    private SocketChannel channel = null;
+    private Selector selector;
+    private SelectionKey selectionKey;
 
     TcpSyslogConnection(InetSocketAddress socketAddress, int connectTimeout) {
         this.socketAddress = socketAddress;
@@ -47,19 +69,35 @@ class TcpSyslogConnection implements SyslogConnection {
 
     @Override
     public void reconnect() throws IOException {
-        if (socket == null) {
+        if (channel == null) {
             connect();
-        } else if (!socket.isConnected() || socket.isClosed()) {
+        } else if (!channel.isConnected() || !channel.isOpen()) {
             close();
             connect();
         }
     }
 
     private void connect() throws IOException {
-        socket = new Socket();
-        socket.connect(socketAddress, connectTimeout);
-        socket.setKeepAlive(true);
-        outputStream = new BufferedOutputStream(socket.getOutputStream());
+        buffer.clear();
+        selector = Selector.open();
+        channel = SocketChannel.open();
+        try {
+            channel.configureBlocking(false);
+            channel.setOption(StandardSocketOptions.SO_KEEPALIVE, true);
+            selectionKey = channel.register(selector, SelectionKey.OP_CONNECT);
+            if (!channel.connect(socketAddress)) {
+                while (!channel.finishConnect()) {
+                    await("connect");
+                }
+            }
+            selectionKey.interestOps(SelectionKey.OP_WRITE);
+        } catch (UnresolvedAddressException e) {
+            close();
+            throw new UnknownHostException(socketAddress.toString());
+        } catch (IOException e) {
+            close();
+            throw e;
+        }
     }
 
     /**
@@ -82,37 +120,122 @@ class TcpSyslogConnection implements SyslogConnection {
      * </pre>
      *
      * @param syslogMessage The log record's byte[] representation.
+     * @param length The number of bytes of the log record.
      * @throws IOException {@inheritDoc}
      */
     @Override
-    public void send(byte[] syslogMessage) throws IOException {
-        Reject.ifNull(outputStream, "TCP connection must be established before calling send");
-        outputStream.write(String.valueOf(syslogMessage.length).getBytes(StandardCharsets.UTF_8));
-        outputStream.write(' ');
-        outputStream.write(syslogMessage);
+    public void send(byte[] syslogMessage, int length) throws IOException {
+        Reject.ifNull(channel, "TCP connection must be established before calling send");
+        final int frameLength = lengthDigits(length) + 1 + length;
+        if (frameLength > buffer.remaining()) {
+            flush();
+        }
+        putLength(length);
+        buffer.put((byte) ' ');
+        if (length <= buffer.remaining()) {
+            buffer.put(syslogMessage, 0, length);
+        } else {
+            // Larger than the buffer: the whole frame is written straight away
+            buffer.flip();
+            write(buffer, ByteBuffer.wrap(syslogMessage, 0, length));
+        }
     }
 
     @Override
-    public void flush() throws IOException {
-        if (outputStream != null) {
-            outputStream.flush();
+    public void send(List<byte[]> syslogMessages) throws IOException {
+        for (byte[] syslogMessage : syslogMessages) {
+            send(syslogMessage, syslogMessage.length);
+        }
+    }
+
+    private static int lengthDigits(int length) {
+        int digits = 1;
+        for (int remaining = length / 10; remaining > 0; remaining /= 10) {
+            digits++;
+        }
+        return digits;
+    }
+
+    private void putLength(int length) {
+        int divisor = 1;
+        while (divisor <= length / 10) {
+            divisor *= 10;
+        }
+        for (; divisor > 0; divisor /= 10) {
+            buffer.put((byte) ('0' + (length / divisor) % 10));
         }
     }
 
     @Override
-    public void close() {
+    public void flush() throws IOException {
+        if (channel == null || buffer.position() == 0) {
+            return;
+        }
+        buffer.flip();
+        write(buffer);
+    }
+
+    /**
+     * Writes the buffers to the channel, closing the channel if they cannot all be written. The framing buffer is
+     * cleared in any case.
+     */
+    private void write(ByteBuffer... buffers) throws IOException {
+        final ByteBuffer last = buffers[buffers.length - 1];
         try {
-            flush();
+            while (last.hasRemaining()) {
+                if (channel.write(buffers) == 0) {
+                    await("write");
+                }
+            }
         } catch (IOException e) {
-            logger.warn("Error when flushing the connection", e);
+            // The Syslog daemon may have received part of a frame, so the connection cannot be used any more
+            closeChannel();
+            throw e;
+        } finally {
+            buffer.clear();
+        }
+    }
+
+    /**
+     * Waits for the channel to become ready for the operation it is registered for.
+     */
+    private void await(String operation) throws IOException {
+        if (selector.select(connectTimeout) == 0) {
+            throw new SocketTimeoutException("Syslog TCP " + operation + " timed out");
+        }
+        selector.selectedKeys().clear();
+    }
+
+    @Override
+    public void close() {
+        if (channel != null && channel.isConnected()) {
+            try {
+                flush();
+            } catch (IOException e) {
+                logger.warn("Error when flushing the connection", e);
+            }
+        }
+        closeChannel();
+    }
+
+    private void closeChannel() {
+        if (channel != null) {
+            try {
+                channel.close();
+            } catch (IOException closeException) {
+                logger.warn("Unable to close Syslog TCP connection", closeException);
+            }
         }
-        if (socket != null) {
+        if (selector != null) {
             try {
-                socket.close();
+                selector.close();
             } catch (IOException closeException) {
                 logger.warn("Unable to close Syslog TCP connection", closeException);
             }
         }
-        socket = null;
+        buffer.clear();
+        channel = null;
+        selector = null;
+        selectionKey = null;
     }
 }
@@ -13,6 +13,7 @@
  *
  * Copyright 2013 Cybernetica AS
  * Portions copyright 2014-2015 ForgeRock AS.
+ * Portions copyright 2026 Open Source Solution Technology Corporation
  */
 package org.forgerock.audit.handlers.syslog;
 
@@ -21,6 +22,7 @@ import java.net.DatagramPacket;
 import java.net.DatagramSocket;
 import java.net.InetSocketAddress;
 import java.net.SocketAddress;
+import java.util.List;
 
 /**
  * A {@link SyslogConnection} implementation that publishes Syslog messages using the UDP protocol.
@@ -29,6 +31,7 @@ class UdpSyslogConnection implements SyslogConnection {
 
     private final SocketAddress socketAddress;
     private DatagramSocket datagramSocket;
+    private DatagramPacket packet;
 
     public UdpSyslogConnection(InetSocketAddress socketAddress) {
         this.socketAddress = socketAddress;
@@ -38,15 +41,24 @@ class UdpSyslogConnection implements SyslogConnection {
     public void reconnect() throws IOException {
         if (datagramSocket == null) {
             datagramSocket = new DatagramSocket();
+            packet = new DatagramPacket(new byte[0], 0, socketAddress);
         }
     }
 
     @Override
-    public void send(byte[] syslogMessage) throws IOException {
-        DatagramPacket packet = new DatagramPacket(syslogMessage, syslogMessage.length, socketAddress);
+    public void send(byte[] syslogMessage, int length) throws IOException {
+        packet.setData(syslogMessage, 0, length);
         datagramSocket.send(packet);
     }
 
+    @Override
+    public void send(List<byte[]> syslogMessages) throws IOException {
+        // Each message is a datagram of its own
+        for (byte[] syslogMessage : syslogMessages) {
+            send(syslogMessage, syslogMessage.length);
+        }
+    }
+
     @Override
     public void flush() throws IOException {
         // do nothing
@@ -58,5 +70,6 @@ class UdpSyslogConnection implements SyslogConnection {
             datagramSocket.close();
         }
         datagramSocket = null;
+        packet = null;
     }
 }
\ No newline at end of file
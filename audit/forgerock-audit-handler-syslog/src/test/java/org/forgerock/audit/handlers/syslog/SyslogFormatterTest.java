@@ -12,6 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2015 ForgeRock AS.
+ * Portions copyright 2026 Open Source Solution Technology Corporation
  */
 
 package org.forgerock.audit.handlers.syslog;
@@ -29,12 +30,15 @@ import org.forgerock.audit.events.EventTopicsMetaData;
 import org.forgerock.audit.providers.LocalHostNameProvider;
 import org.forgerock.audit.providers.ProductInfoProvider;
 import org.forgerock.audit.events.AuditEvent;
+import org.forgerock.audit.events.AuditEventEncoding;
 import org.forgerock.audit.events.AuditEventBuilder;
 import org.forgerock.audit.handlers.syslog.SyslogAuditEventHandlerConfiguration.SeverityFieldMapping;
 import org.forgerock.json.JsonValue;
 import org.testng.annotations.Test;
 
 import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
@@ -383,6 +387,35 @@ public class SyslogFormatterTest {
         assertThat(syslogMessage.structuredData.get("field4")).isEqualTo("\"]\\");
     }
 
+    @Test
+    public void encodesNonAsciiCharactersAsUtf8() throws Exception {
+        // given
+        SyslogFormatter syslogFormatter = newSyslogFormatter("OpenAM", Facility.LOCAL5, "server.name");
+
+        AuditEvent auditEvent = firstTestTopic()
+                .transactionId("transactionId")
+                .timestamp(1427293286239L)
+                .eventName("AM-ACCESS-ATTEMPT")
+                .field1("h\u00e9llo \u20ac", "\ud83d\ude00 \"]\\")
+                .field4("\ud800 lone surrogate")
+                .toEvent();
+        SyslogMessageBuffer buffer = new SyslogMessageBuffer();
+        buffer.append("previous message");
+        buffer.reset();
+
+        // when
+        syslogFormatter.encode("firstTestTopic", new AuditEventEncoding(auditEvent.getValue()), buffer);
+        byte[] encoded = Arrays.copyOf(buffer.getBytes(), buffer.length());
+
+        // then
+        assertThat(encoded).isEqualTo(
+                syslogFormatter.format("firstTestTopic", auditEvent.getValue()).getBytes(StandardCharsets.UTF_8));
+        SyslogMessage syslogMessage = readSyslogMessage(new String(encoded, StandardCharsets.UTF_8));
+        assertThat(syslogMessage.structuredData.get("field1.field2")).isEqualTo("h\u00e9llo \u20ac");
+        assertThat(syslogMessage.structuredData.get("field1.field3")).isEqualTo("\ud83d\ude00 \"]\\");
+        assertThat(syslogMessage.structuredData.get("field4")).isEqualTo("? lone surrogate");
+    }
+
     private SyslogFormatter newSyslogFormatter(String productName, Facility facility, String localHostName)
             throws Exception {
         return newSyslogFormatter(productName, facility, localHostName, Collections.<SeverityFieldMapping>emptyList());
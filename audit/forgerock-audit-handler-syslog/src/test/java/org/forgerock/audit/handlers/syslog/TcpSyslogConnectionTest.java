@@ -0,0 +1,152 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Open Source Solution Technology Corporation
+ */
+
+package org.forgerock.audit.handlers.syslog;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+public class TcpSyslogConnectionTest {
+
+    private ServerSocket server;
+    private ExecutorService executor;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+        server = new ServerSocket(0);
+        executor = Executors.newSingleThreadExecutor();
+    }
+
+    @AfterMethod
+    public void tearDown() throws Exception {
+        executor.shutdownNow();
+        server.close();
+    }
+
+    @Test
+    public void framesBatchedMessagesWithOctetCounting() throws Exception {
+        // given
+        TcpSyslogConnection connection =
+                new TcpSyslogConnection(new InetSocketAddress("localhost", server.getLocalPort()), 1000);
+        List<byte[]> batch = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            batch.add(("<174>1 message " + i).getBytes(UTF_8));
+        }
+        // larger than the framing buffer
+        char[] large = new char[100000];
+        Arrays.fill(large, 'x');
+        batch.add(new String(large).getBytes(UTF_8));
+        byte[] reused = "<174>1 partially used buffer".getBytes(UTF_8);
+
+        Future<List<String>> received = readFrames(batch.size() + 1);
+
+        // when
+        connection.reconnect();
+        connection.send(batch);
+        connection.send(reused, 6);
+        connection.close();
+
+        // then
+        List<String> frames = received.get(10, TimeUnit.SECONDS);
+        for (int i = 0; i < 1000; i++) {
+            assertThat(frames.get(i)).isEqualTo("<174>1 message " + i);
+        }
+        assertThat(frames.get(1000)).isEqualTo(new String(large));
+        assertThat(frames.get(1001)).isEqualTo("<174>1");
+    }
+
+    @Test
+    public void reconnectsAfterWriteTimeout() throws Exception {
+        // given
+        TcpSyslogConnection connection =
+                new TcpSyslogConnection(new InetSocketAddress("localhost", server.getLocalPort()), 200);
+        connection.reconnect();
+        char[] large = new char[100000];
+        Arrays.fill(large, 'x');
+        byte[] message = new String(large).getBytes(UTF_8);
+        boolean timedOut = false;
+        try (Socket stalled = server.accept()) {
+            // the Syslog daemon does not read anything, until the socket buffers are full
+            try {
+                for (int i = 0; i < 10000; i++) {
+                    connection.send(message, message.length);
+                }
+            } catch (IOException e) {
+                timedOut = true;
+            }
+            assertThat(timedOut).isTrue();
+
+            // when
+            Future<List<String>> received = readFrames(1);
+            connection.reconnect();
+            connection.send("<174>1 after timeout".getBytes(UTF_8), 20);
+            connection.close();
+
+            // then the message is sent through a new connection, not after a partially written frame
+            assertThat(received.get(10, TimeUnit.SECONDS).get(0)).isEqualTo("<174>1 after timeout");
+        }
+    }
+
+    @Test(expectedExceptions = IOException.class)
+    public void failsToConnectToUnknownHost() throws Exception {
+        new TcpSyslogConnection(new InetSocketAddress("unknown.invalid", 514), 1000).reconnect();
+    }
+
+    /** Reads frames of the form MSG-LEN SP SYSLOG-MSG from the first accepted connection. */
+    private Future<List<String>> readFrames(final int count) {
+        return executor.submit(new Callable<List<String>>() {
+            @Override
+            public List<String> call() throws IOException {
+                List<String> frames = new ArrayList<>();
+                try (Socket socket = server.accept();
+                     DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()))) {
+                    for (int i = 0; i < count; i++) {
+                        int length = 0;
+                        int c;
+                        while ((c = in.read()) != ' ') {
+                            assertThat(c).isBetween((int) '0', (int) '9');
+                            length = length * 10 + c - '0';
+                        }
+                        byte[] frame = new byte[length];
+                        in.readFully(frame);
+                        frames.add(new String(frame, UTF_8));
+                    }
+                    assertThat(in.read()).isEqualTo(-1);
+                }
+                return frames;
+            }
+        });
+    }
+}
@@ -12,17 +12,25 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2015-2016 ForgeRock AS.
+ * Portions copyright 2026 Open Source Solution Technology Corporation
  */
 
 package org.forgerock.http.apache.async;
 
 import java.io.IOException;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.http.HttpResponse;
 import org.apache.http.client.methods.HttpUriRequest;
 import org.apache.http.concurrent.FutureCallback;
 import org.apache.http.impl.nio.client.CloseableHttpAsyncClient;
+import org.apache.http.nio.client.methods.HttpAsyncMethods;
 import org.forgerock.http.apache.AbstractHttpClient;
 import org.forgerock.http.io.Buffer;
 import org.forgerock.http.protocol.Request;
@@ -43,12 +51,40 @@ public class AsyncHttpClient extends AbstractHttpClient {
 
     private static final Logger logger = LoggerFactory.getLogger(AsyncHttpClient.class);
 
+    /** Number of seconds after which an idle hand-off thread stops. */
+    private static final long HAND_OFF_KEEP_ALIVE_SECONDS = 60L;
+
     private final CloseableHttpAsyncClient client;
 
+    /** Number of content bytes buffered per streamed response, or {@code 0} if responses are not streamed. */
+    private final int streamingWindowSize;
+
+    /** Executor handing streamed responses over to the caller, {@code null} if responses are not streamed. */
+    private final ExecutorService handOffExecutor;
+
     AsyncHttpClient(final CloseableHttpAsyncClient client, final Factory<Buffer> storage) {
+        this(client, storage, 0, 0);
+    }
+
+    AsyncHttpClient(final CloseableHttpAsyncClient client, final Factory<Buffer> storage,
+            final int streamingWindowSize, final int handOffThreads) {
         super(storage);
         // Client should already be started
         this.client = client;
+        this.streamingWindowSize = streamingWindowSize;
+        this.handOffExecutor = streamingWindowSize > 0 ? newHandOffExecutor(handOffThreads) : null;
+    }
+
+    /**
+     * Creates an executor running at most the given number of threads, which stop when idle. Responses received
+     * while all threads are busy wait in the queue, their connection being suspended once their streaming window
+     * is full: the queue can therefore never hold more responses than there are connections.
+     */
+    private static ExecutorService newHandOffExecutor(final int threads) {
+        final ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, HAND_OFF_KEEP_ALIVE_SECONDS,
+                TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(), new HandOffThreadFactory());
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
     }
 
     @Override
@@ -87,14 +123,57 @@ public class AsyncHttpClient extends AbstractHttpClient {
         }
 
         // Execute
-        client.execute(clientRequest, callback);
+        if (handOffExecutor == null) {
+            client.execute(clientRequest, callback);
+        } else {
+            final StreamingResponseConsumer consumer =
+                    new StreamingResponseConsumer(callback, handOffExecutor, streamingWindowSize);
+            client.execute(HttpAsyncMethods.create(clientRequest), consumer, new FutureCallback<HttpResponse>() {
+
+                @Override
+                public void completed(final HttpResponse result) {
+                    // Already handed over by the consumer
+                }
+
+                @Override
+                public void failed(final Exception ex) {
+                    consumer.failed(ex);
+                }
+
+                @Override
+                public void cancelled() {
+                    consumer.failed(new InterruptedException("Request processing has been cancelled"));
+                }
+            });
+        }
 
         return promise;
     }
 
     @Override
     public void close() throws IOException {
-        client.close();
+        try {
+            client.close();
+        } finally {
+            if (handOffExecutor != null) {
+                handOffExecutor.shutdown();
+            }
+        }
+    }
+
+    /**
+     * Creates the daemon threads handing streamed responses over to the caller.
+     */
+    private static final class HandOffThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(final Runnable runnable) {
+            final Thread thread = new Thread(runnable, "async-http-client-response-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
     }
 
     /**
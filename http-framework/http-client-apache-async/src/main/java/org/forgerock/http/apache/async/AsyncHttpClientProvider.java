@@ -12,6 +12,7 @@
  * information: "Portions Copyright [year] [name of copyright owner]".
  *
  * Copyright 2015 ForgeRock AS.
+ * Portions copyright 2026 Open Source Solution Technology Corporation
  */
 
 package org.forgerock.http.apache.async;
@@ -81,6 +82,34 @@ public class AsyncHttpClientProvider implements HttpClientProvider {
      */
     public static final Option<Integer> OPTION_WORKER_THREADS = Option.of(Integer.class, null);
 
+    /**
+     * Specify whether responses are handed over as soon as their headers have been received, their content being
+     * streamed while the caller reads it. By default, the whole response content is received before the response
+     * is handed over.
+     * <p>
+     * When enabled, the caller must read or close the response entity, otherwise the connection stays suspended
+     * once {@link #OPTION_STREAMING_WINDOW_SIZE} bytes of content have been received.
+     */
+    public static final Option<Boolean> OPTION_STREAM_RESPONSES = Option.withDefault(false);
+
+    /**
+     * Specify the maximum number of response content bytes buffered in memory, per response, when
+     * {@link #OPTION_STREAM_RESPONSES streaming} responses. Input on the connection is suspended when the caller
+     * does not read the response content fast enough. Defaults to 64 KiB.
+     */
+    public static final Option<Integer> OPTION_STREAMING_WINDOW_SIZE = Option.withDefault(64 * 1024);
+
+    /**
+     * Specify the maximum number of threads handing {@link #OPTION_STREAM_RESPONSES streamed} responses over to the
+     * caller. Each thread stays busy for as long as the caller's callbacks run, including while they read the
+     * response content. When all threads are busy, received responses wait for a thread to become free, and their
+     * connection is suspended once {@link #OPTION_STREAMING_WINDOW_SIZE} bytes of content have been buffered:
+     * callbacks must therefore not block waiting for another streamed response. If not set, defaults to
+     * {@link org.forgerock.http.handler.HttpClientHandler#OPTION_MAX_CONNECTIONS}, as there cannot be more
+     * responses in progress than connections.
+     */
+    public static final Option<Integer> OPTION_HAND_OFF_THREADS = Option.of(Integer.class, null);
+
     /**
      * A redirect strategy that never performs a redirect.
      */
@@ -103,6 +132,21 @@ public class AsyncHttpClientProvider implements HttpClientProvider {
 
         final Factory<Buffer> storage = options.get(OPTION_TEMPORARY_STORAGE);
 
+        // Response streaming
+        int streamingWindowSize = 0;
+        int handOffThreads = 0;
+        if (options.get(OPTION_STREAM_RESPONSES)) {
+            streamingWindowSize = options.get(OPTION_STREAMING_WINDOW_SIZE);
+            if (streamingWindowSize <= 0) {
+                throw new HttpApplicationException("The streaming window size must be positive");
+            }
+            final Integer threads = options.get(OPTION_HAND_OFF_THREADS);
+            handOffThreads = threads != null ? threads : options.get(OPTION_MAX_CONNECTIONS);
+            if (handOffThreads <= 0) {
+                throw new HttpApplicationException("The number of hand-off threads must be positive");
+            }
+        }
+
         // SSL
         final SSLContext sslContext;
         try {
@@ -189,6 +233,9 @@ public class AsyncHttpClientProvider implements HttpClientProvider {
                 .setProxyAuthenticationStrategy(NoAuthenticationStrategy.INSTANCE)
                 .build();
         client.start();
+        if (streamingWindowSize > 0) {
+            return new AsyncHttpClient(client, storage, streamingWindowSize, handOffThreads);
+        }
         return new AsyncHttpClient(client, storage);
     }
 }
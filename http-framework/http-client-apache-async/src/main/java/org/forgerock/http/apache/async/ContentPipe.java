@@ -0,0 +1,202 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Open Source Solution Technology Corporation
+ */
+
+package org.forgerock.http.apache.async;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+
+import org.apache.http.nio.ContentDecoder;
+import org.apache.http.nio.IOControl;
+
+/**
+ * A bounded, single producer and single consumer pipe carrying response content from the I/O reactor to the
+ * thread consuming the response entity.
+ * <p>
+ * The reactor side {@linkplain #consume(ContentDecoder, IOControl) copies} decoded content into a fixed size
+ * window and suspends input on the connection when the window is full. The reading side resumes input once it has
+ * drained half of the window. Memory usage per response is therefore bounded by the window size, whatever the size
+ * of the response content.
+ */
+final class ContentPipe extends InputStream {
+
+    private final Object lock = new Object();
+    private final byte[] window;
+
+    /** Position of the next byte to read. */
+    private int readPosition;
+    /** Position of the next byte to write. */
+    private int writePosition;
+
+    private boolean endOfContent;
+    private Exception failure;
+    private boolean closed;
+    private IOControl suspended;
+
+    /**
+     * Creates a new pipe.
+     *
+     * @param windowSize
+     *         the maximum number of bytes buffered before input is suspended
+     */
+    ContentPipe(final int windowSize) {
+        this.window = new byte[windowSize];
+    }
+
+    /**
+     * Copies as much content as possible from the decoder into the window. Called by the I/O reactor.
+     *
+     * @param decoder
+     *         the content decoder
+     * @param ioControl
+     *         the I/O control of the connection, used to suspend input when the window is full
+     * @throws IOException
+     *         if the content cannot be decoded
+     */
+    void consume(final ContentDecoder decoder, final IOControl ioControl) throws IOException {
+        synchronized (lock) {
+            if (closed) {
+                // Nobody will read the content: drain it so that the connection may be reused.
+                final ByteBuffer discarded = ByteBuffer.wrap(window);
+                while (decoder.read(discarded) > 0) {
+                    discarded.clear();
+                }
+            } else {
+                if (writePosition == window.length && readPosition > 0) {
+                    compact();
+                }
+                int read;
+                while (writePosition < window.length
+                        && (read = decoder.read(ByteBuffer.wrap(window, writePosition,
+                                window.length - writePosition))) > 0) {
+                    writePosition += read;
+                }
+                if (writePosition == window.length && !decoder.isCompleted()) {
+                    ioControl.suspendInput();
+                    suspended = ioControl;
+                }
+                lock.notifyAll();
+            }
+            if (decoder.isCompleted()) {
+                endOfContent = true;
+                lock.notifyAll();
+            }
+        }
+    }
+
+    /**
+     * Signals that the response content could not be fully received. Any further attempt to read the content will
+     * fail with an {@link IOException}.
+     *
+     * @param cause
+     *         the reason of the failure
+     */
+    void fail(final Exception cause) {
+        synchronized (lock) {
+            if (!endOfContent) {
+                failure = cause;
+                lock.notifyAll();
+            }
+        }
+    }
+
+    @Override
+    public int read() throws IOException {
+        final byte[] b = new byte[1];
+        return read(b, 0, 1) == -1 ? -1 : b[0] & 0xff;
+    }
+
+    @Override
+    public int read(final byte[] b, final int off, final int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        final IOControl resume;
+        final int n;
+        synchronized (lock) {
+            while (available0() == 0 && !endOfContent && failure == null && !closed) {
+                try {
+                    lock.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("Interrupted while waiting for response content");
+                }
+            }
+            if (closed) {
+                throw new IOException("Response content stream is closed");
+            }
+            if (available0() == 0) {
+                if (failure != null) {
+                    throw new IOException("Failed to receive response content", failure);
+                }
+                return -1;
+            }
+            n = Math.min(len, available0());
+            System.arraycopy(window, readPosition, b, off, n);
+            readPosition += n;
+            resume = resumeIfHalfEmpty();
+        }
+        if (resume != null) {
+            resume.requestInput();
+        }
+        return n;
+    }
+
+    @Override
+    public int available() throws IOException {
+        synchronized (lock) {
+            return available0();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        final IOControl resume;
+        synchronized (lock) {
+            closed = true;
+            readPosition = writePosition = 0;
+            resume = suspended;
+            suspended = null;
+            lock.notifyAll();
+        }
+        if (resume != null) {
+            resume.requestInput();
+        }
+    }
+
+    private int available0() {
+        return writePosition - readPosition;
+    }
+
+    private IOControl resumeIfHalfEmpty() {
+        if (suspended != null && available0() <= window.length / 2) {
+            compact();
+            final IOControl resume = suspended;
+            suspended = null;
+            return resume;
+        }
+        return null;
+    }
+
+    private void compact() {
+        final int available = available0();
+        System.arraycopy(window, readPosition, window, 0, available);
+        readPosition = 0;
+        writePosition = available;
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Open Source Solution Technology Corporation
+ */
+
+package org.forgerock.http.apache.async;
+
+import java.io.IOException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpResponse;
+import org.apache.http.concurrent.FutureCallback;
+import org.apache.http.entity.BasicHttpEntity;
+import org.apache.http.entity.ContentType;
+import org.apache.http.nio.ContentDecoder;
+import org.apache.http.nio.IOControl;
+import org.apache.http.nio.protocol.AbstractAsyncResponseConsumer;
+import org.apache.http.protocol.HttpContext;
+
+/**
+ * An {@link org.apache.http.nio.protocol.HttpAsyncResponseConsumer} that hands the response over to the caller as
+ * soon as its headers have been received, instead of waiting for the whole content to be buffered in memory.
+ * <p>
+ * The response content is streamed through a {@link ContentPipe}: when the caller reads the entity slower than the
+ * server sends it, input on the connection is suspended until the caller catches up.
+ * <p>
+ * The response is handed over through the given {@link Executor} because the caller is likely to read the entity
+ * from the promise callbacks, which must never happen on an I/O reactor thread.
+ */
+final class StreamingResponseConsumer extends AbstractAsyncResponseConsumer<HttpResponse> {
+
+    private final FutureCallback<HttpResponse> callback;
+    private final Executor executor;
+    private final int windowSize;
+    private final AtomicBoolean handedOff = new AtomicBoolean();
+
+    private volatile HttpResponse response;
+    private volatile ContentPipe pipe;
+
+    /**
+     * Creates a new consumer.
+     *
+     * @param callback
+     *         the callback notified once the response headers have been received
+     * @param executor
+     *         the executor used to notify the callback
+     * @param windowSize
+     *         the maximum number of content bytes buffered before input is suspended
+     */
+    StreamingResponseConsumer(final FutureCallback<HttpResponse> callback, final Executor executor,
+            final int windowSize) {
+        this.callback = callback;
+        this.executor = executor;
+        this.windowSize = windowSize;
+    }
+
+    @Override
+    protected void onResponseReceived(final HttpResponse response) {
+        this.response = response;
+    }
+
+    @Override
+    protected void onEntityEnclosed(final HttpEntity entity, final ContentType contentType) throws IOException {
+        pipe = new ContentPipe(windowSize);
+        final BasicHttpEntity streamed = new BasicHttpEntity();
+        streamed.setContent(pipe);
+        streamed.setContentLength(entity.getContentLength());
+        streamed.setContentType(entity.getContentType());
+        streamed.setContentEncoding(entity.getContentEncoding());
+        streamed.setChunked(entity.isChunked());
+        response.setEntity(streamed);
+        handOff();
+    }
+
+    @Override
+    protected void onContentReceived(final ContentDecoder decoder, final IOControl ioControl) throws IOException {
+        pipe.consume(decoder, ioControl);
+    }
+
+    @Override
+    protected HttpResponse buildResult(final HttpContext context) {
+        // Responses without content have not been handed over yet
+        handOff();
+        return response;
+    }
+
+    @Override
+    protected void releaseResources() {
+        final Exception failure = getException();
+        if (pipe != null) {
+            pipe.fail(failure != null ? failure : new IOException("Response processing has been cancelled"));
+        }
+    }
+
+    /**
+     * Notifies the callback of a failure to obtain the response, unless the response has already been handed over,
+     * in which case the failure is reported when reading the response content.
+     *
+     * @param failure
+     *         the reason of the failure
+     */
+    void failed(final Exception failure) {
+        if (handedOff.compareAndSet(false, true)) {
+            callback.failed(failure);
+        }
+    }
+
+    private void handOff() {
+        if (handedOff.compareAndSet(false, true)) {
+            final HttpResponse result = response;
+            try {
+                executor.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        callback.completed(result);
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                // The client is being closed
+                callback.failed(e);
+            }
+        }
+    }
+}
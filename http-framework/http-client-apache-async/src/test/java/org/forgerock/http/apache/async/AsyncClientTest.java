@@ -13,6 +13,7 @@
  *
  * Copyright 2015-2016 ForgeRock AS.
  * Portions copyright 2019 Open Source Solution Technology Corporation
+ * Portions copyright 2026 Open Source Solution Technology Corporation
  */
 
 package org.forgerock.http.apache.async;
@@ -26,6 +27,11 @@ import static org.assertj.core.api.Assertions.*;
 
 import java.security.cert.CertificateException;
 import java.security.cert.X509Certificate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
 import java.util.concurrent.CountDownLatch;
 
 import javax.net.ssl.TrustManager;
@@ -40,6 +46,7 @@ import org.forgerock.http.protocol.Status;
 import org.forgerock.util.Options;
 import org.forgerock.util.promise.NeverThrowsException;
 import org.forgerock.util.promise.Promise;
+import org.forgerock.util.promise.ResultHandler;
 import org.testng.annotations.AfterTest;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.BeforeTest;
@@ -123,6 +130,60 @@ public class AsyncClientTest {
         assertThat(promise.get().getStatus()).isEqualTo(Status.OK);
     }
 
+    @Test
+    public void shouldStreamResponseContent() throws Exception {
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < 100000; i++) {
+            content.append("Pong");
+        }
+        whenHttp(server).match(post("/ping"))
+                        .then(composite(ok(), stringContent(content.toString())));
+
+        Options options = Options.defaultOptions()
+                .set(AsyncHttpClientProvider.OPTION_STREAM_RESPONSES, true)
+                .set(AsyncHttpClientProvider.OPTION_STREAMING_WINDOW_SIZE, 1024);
+        Client client = new Client(new HttpClientHandler(options));
+        Request request = new Request();
+        request.setMethod("POST");
+        request.setUri(format("http://localhost:%d/ping", server.getPort()));
+        Response response = client.send(request).get();
+        assertThat(response.getStatus()).isEqualTo(Status.OK);
+        assertThat(response.getEntity().getString()).isEqualTo(content.toString());
+    }
+
+    @Test
+    public void shouldBoundHandOffThreads() throws Exception {
+        whenHttp(server).match(post("/ping"))
+                        .then(composite(ok(), stringContent("Pong")));
+
+        Options options = Options.defaultOptions()
+                .set(AsyncHttpClientProvider.OPTION_STREAM_RESPONSES, true)
+                .set(AsyncHttpClientProvider.OPTION_HAND_OFF_THREADS, 1);
+        Client client = new Client(new HttpClientHandler(options));
+        final Set<String> handOffThreads = Collections.synchronizedSet(new HashSet<String>());
+        List<Promise<Response, NeverThrowsException>> promises = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            Request request = new Request();
+            request.setMethod("POST");
+            request.setUri(format("http://localhost:%d/ping", server.getPort()));
+            promises.add(client.send(request).thenOnResult(new ResultHandler<Response>() {
+                @Override
+                public void handleResult(Response response) {
+                    String name = Thread.currentThread().getName();
+                    if (name.startsWith("async-http-client-response-")) {
+                        handOffThreads.add(name);
+                    }
+                }
+            }));
+        }
+        for (Promise<Response, NeverThrowsException> promise : promises) {
+            Response response = promise.get();
+            assertThat(response.getStatus()).isEqualTo(Status.OK);
+            assertThat(response.getEntity().getString()).isEqualTo("Pong");
+        }
+        assertThat(handOffThreads.size()).isLessThanOrEqualTo(1);
+    }
+
     @Test
     public void shouldFailToObtainResponse() throws Exception {
         final Client client = new Client(new HttpClientHandler());
@@ -0,0 +1,249 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Open Source Solution Technology Corporation
+ */
+
+package org.forgerock.http.jdk;
+
+import static org.forgerock.http.protocol.Response.newResponsePromise;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.http.HttpClient.Version;
+import java.net.http.HttpRequest;
+import java.net.http.HttpRequest.BodyPublisher;
+import java.net.http.HttpRequest.BodyPublishers;
+import java.net.http.HttpResponse;
+import java.net.http.HttpResponse.BodyHandlers;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+
+import org.forgerock.http.header.ConnectionHeader;
+import org.forgerock.http.header.ContentLengthHeader;
+import org.forgerock.http.io.Buffer;
+import org.forgerock.http.io.IO;
+import org.forgerock.http.protocol.Request;
+import org.forgerock.http.protocol.Response;
+import org.forgerock.http.protocol.Status;
+import org.forgerock.http.spi.HttpClient;
+import org.forgerock.http.util.CaseInsensitiveSet;
+import org.forgerock.util.Factory;
+import org.forgerock.util.promise.NeverThrowsException;
+import org.forgerock.util.promise.Promise;
+import org.forgerock.util.promise.PromiseImpl;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+
+/**
+ * JDK {@code java.net.http} client based implementation.
+ */
+public class JdkHttpClient implements HttpClient {
+
+    private static final Logger logger = LoggerFactory.getLogger(JdkHttpClient.class);
+
+    /** Headers that are suppressed in request. */
+    private static final CaseInsensitiveSet SUPPRESS_REQUEST_HEADERS = new CaseInsensitiveSet(
+            Arrays.asList(
+                    // set by the JDK client itself, which rejects them:
+                    "Content-Length", "Expect", "Host",
+                    // hop-by-hop headers, not forwarded by proxies, per RFC 2616 13.5.1:
+                    "Connection", "Keep-Alive", "Proxy-Authenticate", "Proxy-Authorization", "TE",
+                    "Trailers", "Transfer-Encoding", "Upgrade"));
+    static {
+        // Java 11 also rejects these end-to-end headers, later releases accept them unless told otherwise
+        SUPPRESS_REQUEST_HEADERS.addAll(rejectedHeaders("Date", "From", "Origin", "Referer", "Via", "Warning"));
+    }
+
+    /** Headers that are suppressed in response. */
+    private static final CaseInsensitiveSet SUPPRESS_RESPONSE_HEADERS = new CaseInsensitiveSet(
+            Arrays.asList(
+                    // hop-by-hop headers, not forwarded by proxies, per RFC 2616 13.5.1:
+                    "Connection", "Keep-Alive", "Proxy-Authenticate", "Proxy-Authorization", "TE",
+                    "Trailers", "Transfer-Encoding", "Upgrade"));
+
+    private final java.net.http.HttpClient client;
+    private final ExecutorService executor;
+    private final Factory<Buffer> storage;
+    private final java.time.Duration responseTimeout;
+
+    JdkHttpClient(final java.net.http.HttpClient client, final ExecutorService executor,
+            final Factory<Buffer> storage, final java.time.Duration responseTimeout) {
+        this.client = client;
+        this.executor = executor;
+        this.storage = storage;
+        this.responseTimeout = responseTimeout;
+    }
+
+    @Override
+    public Promise<Response, NeverThrowsException> sendAsync(final Request request) {
+
+        final HttpRequest clientRequest;
+        try {
+            clientRequest = createHttpRequest(request);
+        } catch (IllegalArgumentException e) {
+            logger.error("Invalid request for {}", request.getUri(), e);
+            return newResponsePromise(badGateway(e));
+        }
+
+        // Send request and return the configured Promise
+        final PromiseImpl<Response, NeverThrowsException> promise = PromiseImpl.create();
+        final Map<String, String> mdc = MDC.getCopyOfContextMap();
+        client.sendAsync(clientRequest, BodyHandlers.ofInputStream())
+              .whenComplete(new BiConsumer<HttpResponse<InputStream>, Throwable>() {
+                  @Override
+                  public void accept(final HttpResponse<InputStream> result, final Throwable failure) {
+                      // Setup the MDC when the client hands-off response processing back to the caller
+                      final Map<String, String> previous = MDC.getCopyOfContextMap();
+                      try {
+                          if (mdc != null) {
+                              MDC.setContextMap(mdc);
+                          }
+                          if (failure != null) {
+                              final Throwable cause = unwrap(failure);
+                              logger.error("Failed to obtain response for {}", request.getUri(), cause);
+                              promise.handleResult(badGateway(cause));
+                          } else {
+                              promise.handleResult(createResponse(result));
+                          }
+                      } finally {
+                          if (previous != null) {
+                              MDC.setContextMap(previous);
+                          } else {
+                              MDC.clear();
+                          }
+                      }
+                  }
+              });
+
+        return promise;
+    }
+
+    @Override
+    public void close() throws IOException {
+        // The JDK client releases its connections once it is no longer referenced
+        executor.shutdown();
+    }
+
+    /**
+     * Creates a new {@link HttpRequest} populated from the given {@code request}.
+     * The returned message has some of its headers filtered/ignored (proxy behaviour).
+     *
+     * @param request CHF request structure
+     * @return JDK request structure
+     * @throws IllegalArgumentException if the request cannot be sent by the JDK client
+     */
+    private HttpRequest createHttpRequest(final Request request) {
+        final HttpRequest.Builder builder = HttpRequest.newBuilder(request.getUri().asURI())
+                .method(request.getMethod(), createBodyPublisher(request));
+        if (responseTimeout != null) {
+            builder.timeout(responseTimeout);
+        }
+
+        // Parse request Connection headers to be suppressed in message
+        CaseInsensitiveSet removableHeaderNames = new CaseInsensitiveSet();
+        removableHeaderNames.addAll(ConnectionHeader.valueOf(request).getTokens());
+
+        // Populates request headers
+        for (String name : request.getHeaders().keySet()) {
+            if (!SUPPRESS_REQUEST_HEADERS.contains(name) && !removableHeaderNames.contains(name)) {
+                for (final String value : request.getHeaders().get(name).getValues()) {
+                    builder.header(name, value);
+                }
+            }
+        }
+        return builder.build();
+    }
+
+    private static BodyPublisher createBodyPublisher(final Request request) {
+        if (request.getEntity().isRawContentEmpty()) {
+            return BodyPublishers.noBody();
+        }
+        final BodyPublisher publisher = BodyPublishers.ofInputStream(new Supplier<InputStream>() {
+            @Override
+            public InputStream get() {
+                return request.getEntity().getRawContentInputStream();
+            }
+        });
+        final long length = ContentLengthHeader.valueOf(request).getLength();
+        // Without a known length, the content is sent chunked (HTTP/1.1) or as a stream of frames (HTTP/2)
+        return length > 0 ? BodyPublishers.fromPublisher(publisher, length) : publisher;
+    }
+
+    /**
+     * Creates a new {@link Response} populated from the given JDK {@code result}.
+     * The returned message has some of its headers filtered/ignored (proxy behaviour).
+     *
+     * @param result JDK response structure
+     * @return CHF response structure
+     */
+    private Response createResponse(final HttpResponse<InputStream> result) {
+        Response response = new Response();
+        // Response entity, streamed as it is received
+        response.setEntity(IO.newBranchingInputStream(result.body(), storage));
+
+        // Response status line
+        response.setVersion(result.version() == Version.HTTP_2 ? "HTTP/2.0" : "HTTP/1.1");
+        response.setStatus(Status.valueOf(result.statusCode()));
+
+        // Response headers
+        final Map<String, List<String>> headers = result.headers().map();
+        for (Map.Entry<String, List<String>> header : headers.entrySet()) {
+            response.getHeaders().add(header.getKey(), header.getValue());
+        }
+
+        // Parse response Connection headers to be suppressed in message
+        CaseInsensitiveSet removableHeaderNames = new CaseInsensitiveSet(SUPPRESS_RESPONSE_HEADERS);
+        removableHeaderNames.addAll(ConnectionHeader.valueOf(response).getTokens());
+        for (String name : removableHeaderNames) {
+            response.getHeaders().remove(name);
+        }
+
+        return response;
+    }
+
+    /**
+     * Returns the headers, among the given ones, that the running JDK client refuses to send.
+     *
+     * @param names the header names to check
+     * @return the names of the headers which cannot be set on a JDK request
+     */
+    private static List<String> rejectedHeaders(final String... names) {
+        final List<String> rejected = new ArrayList<>();
+        for (final String name : names) {
+            try {
+                HttpRequest.newBuilder().header(name, "");
+            } catch (IllegalArgumentException e) {
+                rejected.add(name);
+            }
+        }
+        return rejected;
+    }
+
+    private static Response badGateway(final Throwable cause) {
+        Response response = new Response(Status.BAD_GATEWAY);
+        response.setCause(cause instanceof Exception ? (Exception) cause : new Exception(cause));
+        return response;
+    }
+
+    private static Throwable unwrap(final Throwable failure) {
+        return failure instanceof CompletionException && failure.getCause() != null ? failure.getCause() : failure;
+    }
+}
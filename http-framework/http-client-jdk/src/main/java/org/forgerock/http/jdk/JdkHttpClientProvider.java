@@ -0,0 +1,158 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Open Source Solution Technology Corporation
+ */
+
+package org.forgerock.http.jdk;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.forgerock.http.handler.HttpClientHandler.OPTION_CONNECT_TIMEOUT;
+import static org.forgerock.http.handler.HttpClientHandler.OPTION_HOSTNAME_VERIFIER;
+import static org.forgerock.http.handler.HttpClientHandler.OPTION_KEY_MANAGERS;
+import static org.forgerock.http.handler.HttpClientHandler.OPTION_SO_TIMEOUT;
+import static org.forgerock.http.handler.HttpClientHandler.OPTION_SSLCONTEXT_ALGORITHM;
+import static org.forgerock.http.handler.HttpClientHandler.OPTION_SSL_CIPHER_SUITES;
+import static org.forgerock.http.handler.HttpClientHandler.OPTION_SSL_ENABLED_PROTOCOLS;
+import static org.forgerock.http.handler.HttpClientHandler.OPTION_TEMPORARY_STORAGE;
+import static org.forgerock.http.handler.HttpClientHandler.OPTION_TRUST_MANAGERS;
+import static org.forgerock.http.util.Lists.asArrayOrNull;
+
+import java.net.http.HttpClient.Redirect;
+import java.net.http.HttpClient.Version;
+import java.security.GeneralSecurityException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLParameters;
+
+import org.forgerock.http.HttpApplicationException;
+import org.forgerock.http.handler.HttpClientHandler.HostnameVerifier;
+import org.forgerock.http.io.Buffer;
+import org.forgerock.http.spi.HttpClient;
+import org.forgerock.http.spi.HttpClientProvider;
+import org.forgerock.util.Factory;
+import org.forgerock.util.Option;
+import org.forgerock.util.Options;
+import org.forgerock.util.time.Duration;
+
+/**
+ * Creates and configures a {@link HttpClient} instance built around the {@code java.net.http} client shipped with
+ * Java 11 and later.
+ * <p>
+ * Unlike the Apache HttpClient bindings, this client negotiates HTTP/2 (through ALPN for {@code https} and through
+ * an {@code h2c} upgrade for {@code http}) and multiplexes concurrent requests to the same server over a single
+ * connection. Responses are handed over as soon as their headers have been received, their content being streamed
+ * while it is read.
+ * <p>
+ * The following {@link org.forgerock.http.handler.HttpClientHandler} options are supported:
+ * <ul>
+ *     <li>{@code OPTION_CONNECT_TIMEOUT}: the connect timeout;</li>
+ *     <li>{@code OPTION_SO_TIMEOUT}: the maximum time to wait for the response headers;</li>
+ *     <li>{@code OPTION_SSLCONTEXT_ALGORITHM}, {@code OPTION_KEY_MANAGERS}, {@code OPTION_TRUST_MANAGERS},
+ *     {@code OPTION_SSL_ENABLED_PROTOCOLS} and {@code OPTION_SSL_CIPHER_SUITES}: the TLS configuration;</li>
+ *     <li>{@code OPTION_TEMPORARY_STORAGE}: the storage used to branch the response content.</li>
+ * </ul>
+ * The JDK client manages its connections itself: {@code OPTION_MAX_CONNECTIONS}, {@code OPTION_REUSE_CONNECTIONS}
+ * and {@code OPTION_RETRY_REQUESTS} are ignored. Host name verification cannot be disabled per client: host names
+ * are always verified, and a client configured with the {@link HostnameVerifier#ALLOW_ALL} verifier is rejected.
+ *
+ * @see <a href="https://openjdk.org/groups/net/httpclient/intro.html">Java HTTP Client</a>
+ * @since 20.1.2
+ */
+public class JdkHttpClientProvider implements HttpClientProvider {
+
+    /**
+     * Specify the preferred HTTP protocol version. The default is {@link Version#HTTP_2}, the client falling back
+     * to HTTP/1.1 when the server does not support HTTP/2.
+     */
+    public static final Option<Version> OPTION_HTTP_VERSION = Option.of(Version.class, Version.HTTP_2);
+
+    /**
+     * Specify the number of threads completing the response promises. If not set, threads are created as needed
+     * and reused when available.
+     */
+    public static final Option<Integer> OPTION_WORKER_THREADS = Option.of(Integer.class, null);
+
+    @Override
+    public HttpClient newHttpClient(final Options options) throws HttpApplicationException {
+
+        if (options.get(OPTION_HOSTNAME_VERIFIER) == HostnameVerifier.ALLOW_ALL) {
+            throw new HttpApplicationException("The JDK HTTP client does not support disabling host name "
+                    + "verification, use another client binding or a host name verifier other than ALLOW_ALL");
+        }
+
+        final Factory<Buffer> storage = options.get(OPTION_TEMPORARY_STORAGE);
+
+        // SSL
+        final SSLContext sslContext;
+        try {
+            sslContext = SSLContext.getInstance(options.get(OPTION_SSLCONTEXT_ALGORITHM));
+            sslContext.init(options.get(OPTION_KEY_MANAGERS),
+                            options.get(OPTION_TRUST_MANAGERS), null);
+        } catch (final GeneralSecurityException e) {
+            throw new HttpApplicationException("Can't create SSL Context", e);
+        }
+
+        final SSLParameters sslParameters = sslContext.getDefaultSSLParameters();
+        final String[] protocols = asArrayOrNull(options.get(OPTION_SSL_ENABLED_PROTOCOLS));
+        if (protocols != null) {
+            sslParameters.setProtocols(protocols);
+        }
+        final String[] ciphers = asArrayOrNull(options.get(OPTION_SSL_CIPHER_SUITES));
+        if (ciphers != null) {
+            sslParameters.setCipherSuites(ciphers);
+        }
+
+        // Timeouts
+        final Duration soTimeout = options.get(OPTION_SO_TIMEOUT);
+        final Duration connectTimeout = options.get(OPTION_CONNECT_TIMEOUT);
+
+        // Workers
+        final Integer threadCount = options.get(OPTION_WORKER_THREADS);
+        final ExecutorService executor = threadCount != null
+                ? Executors.newFixedThreadPool(threadCount, new WorkerThreadFactory())
+                : Executors.newCachedThreadPool(new WorkerThreadFactory());
+
+        final java.net.http.HttpClient.Builder builder = java.net.http.HttpClient.newBuilder()
+                .version(options.get(OPTION_HTTP_VERSION))
+                .followRedirects(Redirect.NEVER)
+                .sslContext(sslContext)
+                .sslParameters(sslParameters)
+                .executor(executor);
+        if (!connectTimeout.isUnlimited()) {
+            builder.connectTimeout(java.time.Duration.ofMillis(connectTimeout.to(MILLISECONDS)));
+        }
+
+        return new JdkHttpClient(builder.build(), executor, storage,
+                soTimeout.isUnlimited() ? null : java.time.Duration.ofMillis(soTimeout.to(MILLISECONDS)));
+    }
+
+    /**
+     * Creates the daemon threads completing the response promises.
+     */
+    private static final class WorkerThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(final Runnable runnable) {
+            final Thread thread = new Thread(runnable, "jdk-http-client-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
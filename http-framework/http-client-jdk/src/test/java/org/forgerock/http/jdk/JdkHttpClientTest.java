@@ -0,0 +1,202 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Open Source Solution Technology Corporation
+ */
+
+package org.forgerock.http.jdk;
+
+import static java.lang.String.format;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.forgerock.http.handler.HttpClientHandler.OPTION_HOSTNAME_VERIFIER;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.eclipse.jetty.http2.server.HTTP2CServerConnectionFactory;
+import org.eclipse.jetty.server.HttpConfiguration;
+import org.eclipse.jetty.server.HttpConnectionFactory;
+import org.eclipse.jetty.server.Server;
+import org.eclipse.jetty.server.ServerConnector;
+import org.eclipse.jetty.server.handler.AbstractHandler;
+import org.forgerock.http.Client;
+import org.forgerock.http.HttpApplicationException;
+import org.forgerock.http.handler.HttpClientHandler;
+import org.forgerock.http.handler.HttpClientHandler.HostnameVerifier;
+import org.forgerock.http.protocol.Request;
+import org.forgerock.http.protocol.Response;
+import org.forgerock.http.protocol.Status;
+import org.forgerock.util.Options;
+import org.forgerock.util.promise.NeverThrowsException;
+import org.forgerock.util.promise.Promise;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+@SuppressWarnings("javadoc")
+public class JdkHttpClientTest {
+
+    private Server server;
+    private ServerConnector connector;
+    private HttpClientHandler handler;
+
+    @BeforeClass
+    public void setUp() throws Exception {
+        // Plain text server accepting both HTTP/1.1 and HTTP/2 (h2c)
+        server = new Server();
+        HttpConfiguration configuration = new HttpConfiguration();
+        connector = new ServerConnector(server, new HttpConnectionFactory(configuration),
+                new HTTP2CServerConnectionFactory(configuration));
+        connector.setPort(0);
+        server.addConnector(connector);
+        server.setHandler(new EchoHandler());
+        server.start();
+
+        handler = new HttpClientHandler();
+    }
+
+    @AfterClass
+    public void tearDown() throws Exception {
+        handler.close();
+        server.stop();
+    }
+
+    @Test
+    public void shouldUpgradeToHttp2() throws Exception {
+        Response response = new Client(handler).send(newRequest("GET", "/ping")).get();
+
+        assertThat(response.getStatus()).isEqualTo(Status.OK);
+        assertThat(response.getVersion()).isEqualTo("HTTP/2.0");
+        assertThat(response.getHeaders().getFirst("X-Protocol")).isEqualTo("HTTP/2.0");
+        assertThat(response.getEntity().getString()).isEqualTo("GET /ping ");
+    }
+
+    @Test(dependsOnMethods = "shouldUpgradeToHttp2")
+    public void shouldMultiplexConcurrentRequests() throws Exception {
+        Client client = new Client(handler);
+        List<Promise<Response, NeverThrowsException>> promises = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            Request request = newRequest("POST", "/echo/" + i);
+            request.setEntity("content-" + i);
+            promises.add(client.send(request));
+        }
+
+        Set<String> clientPorts = new HashSet<>();
+        for (int i = 0; i < promises.size(); i++) {
+            Response response = promises.get(i).get();
+            assertThat(response.getStatus()).isEqualTo(Status.OK);
+            assertThat(response.getVersion()).isEqualTo("HTTP/2.0");
+            assertThat(response.getEntity().getString()).isEqualTo("POST /echo/" + i + " content-" + i);
+            clientPorts.add(response.getHeaders().getFirst("X-Remote-Port"));
+        }
+        // All the requests went through the same connection
+        assertThat(clientPorts).hasSize(1);
+    }
+
+    @Test
+    public void shouldForwardRequestsWithHeadersRestrictedByJava11() throws Exception {
+        Request request = newRequest("GET", "/ping");
+        request.getHeaders().put("Origin", "http://app.example.com");
+        request.getHeaders().put("Referer", "http://app.example.com/index.html");
+        request.getHeaders().put("Via", "1.1 proxy.example.com");
+        request.getHeaders().put("X-Custom", "forwarded");
+
+        Response response = new Client(handler).send(request).get();
+
+        assertThat(response.getStatus()).isEqualTo(Status.OK);
+        assertThat(response.getHeaders().getFirst("X-Custom")).isEqualTo("forwarded");
+    }
+
+    @Test(expectedExceptions = HttpApplicationException.class)
+    public void shouldRejectDisabledHostnameVerification() throws Exception {
+        new JdkHttpClientProvider().newHttpClient(
+                Options.defaultOptions().set(OPTION_HOSTNAME_VERIFIER, HostnameVerifier.ALLOW_ALL));
+    }
+
+    @Test
+    public void shouldStreamLargeResponseContent() throws Exception {
+        Request request = newRequest("GET", "/large");
+
+        Response response = new Client(handler).send(request).get();
+
+        assertThat(response.getStatus()).isEqualTo(Status.OK);
+        assertThat(response.getEntity().getBytes()).hasSize(EchoHandler.LARGE_CONTENT_SIZE);
+    }
+
+    @Test
+    public void shouldFailToObtainResponse() throws Exception {
+        Request request = new Request();
+        request.setMethod("GET");
+        // Nothing listens on port 1
+        request.setUri("http://localhost:1/shouldFail");
+
+        Response response = new Client(handler).send(request).get();
+
+        assertThat(response.getStatus()).isEqualTo(Status.BAD_GATEWAY);
+        assertThat(response.getCause()).isNotNull();
+    }
+
+    private Request newRequest(final String method, final String path) throws Exception {
+        Request request = new Request();
+        request.setMethod(method);
+        request.setUri(format("http://localhost:%d%s", connector.getLocalPort(), path));
+        return request;
+    }
+
+    /** Echoes the request method, path and content. */
+    private static final class EchoHandler extends AbstractHandler {
+
+        private static final int LARGE_CONTENT_SIZE = 4 * 1024 * 1024;
+
+        @Override
+        public void handle(final String target, final org.eclipse.jetty.server.Request baseRequest,
+                final HttpServletRequest request, final HttpServletResponse response) throws IOException {
+            baseRequest.setHandled(true);
+            response.setStatus(HttpServletResponse.SC_OK);
+            response.setHeader("X-Protocol", request.getProtocol());
+            response.setHeader("X-Remote-Port", String.valueOf(request.getRemotePort()));
+            if (request.getHeader("X-Custom") != null) {
+                response.setHeader("X-Custom", request.getHeader("X-Custom"));
+            }
+            if ("/large".equals(target)) {
+                byte[] chunk = new byte[8192];
+                for (int i = 0; i < LARGE_CONTENT_SIZE / chunk.length; i++) {
+                    response.getOutputStream().write(chunk);
+                }
+                return;
+            }
+            String content = request.getMethod() + " " + target + " " + read(request.getInputStream());
+            response.getOutputStream().write(content.getBytes(UTF_8));
+        }
+
+        private static String read(final InputStream in) throws IOException {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[1024];
+            int n;
+            while ((n = in.read(buffer)) != -1) {
+                out.write(buffer, 0, n);
+            }
+            return new String(out.toByteArray(), UTF_8);
+        }
+    }
+
+}
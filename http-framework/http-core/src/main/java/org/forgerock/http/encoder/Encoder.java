@@ -0,0 +1,59 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Open Source Solution Technology Corporation
+ */
+
+package org.forgerock.http.encoder;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collections;
+import java.util.Map;
+
+import org.forgerock.http.util.CaseInsensitiveMap;
+import org.forgerock.http.util.Indexed;
+import org.forgerock.http.util.Loader;
+
+/**
+ * Encodes an HTTP message entity input stream. This is the counterpart of {@link org.forgerock.http.decoder.Decoder}.
+ * <p>
+ * Encoding is performed while the returned stream is read, so that the encoded content never needs to be held in
+ * memory as a whole.
+ */
+public interface Encoder extends Indexed<String> {
+
+    /** Mapping of supported codings to associated encoders. */
+    Map<String, Encoder> SERVICES = Collections.unmodifiableMap(new CaseInsensitiveMap<>(Loader.loadMap(
+            String.class, Encoder.class)));
+
+    /**
+     * Returns the coding that the encoder supports, as it would appear in the {@code Content-Encoding} header.
+     *
+     * @return The coding that the encoder supports, as it would appear in the {@code Content-Encoding} header.
+     */
+    @Override
+    String getKey();
+
+    /**
+     * Returns an instance of an input stream that encodes the specified input. Closing the returned stream closes
+     * the specified input.
+     *
+     * @param in
+     *            The input stream to be encoded.
+     * @return an input stream exposing the encoded content.
+     * @throws IOException
+     *             If an I/O exception occurs during encoding.
+     */
+    InputStream encode(InputStream in) throws IOException;
+}
@@ -0,0 +1,76 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Open Source Solution Technology Corporation
+ */
+
+package org.forgerock.http.encoder.internal;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.zip.Deflater;
+
+/**
+ * A bounded pool of {@link Deflater} instances sharing the same configuration.
+ * <p>
+ * A {@code Deflater} allocates native memory which is only released when it is
+ * {@linkplain Deflater#end() ended}, or when it is finalized. Reusing instances
+ * avoids both the allocation cost on every response and the build-up of native
+ * memory waiting for finalization.
+ */
+final class DeflaterPool {
+
+    private final int level;
+    private final boolean nowrap;
+    private final BlockingQueue<Deflater> idle;
+
+    /**
+     * Creates a new pool.
+     *
+     * @param level
+     *            the compression level of the pooled deflaters
+     * @param nowrap
+     *            {@code true} to produce raw deflate data (as used by gzip),
+     *            {@code false} to produce zlib wrapped data
+     * @param maxIdle
+     *            the maximum number of idle deflaters kept in the pool
+     */
+    DeflaterPool(final int level, final boolean nowrap, final int maxIdle) {
+        this.level = level;
+        this.nowrap = nowrap;
+        this.idle = new ArrayBlockingQueue<>(maxIdle);
+    }
+
+    /**
+     * Returns an idle deflater, or a new one if none is available.
+     *
+     * @return a deflater ready to compress new content
+     */
+    Deflater acquire() {
+        final Deflater deflater = idle.poll();
+        return deflater != null ? deflater : new Deflater(level, nowrap);
+    }
+
+    /**
+     * Returns a deflater to the pool. The deflater must not be used afterwards.
+     *
+     * @param deflater
+     *            the deflater to release
+     */
+    void release(final Deflater deflater) {
+        deflater.reset();
+        if (!idle.offer(deflater)) {
+            deflater.end();
+        }
+    }
+}
@@ -0,0 +1,161 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Open Source Solution Technology Corporation
+ */
+
+package org.forgerock.http.encoder.internal;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * An input stream compressing the content of another input stream as it is read, using a pooled {@link Deflater}.
+ * <p>
+ * The deflater goes back to its pool as soon as the compressed content has been fully read, or when the stream is
+ * closed, whichever happens first.
+ */
+final class DeflatingInputStream extends InputStream {
+
+    /** Gzip header: magic number, deflate method, no flags, no modification time, no extra flags, unknown OS. */
+    private static final byte[] GZIP_HEADER = { 0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, (byte) 0xff };
+    private static final int GZIP_TRAILER_LENGTH = 8;
+
+    private final InputStream in;
+    private final DeflaterPool pool;
+    private final byte[] input;
+    /** {@code null} unless producing gzip framed content. */
+    private final CRC32 crc;
+
+    private Deflater deflater;
+    /** Pending header or trailer bytes. */
+    private byte[] frame;
+    private int framePosition;
+    private boolean trailerWritten;
+    private boolean closed;
+
+    /**
+     * Creates a new deflating stream.
+     *
+     * @param in
+     *            the content to compress
+     * @param pool
+     *            the pool from which the deflater is borrowed
+     * @param gzip
+     *            {@code true} to frame the compressed content as a gzip member
+     * @param bufferSize
+     *            the size of the buffer used to read the content to compress
+     */
+    DeflatingInputStream(final InputStream in, final DeflaterPool pool, final boolean gzip, final int bufferSize) {
+        this.in = in;
+        this.pool = pool;
+        this.input = new byte[bufferSize];
+        this.deflater = pool.acquire();
+        if (gzip) {
+            crc = new CRC32();
+            frame = GZIP_HEADER;
+        } else {
+            crc = null;
+            trailerWritten = true;
+        }
+    }
+
+    @Override
+    public int read() throws IOException {
+        final byte[] b = new byte[1];
+        return read(b, 0, 1) == -1 ? -1 : b[0] & 0xff;
+    }
+
+    @Override
+    public int read(final byte[] b, final int off, final int len) throws IOException {
+        if (closed) {
+            throw new IOException("Stream closed");
+        }
+        if (len == 0) {
+            return 0;
+        }
+        if (frame != null) {
+            return readFrame(b, off, len);
+        }
+        if (deflater == null) {
+            return -1;
+        }
+        while (!deflater.finished()) {
+            final int n = deflater.deflate(b, off, len);
+            if (n > 0) {
+                return n;
+            }
+            if (deflater.needsInput()) {
+                final int read = in.read(input, 0, input.length);
+                if (read == -1) {
+                    deflater.finish();
+                } else if (read > 0) {
+                    deflater.setInput(input, 0, read);
+                    if (crc != null) {
+                        crc.update(input, 0, read);
+                    }
+                }
+            }
+        }
+        if (!trailerWritten) {
+            frame = gzipTrailer(crc.getValue(), deflater.getBytesRead());
+            trailerWritten = true;
+        }
+        releaseDeflater();
+        return frame != null ? readFrame(b, off, len) : -1;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (!closed) {
+            closed = true;
+            releaseDeflater();
+            in.close();
+        }
+    }
+
+    private int readFrame(final byte[] b, final int off, final int len) {
+        final int n = Math.min(len, frame.length - framePosition);
+        System.arraycopy(frame, framePosition, b, off, n);
+        framePosition += n;
+        if (framePosition == frame.length) {
+            frame = null;
+            framePosition = 0;
+        }
+        return n;
+    }
+
+    private void releaseDeflater() {
+        if (deflater != null) {
+            pool.release(deflater);
+            deflater = null;
+        }
+    }
+
+    private static byte[] gzipTrailer(final long crc, final long size) {
+        final byte[] trailer = new byte[GZIP_TRAILER_LENGTH];
+        writeInt(trailer, 0, crc);
+        // ISIZE is the size of the original content modulo 2^32
+        writeInt(trailer, 4, size);
+        return trailer;
+    }
+
+    private static void writeInt(final byte[] b, final int off, final long value) {
+        b[off] = (byte) value;
+        b[off + 1] = (byte) (value >> 8);
+        b[off + 2] = (byte) (value >> 16);
+        b[off + 3] = (byte) (value >> 24);
+    }
+}
@@ -0,0 +1,45 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Open Source Solution Technology Corporation
+ */
+
+package org.forgerock.http.encoder.internal;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.Deflater;
+
+import org.forgerock.http.encoder.Encoder;
+
+/**
+ * Encodes an entity with <strong>{@code gzip}</strong> encoding. See
+ * <a href="http://www.ietf.org/rfc/rfc2616.txt">RFC 2616</a> §3.5 for more information.
+ */
+public class GzipEncoder implements Encoder {
+
+    private static final DeflaterPool POOL = new DeflaterPool(Deflater.DEFAULT_COMPRESSION, true,
+            Runtime.getRuntime().availableProcessors() * 4);
+
+    private static final int BUFFER_SIZE = 8 * 1024;
+
+    @Override
+    public String getKey() {
+        return "gzip";
+    }
+
+    @Override
+    public InputStream encode(InputStream in) throws IOException {
+        return new DeflatingInputStream(in, POOL, true, BUFFER_SIZE);
+    }
+}
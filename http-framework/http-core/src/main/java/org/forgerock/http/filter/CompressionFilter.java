@@ -0,0 +1,239 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Open Source Solution Technology Corporation
+ */
+
+package org.forgerock.http.filter;
+
+import static org.forgerock.http.header.HeaderUtil.parseMultiValuedHeader;
+import static org.forgerock.http.header.HeaderUtil.parseParameter;
+import static org.forgerock.http.header.HeaderUtil.split;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.forgerock.http.Filter;
+import org.forgerock.http.Handler;
+import org.forgerock.http.encoder.Encoder;
+import org.forgerock.http.header.ContentEncodingHeader;
+import org.forgerock.http.header.ContentLengthHeader;
+import org.forgerock.http.header.ContentTypeHeader;
+import org.forgerock.http.io.Buffer;
+import org.forgerock.http.io.IO;
+import org.forgerock.http.protocol.Request;
+import org.forgerock.http.protocol.Response;
+import org.forgerock.services.context.Context;
+import org.forgerock.util.Factory;
+import org.forgerock.util.Function;
+import org.forgerock.util.Option;
+import org.forgerock.util.Options;
+import org.forgerock.util.promise.NeverThrowsException;
+import org.forgerock.util.promise.Promise;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * {@link Filter} which compresses response entities according to the {@code Accept-Encoding} header of the request,
+ * using the {@link Encoder#SERVICES available encoders}.
+ * <p>
+ * The entity is compressed while it is written to the client: the {@code Content-Length} header is removed and the
+ * response is sent chunked. Responses are left untouched when:
+ * <ul>
+ *     <li>the client does not accept any of the available encodings;</li>
+ *     <li>the response is already encoded, or has no content;</li>
+ *     <li>the response {@code Content-Type} is not one of the {@link #OPTION_CONTENT_TYPES compressible types};</li>
+ *     <li>the response {@code Content-Length} is smaller than {@link #OPTION_MINIMUM_SIZE}.</li>
+ * </ul>
+ */
+public final class CompressionFilter implements Filter {
+
+    private static final Logger logger = LoggerFactory.getLogger(CompressionFilter.class);
+
+    /**
+     * The minimum {@code Content-Length}, in bytes, of the responses to compress. Responses of unknown length are
+     * always compressed. The default is 1024 bytes.
+     */
+    public static final Option<Integer> OPTION_MINIMUM_SIZE = Option.withDefault(1024);
+
+    /**
+     * The media types of the responses to compress. A type ending with a {@code /} matches all the sub-types of
+     * that type, a type starting with a {@code +} matches all the media types with that structured syntax suffix.
+     * The default is {@code text/}, {@code application/json}, {@code application/xml},
+     * {@code application/javascript}, {@code +json} and {@code +xml}.
+     */
+    @SuppressWarnings({ "rawtypes", "unchecked" })
+    public static final Option<List<String>> OPTION_CONTENT_TYPES = (Option) Option.of(List.class,
+            Arrays.asList("text/", "application/json", "application/xml", "application/javascript", "+json", "+xml"));
+
+    /**
+     * The encodings the filter may apply, in order of preference when the client accepts several of them with the
+     * same quality. The default is {@code gzip} then {@code deflate}.
+     */
+    @SuppressWarnings({ "rawtypes", "unchecked" })
+    public static final Option<List<String>> OPTION_ENCODINGS = (Option) Option.of(List.class,
+            Arrays.asList("gzip", "deflate"));
+
+    private static final String ACCEPT_ENCODING = "Accept-Encoding";
+    private static final String ETAG = "ETag";
+    private static final String VARY = "Vary";
+
+    private final int minimumSize;
+    private final List<String> contentTypes;
+    private final List<String> encodings;
+    private final Factory<Buffer> storage = IO.newTemporaryStorage();
+
+    CompressionFilter(final Options options) {
+        this.minimumSize = options.get(OPTION_MINIMUM_SIZE);
+        this.contentTypes = options.get(OPTION_CONTENT_TYPES);
+        this.encodings = options.get(OPTION_ENCODINGS);
+    }
+
+    @Override
+    public Promise<Response, NeverThrowsException> filter(final Context context, final Request request,
+            final Handler next) {
+        final Encoder encoder = "HEAD".equals(request.getMethod()) ? null : selectEncoder(request);
+        return next.handle(context, request)
+                   .then(new Function<Response, Response, NeverThrowsException>() {
+                       @Override
+                       public Response apply(final Response response) {
+                           if (!isCompressible(response)) {
+                               return response;
+                           }
+                           // Caches must not serve a compressed response to clients not accepting it, and vice versa
+                           return encoder != null ? encode(response, encoder) : varyOnAcceptEncoding(response);
+                       }
+                   });
+    }
+
+    /**
+     * Returns the preferred encoder accepted by the client, or {@code null} if none is accepted.
+     */
+    private Encoder selectEncoder(final Request request) {
+        final List<String> accepted = parseMultiValuedHeader(request, ACCEPT_ENCODING);
+        if (accepted.isEmpty()) {
+            return null;
+        }
+        Encoder selected = null;
+        float selectedQuality = 0;
+        for (final String encoding : encodings) {
+            final Encoder encoder = Encoder.SERVICES.get(encoding);
+            final float quality = quality(accepted, encoding);
+            if (encoder != null && quality > selectedQuality) {
+                selected = encoder;
+                selectedQuality = quality;
+            }
+        }
+        return selected;
+    }
+
+    /**
+     * Returns the quality the client associates with the given coding, {@code 0} meaning not acceptable.
+     */
+    private static float quality(final List<String> accepted, final String coding) {
+        float wildcard = 0;
+        for (final String value : accepted) {
+            final List<String> parts = split(value, ';');
+            final String name = parts.get(0).trim();
+            final boolean exact = name.equalsIgnoreCase(coding);
+            if (!exact && !"*".equals(name)) {
+                continue;
+            }
+            float quality = 1;
+            for (final String parameter : parts.subList(1, parts.size())) {
+                final String[] nameValue = parseParameter(parameter.trim());
+                if ("q".equalsIgnoreCase(nameValue[0]) && nameValue[1] != null) {
+                    try {
+                        quality = Float.parseFloat(nameValue[1]);
+                    } catch (NumberFormatException e) {
+                        quality = 0;
+                    }
+                }
+            }
+            if (exact) {
+                return quality;
+            }
+            wildcard = quality;
+        }
+        return wildcard;
+    }
+
+    private boolean isCompressible(final Response response) {
+        if (response.getHeaders().containsKey(ContentEncodingHeader.NAME)) {
+            return false;
+        }
+        final String type = ContentTypeHeader.valueOf(response).getType();
+        if (type == null || !isCompressibleType(type.toLowerCase(Locale.ROOT))) {
+            return false;
+        }
+        final long length = ContentLengthHeader.valueOf(response).getLength();
+        if (length >= 0 && length < minimumSize) {
+            return false;
+        }
+        return !response.getEntity().isRawContentEmpty();
+    }
+
+    private boolean isCompressibleType(final String type) {
+        for (final String candidate : contentTypes) {
+            if (candidate.endsWith("/") || candidate.startsWith("+")
+                    ? type.startsWith(candidate) || type.endsWith(candidate)
+                    : type.equals(candidate)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns a copy of the given response whose entity streams the encoded content of the original entity.
+     */
+    private Response encode(final Response response, final Encoder encoder) {
+        final Response encoded = new Response(response.getStatus());
+        encoded.setVersion(response.getVersion());
+        encoded.setCause(response.getCause());
+        for (Map.Entry<String, Object> header : response.getHeaders().entrySet()) {
+            encoded.getHeaders().put(header.getKey(), header.getValue());
+        }
+        try {
+            // The original entity is closed when the encoded entity is closed
+            encoded.setEntity(IO.newBranchingInputStream(
+                    encoder.encode(response.getEntity().getRawContentInputStream()), storage));
+        } catch (IOException e) {
+            logger.debug("Unable to encode the response with {}, sending it as-is", encoder.getKey(), e);
+            return varyOnAcceptEncoding(response);
+        }
+        final Map<String, Object> headers = encoded.getHeaders();
+        headers.remove(ContentLengthHeader.NAME);
+        headers.put(ContentEncodingHeader.NAME, encoder.getKey());
+        final String etag = encoded.getHeaders().getFirst(ETAG);
+        if (etag != null && !etag.startsWith("W/")) {
+            // The encoded representation is not byte for byte identical to the original one
+            headers.put(ETAG, "W/" + etag);
+        }
+        return varyOnAcceptEncoding(encoded);
+    }
+
+    private static Response varyOnAcceptEncoding(final Response response) {
+        final List<String> vary = parseMultiValuedHeader(response, VARY);
+        for (final String value : vary) {
+            if ("*".equals(value) || ACCEPT_ENCODING.equalsIgnoreCase(value)) {
+                return response;
+            }
+        }
+        response.getHeaders().add(VARY, ACCEPT_ENCODING);
+        return response;
+    }
+}
@@ -12,6 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2015-2016 ForgeRock AS.
+ * Portions copyright 2026 Open Source Solution Technology Corporation
  */
 
 package org.forgerock.http.filter;
@@ -26,6 +27,7 @@ import org.forgerock.http.protocol.Request;
 import org.forgerock.http.protocol.Response;
 import org.forgerock.http.session.SessionManager;
 import org.forgerock.services.context.Context;
+import org.forgerock.util.Options;
 import org.forgerock.util.promise.NeverThrowsException;
 import org.forgerock.util.promise.Promise;
 
@@ -70,6 +72,28 @@ public final class Filters {
         return new SessionFilter(sessionManager);
     }
 
+    /**
+     * Creates a {@link Filter} which compresses response entities according to
+     * the {@code Accept-Encoding} request header, using the default options.
+     *
+     * @return A response compression {@code Filter}.
+     * @see CompressionFilter
+     */
+    public static Filter newCompressionFilter() {
+        return newCompressionFilter(Options.unmodifiableDefaultOptions());
+    }
+
+    /**
+     * Creates a {@link Filter} which compresses response entities according to
+     * the {@code Accept-Encoding} request header.
+     *
+     * @param options The options configuring the filter, see {@link CompressionFilter}.
+     * @return A response compression {@code Filter}.
+     */
+    public static Filter newCompressionFilter(Options options) {
+        return new CompressionFilter(options);
+    }
+
     /**
      * Creates a {@link Filter} which encapsulates the provided {@literal filters}
      * into a single {@code Filter}.
@@ -13,6 +13,7 @@
  *
  * Copyright 2010–2011 ApexIdentity Inc.
  * Portions Copyright 2011-2016 ForgeRock AS.
+ * Portions copyright 2026 Open Source Solution Technology Corporation
  */
 
 package org.forgerock.http.io;
@@ -35,13 +36,25 @@ final class ByteArrayBranchingStream extends BranchingInputStream {
     /** The byte array to expose as the input stream. */
     private byte[] data;
 
+    /** The index following the last byte to expose from the byte array. */
+    private final int limit;
+
     ByteArrayBranchingStream(byte[] data) {
+        this(data, 0, data.length);
+    }
+
+    ByteArrayBranchingStream(byte[] data, int offset, int length) {
+        if (offset < 0 || length < 0 || length > data.length - offset) {
+            throw new IndexOutOfBoundsException();
+        }
         this.data = data;
+        this.position = offset;
+        this.limit = offset + length;
     }
 
     @Override
     public ByteArrayBranchingStream branch() {
-        ByteArrayBranchingStream branch = new ByteArrayBranchingStream(data);
+        ByteArrayBranchingStream branch = new ByteArrayBranchingStream(data, position, limit - position);
         branch.position = this.position;
         branch.parent = this;
         return branch;
@@ -49,7 +62,7 @@ final class ByteArrayBranchingStream extends BranchingInputStream {
 
     @Override
     public ByteArrayBranchingStream copy() throws IOException {
-        ByteArrayBranchingStream branch = new ByteArrayBranchingStream(data);
+        ByteArrayBranchingStream branch = new ByteArrayBranchingStream(data, position, limit - position);
         branch.position = this.position;
         branch.parent = this.parent;
         return branch;
@@ -62,7 +75,7 @@ final class ByteArrayBranchingStream extends BranchingInputStream {
 
     @Override
     public synchronized int read() {
-        return (position < data.length ? data[position++] & 0xff : -1);
+        return (position < limit ? data[position++] & 0xff : -1);
     }
 
     @Override
@@ -75,11 +88,11 @@ final class ByteArrayBranchingStream extends BranchingInputStream {
         if (off < 0 || len < 0 || len > b.length - off) {
             throw new IndexOutOfBoundsException();
         }
-        if (position >= data.length) {
+        if (position >= limit) {
             // end of stream has been reached
             return -1;
         }
-        len = Math.min(len, data.length - position);
+        len = Math.min(len, limit - position);
         System.arraycopy(data, position, b, off, len);
         position += len;
         return len;
@@ -90,14 +103,14 @@ final class ByteArrayBranchingStream extends BranchingInputStream {
         if (n <= 0) {
             return 0;
         }
-        n = Math.min(n, data.length - position);
+        n = Math.min(n, limit - position);
         position += n;
         return n;
     }
 
     @Override
     public synchronized int available() {
-        return data.length - position;
+        return limit - position;
     }
 
     @Override
@@ -14,6 +14,7 @@
  * Copyright 2009 Sun Microsystems Inc.
  * Portions Copyright 2010–2011 ApexIdentity Inc.
  * Portions Copyright 2011-2015 ForgeRock AS.
+ * Portions copyright 2026 Open Source Solution Technology Corporation
  */
 
 package org.forgerock.http.io;
@@ -73,6 +74,25 @@ public final class IO {
         return new ByteArrayBranchingStream(bytes);
     }
 
+    /**
+     * Creates a new branching input stream that wraps a region of a byte array. The array is not copied, it must
+     * therefore not be modified while the stream, or any of its branches, is in use.
+     *
+     * @param bytes
+     *            byte array to wrap with the branching input stream.
+     * @param offset
+     *            the index of the first byte to expose.
+     * @param length
+     *            the number of bytes to expose.
+     * @return The branching input stream.
+     * @throws IndexOutOfBoundsException
+     *             if {@code offset} and {@code length} do not denote a region of {@code bytes}.
+     */
+    public static BranchingInputStream newBranchingInputStream(final byte[] bytes, final int offset,
+            final int length) {
+        return new ByteArrayBranchingStream(bytes, offset, length);
+    }
+
     /**
      * Creates a new branching input stream to wrap another input stream. All
      * divergence between branches is maintained in a temporary buffer.
@@ -12,6 +12,7 @@
  * information: "Portions Copyright [year] [name of copyright owner]".
  *
  * Copyright 2014-2016 ForgeRock AS.
+ * Portions copyright 2026 Open Source Solution Technology Corporation
  */
 
 package org.forgerock.http.protocol;
@@ -19,7 +20,6 @@ package org.forgerock.http.protocol;
 import static org.forgerock.http.util.Json.readJson;
 import static org.forgerock.http.util.Json.writeJson;
 import static java.nio.charset.StandardCharsets.ISO_8859_1;
-import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.forgerock.util.Utils.closeSilently;
 
 import java.io.BufferedReader;
@@ -29,10 +29,10 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.OutputStream;
-import java.io.StringWriter;
 import java.io.UnsupportedEncodingException;
 import java.io.Writer;
 import java.nio.charset.Charset;
+import java.util.Arrays;
 
 import org.forgerock.http.header.ContentEncodingHeader;
 import org.forgerock.http.header.ContentLengthHeader;
@@ -70,6 +70,16 @@ public final class Entity implements Closeable {
     /** The Content-Type used when setting the entity to JSON. */
     static final String APPLICATION_JSON_CHARSET_UTF_8 = "application/json; charset=UTF-8";
 
+    /**
+     * Largest Content-Length for which the decoded content is read straight into an array of that size. Larger
+     * content is read into a buffer which grows as it is read, so that a wrong Content-Length header cannot make
+     * a small message allocate a large array.
+     */
+    private static final int MAX_PRESIZED_LENGTH = 8 * 1024;
+
+    /** Size of the buffer used to copy the raw content. */
+    private static final int COPY_BUFFER_SIZE = 8 * 1024;
+
     /** Default content stream. */
     private static final BranchingInputStream EMPTY_STREAM = IO
             .newBranchingInputStream(new byte[0]);
@@ -184,6 +194,10 @@ public final class Entity implements Closeable {
      * After the method returns it will no longer be possible to read data from
      * this entity. This method does not push or pop branches nor does it
      * perform any decoding of the raw data.
+     * <p>
+     * The output stream is flushed whenever no more content can be read
+     * without blocking, so that content which is produced while it is copied
+     * reaches the destination as soon as it is available.
      *
      * @param out
      *            The destination output stream.
@@ -191,7 +205,14 @@ public final class Entity implements Closeable {
      *             If an IO error occurred while copying the raw content.
      */
     public void copyRawContentTo(final OutputStream out) throws IOException {
-        IO.stream(head, out);
+        final byte[] buf = new byte[COPY_BUFFER_SIZE];
+        int n;
+        while ((n = head.read(buf, 0, COPY_BUFFER_SIZE)) != -1) {
+            out.write(buf, 0, n);
+            if (head.available() <= 0) {
+                out.flush();
+            }
+        }
         out.flush();
     }
 
@@ -210,8 +231,29 @@ public final class Entity implements Closeable {
     public byte[] getBytes() throws IOException {
         push();
         try {
-            final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
-            copyDecodedContentTo(bytes);
+            final InputStream in = getDecodedInputStream(head);
+            // The Content-Length is the size of the decoded content unless a content coding has been applied
+            final long length = message.getHeaders().containsKey(ContentEncodingHeader.NAME)
+                    ? -1 : ContentLengthHeader.valueOf(message).getLength();
+            final ByteArrayOutputStream bytes;
+            if (length >= 0 && length <= MAX_PRESIZED_LENGTH) {
+                final byte[] content = new byte[(int) length];
+                final int read = readFully(in, content);
+                if (read < content.length) {
+                    return Arrays.copyOf(content, read);
+                }
+                final int next = in.read();
+                if (next == -1) {
+                    return content;
+                }
+                // The Content-Length header is wrong, carry on with what has already been read
+                bytes = new ByteArrayOutputStream(content.length * 2 + 1);
+                bytes.write(content);
+                bytes.write(next);
+            } else {
+                bytes = new ByteArrayOutputStream(MAX_PRESIZED_LENGTH);
+            }
+            IO.stream(in, bytes);
             return bytes.toByteArray();
         } finally {
             pop();
@@ -234,8 +276,9 @@ public final class Entity implements Closeable {
      */
     public Object getJson() throws IOException {
         if (json == null) {
-            try (BufferedReader reader = newDecodedContentReader(UTF_8) /* RFC 7159 */) {
-                json = readJson(reader);
+            // Parse the bytes: the encoding is detected as specified by RFC 7159
+            try (InputStream in = newDecodedContentInputStream()) {
+                json = readJson(in);
             }
         }
         return json;
@@ -265,14 +308,8 @@ public final class Entity implements Closeable {
      */
     public String getString() throws IOException {
         if (string == null) {
-            push();
-            try {
-                final StringWriter writer = new StringWriter();
-                copyDecodedContentTo(writer);
-                string = writer.toString();
-            } finally {
-                pop();
-            }
+            // Decoding the bytes at once avoids copying the content through a reader and a writer
+            string = new String(getBytes(), cs(null));
         }
         return string;
     }
@@ -476,6 +513,21 @@ public final class Entity implements Closeable {
         return ISO_8859_1;
     }
 
+    /**
+     * Reads into the whole array unless the end of the stream is reached first, returning the number of bytes read.
+     */
+    private static int readFully(final InputStream in, final byte[] bytes) throws IOException {
+        int offset = 0;
+        while (offset < bytes.length) {
+            final int n = in.read(bytes, offset, bytes.length - offset);
+            if (n == -1) {
+                break;
+            }
+            offset += n;
+        }
+        return offset;
+    }
+
     private BufferedReader getBufferedReader(final InputStream is, final Charset charset)
             throws IOException {
         return new BufferedReader(new InputStreamReader(getDecodedInputStream(is), cs(charset)));
@@ -0,0 +1,178 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Open Source Solution Technology Corporation
+ */
+
+package org.forgerock.http.session;
+
+import static org.forgerock.http.util.Json.checkJsonCompatibility;
+import static org.forgerock.http.util.Json.readJson;
+import static org.forgerock.http.util.Json.writeJson;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.AbstractMap;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import org.forgerock.http.protocol.Response;
+
+/**
+ * A session whose attributes are stored in a cookie by a {@link CookieSessionManager}. The cookie is decrypted when
+ * the session is first accessed, and the session keeps track of its modifications so that an unmodified session is
+ * not sent back to the client.
+ * <p>
+ * Modifications made through the {@code Map} methods are tracked directly. Since the attributes may also be
+ * modified in place, or through the views of this map, the attributes are serialized again on save and compared to
+ * the loaded ones whenever a mutable value or a view has been handed out.
+ */
+final class CookieSession extends AbstractMap<String, Object> implements Session {
+
+    private final CookieSessionManager manager;
+
+    /** The value of the request cookie, if any. */
+    private final String cookieValue;
+
+    /** The session attributes, or {@code null} if the cookie has not been decoded yet. */
+    private Map<String, Object> attributes;
+
+    /** The attributes as serialized in the request cookie, or {@code null} if there was no valid cookie. */
+    private byte[] loaded;
+
+    /** The expiration time of the request cookie. */
+    private long expirationTime;
+
+    /** Whether the attributes have been modified. */
+    private boolean dirty;
+
+    /** Whether the attributes may have been modified without this session knowing about it. */
+    private boolean exposed;
+
+    CookieSession(final CookieSessionManager manager, final String cookieValue) {
+        this.manager = manager;
+        this.cookieValue = cookieValue;
+    }
+
+    @Override
+    public void clear() {
+        if (!attributes().isEmpty()) {
+            attributes.clear();
+            dirty = true;
+        }
+    }
+
+    @Override
+    public boolean containsKey(final Object key) {
+        return attributes().containsKey(key);
+    }
+
+    @Override
+    public Set<Entry<String, Object>> entrySet() {
+        exposed = true;
+        return attributes().entrySet();
+    }
+
+    @Override
+    public Object get(final Object key) {
+        return expose(attributes().get(key));
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return attributes().isEmpty();
+    }
+
+    @Override
+    public Object put(final String key, final Object value) {
+        checkJsonCompatibility(key, value);
+        final Map<String, Object> attributes = attributes();
+        final boolean present = attributes.containsKey(key);
+        final Object old = attributes.put(key, value);
+        if (!present || (old != null ? !old.equals(value) : value != null)) {
+            dirty = true;
+        }
+        expose(value);
+        return old;
+    }
+
+    @Override
+    public Object remove(final Object key) {
+        final Map<String, Object> attributes = attributes();
+        if (!attributes.containsKey(key)) {
+            return null;
+        }
+        dirty = true;
+        return attributes.remove(key);
+    }
+
+    @Override
+    public int size() {
+        return attributes().size();
+    }
+
+    @Override
+    public void save(final Response response) throws IOException {
+        if (attributes == null) {
+            // Never accessed, the client keeps its cookie
+            return;
+        }
+        byte[] json = null;
+        if (!dirty && exposed) {
+            json = writeJson(attributes);
+            dirty = !Arrays.equals(json, loaded);
+        }
+        if (attributes.isEmpty()) {
+            if (dirty && cookieValue != null) {
+                manager.expireCookie(response);
+            }
+        } else if (dirty || manager.needsRenewal(expirationTime)) {
+            manager.writeCookie(response, json != null ? json : writeJson(attributes));
+        }
+        dirty = false;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> attributes() {
+        if (attributes == null) {
+            final long[] expiration = new long[1];
+            final byte[] json = manager.decode(cookieValue, expiration);
+            if (json != null) {
+                try {
+                    attributes = (Map<String, Object>) readJson(new ByteArrayInputStream(json));
+                    loaded = json;
+                    expirationTime = expiration[0];
+                } catch (final IOException | ClassCastException e) {
+                    attributes = null;
+                }
+            }
+            if (attributes == null) {
+                attributes = new LinkedHashMap<>();
+                // An invalid or expired cookie must be discarded
+                dirty = cookieValue != null;
+            }
+        }
+        return attributes;
+    }
+
+    /** Values which may be modified in place are compared to the loaded ones on save. */
+    private Object expose(final Object value) {
+        if (value instanceof Map || value instanceof Collection || value instanceof Object[]) {
+            exposed = true;
+        }
+        return value;
+    }
+}
@@ -0,0 +1,289 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Open Source Solution Technology Corporation
+ */
+
+package org.forgerock.http.session;
+
+import static java.util.Collections.singletonList;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.forgerock.util.time.Duration.duration;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+import javax.crypto.Cipher;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.GCMParameterSpec;
+
+import org.forgerock.http.header.SetCookieHeader;
+import org.forgerock.http.protocol.Cookie;
+import org.forgerock.http.protocol.Request;
+import org.forgerock.http.protocol.Response;
+import org.forgerock.util.Option;
+import org.forgerock.util.Options;
+import org.forgerock.util.Reject;
+import org.forgerock.util.encode.Base64url;
+import org.forgerock.util.time.Duration;
+import org.forgerock.util.time.TimeService;
+
+/**
+ * A {@link SessionManager} keeping the whole session state in a cookie, so that no server side storage, nor sticky
+ * load balancing, is needed. The session attributes are serialized as JSON, compressed when this makes them
+ * smaller, then encrypted and authenticated with AES-GCM using the provided key: all the nodes sharing this key can
+ * therefore serve the session. Session attributes must be JSON compatible.
+ * <p>
+ * The cookie is only decrypted when the session is first accessed, and it is only re-encoded and sent back to the
+ * client when the session has been modified, or when more than half of its lifetime has elapsed. Since the session
+ * expiration time is stored in the cookie, sessions which are not accessed expire after
+ * {@link #OPTION_SESSION_TIMEOUT} even if the client keeps using them.
+ * <p>
+ * Browsers limit cookies to about 4 KB: saving a session which does not fit fails with an {@link IOException}.
+ *
+ * @since 20.1.2
+ */
+public final class CookieSessionManager implements SessionManager {
+
+    /** The name of the session cookie. The default is {@code session}. */
+    public static final Option<String> OPTION_COOKIE_NAME = Option.withDefault("session");
+
+    /** The path of the session cookie. The default is {@code /}. */
+    public static final Option<String> OPTION_COOKIE_PATH = Option.withDefault("/");
+
+    /** The domain of the session cookie. The default is none, restricting the cookie to the origin server. */
+    public static final Option<String> OPTION_COOKIE_DOMAIN = Option.of(String.class, null);
+
+    /** Whether the session cookie must only be sent over secure connections. The default is {@code true}. */
+    public static final Option<Boolean> OPTION_SECURE_COOKIE = Option.withDefault(true);
+
+    /** The lifetime of a session since its last renewal. The default is 30 minutes. */
+    public static final Option<Duration> OPTION_SESSION_TIMEOUT = Option.withDefault(duration("30 minutes"));
+
+    /** The time service used to compute the session expiration times. */
+    public static final Option<TimeService> OPTION_TIME_SERVICE = Option.of(TimeService.class, TimeService.SYSTEM);
+
+    /** Maximum size of a {@code Set-Cookie} name and value accepted by the browsers. */
+    private static final int MAX_COOKIE_SIZE = 4096;
+    /** Maximum size of the decompressed session, guarding against decompression bombs. */
+    private static final int MAX_SESSION_SIZE = 64 * 1024;
+    /** Sessions smaller than this are not worth compressing. */
+    private static final int MIN_COMPRESSED_SIZE = 128;
+
+    private static final String CIPHER = "AES/GCM/NoPadding";
+    private static final int IV_LENGTH = 12;
+    private static final int TAG_LENGTH = 128;
+
+    private static final byte FORMAT_VERSION = 1;
+    private static final byte FLAG_DEFLATED = 1;
+    /** Version, flags and expiration time. */
+    private static final int HEADER_LENGTH = 1 + 1 + 8;
+
+    private final SecretKey key;
+    private final byte[] associatedData;
+    private final String cookieName;
+    private final String cookiePath;
+    private final String cookieDomain;
+    private final boolean secureCookie;
+    private final long timeout;
+    private final TimeService time;
+    private final SecureRandom random = new SecureRandom();
+
+    /**
+     * Creates a new cookie session manager with the default options.
+     *
+     * @param key
+     *            The AES key encrypting the session cookies, which must be shared by all the nodes serving the
+     *            sessions.
+     */
+    public CookieSessionManager(final SecretKey key) {
+        this(key, Options.unmodifiableDefaultOptions());
+    }
+
+    /**
+     * Creates a new cookie session manager.
+     *
+     * @param key
+     *            The AES key encrypting the session cookies, which must be shared by all the nodes serving the
+     *            sessions.
+     * @param options
+     *            The options configuring the session cookie.
+     */
+    public CookieSessionManager(final SecretKey key, final Options options) {
+        Reject.ifNull(key, options);
+        Reject.ifFalse("AES".equalsIgnoreCase(key.getAlgorithm()), "The session key must be an AES key");
+        final Duration sessionTimeout = options.get(OPTION_SESSION_TIMEOUT);
+        Reject.ifTrue(sessionTimeout.isUnlimited() || sessionTimeout.isZero(),
+                "The session timeout must be positive and limited");
+        this.key = key;
+        this.cookieName = options.get(OPTION_COOKIE_NAME);
+        this.cookiePath = options.get(OPTION_COOKIE_PATH);
+        this.cookieDomain = options.get(OPTION_COOKIE_DOMAIN);
+        this.secureCookie = options.get(OPTION_SECURE_COOKIE);
+        this.timeout = sessionTimeout.to(MILLISECONDS);
+        this.time = options.get(OPTION_TIME_SERVICE);
+        // Binds the cookies to their name, so that they cannot be swapped with cookies of another manager
+        this.associatedData = cookieName.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public Session load(final Request request) {
+        final List<Cookie> cookies = request.getCookies().get(cookieName);
+        return new CookieSession(this, cookies != null && !cookies.isEmpty() ? cookies.get(0).getValue() : null);
+    }
+
+    @Override
+    public void save(final Session session, final Response response) throws IOException {
+        if (session != null) {
+            session.save(response);
+        }
+    }
+
+    /** Sessions are renewed once they have lived more than half of their lifetime. */
+    boolean needsRenewal(final long expirationTime) {
+        return expirationTime - time.now() < timeout / 2;
+    }
+
+    /**
+     * Decrypts the provided cookie value, returning the JSON serialized session or {@code null} if the cookie is
+     * invalid or expired. The session expiration time is stored in {@code expirationTime[0]}.
+     */
+    byte[] decode(final String cookieValue, final long[] expirationTime) {
+        final byte[] encrypted = cookieValue != null ? Base64url.decode(cookieValue) : null;
+        if (encrypted == null || encrypted.length < IV_LENGTH + TAG_LENGTH / 8 + HEADER_LENGTH) {
+            return null;
+        }
+        final byte[] decrypted;
+        try {
+            final Cipher cipher = Cipher.getInstance(CIPHER);
+            cipher.init(Cipher.DECRYPT_MODE, key, new GCMParameterSpec(TAG_LENGTH, encrypted, 0, IV_LENGTH));
+            cipher.updateAAD(associatedData);
+            decrypted = cipher.doFinal(encrypted, IV_LENGTH, encrypted.length - IV_LENGTH);
+        } catch (final GeneralSecurityException e) {
+            // Tampered with, or encrypted with another key
+            return null;
+        }
+        final ByteBuffer buffer = ByteBuffer.wrap(decrypted);
+        if (buffer.get() != FORMAT_VERSION) {
+            return null;
+        }
+        final byte flags = buffer.get();
+        expirationTime[0] = buffer.getLong();
+        if (expirationTime[0] <= time.now()) {
+            return null;
+        }
+        final byte[] json = Arrays.copyOfRange(decrypted, HEADER_LENGTH, decrypted.length);
+        return (flags & FLAG_DEFLATED) != 0 ? inflate(json) : json;
+    }
+
+    /** Writes the JSON serialized session in a new cookie expiring after the session timeout. */
+    void writeCookie(final Response response, final byte[] json) throws IOException {
+        final byte[] deflated = json.length >= MIN_COMPRESSED_SIZE ? deflate(json) : null;
+        final boolean compressed = deflated != null && deflated.length < json.length;
+        final byte[] content = compressed ? deflated : json;
+
+        final byte[] plain = ByteBuffer.allocate(HEADER_LENGTH + content.length)
+                .put(FORMAT_VERSION)
+                .put(compressed ? FLAG_DEFLATED : 0)
+                .putLong(time.now() + timeout)
+                .put(content)
+                .array();
+        final byte[] iv = new byte[IV_LENGTH];
+        random.nextBytes(iv);
+        final byte[] encrypted;
+        try {
+            final Cipher cipher = Cipher.getInstance(CIPHER);
+            cipher.init(Cipher.ENCRYPT_MODE, key, new GCMParameterSpec(TAG_LENGTH, iv));
+            cipher.updateAAD(associatedData);
+            encrypted = new byte[IV_LENGTH + cipher.getOutputSize(plain.length)];
+            System.arraycopy(iv, 0, encrypted, 0, IV_LENGTH);
+            cipher.doFinal(plain, 0, plain.length, encrypted, IV_LENGTH);
+        } catch (final GeneralSecurityException e) {
+            throw new IOException("Unable to encrypt the session", e);
+        }
+
+        final String value = Base64url.encode(encrypted);
+        if (cookieName.length() + 1 + value.length() > MAX_COOKIE_SIZE) {
+            throw new IOException("The session is too large to be stored in a cookie (" + value.length()
+                    + " characters)");
+        }
+        response.getHeaders().add(new SetCookieHeader(singletonList(newCookie(value)
+                .setMaxAge((int) MILLISECONDS.toSeconds(timeout)))));
+    }
+
+    /** Asks the client to discard the session cookie. */
+    void expireCookie(final Response response) {
+        response.getHeaders().add(new SetCookieHeader(singletonList(newCookie("")
+                .setExpires(new Date(0)))));
+    }
+
+    private Cookie newCookie(final String value) {
+        return new Cookie()
+                .setName(cookieName)
+                .setValue(value)
+                .setPath(cookiePath)
+                .setDomain(cookieDomain)
+                .setSecure(secureCookie)
+                .setHttpOnly(true);
+    }
+
+    private static byte[] deflate(final byte[] data) {
+        final Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION, true);
+        try {
+            deflater.setInput(data);
+            deflater.finish();
+            final ByteArrayOutputStream out = new ByteArrayOutputStream(data.length);
+            final byte[] buffer = new byte[1024];
+            while (!deflater.finished()) {
+                out.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] inflate(final byte[] data) {
+        final Inflater inflater = new Inflater(true);
+        try {
+            inflater.setInput(data);
+            final ByteArrayOutputStream out = new ByteArrayOutputStream(data.length * 4);
+            final byte[] buffer = new byte[1024];
+            while (!inflater.finished()) {
+                final int n = inflater.inflate(buffer);
+                if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    return null;
+                }
+                out.write(buffer, 0, n);
+                if (out.size() > MAX_SESSION_SIZE) {
+                    return null;
+                }
+            }
+            return out.toByteArray();
+        } catch (final DataFormatException e) {
+            return null;
+        } finally {
+            inflater.end();
+        }
+    }
+}
@@ -0,0 +1,251 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Open Source Solution Technology Corporation
+ */
+
+package org.forgerock.http.session;
+
+import java.io.IOException;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import org.forgerock.http.protocol.Response;
+
+/**
+ * A session held in memory by an {@link InMemorySessionManager}. Sessions usually hold a handful of attributes: they
+ * are stored in a single array of alternating keys and values, which is scanned linearly, rather than in a hash
+ * table.
+ * <p>
+ * The {@code Map} methods are synchronized, since concurrent requests may share the same session. Iterating over the
+ * views of this map requires the caller to synchronize on the session.
+ */
+final class InMemorySession extends AbstractMap<String, Object> implements Session {
+
+    private static final Object[] EMPTY = new Object[0];
+
+    private final InMemorySessionManager manager;
+
+    /** Keys at even indexes, values at odd ones. */
+    private Object[] slots = EMPTY;
+    private int size;
+
+    /** The identifier of the session, or {@code null} if the session has not been stored yet. */
+    String id;
+    /** Whether the attributes have been modified since the last save. */
+    boolean modified;
+    /** Whether the session is referenced by a slot of the expiration wheel. */
+    boolean scheduled;
+    /** Whether the session has been removed from the store, because it expired or has been evicted. */
+    volatile boolean removed;
+    /** The time of the last request accessing this session. */
+    volatile long lastAccessTime;
+    /** The memory used by this session, as last estimated by the manager. */
+    long estimatedSize;
+
+    private final Set<Entry<String, Object>> entries = new AbstractSet<Entry<String, Object>>() {
+        @Override
+        public Iterator<Entry<String, Object>> iterator() {
+            return new Iterator<Entry<String, Object>>() {
+                private int next;
+                private int last = -1;
+
+                @Override
+                public boolean hasNext() {
+                    return next < size;
+                }
+
+                @Override
+                public Entry<String, Object> next() {
+                    if (next >= size) {
+                        throw new NoSuchElementException();
+                    }
+                    last = next++;
+                    final int index = last;
+                    return new SimpleEntry<String, Object>((String) slots[index * 2], slots[index * 2 + 1]) {
+                        private static final long serialVersionUID = 1L;
+
+                        @Override
+                        public Object setValue(final Object value) {
+                            slots[index * 2 + 1] = value;
+                            modified = true;
+                            return super.setValue(value);
+                        }
+                    };
+                }
+
+                @Override
+                public void remove() {
+                    if (last < 0) {
+                        throw new IllegalStateException();
+                    }
+                    removeAt(last);
+                    next = last;
+                    last = -1;
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    };
+
+    InMemorySession(final InMemorySessionManager manager) {
+        this.manager = manager;
+    }
+
+    @Override
+    public synchronized void clear() {
+        if (size > 0) {
+            slots = EMPTY;
+            size = 0;
+            modified = true;
+        }
+    }
+
+    @Override
+    public synchronized boolean containsKey(final Object key) {
+        return indexOf(key) >= 0;
+    }
+
+    @Override
+    public Set<Entry<String, Object>> entrySet() {
+        // Values may be modified in place through the views
+        modified = true;
+        return entries;
+    }
+
+    @Override
+    public synchronized Object get(final Object key) {
+        final int index = indexOf(key);
+        return index >= 0 ? slots[index * 2 + 1] : null;
+    }
+
+    @Override
+    public synchronized boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public synchronized Object put(final String key, final Object value) {
+        modified = true;
+        final int index = indexOf(key);
+        if (index >= 0) {
+            final Object old = slots[index * 2 + 1];
+            slots[index * 2 + 1] = value;
+            return old;
+        }
+        if (size * 2 == slots.length) {
+            slots = Arrays.copyOf(slots, Math.max(4, slots.length * 2));
+        }
+        slots[size * 2] = key;
+        slots[size * 2 + 1] = value;
+        size++;
+        return null;
+    }
+
+    @Override
+    public synchronized Object remove(final Object key) {
+        final int index = indexOf(key);
+        if (index < 0) {
+            return null;
+        }
+        final Object old = slots[index * 2 + 1];
+        removeAt(index);
+        return old;
+    }
+
+    @Override
+    public synchronized int size() {
+        return size;
+    }
+
+    @Override
+    public void save(final Response response) throws IOException {
+        manager.save(this, response);
+    }
+
+    /** Estimates the memory used by the attributes, the caller holding the lock of this session. */
+    long estimateAttributesSize() {
+        long estimate = 16 + 8L * slots.length;
+        for (int i = 0; i < size * 2; i++) {
+            estimate += estimateSize(slots[i]);
+        }
+        return estimate;
+    }
+
+    /**
+     * Drops the attributes of a session which has been removed from the store, the caller holding the lock of this
+     * session. The session may still be referenced by the expiration wheel or by requests in progress.
+     */
+    void discardAttributes() {
+        slots = EMPTY;
+        size = 0;
+    }
+
+    private int indexOf(final Object key) {
+        if (key != null) {
+            for (int i = 0; i < size; i++) {
+                if (key.equals(slots[i * 2])) {
+                    return i;
+                }
+            }
+        }
+        return -1;
+    }
+
+    private void removeAt(final int index) {
+        System.arraycopy(slots, (index + 1) * 2, slots, index * 2, (size - index - 1) * 2);
+        size--;
+        slots[size * 2] = null;
+        slots[size * 2 + 1] = null;
+        modified = true;
+    }
+
+    /** A rough estimate of the memory retained by a value, the values of a session being usually small. */
+    private static long estimateSize(final Object value) {
+        if (value == null) {
+            return 0;
+        } else if (value instanceof CharSequence) {
+            return 40 + 2L * ((CharSequence) value).length();
+        } else if (value instanceof Number || value instanceof Boolean || value instanceof Character) {
+            return 16;
+        } else if (value instanceof Map) {
+            long estimate = 48;
+            for (final Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                estimate += 32 + estimateSize(entry.getKey()) + estimateSize(entry.getValue());
+            }
+            return estimate;
+        } else if (value instanceof Iterable) {
+            long estimate = 40;
+            for (final Object element : (Iterable<?>) value) {
+                estimate += 8 + estimateSize(element);
+            }
+            return estimate;
+        } else if (value instanceof Object[]) {
+            long estimate = 16;
+            for (final Object element : (Object[]) value) {
+                estimate += 8 + estimateSize(element);
+            }
+            return estimate;
+        }
+        return 64;
+    }
+}
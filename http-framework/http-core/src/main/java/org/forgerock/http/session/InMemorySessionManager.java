@@ -0,0 +1,432 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Open Source Solution Technology Corporation
+ */
+
+package org.forgerock.http.session;
+
+import static java.util.Collections.singletonList;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.forgerock.util.time.Duration.duration;
+
+import java.io.IOException;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.forgerock.http.header.SetCookieHeader;
+import org.forgerock.http.protocol.Cookie;
+import org.forgerock.http.protocol.Request;
+import org.forgerock.http.protocol.Response;
+import org.forgerock.util.Option;
+import org.forgerock.util.Options;
+import org.forgerock.util.Reject;
+import org.forgerock.util.time.Duration;
+import org.forgerock.util.time.TimeService;
+
+/**
+ * A {@link SessionManager} keeping the sessions in memory, independently of the container, and identifying them
+ * with a cookie. It is meant for large numbers of short-lived sessions:
+ * <ul>
+ *     <li>sessions are spread over lock-striped maps, so that concurrent requests seldom contend;</li>
+ *     <li>sessions which have not been accessed for {@link #OPTION_IDLE_TIMEOUT} are expired by a timing wheel:
+ *     accessing a session only records the access time, and each tick of the wheel only examines the sessions
+ *     which may have expired during that tick;</li>
+ *     <li>the memory used by the sessions is estimated when they are saved, and the least recently used sessions
+ *     are evicted once it exceeds {@link #OPTION_MAX_MEMORY};</li>
+ *     <li>a session is only stored once an attribute has been set, and is removed as soon as it becomes empty.</li>
+ * </ul>
+ * The wheel advances when sessions are loaded; applications whose traffic may stop for long periods should also call
+ * {@link #expireIdleSessions()} periodically. Hit, eviction, expiration and memory metrics are exposed by the
+ * getters of this class.
+ * <p>
+ * Sessions are not shared between nodes: load balancers must route the requests of a session to the same node.
+ *
+ * @since 20.1.2
+ */
+public final class InMemorySessionManager implements SessionManager {
+
+    /** The name of the session cookie. The default is {@code session-id}. */
+    public static final Option<String> OPTION_COOKIE_NAME = Option.withDefault("session-id");
+
+    /** The path of the session cookie. The default is {@code /}. */
+    public static final Option<String> OPTION_COOKIE_PATH = Option.withDefault("/");
+
+    /** Whether the session cookie must only be sent over secure connections. The default is {@code true}. */
+    public static final Option<Boolean> OPTION_SECURE_COOKIE = Option.withDefault(true);
+
+    /** The time after which a session which has not been accessed expires. The default is 30 minutes. */
+    public static final Option<Duration> OPTION_IDLE_TIMEOUT = Option.withDefault(duration("30 minutes"));
+
+    /** The estimated memory, in bytes, the sessions may use before being evicted. The default is 64 MiB. */
+    public static final Option<Long> OPTION_MAX_MEMORY = Option.withDefault(64L * 1024 * 1024);
+
+    /**
+     * The number of stripes the sessions are spread over, rounded up to a power of two. The default is 4 times the
+     * number of available processors.
+     */
+    public static final Option<Integer> OPTION_STRIPES = Option.withDefault(
+            4 * Runtime.getRuntime().availableProcessors());
+
+    /** The time service used to expire the sessions. */
+    public static final Option<TimeService> OPTION_TIME_SERVICE = Option.of(TimeService.class, TimeService.SYSTEM);
+
+    /** Number of slots of the expiration wheel, a power of two. */
+    private static final int WHEEL_SIZE = 64;
+
+    /** Estimated memory used by a stored session besides its attributes: identifier, map and queue nodes. */
+    private static final long SESSION_OVERHEAD = 256;
+
+    /** Number of random bytes of the session identifiers. */
+    private static final int ID_LENGTH = 16;
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    /** An access-ordered map of sessions, guarded by its own lock. */
+    private static final class Stripe {
+        private final LinkedHashMap<String, InMemorySession> sessions = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    private final String cookieName;
+    private final String cookiePath;
+    private final boolean secureCookie;
+    private final long idleTimeout;
+    private final long maxMemory;
+    private final TimeService time;
+    private final SecureRandom random = new SecureRandom();
+
+    private final Stripe[] stripes;
+    private final ConcurrentLinkedQueue<InMemorySession>[] wheel;
+    private final long tickDuration;
+    private final AtomicBoolean expiring = new AtomicBoolean();
+    private volatile long currentTick;
+
+    private final AtomicLong sessionCount = new AtomicLong();
+    private final AtomicLong estimatedMemory = new AtomicLong();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong expirations = new AtomicLong();
+
+    /**
+     * Creates a new in-memory session manager with the default options.
+     */
+    public InMemorySessionManager() {
+        this(Options.unmodifiableDefaultOptions());
+    }
+
+    /**
+     * Creates a new in-memory session manager.
+     *
+     * @param options
+     *            The options configuring the sessions and the session cookie.
+     */
+    @SuppressWarnings("unchecked")
+    public InMemorySessionManager(final Options options) {
+        Reject.ifNull(options);
+        final Duration timeout = options.get(OPTION_IDLE_TIMEOUT);
+        Reject.ifTrue(timeout.isUnlimited() || timeout.isZero(), "The idle timeout must be positive and limited");
+        this.cookieName = options.get(OPTION_COOKIE_NAME);
+        this.cookiePath = options.get(OPTION_COOKIE_PATH);
+        this.secureCookie = options.get(OPTION_SECURE_COOKIE);
+        this.idleTimeout = timeout.to(MILLISECONDS);
+        this.maxMemory = options.get(OPTION_MAX_MEMORY);
+        this.time = options.get(OPTION_TIME_SERVICE);
+
+        final int stripeCount = Integer.highestOneBit(Math.max(1, options.get(OPTION_STRIPES) * 2 - 1));
+        this.stripes = new Stripe[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new Stripe();
+        }
+        this.wheel = new ConcurrentLinkedQueue[WHEEL_SIZE];
+        for (int i = 0; i < WHEEL_SIZE; i++) {
+            wheel[i] = new ConcurrentLinkedQueue<>();
+        }
+        this.tickDuration = Math.max(1, idleTimeout / WHEEL_SIZE);
+        this.currentTick = time.now() / tickDuration;
+    }
+
+    @Override
+    public Session load(final Request request) {
+        final long now = time.now();
+        if (now / tickDuration > currentTick) {
+            expireIdleSessions();
+        }
+        final List<Cookie> cookies = request.getCookies().get(cookieName);
+        if (cookies != null && !cookies.isEmpty()) {
+            final String id = cookies.get(0).getValue();
+            final Stripe stripe = stripeOf(id);
+            final InMemorySession session;
+            synchronized (stripe) {
+                session = stripe.sessions.get(id);
+            }
+            if (session != null && session.lastAccessTime + idleTimeout > now) {
+                hits.incrementAndGet();
+                session.lastAccessTime = now;
+                return session;
+            }
+            misses.incrementAndGet();
+        }
+        return new InMemorySession(this);
+    }
+
+    @Override
+    public void save(final Session session, final Response response) throws IOException {
+        if (session != null) {
+            session.save(response);
+        }
+    }
+
+    /**
+     * Expires the sessions which have not been accessed for the idle timeout. This method is invoked when sessions
+     * are loaded, and returns immediately if another thread is already expiring sessions.
+     */
+    public void expireIdleSessions() {
+        final long now = time.now();
+        final long targetTick = now / tickDuration;
+        if (targetTick <= currentTick || !expiring.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            // A whole turn of the wheel examines all the scheduled sessions
+            long tick = Math.max(currentTick, targetTick - WHEEL_SIZE);
+            final List<InMemorySession> due = new ArrayList<>();
+            while (tick < targetTick) {
+                tick++;
+                final ConcurrentLinkedQueue<InMemorySession> slot = wheel[(int) (tick & (WHEEL_SIZE - 1))];
+                for (InMemorySession session = slot.poll(); session != null; session = slot.poll()) {
+                    due.add(session);
+                }
+                for (final InMemorySession session : due) {
+                    expireOrReschedule(session, now);
+                }
+                due.clear();
+            }
+            currentTick = targetTick;
+        } finally {
+            expiring.set(false);
+        }
+    }
+
+    /**
+     * Returns the number of sessions currently stored.
+     *
+     * @return The number of sessions currently stored.
+     */
+    public long getSessionCount() {
+        return sessionCount.get();
+    }
+
+    /**
+     * Returns the estimated memory, in bytes, used by the stored sessions.
+     *
+     * @return The estimated memory used by the stored sessions.
+     */
+    public long getEstimatedMemory() {
+        return estimatedMemory.get();
+    }
+
+    /**
+     * Returns the number of requests whose session cookie designated a stored session.
+     *
+     * @return The number of session hits.
+     */
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    /**
+     * Returns the number of requests whose session cookie designated an unknown, expired or evicted session.
+     *
+     * @return The number of session misses.
+     */
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    /**
+     * Returns the number of sessions evicted because the sessions exceeded the maximum memory.
+     *
+     * @return The number of evicted sessions.
+     */
+    public long getEvictionCount() {
+        return evictions.get();
+    }
+
+    /**
+     * Returns the number of sessions removed because they had not been accessed for the idle timeout.
+     *
+     * @return The number of expired sessions.
+     */
+    public long getExpirationCount() {
+        return expirations.get();
+    }
+
+    /** Stores, updates or removes the provided session, depending on its modifications. */
+    void save(final InMemorySession session, final Response response) {
+        final Stripe stripe;
+        synchronized (session) {
+            if (!session.modified) {
+                return;
+            }
+            session.modified = false;
+            if (session.isEmpty()) {
+                if (session.id != null && !session.removed) {
+                    remove(session);
+                    response.getHeaders().add(new SetCookieHeader(singletonList(newCookie("")
+                            .setExpires(new Date(0)))));
+                }
+                return;
+            }
+            final long size = SESSION_OVERHEAD + session.estimateAttributesSize();
+            if (session.id == null || session.removed) {
+                // New session, or session which expired or was evicted while in use
+                session.id = newSessionId();
+                session.removed = false;
+                session.lastAccessTime = time.now();
+                session.estimatedSize = size;
+                stripe = stripeOf(session.id);
+                synchronized (stripe) {
+                    stripe.sessions.put(session.id, session);
+                }
+                sessionCount.incrementAndGet();
+                estimatedMemory.addAndGet(size);
+                if (!session.scheduled) {
+                    session.scheduled = true;
+                    schedule(session, session.lastAccessTime + idleTimeout);
+                }
+                response.getHeaders().add(new SetCookieHeader(singletonList(newCookie(session.id))));
+            } else {
+                stripe = stripeOf(session.id);
+                synchronized (stripe) {
+                    if (!session.removed) {
+                        estimatedMemory.addAndGet(size - session.estimatedSize);
+                        session.estimatedSize = size;
+                    }
+                }
+            }
+        }
+        evictIfNeeded(stripe);
+    }
+
+    private void expireOrReschedule(final InMemorySession session, final long now) {
+        synchronized (session) {
+            if (session.removed) {
+                session.scheduled = false;
+                return;
+            }
+            final long deadline = session.lastAccessTime + idleTimeout;
+            if (deadline <= now) {
+                session.scheduled = false;
+                if (remove(session)) {
+                    expirations.incrementAndGet();
+                }
+            } else {
+                schedule(session, deadline);
+            }
+        }
+    }
+
+    /** Schedules the session in the slot of the first tick following its deadline. */
+    private void schedule(final InMemorySession session, final long deadline) {
+        wheel[(int) ((deadline / tickDuration + 1) & (WHEEL_SIZE - 1))].add(session);
+    }
+
+    /** Removes the session from the store, the caller holding the lock of the session. */
+    private boolean remove(final InMemorySession session) {
+        final Stripe stripe = stripeOf(session.id);
+        synchronized (stripe) {
+            if (session.removed || stripe.sessions.get(session.id) != session) {
+                return false;
+            }
+            stripe.sessions.remove(session.id);
+            session.removed = true;
+        }
+        session.discardAttributes();
+        sessionCount.decrementAndGet();
+        estimatedMemory.addAndGet(-session.estimatedSize);
+        return true;
+    }
+
+    /**
+     * Evicts the least recently used session of each stripe in turn, starting with the provided one, until the
+     * sessions fit in the maximum memory.
+     */
+    private void evictIfNeeded(final Stripe start) {
+        int index = 0;
+        while (stripes[index] != start) {
+            index++;
+        }
+        int emptyStripes = 0;
+        while (estimatedMemory.get() > maxMemory && emptyStripes < stripes.length) {
+            final Stripe stripe = stripes[index];
+            InMemorySession eldest = null;
+            synchronized (stripe) {
+                final Iterator<InMemorySession> sessions = stripe.sessions.values().iterator();
+                if (sessions.hasNext()) {
+                    eldest = sessions.next();
+                    sessions.remove();
+                    eldest.removed = true;
+                }
+            }
+            if (eldest != null) {
+                // The session remains in the expiration wheel until its deadline, without its attributes. Its lock
+                // is taken once the stripe is released, as save() takes them in the reverse order.
+                synchronized (eldest) {
+                    if (eldest.removed) {
+                        eldest.discardAttributes();
+                    }
+                }
+                sessionCount.decrementAndGet();
+                estimatedMemory.addAndGet(-eldest.estimatedSize);
+                evictions.incrementAndGet();
+                emptyStripes = 0;
+            } else {
+                emptyStripes++;
+            }
+            index = (index + 1) & (stripes.length - 1);
+        }
+    }
+
+    private Stripe stripeOf(final String id) {
+        int hash = id.hashCode();
+        hash ^= hash >>> 16;
+        return stripes[hash & (stripes.length - 1)];
+    }
+
+    private String newSessionId() {
+        final byte[] bytes = new byte[ID_LENGTH];
+        random.nextBytes(bytes);
+        final char[] id = new char[ID_LENGTH * 2];
+        for (int i = 0; i < ID_LENGTH; i++) {
+            id[i * 2] = HEX_DIGITS[(bytes[i] >> 4) & 0xf];
+            id[i * 2 + 1] = HEX_DIGITS[bytes[i] & 0xf];
+        }
+        return new String(id);
+    }
+
+    private Cookie newCookie(final String value) {
+        return new Cookie()
+                .setName(cookieName)
+                .setValue(value)
+                .setPath(cookiePath)
+                .setSecure(secureCookie)
+                .setHttpOnly(true);
+    }
+}
@@ -13,6 +13,7 @@
  *
  * Copyright 2010–2011 ApexIdentity Inc.
  * Portions Copyright 2011-2015 ForgeRock AS.
+ * Portions copyright 2026 Open Source Solution Technology Corporation
  */
 
 package org.forgerock.http.util;
@@ -31,6 +32,8 @@ import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 
+import org.forgerock.json.JsonTokenIndex;
+
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 
@@ -154,6 +157,50 @@ public final class Json {
         return parse(STRICT_MAPPER, reader);
     }
 
+    /**
+     * Parses to json the provided input stream. The content is parsed directly from its bytes, without being
+     * transcoded to characters first: the encoding is detected as specified in RFC 7159 (UTF-8, UTF-16 or UTF-32).
+     *
+     * @param in
+     *            The data to parse. The stream is closed when this method returns.
+     * @return Any of {@code Map<String, Object>}, {@code List<Object>}, {@code Number}, {@code Boolean}
+     *         or {@code null}.
+     * @throws IOException
+     *             If an exception occurs during parsing the data.
+     */
+    public static Object readJson(final InputStream in) throws IOException {
+        if (in == null) {
+            return null;
+        }
+        return STRICT_MAPPER.readValue(in, Object.class);
+    }
+
+    /**
+     * Parses to json the provided UTF-8 encoded data, deferring the construction of JSON objects and arrays until
+     * they are accessed.
+     * <p>
+     * The data is fully validated and indexed before this method returns, but the returned {@code Map} or
+     * {@code List}, and each of their object and array members, is only populated from the index when it is first
+     * accessed. This is significantly cheaper than {@link #readJson(InputStream)} when only a few fields of a large
+     * document are read, and {@link org.forgerock.json.JsonValue#copy()} shares the containers which have not been
+     * accessed yet instead of copying them. Unlike the other read methods, content following the JSON value is
+     * rejected.
+     *
+     * @param json
+     *            The UTF-8 encoded data to parse. The array must not be modified after calling this method.
+     * @return Any of {@code Map<String, Object>}, {@code List<Object>}, {@code Number}, {@code Boolean}
+     *         or {@code null}.
+     * @throws IOException
+     *             If an exception occurs during parsing the data.
+     * @see JsonTokenIndex
+     */
+    public static Object readJsonLazily(final byte[] json) throws IOException {
+        if (json == null) {
+            return null;
+        }
+        return JsonTokenIndex.parse(json);
+    }
+
     /**
      * This function it's only used to read our configuration files and allows
      * JSON files to contain non strict JSON such as comments or single quotes.
@@ -0,0 +1,169 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Open Source Solution Technology Corporation
+ */
+
+package org.forgerock.http.filter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.forgerock.util.promise.Promises.newResultPromise;
+
+import org.forgerock.http.Filter;
+import org.forgerock.http.Handler;
+import org.forgerock.http.protocol.Request;
+import org.forgerock.http.protocol.Response;
+import org.forgerock.http.protocol.Status;
+import org.forgerock.services.context.Context;
+import org.forgerock.services.context.RootContext;
+import org.forgerock.util.Options;
+import org.forgerock.util.promise.NeverThrowsException;
+import org.forgerock.util.promise.Promise;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+@SuppressWarnings("javadoc")
+public class CompressionFilterTest {
+
+    private static final String CONTENT;
+
+    static {
+        StringBuilder builder = new StringBuilder("[");
+        for (int i = 0; i < 1000; i++) {
+            builder.append("{\"_id\":\"").append(i).append("\",\"name\":\"user.").append(i).append("\"},");
+        }
+        CONTENT = builder.append("{}]").toString();
+    }
+
+    @DataProvider
+    public static Object[][] acceptedEncodings() {
+        return new Object[][] {
+            { "gzip", "gzip" },
+            { "deflate", "deflate" },
+            { "deflate, gzip", "gzip" },
+            { "gzip;q=0.5, deflate", "deflate" },
+            { "gzip;q=0, *", "deflate" },
+            { "*;q=0.1", "gzip" },
+        };
+    }
+
+    @Test(dataProvider = "acceptedEncodings")
+    public void shouldCompressResponse(String acceptEncoding, String expectedEncoding) throws Exception {
+        Request request = newRequest(acceptEncoding);
+
+        Response response = Filters.newCompressionFilter()
+                                   .filter(new RootContext(), request, handler("application/json", CONTENT))
+                                   .get();
+
+        assertThat(response.getHeaders().getFirst("Content-Encoding")).isEqualTo(expectedEncoding);
+        assertThat(response.getHeaders().getFirst("Content-Length")).isNull();
+        assertThat(response.getHeaders().getFirst("Vary")).isEqualTo("Accept-Encoding");
+        // Entity decodes the content according to the Content-Encoding header
+        assertThat(response.getEntity().getString()).isEqualTo(CONTENT);
+    }
+
+    @Test
+    public void shouldNotCompressWhenNoEncodingIsAccepted() throws Exception {
+        Request request = newRequest("br, identity");
+
+        Response response = Filters.newCompressionFilter()
+                                   .filter(new RootContext(), request, handler("application/json", CONTENT))
+                                   .get();
+
+        assertThat(response.getHeaders().getFirst("Content-Encoding")).isNull();
+        assertThat(response.getHeaders().getFirst("Content-Length")).isEqualTo(String.valueOf(CONTENT.length()));
+        assertThat(response.getHeaders().getFirst("Vary")).isEqualTo("Accept-Encoding");
+        assertThat(response.getEntity().getString()).isEqualTo(CONTENT);
+    }
+
+    @Test
+    public void shouldNotCompressSmallResponses() throws Exception {
+        Filter filter = Filters.newCompressionFilter(Options.defaultOptions()
+                .set(CompressionFilter.OPTION_MINIMUM_SIZE, CONTENT.length() + 1));
+
+        Response response = filter.filter(new RootContext(), newRequest("gzip"), handler("application/json", CONTENT))
+                                  .get();
+
+        assertThat(response.getHeaders().getFirst("Content-Encoding")).isNull();
+        assertThat(response.getEntity().getString()).isEqualTo(CONTENT);
+    }
+
+    @Test
+    public void shouldNotCompressIncompressibleContentTypes() throws Exception {
+        Response response = Filters.newCompressionFilter()
+                                   .filter(new RootContext(), newRequest("gzip"), handler("image/png", CONTENT))
+                                   .get();
+
+        assertThat(response.getHeaders().getFirst("Content-Encoding")).isNull();
+        assertThat(response.getHeaders().getFirst("Vary")).isNull();
+    }
+
+    @Test
+    public void shouldCompressStructuredSyntaxSuffixTypes() throws Exception {
+        Response response = Filters.newCompressionFilter()
+                                   .filter(new RootContext(), newRequest("gzip"),
+                                           handler("application/scim+json; charset=UTF-8", CONTENT))
+                                   .get();
+
+        assertThat(response.getHeaders().getFirst("Content-Encoding")).isEqualTo("gzip");
+    }
+
+    @Test
+    public void shouldNotCompressEncodedResponses() throws Exception {
+        Handler handler = handler("application/json", CONTENT);
+        Filter alreadyEncoded = Filters.chainOf(Filters.newCompressionFilter(), Filters.newCompressionFilter());
+
+        Response response = alreadyEncoded.filter(new RootContext(), newRequest("gzip"), handler).get();
+
+        assertThat(response.getHeaders().get("Content-Encoding").getValues()).containsExactly("gzip");
+        assertThat(response.getEntity().getString()).isEqualTo(CONTENT);
+    }
+
+    @Test
+    public void shouldWeakenStrongEntityTags() throws Exception {
+        Handler handler = handler("application/json", CONTENT);
+        Filter etag = new Filter() {
+            @Override
+            public Promise<Response, NeverThrowsException> filter(Context context, Request request, Handler next) {
+                Response response = next.handle(context, request).getOrThrowUninterruptibly();
+                response.getHeaders().put("ETag", "\"1\"");
+                return newResultPromise(response);
+            }
+        };
+
+        Response response = Filters.chainOf(Filters.newCompressionFilter(), etag)
+                                   .filter(new RootContext(), newRequest("gzip"), handler)
+                                   .get();
+
+        assertThat(response.getHeaders().getFirst("ETag")).isEqualTo("W/\"1\"");
+    }
+
+    private static Request newRequest(String acceptEncoding) {
+        Request request = new Request();
+        request.setMethod("GET");
+        request.getHeaders().put("Accept-Encoding", acceptEncoding);
+        return request;
+    }
+
+    private static Handler handler(final String contentType, final String content) {
+        return new Handler() {
+            @Override
+            public Promise<Response, NeverThrowsException> handle(Context context, Request request) {
+                Response response = new Response(Status.OK);
+                response.setEntity(content);
+                response.getHeaders().put("Content-Type", contentType);
+                return newResultPromise(response);
+            }
+        };
+    }
+}
@@ -12,6 +12,7 @@
  * information: "Portions Copyright [year] [name of copyright owner]".
  *
  * Copyright 2014-2016 ForgeRock AS.
+ * Portions copyright 2026 Open Source Solution Technology Corporation
  */
 
 package org.forgerock.http.protocol;
@@ -186,6 +187,23 @@ public class EntityTest {
         assertThatContentTypeHeaderIsPresent();
     }
 
+    @Test
+    public void getJsonDetectsUtf16Content() throws Exception {
+        entity.setBytes(JSON_CONTENT1.getBytes("UTF-16BE"));
+        assertThat((Map<?, ?>) entity.getJson()).containsOnly(entry("a", 1), entry("b", 2));
+    }
+
+    @Test
+    public void getBytesIgnoresInaccurateContentLength() throws Exception {
+        entity.setRawContentInputStream(mockJsonContent1);
+        message.getHeaders().put(ContentLengthHeader.NAME, 3);
+        assertThat(entity.getBytes()).isEqualTo(bytes(JSON_CONTENT1));
+        message.getHeaders().put(ContentLengthHeader.NAME, 300);
+        assertThat(entity.getBytes()).isEqualTo(bytes(JSON_CONTENT1));
+        message.getHeaders().put(ContentLengthHeader.NAME, Integer.MAX_VALUE);
+        assertThat(entity.getBytes()).isEqualTo(bytes(JSON_CONTENT1));
+    }
+
     @Test(enabled = false)
     public void setJsonAsBean() throws Exception {
         class MyBean {
@@ -0,0 +1,201 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Open Source Solution Technology Corporation
+ */
+
+package org.forgerock.http.session;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.forgerock.http.session.CookieSessionManager.OPTION_TIME_SERVICE;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+
+import javax.crypto.spec.SecretKeySpec;
+
+import org.forgerock.http.header.SetCookieHeader;
+import org.forgerock.http.protocol.Cookie;
+import org.forgerock.http.protocol.Request;
+import org.forgerock.http.protocol.Response;
+import org.forgerock.util.Options;
+import org.forgerock.util.time.TimeService;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+@SuppressWarnings("javadoc")
+public class CookieSessionManagerTest {
+
+    private static final long MINUTE = 60 * 1000L;
+
+    private long now;
+    private CookieSessionManager manager;
+
+    @BeforeMethod
+    public void setUp() {
+        now = 1_000_000L;
+        manager = newManager(new byte[16]);
+    }
+
+    @Test
+    public void shouldNotSendCookieForUntouchedSession() throws Exception {
+        String cookie = newCookie("user", "alice");
+
+        assertThat(save(manager.load(request(cookie)))).isNull();
+    }
+
+    @Test
+    public void shouldRestoreSessionFromCookie() throws Exception {
+        Session session = manager.load(request(newCookie("user", "alice")));
+
+        assertThat(session.get("user")).isEqualTo("alice");
+        assertThat(save(session)).isNull();
+    }
+
+    @Test
+    public void shouldNotSendCookieWhenValueIsUnchanged() throws Exception {
+        Session session = manager.load(request(newCookie("user", "alice")));
+        session.put("user", "alice");
+
+        assertThat(save(session)).isNull();
+    }
+
+    @Test
+    public void shouldSendCookieWhenValueIsModifiedInPlace() throws Exception {
+        Map<String, Object> profile = new LinkedHashMap<>();
+        profile.put("name", "alice");
+        Session session = manager.load(request(null));
+        session.put("profile", profile);
+        session = manager.load(request(save(session).getValue()));
+
+        @SuppressWarnings("unchecked")
+        Map<String, Object> loaded = (Map<String, Object>) session.get("profile");
+        loaded.put("name", "bob");
+
+        Cookie cookie = save(session);
+        assertThat(manager.load(request(cookie.getValue())).get("profile").toString()).isEqualTo("{name=bob}");
+    }
+
+    @Test
+    public void shouldRenewSessionAfterHalfItsLifetime() throws Exception {
+        String cookie = newCookie("user", "alice");
+        now += 16 * MINUTE;
+
+        Session session = manager.load(request(cookie));
+        assertThat(session.get("user")).isEqualTo("alice");
+        cookie = save(session).getValue();
+
+        now += 16 * MINUTE;
+        assertThat(manager.load(request(cookie)).get("user")).isEqualTo("alice");
+    }
+
+    @Test
+    public void shouldIgnoreExpiredCookie() throws Exception {
+        String cookie = newCookie("user", "alice");
+        now += 31 * MINUTE;
+
+        Session session = manager.load(request(cookie));
+        assertThat(session.isEmpty()).isTrue();
+        assertThat(save(session).getValue()).isEqualTo("");
+    }
+
+    @Test
+    public void shouldIgnoreTamperedCookie() throws Exception {
+        String cookie = newCookie("user", "alice");
+        char last = cookie.charAt(cookie.length() - 1);
+        cookie = cookie.substring(0, cookie.length() - 1) + (last == 'A' ? 'B' : 'A');
+
+        assertThat(manager.load(request(cookie)).isEmpty()).isTrue();
+    }
+
+    @Test
+    public void shouldIgnoreCookieEncryptedWithAnotherKey() throws Exception {
+        String cookie = newCookie("user", "alice");
+        byte[] key = new byte[16];
+        key[0] = 1;
+
+        assertThat(newManager(key).load(request(cookie)).isEmpty()).isTrue();
+    }
+
+    @Test
+    public void shouldExpireCookieOfClearedSession() throws Exception {
+        Session session = manager.load(request(newCookie("user", "alice")));
+        session.clear();
+
+        Cookie cookie = save(session);
+        assertThat(cookie.getValue()).isEqualTo("");
+        assertThat(cookie.getExpires().getTime()).isEqualTo(0L);
+    }
+
+    @Test
+    public void shouldCompressLargeSessions() throws Exception {
+        StringBuilder value = new StringBuilder();
+        for (int i = 0; i < 500; i++) {
+            value.append("role-").append(i % 10).append(',');
+        }
+        String cookie = newCookie("roles", value.toString());
+
+        assertThat(cookie.length() < value.length()).isTrue();
+        assertThat(manager.load(request(cookie)).get("roles")).isEqualTo(value.toString());
+    }
+
+    @Test(expectedExceptions = IOException.class)
+    public void shouldRejectSessionsTooLargeForACookie() throws Exception {
+        byte[] random = new byte[4096];
+        new Random(0).nextBytes(random);
+        StringBuilder value = new StringBuilder();
+        for (byte b : random) {
+            value.append(Integer.toHexString(b & 0xff));
+        }
+        newCookie("noise", value.toString());
+    }
+
+    private CookieSessionManager newManager(final byte[] key) {
+        TimeService time = new TimeService() {
+            @Override
+            public long now() {
+                return now;
+            }
+
+            @Override
+            public long since(final long past) {
+                return now - past;
+            }
+        };
+        return new CookieSessionManager(new SecretKeySpec(key, "AES"),
+                Options.defaultOptions().set(OPTION_TIME_SERVICE, time));
+    }
+
+    private String newCookie(final String key, final Object value) throws IOException {
+        Session session = manager.load(request(null));
+        session.put(key, value);
+        return save(session).getValue();
+    }
+
+    private Cookie save(final Session session) throws IOException {
+        Response response = new Response();
+        manager.save(session, response);
+        SetCookieHeader header = SetCookieHeader.valueOf(response);
+        return header != null ? header.getCookies().get(0) : null;
+    }
+
+    private static Request request(final String cookie) {
+        Request request = new Request();
+        if (cookie != null) {
+            request.getHeaders().put("Cookie", "session=" + cookie);
+        }
+        return request;
+    }
+}
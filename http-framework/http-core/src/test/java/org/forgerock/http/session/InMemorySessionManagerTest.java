@@ -0,0 +1,215 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Open Source Solution Technology Corporation
+ */
+
+package org.forgerock.http.session;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.forgerock.http.session.InMemorySessionManager.OPTION_MAX_MEMORY;
+import static org.forgerock.http.session.InMemorySessionManager.OPTION_STRIPES;
+import static org.forgerock.http.session.InMemorySessionManager.OPTION_TIME_SERVICE;
+
+import java.util.Iterator;
+import java.util.Map;
+
+import org.forgerock.http.header.SetCookieHeader;
+import org.forgerock.http.protocol.Cookie;
+import org.forgerock.http.protocol.Request;
+import org.forgerock.http.protocol.Response;
+import org.forgerock.util.Options;
+import org.forgerock.util.time.TimeService;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+@SuppressWarnings("javadoc")
+public class InMemorySessionManagerTest {
+
+    private static final long MINUTE = 60 * 1000L;
+
+    private long now;
+    private InMemorySessionManager manager;
+
+    @BeforeMethod
+    public void setUp() {
+        now = 1_000_000L;
+        manager = newManager(Long.MAX_VALUE);
+    }
+
+    @Test
+    public void shouldNotStoreEmptySessions() throws Exception {
+        Session session = manager.load(request(null));
+        session.get("user");
+
+        assertThat(save(session)).isNull();
+        assertThat(manager.getSessionCount()).isEqualTo(0L);
+    }
+
+    @Test
+    public void shouldRestoreStoredSession() throws Exception {
+        String id = newSession("user", "alice");
+
+        Session session = manager.load(request(id));
+        assertThat(session.get("user")).isEqualTo("alice");
+        assertThat(save(session)).isNull();
+        assertThat(manager.getHitCount()).isEqualTo(1L);
+        assertThat(manager.getMissCount()).isEqualTo(0L);
+    }
+
+    @Test
+    public void shouldUpdateEstimatedMemoryOnSave() throws Exception {
+        String id = newSession("user", "alice");
+        long memory = manager.getEstimatedMemory();
+
+        Session session = manager.load(request(id));
+        session.put("description", "a rather long description of alice");
+        save(session);
+
+        assertThat(manager.getEstimatedMemory() > memory).isTrue();
+    }
+
+    @Test
+    public void shouldRemoveEmptiedSession() throws Exception {
+        String id = newSession("user", "alice");
+
+        Session session = manager.load(request(id));
+        session.remove("user");
+        Cookie cookie = save(session);
+
+        assertThat(cookie.getValue()).isEqualTo("");
+        assertThat(manager.getSessionCount()).isEqualTo(0L);
+        assertThat(manager.getEstimatedMemory()).isEqualTo(0L);
+    }
+
+    @Test
+    public void shouldExpireIdleSessions() throws Exception {
+        String idle = newSession("user", "alice");
+        String active = newSession("user", "bob");
+
+        for (int i = 0; i < 4; i++) {
+            now += 10 * MINUTE;
+            assertThat(manager.load(request(active)).get("user")).isEqualTo("bob");
+        }
+
+        assertThat(manager.load(request(idle)).isEmpty()).isTrue();
+        assertThat(manager.getExpirationCount()).isEqualTo(1L);
+        assertThat(manager.getSessionCount()).isEqualTo(1L);
+        assertThat(manager.getMissCount()).isEqualTo(1L);
+    }
+
+    @Test
+    public void shouldExpireSessionsAfterLongInactivity() throws Exception {
+        newSession("user", "alice");
+        now += 300 * MINUTE;
+
+        manager.expireIdleSessions();
+
+        assertThat(manager.getSessionCount()).isEqualTo(0L);
+        assertThat(manager.getEstimatedMemory()).isEqualTo(0L);
+    }
+
+    @Test
+    public void shouldEvictLeastRecentlyUsedSessions() throws Exception {
+        manager = newManager(600);
+        String first = newSession("user", "alice");
+        String second = newSession("user", "bob");
+
+        assertThat(manager.load(request(first)).isEmpty()).isTrue();
+        assertThat(manager.load(request(second)).get("user")).isEqualTo("bob");
+        assertThat(manager.getEvictionCount()).isEqualTo(1L);
+        assertThat(manager.getSessionCount()).isEqualTo(1L);
+    }
+
+    @Test
+    public void shouldDiscardAttributesOfEvictedSessions() throws Exception {
+        manager = newManager(600);
+        Session evicted = manager.load(request(null));
+        evicted.put("user", "alice");
+        save(evicted);
+        newSession("user", "bob");
+
+        assertThat(manager.getEvictionCount()).isEqualTo(1L);
+        assertThat(evicted.isEmpty()).isTrue();
+        assertThat(evicted.get("user")).isNull();
+    }
+
+    @Test
+    public void shouldStoreAgainSessionEvictedWhileInUse() throws Exception {
+        manager = newManager(600);
+        String id = newSession("user", "alice");
+        Session session = manager.load(request(id));
+        newSession("user", "bob");
+
+        session.put("user", "carol");
+        String newId = save(session).getValue();
+
+        assertThat(newId.equals(id)).isFalse();
+        assertThat(manager.load(request(newId)).get("user")).isEqualTo("carol");
+    }
+
+    @Test
+    public void shouldSupportRemovalThroughViews() throws Exception {
+        Session session = manager.load(request(null));
+        session.put("a", 1);
+        session.put("b", 2);
+        session.put("c", 3);
+        for (Iterator<Map.Entry<String, Object>> i = session.entrySet().iterator(); i.hasNext();) {
+            if (i.next().getKey().equals("b")) {
+                i.remove();
+            }
+        }
+        session.put("d", 4);
+
+        assertThat(session.toString()).isEqualTo("{a=1, c=3, d=4}");
+    }
+
+    private InMemorySessionManager newManager(final long maxMemory) {
+        TimeService time = new TimeService() {
+            @Override
+            public long now() {
+                return now;
+            }
+
+            @Override
+            public long since(final long past) {
+                return now - past;
+            }
+        };
+        return new InMemorySessionManager(Options.defaultOptions()
+                .set(OPTION_TIME_SERVICE, time)
+                .set(OPTION_MAX_MEMORY, maxMemory)
+                .set(OPTION_STRIPES, 1));
+    }
+
+    private String newSession(final String key, final Object value) throws Exception {
+        Session session = manager.load(request(null));
+        session.put(key, value);
+        return save(session).getValue();
+    }
+
+    private Cookie save(final Session session) throws Exception {
+        Response response = new Response();
+        manager.save(session, response);
+        SetCookieHeader header = SetCookieHeader.valueOf(response);
+        return header != null ? header.getCookies().get(0) : null;
+    }
+
+    private static Request request(final String id) {
+        Request request = new Request();
+        if (id != null) {
+            request.getHeaders().put("Cookie", "session-id=" + id);
+        }
+        return request;
+    }
+}
@@ -12,6 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2014-2015 ForgeRock AS.
+ * Portions copyright 2026 Open Source Solution Technology Corporation
  */
 
 package org.forgerock.http.util;
@@ -21,6 +22,7 @@ import static java.util.Arrays.*;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.forgerock.http.util.Json.*;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.Reader;
 import java.io.StringReader;
@@ -334,4 +336,27 @@ public class JsonTest {
         map.put("object", new Object());
         checkJsonCompatibility("map", map);
     }
+
+    @Test
+    public void shouldReadJsonFromBytes() throws Exception {
+        final String json = "{ \"name\": \"caf\u00e9\", \"ids\": [ 1, 2 ] }";
+        assertThat(readJson(new ByteArrayInputStream(json.getBytes("UTF-8")))).isEqualTo(readJson(json));
+        assertThat(readJson(new ByteArrayInputStream(json.getBytes("UTF-16LE")))).isEqualTo(readJson(json));
+    }
+
+    @Test
+    public void shouldReadJsonLazily() throws Exception {
+        final String json = "{ \"name\": \"caf\u00e9\", \"ids\": [ 1, 2 ], \"nested\": { \"big\": 4294967296 } }";
+        assertThat(readJsonLazily(json.getBytes("UTF-8"))).isEqualTo(readJson(json));
+    }
+
+    @Test(dataProvider = "primitiveJsonValues")
+    public void shouldReadPrimitiveValuesLazily(String input, Object expected) throws Exception {
+        assertThat(readJsonLazily(input.getBytes("UTF-8"))).isEqualTo(expected);
+    }
+
+    @Test(dataProvider = "invalidJson", expectedExceptions = IOException.class)
+    public void testFailParsingInvalidJsonLazily(final String invalid) throws Exception {
+        readJsonLazily(singleQuotesToDouble(invalid).getBytes("UTF-8"));
+    }
 }
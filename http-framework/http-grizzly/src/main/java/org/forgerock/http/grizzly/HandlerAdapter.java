@@ -12,6 +12,7 @@
  * information: "Portions Copyright [year] [name of copyright owner]".
  *
  * Copyright 2016 ForgeRock AS.
+ * Portions copyright 2026 Open Source Solution Technology Corporation
  */
 package org.forgerock.http.grizzly;
 
@@ -32,7 +33,6 @@ import org.forgerock.http.Handler;
 import org.forgerock.http.HttpApplication;
 import org.forgerock.http.HttpApplicationException;
 import org.forgerock.http.io.Buffer;
-import org.forgerock.http.io.IO;
 import org.forgerock.http.routing.UriRouterContext;
 import org.forgerock.http.session.SessionContext;
 import org.forgerock.http.util.CaseInsensitiveSet;
@@ -100,7 +100,7 @@ final class HandlerAdapter extends HttpHandler {
     public void service(final Request request, final Response response) throws Exception {
         final org.forgerock.http.protocol.Request chfRequest = toChfRequest(request);
         final RootContext rootContext = new RootContext();
-        final SessionContext sessionContext = new SessionContext(rootContext, new SessionAdapter(request.getSession()));
+        final SessionContext sessionContext = new SessionContext(rootContext, new SessionAdapter(request));
         final UriRouterContext uriRouterContext = createRouterContext(sessionContext, request, chfRequest);
         final AttributesContext attributesContext = new AttributesContext(new RequestAuditContext(uriRouterContext));
         final ClientContext context = createClientContext(attributesContext, request);
@@ -144,7 +144,7 @@ final class HandlerAdapter extends HttpHandler {
                     }
                 }
             }
-            IO.stream(chfResponse.getEntity().getRawContentInputStream(), grizzlyResponse.getOutputStream());
+            chfResponse.getEntity().copyRawContentTo(grizzlyResponse.getOutputStream());
         } catch (IOException e) {
             LOGGER.trace("Failed to write response", e);
         } finally {
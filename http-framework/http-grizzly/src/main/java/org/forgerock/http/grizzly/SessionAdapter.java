@@ -12,85 +12,108 @@
  * information: "Portions Copyright [year] [name of copyright owner]".
  *
  * Copyright 2016 ForgeRock AS.
+ * Portions copyright 2026 Open Source Solution Technology Corporation
  */
 package org.forgerock.http.grizzly;
 
 import java.io.IOException;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Map;
 import java.util.Set;
 
+import org.glassfish.grizzly.http.server.Request;
 import org.glassfish.grizzly.http.server.Session;
 
 /**
- * Exposes the session managed by Grizzly as an exchange session.
+ * Exposes the session managed by Grizzly as an exchange session. The Grizzly session is only created when an
+ * attribute is put in it: requests which do not use the session do not leave an empty session behind.
  */
 final class SessionAdapter implements org.forgerock.http.session.Session {
 
-    private final Session session;
+    private final Request request;
 
-    SessionAdapter(Session session) {
-        this.session = session;
+    /** The Grizzly session, if available. */
+    private Session session;
+
+    SessionAdapter(Request request) {
+        this.request = request;
+    }
+
+    private Map<String, Object> attributes() {
+        if (session == null) {
+            // get session if already allocated
+            session = request.getSession(false);
+        }
+        return session != null ? session.attributes() : Collections.<String, Object>emptyMap();
+    }
+
+    private Map<String, Object> attributesForUpdate() {
+        if (session == null) {
+            // create session just-in-time
+            session = request.getSession(true);
+        }
+        return session.attributes();
     }
 
     @Override
     public int size() {
-        return session.attributes().size();
+        return attributes().size();
     }
 
     @Override
     public boolean isEmpty() {
-        return session.attributes().isEmpty();
+        return attributes().isEmpty();
     }
 
     @Override
     public boolean containsKey(Object key) {
-        return session.attributes().containsKey(key);
+        return attributes().containsKey(key);
     }
 
     @Override
     public boolean containsValue(Object value) {
-        return session.attributes().containsValue(value);
+        return attributes().containsValue(value);
     }
 
     @Override
     public Object get(Object key) {
-        return session.attributes().get(key);
+        return attributes().get(key);
     }
 
     @Override
     public Object put(String key, Object value) {
-        return session.attributes().put(key, value);
+        return attributesForUpdate().put(key, value);
     }
 
     @Override
     public Object remove(Object key) {
-        return session.attributes().remove(key);
+        return attributes().remove(key);
     }
 
     @Override
     public void putAll(Map<? extends String, ? extends Object> m) {
-        session.attributes().putAll(m);
+        attributesForUpdate().putAll(m);
     }
 
     @Override
     public void clear() {
-        session.attributes().clear();
+        attributes().clear();
     }
 
     @Override
     public Set<String> keySet() {
-        return session.attributes().keySet();
+        return attributes().keySet();
     }
 
     @Override
     public Collection<Object> values() {
-        return session.attributes().values();
+        return attributes().values();
     }
 
     @Override
     public Set<Map.Entry<String, Object>> entrySet() {
-        return session.attributes().entrySet();
+        return attributes().entrySet();
     }
 
     @Override
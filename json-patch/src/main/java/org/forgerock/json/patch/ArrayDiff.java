@@ -0,0 +1,112 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Open Source Solution Technology Corporation
+ */
+
+package org.forgerock.json.patch;
+
+import org.forgerock.json.JsonPointer;
+
+/**
+ * Specifies how {@link JsonPatch#diff(org.forgerock.json.JsonValue, org.forgerock.json.JsonValue, ArrayDiff)}
+ * compares arrays.
+ * <p>
+ * By default, arrays which differ are {@link #replace() replaced} entirely. When arrays are compared
+ * {@link #elementWise() element-wise}, their longest common subsequence is computed and the patch only adds, removes
+ * or moves the elements which are not part of it. Elements are matched when they are equal, or, for arrays of
+ * objects, when they have the same value for an {@link #identifiedBy(JsonPointer) identity key}: matched objects
+ * whose other members differ are then patched in place.
+ * <p>
+ * Computing the longest common subsequence takes a time proportional to the size of the arrays times the number of
+ * elements to add or remove, and a memory proportional to the square of that number. Arrays requiring more than
+ * {@link #maxEdits(int) a maximum number} of additions and removals are therefore replaced.
+ */
+public final class ArrayDiff {
+
+    /** The default maximum number of element additions and removals of an element-wise array diff. */
+    public static final int DEFAULT_MAX_EDITS = 1024;
+
+    private static final ArrayDiff REPLACE = new ArrayDiff(false, null, DEFAULT_MAX_EDITS);
+    private static final ArrayDiff ELEMENT_WISE = new ArrayDiff(true, null, DEFAULT_MAX_EDITS);
+
+    private final boolean elementWise;
+    private final JsonPointer identityKey;
+    private final int maxEdits;
+
+    private ArrayDiff(final boolean elementWise, final JsonPointer identityKey, final int maxEdits) {
+        this.elementWise = elementWise;
+        this.identityKey = identityKey;
+        this.maxEdits = maxEdits;
+    }
+
+    /**
+     * Returns the array diff replacing arrays entirely whenever they differ.
+     *
+     * @return The array diff replacing arrays entirely.
+     */
+    public static ArrayDiff replace() {
+        return REPLACE;
+    }
+
+    /**
+     * Returns the array diff adding, removing and moving the elements of the arrays, elements being matched when
+     * they are equal.
+     *
+     * @return The element-wise array diff.
+     */
+    public static ArrayDiff elementWise() {
+        return ELEMENT_WISE;
+    }
+
+    /**
+     * Returns an element-wise array diff matching the objects having the same value for the provided key. Elements
+     * which are not objects, or which do not have the key, are matched when they are equal.
+     *
+     * @param identityKey
+     *            The pointer, relative to the elements, of the value identifying them, e.g. {@code /_id}.
+     * @return The element-wise array diff matching objects by identity.
+     */
+    public ArrayDiff identifiedBy(final JsonPointer identityKey) {
+        return new ArrayDiff(true, identityKey, maxEdits);
+    }
+
+    /**
+     * Returns an array diff replacing the arrays which require more than the provided number of element additions
+     * and removals.
+     *
+     * @param maxEdits
+     *            The maximum number of element additions and removals, {@value #DEFAULT_MAX_EDITS} by default.
+     * @return The array diff bounding the number of element additions and removals.
+     * @throws IllegalArgumentException
+     *             If {@code maxEdits} is negative.
+     */
+    public ArrayDiff maxEdits(final int maxEdits) {
+        if (maxEdits < 0) {
+            throw new IllegalArgumentException("The maximum number of edits must not be negative");
+        }
+        return new ArrayDiff(elementWise, identityKey, maxEdits);
+    }
+
+    boolean isElementWise() {
+        return elementWise;
+    }
+
+    JsonPointer getIdentityKey() {
+        return identityKey;
+    }
+
+    int getMaxEdits() {
+        return maxEdits;
+    }
+}
@@ -12,6 +12,7 @@
  * information: "Portions Copyrighted [year] [name of copyright owner]".
  *
  * Copyright 2011-2016 ForgeRock AS.
+ * Portions copyright 2026 Open Source Solution Technology Corporation
  */
 
 package org.forgerock.json.patch;
@@ -22,6 +23,7 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 
 import org.forgerock.json.JsonException;
 import org.forgerock.json.JsonPointer;
@@ -79,7 +81,7 @@ public final class JsonPatch {
     /**
      * Compares two JSON values, and produces a JSON Patch value, which contains the
      * operations necessary to modify the {@code original} value to arrive at the
-     * {@code target} value.
+     * {@code target} value. Arrays which differ are replaced entirely.
      *
      * @param original the original value.
      * @param target the intended target value.
@@ -87,16 +89,33 @@ public final class JsonPatch {
      * @throws NullPointerException if either of {@code original} or {@code target} are {@code null}.
      */
     public static JsonValue diff(JsonValue original, JsonValue target) {
+        return diff(original, target, ArrayDiff.replace());
+    }
+
+    /**
+     * Compares two JSON values, and produces a JSON Patch value, which contains the
+     * operations necessary to modify the {@code original} value to arrive at the
+     * {@code target} value. Arrays are compared as specified by {@code arrayDiff}.
+     *
+     * @param original the original value.
+     * @param target the intended target value.
+     * @param arrayDiff how arrays are compared.
+     * @return the resulting JSON Patch value.
+     * @throws NullPointerException if any of {@code original}, {@code target} or {@code arrayDiff} are {@code null}.
+     */
+    public static JsonValue diff(JsonValue original, JsonValue target, ArrayDiff arrayDiff) {
         ArrayList<Object> result = new ArrayList<Object>();
+        diff(original, target, arrayDiff, result);
+        return new JsonValue(result);
+    }
+
+    static void diff(JsonValue original, JsonValue target, ArrayDiff arrayDiff, List<Object> result) {
         if (differentTypes(original, target)) { // different types cause a replace
             result.add(op("replace", original.getPointer(), target));
         } else if (original.isMap()) {
             for (String key : original.keys()) {
                 if (target.isDefined(key)) { // target also has the property
-                    JsonValue diff = diff(original.get(key), target.get(key)); // recursively compare properties
-                    if (diff.size() > 0) {
-                        result.addAll(diff.asList()); // add diff results
-                    }
+                    diff(original.get(key), target.get(key), arrayDiff, result); // recursively compare properties
                 } else { // property is missing in target
                     result.add(op("remove", original.getPointer().child(key), null));
                 }
@@ -107,26 +126,68 @@ public final class JsonPatch {
                 }
             }
         } else if (original.isList()) {
-            boolean replace = false;
-            if (original.size() != target.size()) {
-                replace = true;
-            } else {
-                Iterator<JsonValue> i1 = original.iterator();
-                Iterator<JsonValue> i2 = target.iterator();
-                while (i1.hasNext() && i2.hasNext()) {
-                    if (diff(i1.next(), i2.next()).size() > 0) { // recursively compare elements
-                        replace = true;
-                        break;
-                    }
-                }
-            }
-            if (replace) { // replace list entirely
+            if (arrayDiff.isElementWise()) {
+                ListDiff.diff(original, target, arrayDiff, result);
+            } else if (!isEqual(original.getObject(), target.getObject())) { // replace list entirely
                 result.add(op("replace", original.getPointer(), target));
             }
-        } else if (!original.isNull() && !original.getObject().equals(target.getObject())) { // simple value comparison
+        } else if (!original.isNull() && !isEqual(original.getObject(), target.getObject())) {
+            // simple value comparison
             result.add(op("replace", original.getPointer(), target));
         }
-        return new JsonValue(result);
+    }
+
+    /**
+     * Returns {@code true} if both JSON objects are equal, comparing numbers by value regardless of
+     * their type.
+     */
+    static boolean isEqual(Object o1, Object o2) {
+        if (o1 == o2) {
+            return true;
+        } else if (o1 == null || o2 == null) {
+            return false;
+        } else if (o1 instanceof Number && o2 instanceof Number) {
+            Number n1 = (Number) o1;
+            Number n2 = (Number) o2;
+            if (isIntegral(n1) && isIntegral(n2)) {
+                return n1.longValue() == n2.longValue();
+            }
+            // 0.0 and -0.0 are the same JSON number
+            double d1 = n1.doubleValue();
+            double d2 = n2.doubleValue();
+            return d1 == d2 || Double.compare(d1, d2) == 0;
+        } else if (o1 instanceof Map && o2 instanceof Map) {
+            Map<?, ?> m1 = (Map<?, ?>) o1;
+            Map<?, ?> m2 = (Map<?, ?>) o2;
+            if (m1.size() != m2.size()) {
+                return false;
+            }
+            for (Map.Entry<?, ?> entry : m1.entrySet()) {
+                if (!m2.containsKey(entry.getKey()) || !isEqual(entry.getValue(), m2.get(entry.getKey()))) {
+                    return false;
+                }
+            }
+            return true;
+        } else if (o1 instanceof List && o2 instanceof List) {
+            List<?> l1 = (List<?>) o1;
+            List<?> l2 = (List<?>) o2;
+            if (l1.size() != l2.size()) {
+                return false;
+            }
+            Iterator<?> i1 = l1.iterator();
+            Iterator<?> i2 = l2.iterator();
+            while (i1.hasNext()) {
+                if (!isEqual(i1.next(), i2.next())) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        return o1.equals(o2);
+    }
+
+    private static boolean isIntegral(Number n) {
+        return n instanceof Integer || n instanceof Long || n instanceof Short || n instanceof Byte;
     }
 
     /**
@@ -145,7 +206,7 @@ public final class JsonPatch {
                 && !(v1.isBoolean() && v2.isBoolean());
     }
 
-    private static HashMap<String, Object> op(String op, JsonPointer pointer, JsonValue value) {
+    static HashMap<String, Object> op(String op, JsonPointer pointer, JsonValue value) {
         HashMap<String, Object> result = new HashMap<String, Object>();
         result.put(OP_PTR.leaf(), op);
         result.put(PATH_PTR.leaf(), pointer.toString());
@@ -155,10 +216,20 @@ public final class JsonPatch {
         return result;
     }
 
+    static HashMap<String, Object> move(JsonPointer from, JsonPointer pointer) {
+        HashMap<String, Object> result = new HashMap<String, Object>();
+        result.put(OP_PTR.leaf(), "move");
+        result.put(FROM_PTR.leaf(), from.toString());
+        result.put(PATH_PTR.leaf(), pointer.toString());
+        return result;
+    }
+
     /**
      * Applies a set of modifications in a JSON patch value to an original value, resulting
-     * in the intended target value. In the event of a failure, this method does not revert
-     * any modifications applied up to the point of failure.
+     * in the intended target value. The patch is validated before any modification, a
+     * malformed patch leaving the original value untouched. In the event of a failure while
+     * applying the operations, this method does not revert any modifications applied up to
+     * the point of failure.
      *
      * @param original the original value on which to apply the modifications.
      * @param patch the JSON Patch value, specifying the modifications to apply to the original value.
@@ -170,8 +241,10 @@ public final class JsonPatch {
 
     /**
      * Applies a set of modifications in a JSON patch value to an original value, resulting
-     * in the intended target value. In the event of a failure, this method does not revert
-     * any modifications applied up to the point of failure.
+     * in the intended target value. The patch is validated before any modification, a
+     * malformed patch leaving the original value untouched. In the event of a failure while
+     * applying the operations, this method does not revert any modifications applied up to
+     * the point of failure.
      *
      * @param original the original value on which to apply the modifications.
      * @param patch the JSON Patch value, specifying the modifications to apply to the original value.
@@ -179,15 +252,57 @@ public final class JsonPatch {
      * @throws JsonValueException if application of the patch failed.
      */
     public static void patch(JsonValue original, JsonValue patch, JsonPatchValueTransformer transform) {
-        for (JsonValue operation : patch.required().expect(List.class)) {
+        List<Operation> operations = new ArrayList<Operation>(patch.required().expect(List.class).size());
+        for (JsonValue operation : patch) {
+            operations.add(new Operation(operation, transform == DEFAULT_TRANSFORM));
+        }
+        PathCache paths = new PathCache(original);
+        for (Operation operation : operations) {
+            operation.op.execute(original, operation, paths, transform);
+        }
+    }
+
+    /** A validated patch operation. */
+    private static final class Operation {
+        private final PatchOperation op;
+        private final JsonValue operation;
+        private final JsonPointer path;
+        private final JsonPointer from;
+
+        Operation(JsonValue operation, boolean valueRequired) {
             if (!operation.isDefined("op")) {
                 throw new JsonValueException(operation, "op not specified");
             }
-            PatchOperation op = PatchOperation.valueOf(operation.get(OP_PTR));
-            if (op == null) {
+            try {
+                this.op = PatchOperation.valueOf(operation.get(OP_PTR));
+            } catch (IllegalArgumentException e) {
                 throw new JsonValueException(operation, "invalid op specified");
             }
-            op.execute(original, operation, transform);
+            this.operation = operation;
+            this.path = operation.get(PATH_PTR).required().expect(String.class).as(pointer());
+            if (op == PatchOperation.MOVE || op == PatchOperation.COPY) {
+                this.from = operation.get(FROM_PTR).required().expect(String.class).as(pointer());
+                if (op == PatchOperation.MOVE && isProperPrefix(from, path)) {
+                    throw new JsonValueException(operation, "cannot move a value into one of its children");
+                }
+            } else {
+                this.from = null;
+            }
+            if (valueRequired && op.requiresValue() && !operation.isDefined(VALUE_PTR.leaf())) {
+                throw new JsonValueException(operation, "expecting a value member");
+            }
+        }
+
+        private static boolean isProperPrefix(JsonPointer prefix, JsonPointer pointer) {
+            if (prefix.size() >= pointer.size()) {
+                return false;
+            }
+            for (int i = 0; i < prefix.size(); i++) {
+                if (!prefix.get(i).equals(pointer.get(i))) {
+                    return false;
+                }
+            }
+            return true;
         }
     }
 
@@ -195,160 +310,187 @@ public final class JsonPatch {
         ADD {
             // http://tools.ietf.org/html/rfc6902#section-4.1
             @Override
-            void execute(JsonValue original, JsonValue operation, JsonPatchValueTransformer transform) {
-                JsonPointer modifyPath = operation.get(PATH_PTR).expect(String.class).as(pointer());
-                JsonValue parent = parentValue(modifyPath, original);
+            void execute(JsonValue original, Operation operation, PathCache paths,
+                    JsonPatchValueTransformer transform) {
+                JsonPointer modifyPath = operation.path;
+                JsonValue parent = paths.parent(modifyPath);
                 if (parent == null) {
                     // patch specifies a new root object
                     if (original.getObject() != null) {
-                        throw new JsonValueException(operation, "root value already exists");
+                        throw new JsonValueException(operation.operation, "root value already exists");
                     }
-                    original.setObject(transform.getTransformedValue(original, operation));
+                    original.setObject(transform.getTransformedValue(original, operation.operation));
                 } else {
                     try {
+                        JsonValue target;
                         if (parent.isList()) {
                             try {
                                 // if the path points to an array index then we should insert the value
                                 Integer index = Integer.valueOf(modifyPath.leaf());
-                                parent.add(index, transform.getTransformedValue(original, operation));
+                                parent.add(index, transform.getTransformedValue(original, operation.operation));
                             } catch (Exception e) {
                                 // leaf is not an array index, replace value
-                                parent.add(modifyPath.leaf(), transform.getTransformedValue(original, operation));
+                                parent.add(modifyPath.leaf(),
+                                        transform.getTransformedValue(original, operation.operation));
                             }
-                        } else if (original.get(modifyPath) != null && original.get(modifyPath).isList()) {
+                        } else if ((target = paths.get(modifyPath)) != null && target.isList()) {
                             // modifyPath does not indicate an index, use the whole object
-                            JsonValue target = original.get(modifyPath);
-                            target.asList().add(transform.getTransformedValue(original, operation));
+                            target.asList().add(transform.getTransformedValue(original, operation.operation));
                         } else {
                             // this will replace the value even if present
-                            parent.add(modifyPath.leaf(), transform.getTransformedValue(original, operation));
+                            parent.add(modifyPath.leaf(),
+                                    transform.getTransformedValue(original, operation.operation));
                         }
                     } catch (JsonException je) {
-                        throw new JsonValueException(operation, je);
+                        throw new JsonValueException(operation.operation, je);
                     }
                 }
+                paths.modified(modifyPath);
+            }
+
+            @Override
+            boolean requiresValue() {
+                return true;
             }
         },
         REMOVE {
             //http://tools.ietf.org/html/rfc6902#section-4.2
             @Override
-            void execute(JsonValue original, JsonValue operation, JsonPatchValueTransformer transform) {
-                JsonPointer modifyPath = operation.get(PATH_PTR).expect(String.class).as(pointer());
-                JsonValue parent = parentValue(modifyPath, original);
+            void execute(JsonValue original, Operation operation, PathCache paths,
+                    JsonPatchValueTransformer transform) {
+                JsonPointer modifyPath = operation.path;
+                JsonValue parent = paths.parent(modifyPath);
                 String leaf = modifyPath.leaf();
                 if (parent == null) {
                     // patch specifies root object
                     original.setObject(null);
                 } else {
                     if (!parent.isDefined(leaf)) {
-                        throw new JsonValueException(operation, "value to remove not found");
+                        throw new JsonValueException(operation.operation, "value to remove not found");
                     }
                     try {
                         parent.remove(leaf);
                     } catch (JsonException je) {
-                        throw new JsonValueException(operation, je);
+                        throw new JsonValueException(operation.operation, je);
                     }
                 }
+                paths.modified(modifyPath);
             }
         },
         REPLACE {
             //http://tools.ietf.org/html/rfc6902#section-4.3
             @Override
-            void execute(JsonValue original, JsonValue operation, JsonPatchValueTransformer transform) {
-                JsonPointer modifyPath = operation.get(PATH_PTR).expect(String.class).as(pointer());
-                JsonValue parent = parentValue(modifyPath, original);
+            void execute(JsonValue original, Operation operation, PathCache paths,
+                    JsonPatchValueTransformer transform) {
+                JsonPointer modifyPath = operation.path;
+                JsonValue parent = paths.parent(modifyPath);
                 if (parent != null) {
                     // replacing a child
                     String leaf = modifyPath.leaf();
                     if (!parent.isDefined(leaf)) {
-                        throw new JsonValueException(operation, "value to replace not found");
+                        throw new JsonValueException(operation.operation, "value to replace not found");
                     }
-                    parent.put(leaf, transform.getTransformedValue(original, operation));
+                    parent.put(leaf, transform.getTransformedValue(original, operation.operation));
                 } else {
                     // replacing the root value itself
-                    original.setObject(transform.getTransformedValue(original, operation));
+                    original.setObject(transform.getTransformedValue(original, operation.operation));
                 }
+                paths.modified(modifyPath);
+            }
+
+            @Override
+            boolean requiresValue() {
+                return true;
             }
         },
         MOVE {
             // http://tools.ietf.org/html/rfc6902#section-4.4
             @Override
-            void execute(JsonValue original, JsonValue operation, JsonPatchValueTransformer transform) {
-                JsonPointer sourcePath = operation.get(FROM_PTR).expect(String.class).as(pointer());
-                JsonPointer destPath = operation.get(PATH_PTR).expect(String.class).as(pointer());
-                JsonValue sourceParent = parentValue(sourcePath, original);
+            void execute(JsonValue original, Operation operation, PathCache paths,
+                    JsonPatchValueTransformer transform) {
+                JsonPointer sourcePath = operation.from;
+                JsonPointer destPath = operation.path;
+                JsonValue sourceParent = paths.parent(sourcePath);
                 if (sourceParent == null) {
-                    throw new JsonValueException(operation, "cannot move root object");
+                    throw new JsonValueException(operation.operation, "cannot move root object");
+                }
+                if (!sourceParent.isDefined(sourcePath.leaf())) {
+                    throw new JsonValueException(operation.operation, "value to move not found");
                 }
                 JsonValue object = sourceParent.get(sourcePath.leaf());
-                JsonValue destParent = parentValue(destPath, original);
-                if (destParent == null) {
+                if (destPath.parent() == null) {
                     // replacing root object with moved object
-                    original.setObject(object);
+                    original.setObject(object.getObject());
+                    paths.modified(destPath);
                 } else {
                     sourceParent.remove(sourcePath.leaf());
-                    destParent.put(destPath.leaf(), object);
+                    paths.modified(sourcePath);
+                    insert(paths.parent(destPath), destPath.leaf(), object.getObject());
+                    paths.modified(destPath);
                 }
             }
         },
         COPY {
             // http://tools.ietf.org/html/rfc6902#section-4.5
             @Override
-            void execute(JsonValue original, JsonValue operation, JsonPatchValueTransformer transform) {
-                JsonPointer sourcePath = operation.get(FROM_PTR).expect(String.class).as(pointer());
-                JsonPointer destPath = operation.get(PATH_PTR).expect(String.class).as(pointer());
-                JsonValue sourceParent = parentValue(sourcePath, original);
-                JsonValue object = sourceParent.get(sourcePath.leaf());
-                JsonValue destParent = parentValue(destPath, original);
+            void execute(JsonValue original, Operation operation, PathCache paths,
+                    JsonPatchValueTransformer transform) {
+                JsonPointer sourcePath = operation.from;
+                JsonPointer destPath = operation.path;
+                JsonValue object = paths.get(sourcePath);
+                if (object == null) {
+                    throw new JsonValueException(operation.operation, "value to copy not found");
+                }
+                JsonValue destParent = paths.parent(destPath);
                 if (destParent == null) {
                     // replacing root object with copied object
-                    original.setObject(object);
+                    original.setObject(object.copy().getObject());
                 } else {
-                    destParent.put(destPath.leaf(), object);
+                    insert(destParent, destPath.leaf(), object.copy().getObject());
                 }
+                paths.modified(destPath);
             }
         },
         TEST {
             // http://tools.ietf.org/html/rfc6902#section-4.6
             @Override
-            void execute(JsonValue original, JsonValue operation, JsonPatchValueTransformer transform) {
-                JsonPointer testPath = operation.get(PATH_PTR).expect(String.class).as(pointer());
-                JsonValue testTarget = parentValue(testPath, original).get(testPath.leaf());
-                JsonValue testValue = new JsonValue(transform.getTransformedValue(original, operation));
+            void execute(JsonValue original, Operation operation, PathCache paths,
+                    JsonPatchValueTransformer transform) {
+                JsonValue testTarget = paths.get(operation.path);
+                Object testValue = transform.getTransformedValue(original, operation.operation);
 
-                if (diff(testTarget, testValue).asList().size() > 0) {
-                    throw new JsonValueException(operation, "test failed");
+                if (testTarget == null || !isEqual(testTarget.getObject(), testValue)) {
+                    throw new JsonValueException(operation.operation, "test failed");
                 }
             }
+
+            @Override
+            boolean requiresValue() {
+                return true;
+            }
         };
 
-        void execute(JsonValue original, JsonValue operation, JsonPatchValueTransformer transform) {
-            throw new JsonValueException(original, "unsupported operation");
-        }
+        abstract void execute(JsonValue original, Operation operation, PathCache paths,
+                JsonPatchValueTransformer transform);
 
-        static PatchOperation valueOf(JsonValue op) {
-            return valueOf(op.expect(String.class).asString().toUpperCase());
+        boolean requiresValue() {
+            return false;
         }
-    }
 
-    /**
-     * Returns the parent value of the value identified by the JSON pointer.
-     *
-     * @param pointer the pointer to the value whose parent value is to be returned.
-     * @param target the JSON value against which to resolve the JSON pointer.
-     * @return the parent value of the value identified by the JSON pointer.
-     * @throws JsonException if the parent value could not be found.
-     */
-    private static JsonValue parentValue(JsonPointer pointer, JsonValue target) {
-        JsonValue result = null;
-        JsonPointer parent = pointer.parent();
-        if (parent != null) {
-            result = target.get(parent);
-            if (result == null) {
-                throw new JsonException("parent value not found");
+        /** Inserts the value into an array, as in an "add" operation, or sets the member of an object. */
+        static void insert(JsonValue parent, String leaf, Object value) {
+            if (parent.isList() && "-".equals(leaf)) {
+                parent.asList().add(value);
+            } else if (parent.isList()) {
+                parent.add(leaf, value);
+            } else {
+                parent.put(leaf, value);
             }
         }
-        return result;
+
+        static PatchOperation valueOf(JsonValue op) {
+            return valueOf(op.expect(String.class).asString().toUpperCase());
+        }
     }
 
     // prevent construction
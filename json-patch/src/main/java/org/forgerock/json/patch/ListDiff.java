@@ -0,0 +1,287 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Open Source Solution Technology Corporation
+ */
+
+package org.forgerock.json.patch;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.forgerock.json.JsonPointer;
+import org.forgerock.json.JsonValue;
+
+/**
+ * Computes the element-wise difference of two arrays, as specified by an {@link ArrayDiff}.
+ * <p>
+ * Elements are first reduced to keys: their identity, or their whole value. The longest common subsequence of the
+ * keys is computed with Myers' O(ND) algorithm, after trimming the common prefix and suffix. Removed elements whose
+ * key is added elsewhere are moved rather than removed and added again. The patch then:
+ * <ol>
+ *     <li>removes the elements which are neither kept nor moved, from the last one to the first one;</li>
+ *     <li>walks the target array in order, moving or adding each element which is not kept right after the element
+ *     preceding it in the target array, which results in the target order;</li>
+ *     <li>patches the elements matched by identity whose content differs, at their final index.</li>
+ * </ol>
+ */
+final class ListDiff {
+
+    /** The key of an array element, comparing elements by identity or by value. */
+    private static final class Key {
+        private final Object value;
+        private final boolean identity;
+        private final int hash;
+
+        Key(final Object value, final boolean identity) {
+            this.value = value;
+            this.identity = identity;
+            this.hash = hash(value) * 31 + (identity ? 1 : 0);
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            final Key other = (Key) obj;
+            return hash == other.hash && identity == other.identity && JsonPatch.isEqual(value, other.value);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    static void diff(final JsonValue original, final JsonValue target, final ArrayDiff arrayDiff,
+            final List<Object> result) {
+        final List<Object> a = original.asList();
+        final List<Object> b = target.asList();
+        final JsonPointer pointer = original.getPointer();
+        final Key[] keysA = keys(a, arrayDiff.getIdentityKey());
+        final Key[] keysB = keys(b, arrayDiff.getIdentityKey());
+
+        final int[] matches = commonSubsequence(keysA, keysB, arrayDiff.getMaxEdits());
+        if (matches == null) {
+            result.add(JsonPatch.op("replace", pointer, target));
+            return;
+        }
+
+        // For each target element, the index of the original element it comes from, or -1 if it is added
+        final int[] sources = new int[b.size()];
+        final boolean[] kept = new boolean[b.size()];
+        Arrays.fill(sources, -1);
+        for (int x = 0; x < matches.length; x++) {
+            if (matches[x] >= 0) {
+                sources[matches[x]] = x;
+                kept[matches[x]] = true;
+            }
+        }
+        final Map<Key, ArrayDeque<Integer>> removed = new HashMap<Key, ArrayDeque<Integer>>();
+        for (int x = 0; x < matches.length; x++) {
+            if (matches[x] < 0) {
+                ArrayDeque<Integer> indexes = removed.get(keysA[x]);
+                if (indexes == null) {
+                    indexes = new ArrayDeque<Integer>(1);
+                    removed.put(keysA[x], indexes);
+                }
+                indexes.add(x);
+            }
+        }
+        final boolean[] moved = new boolean[a.size()];
+        boolean unchangedElements = false;
+        for (int y = 0; y < sources.length; y++) {
+            if (!kept[y]) {
+                final ArrayDeque<Integer> indexes = removed.get(keysB[y]);
+                if (indexes != null && !indexes.isEmpty()) {
+                    sources[y] = indexes.poll();
+                    moved[sources[y]] = true;
+                }
+            }
+            unchangedElements |= sources[y] >= 0;
+        }
+        if (!unchangedElements && !b.isEmpty()) {
+            // Nothing in common, a replace is shorter
+            result.add(JsonPatch.op("replace", pointer, target));
+            return;
+        }
+
+        // Tracks the original elements as non-negative values and the added ones as negative values
+        final List<Integer> current = new ArrayList<Integer>(a.size() + b.size());
+        for (int x = 0; x < a.size(); x++) {
+            current.add(x);
+        }
+        for (int x = a.size() - 1; x >= 0; x--) {
+            if (matches[x] < 0 && !moved[x]) {
+                result.add(JsonPatch.op("remove", pointer.child(x), null));
+                current.remove(x);
+            }
+        }
+        for (int y = 0; y < sources.length; y++) {
+            if (kept[y]) {
+                continue;
+            }
+            final int previous = y == 0 ? -1 : current.indexOf(token(sources, y - 1));
+            final Integer token = token(sources, y);
+            if (sources[y] >= 0) {
+                final int from = current.indexOf(token);
+                // The destination index applies once the element has been removed
+                final int to = from <= previous ? previous : previous + 1;
+                if (from != to) {
+                    result.add(JsonPatch.move(pointer.child(from), pointer.child(to)));
+                    current.remove(from);
+                    current.add(to, token);
+                }
+            } else {
+                result.add(JsonPatch.op("add", pointer.child(previous + 1), target.get(y)));
+                current.add(previous + 1, token);
+            }
+        }
+        if (arrayDiff.getIdentityKey() != null) {
+            for (int y = 0; y < sources.length; y++) {
+                final Object element = a.get(Math.max(sources[y], 0));
+                if (sources[y] >= 0 && !JsonPatch.isEqual(element, b.get(y))) {
+                    JsonPatch.diff(new JsonValue(element, pointer.child(y)),
+                            new JsonValue(b.get(y), pointer.child(y)), arrayDiff, result);
+                }
+            }
+        }
+    }
+
+    private static Integer token(final int[] sources, final int y) {
+        return sources[y] >= 0 ? sources[y] : -y - 1;
+    }
+
+    private static Key[] keys(final List<Object> elements, final JsonPointer identityKey) {
+        final Key[] keys = new Key[elements.size()];
+        for (int i = 0; i < keys.length; i++) {
+            final Object element = elements.get(i);
+            final JsonValue identity = identityKey != null && element instanceof Map
+                    ? new JsonValue(element).get(identityKey) : null;
+            keys[i] = identity != null && !identity.isNull()
+                    ? new Key(identity.getObject(), true)
+                    : new Key(element, false);
+        }
+        return keys;
+    }
+
+    /**
+     * Returns, for each element of {@code a}, the index of the element of {@code b} it is matched with in their
+     * longest common subsequence, or -1; returns {@code null} if more than {@code maxEdits} additions and removals
+     * are needed.
+     */
+    static int[] commonSubsequence(final Key[] a, final Key[] b, final int maxEdits) {
+        final int[] matches = new int[a.length];
+        Arrays.fill(matches, -1);
+        int start = 0;
+        while (start < a.length && start < b.length && a[start].equals(b[start])) {
+            matches[start] = start;
+            start++;
+        }
+        int endA = a.length;
+        int endB = b.length;
+        while (endA > start && endB > start && a[endA - 1].equals(b[endB - 1])) {
+            matches[--endA] = --endB;
+        }
+        final int n = endA - start;
+        final int m = endB - start;
+        if (n == 0 || m == 0) {
+            return n + m <= maxEdits ? matches : null;
+        }
+
+        // Myers: v[k] is the furthest x reached on diagonal k = x - y, trace keeps v before each step
+        final int max = Math.min(n + m, maxEdits);
+        final int offset = max + 1;
+        final int[] v = new int[2 * max + 3];
+        final List<int[]> trace = new ArrayList<int[]>();
+        for (int d = 0; d <= max; d++) {
+            trace.add(Arrays.copyOfRange(v, offset - d, offset + d + 1));
+            for (int k = -d; k <= d; k += 2) {
+                int x = k == -d || (k != d && v[offset + k - 1] < v[offset + k + 1])
+                        ? v[offset + k + 1]
+                        : v[offset + k - 1] + 1;
+                int y = x - k;
+                while (x < n && y < m && a[start + x].equals(b[start + y])) {
+                    x++;
+                    y++;
+                }
+                v[offset + k] = x;
+                if (x >= n && y >= m) {
+                    backtrack(trace, d, n, m, start, matches);
+                    return matches;
+                }
+            }
+        }
+        return null;
+    }
+
+    private static void backtrack(final List<int[]> trace, final int edits, final int n, final int m,
+            final int start, final int[] matches) {
+        int x = n;
+        int y = m;
+        for (int d = edits; d > 0; d--) {
+            final int[] v = trace.get(d);
+            final int k = x - y;
+            final boolean down = k == -d || (k != d && v[k - 1 + d] < v[k + 1 + d]);
+            final int previousK = down ? k + 1 : k - 1;
+            final int previousX = v[previousK + d];
+            // The snake following the edit starts after the insertion (down) or the removal (right)
+            final int snakeX = down ? previousX : previousX + 1;
+            while (x > snakeX) {
+                x--;
+                y--;
+                matches[start + x] = start + y;
+            }
+            x = previousX;
+            y = previousX - previousK;
+        }
+        while (x > 0) {
+            x--;
+            y--;
+            matches[start + x] = start + y;
+        }
+    }
+
+    private static int hash(final Object value) {
+        if (value instanceof Number) {
+            // -0.0 is normalised as it is equal to 0.0, but has a different hash code
+            final double number = ((Number) value).doubleValue();
+            return Double.valueOf(number == 0.0 ? 0.0 : number).hashCode();
+        } else if (value instanceof Map) {
+            int hash = 0;
+            for (final Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                hash += entry.getKey().hashCode() ^ hash(entry.getValue());
+            }
+            return hash;
+        } else if (value instanceof List) {
+            int hash = 1;
+            for (final Object element : (List<?>) value) {
+                hash = 31 * hash + hash(element);
+            }
+            return hash;
+        }
+        return value != null ? value.hashCode() : 0;
+    }
+
+    private ListDiff() {
+        // Static methods only
+    }
+}
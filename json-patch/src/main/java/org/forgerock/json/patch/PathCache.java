@@ -0,0 +1,119 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Open Source Solution Technology Corporation
+ */
+
+package org.forgerock.json.patch;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.forgerock.json.JsonException;
+import org.forgerock.json.JsonPointer;
+import org.forgerock.json.JsonValue;
+
+/**
+ * Resolves the values targeted by the operations of a patch, remembering the values resolved along the way so that
+ * operations sharing a parent do not resolve it again from the root.
+ * <p>
+ * Resolved values form a tree mirroring the patched document. Each modification drops the part of that tree it may
+ * have made stale: the subtree of the modified member of an object, or all the resolved elements of a modified array,
+ * as adding or removing an element shifts the elements following it.
+ */
+final class PathCache {
+
+    /** A resolved value, and its resolved members. */
+    private static final class Node {
+        private final JsonValue value;
+        private Map<String, Node> children;
+
+        Node(final JsonValue value) {
+            this.value = value;
+        }
+    }
+
+    private final Node root;
+
+    PathCache(final JsonValue root) {
+        this.root = new Node(root);
+    }
+
+    /**
+     * Returns the value identified by the pointer, or {@code null} if it is not defined.
+     */
+    JsonValue get(final JsonPointer pointer) {
+        Node node = root;
+        for (final String token : pointer) {
+            Node child = node.children != null ? node.children.get(token) : null;
+            if (child == null) {
+                final JsonValue member = node.value.get(token);
+                if (member.isNull() && !node.value.isDefined(token)) {
+                    return null;
+                }
+                child = new Node(member);
+                if (node.children == null) {
+                    node.children = new HashMap<String, Node>();
+                }
+                node.children.put(token, child);
+            }
+            node = child;
+        }
+        return node.value;
+    }
+
+    /**
+     * Returns the parent value of the value identified by the pointer, or {@code null} if the pointer identifies the
+     * root value.
+     *
+     * @throws JsonException if the parent value could not be found.
+     */
+    JsonValue parent(final JsonPointer pointer) {
+        final JsonPointer parent = pointer.parent();
+        if (parent == null) {
+            return null;
+        }
+        final JsonValue result = get(parent);
+        if (result == null) {
+            throw new JsonException("parent value not found");
+        }
+        return result;
+    }
+
+    /**
+     * Drops the resolved values which may have been made stale by a modification of the value identified by the
+     * pointer.
+     */
+    void modified(final JsonPointer pointer) {
+        final JsonPointer parent = pointer.parent();
+        if (parent == null) {
+            root.children = null;
+            return;
+        }
+        Node node = root;
+        for (final String token : parent) {
+            node = node.children != null ? node.children.get(token) : null;
+            if (node == null) {
+                // Nothing resolved below the parent
+                return;
+            }
+        }
+        if (node.children == null) {
+            return;
+        } else if (node.value.isList()) {
+            node.children = null;
+        } else {
+            node.children.remove(pointer.leaf());
+        }
+    }
+}
@@ -12,13 +12,20 @@
  * information: "Portions Copyrighted [year] [name of copyright owner]".
  *
  * Copyright 2011 ForgeRock AS. All rights reserved.
+ * Portions copyright 2026 Open Source Solution Technology Corporation
  */
 
 package org.forgerock.json.patch;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.failBecauseExceptionWasNotThrown;
 import static org.forgerock.json.JsonValue.*;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.forgerock.json.JsonPointer;
 import org.forgerock.json.JsonValue;
 import org.forgerock.json.JsonValueException;
 import org.testng.annotations.Test;
@@ -179,6 +186,19 @@ public class JsonPatchTest {
         assertThat(JsonPatch.diff(v1, v2).size()).isEqualTo(0);
     }
 
+    @Test
+    public void diffComparesNumbersRegardlessOfType() {
+        v1 = json(object(field("a", 1), field("b", 0.0), field("c", array(1, 2.5, object(field("d", 3L))))));
+        v2 = json(object(field("a", 1L), field("b", -0.0), field("c", array(1L, 2.5f, object(field("d", 3))))));
+        diff = JsonPatch.diff(v1, v2);
+        assertThat(diff.size()).isEqualTo(0);
+        v2.put("a", 1.5);
+        diff = JsonPatch.diff(v1, v2);
+        assertThat(diff.size()).isEqualTo(1);
+        assertThat(diff.get(0).get("op").asString()).isEqualTo("replace");
+        assertThat(diff.get(0).get("path").asString()).isEqualTo("/a");
+    }
+
     @Test
     public void testScriptedReplace() {
         v1 = json(object(
@@ -193,6 +213,143 @@ public class JsonPatchTest {
         assertThat(v1.get("a").asString()).isEqualTo("bxformed");
     }
 
+    @Test
+    public void elementWiseListDiffChangingOneElement() {
+        v1 = json(object(field("a", new ArrayList<Object>())));
+        for (int i = 0; i < 1000; i++) {
+            v1.get("a").add(i);
+        }
+        v2 = v1.copy();
+        v2.get("a").remove(500);
+        v2.get("a").add(700, "x");
+        diff = JsonPatch.diff(v1, v2, ArrayDiff.elementWise());
+        assertThat(diff.size()).isEqualTo(2);
+        assertThat(diff.get(0).get("op").asString()).isEqualTo("remove");
+        assertThat(diff.get(0).get("path").asString()).isEqualTo("/a/500");
+        assertThat(diff.get(1).get("op").asString()).isEqualTo("add");
+        assertThat(diff.get(1).get("path").asString()).isEqualTo("/a/700");
+        JsonPatch.patch(v1, diff);
+        assertThat(JsonPatch.diff(v1, v2).size()).isEqualTo(0);
+    }
+
+    @Test
+    public void elementWiseListDiffMatchesNegativeZero() {
+        v1 = json(array(0.0, "a", 1));
+        v2 = json(array("b", -0.0, "a", 1L));
+        diff = JsonPatch.diff(v1, v2, ArrayDiff.elementWise());
+        assertThat(diff.size()).isEqualTo(1);
+        assertThat(diff.get(0).get("op").asString()).isEqualTo("add");
+        assertThat(diff.get(0).get("path").asString()).isEqualTo("/0");
+    }
+
+    @Test
+    public void elementWiseListDiffMovingElement() {
+        v1 = json(array("a", "b", "c", "d", "e"));
+        v2 = json(array("b", "c", "d", "e", "a"));
+        diff = JsonPatch.diff(v1, v2, ArrayDiff.elementWise());
+        assertThat(diff.size()).isEqualTo(1);
+        assertThat(diff.get(0).get("op").asString()).isEqualTo("move");
+        assertThat(diff.get(0).get("from").asString()).isEqualTo("/0");
+        assertThat(diff.get(0).get("path").asString()).isEqualTo("/4");
+        JsonPatch.patch(v1, diff);
+        assertThat(JsonPatch.diff(v1, v2).size()).isEqualTo(0);
+    }
+
+    @Test
+    public void elementWiseListDiffPatchingIdentifiedElements() {
+        v1 = json(array(
+                object(field("_id", "1"), field("name", "one")),
+                object(field("_id", "2"), field("name", "two")),
+                object(field("_id", "3"), field("name", "three"))
+        ));
+        v2 = json(array(
+                object(field("_id", "1"), field("name", "one")),
+                object(field("_id", "3"), field("name", "three")),
+                object(field("_id", "2"), field("name", "deux"))
+        ));
+        diff = JsonPatch.diff(v1, v2, ArrayDiff.elementWise().identifiedBy(new JsonPointer("_id")));
+        assertThat(diff.size()).isEqualTo(2);
+        assertThat(diff.get(0).get("op").asString()).isEqualTo("move");
+        assertThat(diff.get(1).get("op").asString()).isEqualTo("replace");
+        assertThat(diff.get(1).get("path").asString()).isEqualTo("/2/name");
+        JsonPatch.patch(v1, diff);
+        assertThat(JsonPatch.diff(v1, v2).size()).isEqualTo(0);
+    }
+
+    @Test
+    public void elementWiseListDiffReplacingListAboveMaxEdits() {
+        v1 = json(array("a", "b", "c", "d"));
+        v2 = json(array("a", "x", "y", "d"));
+        diff = JsonPatch.diff(v1, v2, ArrayDiff.elementWise().maxEdits(3));
+        assertThat(diff.size()).isEqualTo(1);
+        assertThat(diff.get(0).get("op").asString()).isEqualTo("replace");
+        assertThat(diff.get(0).get("path").asString()).isEqualTo("/");
+        diff = JsonPatch.diff(v1, v2, ArrayDiff.elementWise().maxEdits(4));
+        assertThat(diff.size()).isEqualTo(4);
+    }
+
+    @Test
+    public void elementWiseListDiffRoundTrips() {
+        Random random = new Random(42);
+        for (int i = 0; i < 200; i++) {
+            v1 = json(randomList(random));
+            v2 = json(randomList(random));
+            diff = JsonPatch.diff(v1, v2, ArrayDiff.elementWise());
+            JsonPatch.patch(v1, diff);
+            assertThat(v1.getObject()).isEqualTo(v2.getObject());
+        }
+    }
+
+    private static List<Object> randomList(Random random) {
+        List<Object> list = new ArrayList<Object>();
+        for (int i = random.nextInt(12); i > 0; i--) {
+            list.add(String.valueOf((char) ('a' + random.nextInt(6))));
+        }
+        return list;
+    }
+
+    @Test
+    public void testNumbersRegardlessOfType() {
+        v1 = json(object(field("a", array(1, 2.5, object(field("b", 3L))))));
+        diff = json(array(object(
+                field("op", "test"),
+                field("path", "/a"),
+                field("value", array(1L, 2.5f, object(field("b", 3))))
+        )));
+        JsonPatch.patch(v1, diff);
+    }
+
+    @Test
+    public void patchResolvesParentsAfterArrayModifications() {
+        v1 = json(object(field("a", array(
+                object(field("name", "zero")),
+                object(field("name", "one")),
+                object(field("name", "two"))
+        ))));
+        diff = json(array(
+                object(field("op", "replace"), field("path", "/a/1/name"), field("value", "un")),
+                object(field("op", "remove"), field("path", "/a/0")),
+                object(field("op", "replace"), field("path", "/a/1/name"), field("value", "deux")),
+                object(field("op", "move"), field("from", "/a/1"), field("path", "/a/0")),
+                object(field("op", "test"), field("path", "/a/1/name"), field("value", "un"))
+        ));
+        JsonPatch.patch(v1, diff);
+        assertThat(v1.get("a").get(0).get("name").asString()).isEqualTo("deux");
+        assertThat(v1.get("a").get(1).get("name").asString()).isEqualTo("un");
+    }
+
+    @Test
+    public void patchManySiblings() {
+        v1 = json(object(field("a", object(field("b", object())))));
+        List<Object> operations = new ArrayList<Object>();
+        for (int i = 0; i < 1000; i++) {
+            operations.add(object(field("op", "add"), field("path", "/a/b/" + i), field("value", i)));
+        }
+        JsonPatch.patch(v1, json(operations));
+        assertThat(v1.get(new JsonPointer("/a/b")).size()).isEqualTo(1000);
+        assertThat(v1.get(new JsonPointer("/a/b/999")).asInteger()).isEqualTo(999);
+    }
+
     // ----- exception unit tests ----------
 
     @Test(expectedExceptions = JsonValueException.class)
@@ -228,4 +385,33 @@ public class JsonPatchTest {
         v1.clear();
         JsonPatch.patch(v1, diff);
     }
+
+    @Test
+    public void malformedPatchDoesNotModifyValue() {
+        v1 = json(object(field("a", "1")));
+        diff = json(array(
+                object(field("op", "replace"), field("path", "/a"), field("value", "2")),
+                object(field("op", "unknown"), field("path", "/a"))
+        ));
+        try {
+            JsonPatch.patch(v1, diff);
+            failBecauseExceptionWasNotThrown(JsonValueException.class);
+        } catch (JsonValueException e) {
+            assertThat(v1.get("a").asString()).isEqualTo("1");
+        }
+    }
+
+    @Test(expectedExceptions = JsonValueException.class)
+    public void moveIntoChild() {
+        v1 = json(object(field("a", object(field("b", "c")))));
+        diff = json(array(object(field("op", "move"), field("from", "/a"), field("path", "/a/b/d"))));
+        JsonPatch.patch(v1, diff);
+    }
+
+    @Test(expectedExceptions = JsonValueException.class)
+    public void testNonExistentMapItem() {
+        v1 = json(object(field("a", "1")));
+        diff = json(array(object(field("op", "test"), field("path", "/b"), field("value", null))));
+        JsonPatch.patch(v1, diff);
+    }
 }
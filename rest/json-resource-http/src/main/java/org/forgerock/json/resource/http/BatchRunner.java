@@ -0,0 +1,390 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Open Source Solution Technology Corporation
+ */
+
+package org.forgerock.json.resource.http;
+
+import static org.forgerock.http.io.IO.newBranchingInputStream;
+import static org.forgerock.http.io.IO.newTemporaryStorage;
+import static org.forgerock.http.protocol.Responses.newInternalServerError;
+import static org.forgerock.json.resource.QueryResponse.*;
+import static org.forgerock.json.resource.ResourceResponse.FIELD_CONTENT_ID;
+import static org.forgerock.json.resource.ResourceResponse.FIELD_CONTENT_REVISION;
+import static org.forgerock.json.resource.http.HttpUtils.*;
+import static org.forgerock.util.Utils.closeSilently;
+import static org.forgerock.util.promise.Promises.newResultPromise;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import org.forgerock.http.protocol.Response;
+import org.forgerock.http.protocol.Status;
+import org.forgerock.json.JsonValue;
+import org.forgerock.json.resource.ActionRequest;
+import org.forgerock.json.resource.ActionResponse;
+import org.forgerock.json.resource.AdviceContext;
+import org.forgerock.json.resource.Connection;
+import org.forgerock.json.resource.CreateRequest;
+import org.forgerock.json.resource.DeleteRequest;
+import org.forgerock.json.resource.PatchRequest;
+import org.forgerock.json.resource.QueryRequest;
+import org.forgerock.json.resource.QueryResourceHandler;
+import org.forgerock.json.resource.QueryResponse;
+import org.forgerock.json.resource.ReadRequest;
+import org.forgerock.json.resource.Request;
+import org.forgerock.json.resource.RequestVisitor;
+import org.forgerock.json.resource.ResourceException;
+import org.forgerock.json.resource.ResourceResponse;
+import org.forgerock.json.resource.UpdateRequest;
+import org.forgerock.services.context.Context;
+import org.forgerock.util.Function;
+import org.forgerock.util.promise.NeverThrowsException;
+import org.forgerock.util.promise.Promise;
+import org.forgerock.util.promise.ResultHandler;
+
+/**
+ * Batch request processing.
+ * <p>
+ * The requests of a batch are sent concurrently through the same connection, at most {@code parallelism} of them
+ * being in progress at any time. The outcome of each request is written as soon as the outcomes of all the
+ * preceding requests have been written, so that the response lists them in the order of the requests:
+ *
+ * <pre>
+ * [
+ *   { "code": 200, "result": { "_id": "alice", "_rev": "1", ... } },
+ *   { "code": 404, "error": { "code": 404, "reason": "Not Found", "message": "..." } }
+ * ]
+ * </pre>
+ *
+ * Resources are written with their {@code _id} and {@code _rev} fields, queries as the object returned by a query
+ * over HTTP. Advices added by the request handlers are not returned.
+ * <p>
+ * The response is returned once the requests have been sent, and its content is streamed: each outcome is sent to
+ * the client with the outcomes preceding it as soon as they are all written. If an outcome cannot be written once
+ * the response has been returned, its content is cut short so that the client can tell that it is incomplete.
+ */
+final class BatchRunner implements RequestVisitor<Promise<Map<String, Object>, NeverThrowsException>, Context> {
+
+    private static final String FIELD_CODE = "code";
+    private static final String FIELD_RESULT = "result";
+
+    private final Context context;
+    private final List<Request> requests;
+    private final int parallelism;
+    private final org.forgerock.http.protocol.Request httpRequest;
+    private final Response httpResponse;
+    private final StreamingPipe pipe = new StreamingPipe();
+    private final JsonGenerator writer;
+
+    /** Index of the next request to send. */
+    private final AtomicInteger nextRequest = new AtomicInteger();
+    /** Outcomes waiting for the outcomes of preceding requests to be written, guarded by this. */
+    private final Object[] outcomes;
+    /** Index of the next outcome to write, guarded by this. */
+    private int nextOutcome;
+    /** Whether writing the response failed, guarded by this. */
+    private boolean failed;
+    /** The error which prevented writing the response before it was returned, guarded by this. */
+    private Exception failure;
+    /** Whether the response has been returned, guarded by this. */
+    private boolean streaming;
+
+    // Connection set on handleResult(Connection).
+    private Connection connection;
+
+    BatchRunner(Context context, List<Request> requests, int parallelism,
+            org.forgerock.http.protocol.Request httpRequest, Response httpResponse) throws Exception {
+        this.context = context;
+        this.requests = requests;
+        this.parallelism = parallelism;
+        this.httpRequest = httpRequest;
+        this.httpResponse = httpResponse;
+        this.writer = getJsonGenerator(httpRequest, pipe.getOutputStream());
+        this.outcomes = new Object[requests.size()];
+    }
+
+    Promise<Response, NeverThrowsException> handleError(final ResourceException error) {
+        return fail(httpRequest, httpResponse, error);
+    }
+
+    Promise<Response, NeverThrowsException> handleResult(final Connection result) {
+        connection = result;
+        try {
+            writer.writeStartArray();
+            if (requests.isEmpty()) {
+                complete();
+            } else {
+                for (int i = 0; i < Math.min(parallelism, requests.size()); i++) {
+                    sendRequests();
+                }
+            }
+        } catch (final IOException e) {
+            closeSilently(connection);
+            pipe.abort(e);
+            return fail(httpRequest, httpResponse, e);
+        }
+        synchronized (this) {
+            if (failure != null) {
+                return newResultPromise(newInternalServerError(failure));
+            }
+            streaming = true;
+        }
+        httpResponse.setEntity(newBranchingInputStream(pipe.getInputStream(), newTemporaryStorage()));
+        return newResultPromise(httpResponse);
+    }
+
+    @Override
+    public Promise<Map<String, Object>, NeverThrowsException> visitActionRequest(final Context context,
+            final ActionRequest request) {
+        return connection.actionAsync(context, request)
+                .then(new Function<ActionResponse, Map<String, Object>, NeverThrowsException>() {
+                    @Override
+                    public Map<String, Object> apply(final ActionResponse response) {
+                        if (response == null) {
+                            return outcome(Status.NO_CONTENT, null);
+                        }
+                        return outcome(Status.OK, response.getJsonContent().getObject());
+                    }
+                }, errorOutcome()).thenCatchRuntimeException(runtimeErrorOutcome());
+    }
+
+    @Override
+    public Promise<Map<String, Object>, NeverThrowsException> visitCreateRequest(final Context context,
+            final CreateRequest request) {
+        return connection.createAsync(context, request)
+                .then(resourceOutcome(Status.CREATED), errorOutcome())
+                .thenCatchRuntimeException(runtimeErrorOutcome());
+    }
+
+    @Override
+    public Promise<Map<String, Object>, NeverThrowsException> visitDeleteRequest(final Context context,
+            final DeleteRequest request) {
+        return connection.deleteAsync(context, request)
+                .then(resourceOutcome(Status.OK), errorOutcome())
+                .thenCatchRuntimeException(runtimeErrorOutcome());
+    }
+
+    @Override
+    public Promise<Map<String, Object>, NeverThrowsException> visitPatchRequest(final Context context,
+            final PatchRequest request) {
+        return connection.patchAsync(context, request)
+                .then(resourceOutcome(Status.OK), errorOutcome())
+                .thenCatchRuntimeException(runtimeErrorOutcome());
+    }
+
+    @Override
+    public Promise<Map<String, Object>, NeverThrowsException> visitQueryRequest(final Context context,
+            final QueryRequest request) {
+        final List<Object> resources = new ArrayList<>();
+        // The first resource which could not be returned, guarded by resources.
+        final RuntimeException[] failure = new RuntimeException[1];
+        return connection.queryAsync(context, request, new QueryResourceHandler() {
+            @Override
+            public boolean handleResource(final ResourceResponse resource) {
+                synchronized (resources) {
+                    try {
+                        resources.add(toJsonObject(resource));
+                        return true;
+                    } catch (final RuntimeException e) {
+                        failure[0] = e;
+                        return false;
+                    }
+                }
+            }
+        }).then(new Function<QueryResponse, Map<String, Object>, NeverThrowsException>() {
+            @Override
+            public Map<String, Object> apply(final QueryResponse response) {
+                final Map<String, Object> result = new LinkedHashMap<>();
+                synchronized (resources) {
+                    if (failure[0] != null) {
+                        return errorOutcome(adapt(failure[0]));
+                    }
+                    result.put(FIELD_RESULT, resources);
+                    result.put(FIELD_RESULT_COUNT, resources.size());
+                }
+                result.put(FIELD_PAGED_RESULTS_COOKIE, response.getPagedResultsCookie());
+                result.put(FIELD_TOTAL_PAGED_RESULTS_POLICY, response.getTotalPagedResultsPolicy().toString());
+                result.put(FIELD_TOTAL_PAGED_RESULTS, response.getTotalPagedResults());
+                result.put(FIELD_REMAINING_PAGED_RESULTS, response.getRemainingPagedResults());
+                return outcome(Status.OK, result);
+            }
+        }, errorOutcome()).thenCatchRuntimeException(runtimeErrorOutcome());
+    }
+
+    @Override
+    public Promise<Map<String, Object>, NeverThrowsException> visitReadRequest(final Context context,
+            final ReadRequest request) {
+        return connection.readAsync(context, request)
+                .then(resourceOutcome(Status.OK), errorOutcome())
+                .thenCatchRuntimeException(runtimeErrorOutcome());
+    }
+
+    @Override
+    public Promise<Map<String, Object>, NeverThrowsException> visitUpdateRequest(final Context context,
+            final UpdateRequest request) {
+        return connection.updateAsync(context, request)
+                .then(resourceOutcome(Status.OK), errorOutcome())
+                .thenCatchRuntimeException(runtimeErrorOutcome());
+    }
+
+    /*
+     * Sends the remaining requests one after the other. Requests completing synchronously are followed by the next
+     * one in the same loop, the others send the next request once they complete.
+     */
+    private void sendRequests() {
+        int index;
+        while ((index = nextRequest.getAndIncrement()) < requests.size()) {
+            final int request = index;
+            final Promise<Map<String, Object>, NeverThrowsException> outcome = send(request);
+            if (!outcome.isDone()) {
+                outcome.thenOnResult(new ResultHandler<Map<String, Object>>() {
+                    @Override
+                    public void handleResult(final Map<String, Object> result) {
+                        write(request, result);
+                        sendRequests();
+                    }
+                });
+                return;
+            }
+            write(request, outcome.getOrThrowUninterruptibly());
+        }
+    }
+
+    private Promise<Map<String, Object>, NeverThrowsException> send(final int index) {
+        try {
+            // Each request has its own advices, which are discarded
+            final Context requestContext = new AdviceContext(context, RESTRICTED_HEADER_NAMES);
+            return requests.get(index).accept(this, requestContext);
+        } catch (final RuntimeException e) {
+            return newResultPromise(errorOutcome(adapt(e)));
+        }
+    }
+
+    private synchronized void write(final int index, final Map<String, Object> outcome) {
+        if (failed) {
+            return;
+        }
+        outcomes[index] = outcome;
+        try {
+            if (nextOutcome == index) {
+                while (nextOutcome < outcomes.length && outcomes[nextOutcome] != null) {
+                    writer.writeObject(outcomes[nextOutcome]);
+                    outcomes[nextOutcome++] = null;
+                }
+                if (nextOutcome == outcomes.length) {
+                    complete();
+                } else {
+                    // Send the outcomes written so far to the client
+                    writer.flush();
+                }
+            }
+        } catch (final IOException | RuntimeException e) {
+            // The outcome may have been partially written: the response is incomplete, the remaining outcomes are
+            // discarded
+            failed = true;
+            closeSilently(connection);
+            pipe.abort(e instanceof IOException ? (IOException) e : new IOException(e));
+            if (!streaming) {
+                failure = e;
+            }
+        }
+    }
+
+    private void complete() throws IOException {
+        writer.writeEndArray();
+        closeSilently(connection, writer, pipe.getOutputStream());
+    }
+
+    private Function<ResourceResponse, Map<String, Object>, NeverThrowsException> resourceOutcome(
+            final Status status) {
+        return new Function<ResourceResponse, Map<String, Object>, NeverThrowsException>() {
+            @Override
+            public Map<String, Object> apply(final ResourceResponse response) {
+                return outcome(status, toJsonObject(response));
+            }
+        };
+    }
+
+    private static Function<ResourceException, Map<String, Object>, NeverThrowsException> errorOutcome() {
+        return new Function<ResourceException, Map<String, Object>, NeverThrowsException>() {
+            @Override
+            public Map<String, Object> apply(final ResourceException error) {
+                return errorOutcome(error);
+            }
+        };
+    }
+
+    private static Function<RuntimeException, Map<String, Object>, NeverThrowsException> runtimeErrorOutcome() {
+        return new Function<RuntimeException, Map<String, Object>, NeverThrowsException>() {
+            @Override
+            public Map<String, Object> apply(final RuntimeException error) {
+                return errorOutcome(adapt(error));
+            }
+        };
+    }
+
+    private static Map<String, Object> errorOutcome(final ResourceException error) {
+        final Map<String, Object> outcome = new LinkedHashMap<>(2);
+        outcome.put(FIELD_CODE, error.getCode());
+        outcome.put(FIELD_ERROR, error.toJsonValue().getObject());
+        return outcome;
+    }
+
+    private static Map<String, Object> outcome(final Status status, final Object result) {
+        final Map<String, Object> outcome = new LinkedHashMap<>(2);
+        outcome.put(FIELD_CODE, status.getCode());
+        if (result != null) {
+            outcome.put(FIELD_RESULT, result);
+        }
+        return outcome;
+    }
+
+    /*
+     * Returns the content of the resource with its _id and _rev fields, like RequestRunner. A resource without
+     * content is returned with its _id and _rev fields only, content which is not a JSON object is returned as is.
+     */
+    private static Object toJsonObject(final ResourceResponse resource) {
+        final JsonValue value = resource.getContent();
+        if (value != null && !value.isNull() && !value.isMap()) {
+            return value.getObject();
+        }
+        final Map<String, Object> content = value != null && value.isMap()
+                ? value.asMap()
+                : Collections.<String, Object>emptyMap();
+        final Map<String, Object> object = new LinkedHashMap<>(content.size() + 2);
+        final Object id = resource.getId() != null ? resource.getId() : content.get(FIELD_CONTENT_ID);
+        if (id != null) {
+            object.put(FIELD_CONTENT_ID, id.toString());
+        }
+        final Object rev =
+                resource.getRevision() != null ? resource.getRevision() : content.get(FIELD_CONTENT_REVISION);
+        if (rev != null) {
+            object.put(FIELD_CONTENT_REVISION, rev.toString());
+        }
+        for (final Map.Entry<String, Object> property : content.entrySet()) {
+            final String key = property.getKey();
+            if (!FIELD_CONTENT_ID.equals(key) && !FIELD_CONTENT_REVISION.equals(key)) {
+                object.put(key, property.getValue());
+            }
+        }
+        return object;
+    }
+}
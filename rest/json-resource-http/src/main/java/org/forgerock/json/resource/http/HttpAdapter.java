@@ -23,16 +23,19 @@ import static org.forgerock.util.Reject.*;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 
 import org.forgerock.http.Handler;
 import org.forgerock.http.header.AcceptLanguageHeader;
 import org.forgerock.http.header.ContentTypeHeader;
+import org.forgerock.http.header.MalformedHeaderException;
 import org.forgerock.http.protocol.Form;
 import org.forgerock.http.protocol.Response;
 import org.forgerock.http.routing.UriRouterContext;
 import org.forgerock.http.routing.Version;
 import org.forgerock.json.JsonValue;
+import org.forgerock.json.JsonValueException;
 import org.forgerock.json.resource.ActionRequest;
 import org.forgerock.json.resource.AdviceContext;
 import org.forgerock.json.resource.BadRequestException;
@@ -43,8 +46,10 @@ import org.forgerock.json.resource.CountPolicy;
 import org.forgerock.json.resource.CreateRequest;
 import org.forgerock.json.resource.DeleteRequest;
 import org.forgerock.json.resource.NotSupportedException;
+import org.forgerock.json.resource.PatchOperation;
 import org.forgerock.json.resource.PatchRequest;
 import org.forgerock.json.resource.PreconditionFailedException;
+import org.forgerock.json.resource.ProjectionContext;
 import org.forgerock.json.resource.QueryFilters;
 import org.forgerock.json.resource.QueryRequest;
 import org.forgerock.json.resource.ReadRequest;
@@ -94,6 +99,13 @@ import org.forgerock.util.promise.Promise;
  */
 final class HttpAdapter implements Handler {
 
+    /** The maximum number of requests of a batch. */
+    private static final int MAX_BATCH_SIZE = 100;
+    /** The maximum number of requests of a batch which are in progress at the same time. */
+    private static final int BATCH_PARALLELISM = 8;
+    /** The field of a batched request holding its type, as in {@link Request#toJsonValue()}. */
+    private static final String BATCH_FIELD_METHOD = "method";
+
     private final ConnectionFactory connectionFactory;
     private final HttpContextFactory contextFactory;
 
@@ -156,6 +168,10 @@ final class HttpAdapter implements Handler {
     public Promise<Response, NeverThrowsException> handle(Context context,
             org.forgerock.http.protocol.Request request) {
         try {
+            // Batches are identified by a parameter of the protocol, so that they never hide an action of a resource
+            if (METHOD_POST.equals(getMethod(request)) && hasParameter(request, PARAM_BATCH)) {
+                return doBatch(context, request);
+            }
             RequestType requestType = determineRequestType(request);
             switch (requestType) {
             case CREATE:
@@ -320,30 +336,7 @@ final class HttpAdapter implements Handler {
                 }
             }
 
-            // Check for incompatible arguments.
-            if (request.getQueryId() != null && request.getQueryFilter() != null) {
-                // FIXME: i18n.
-                throw new BadRequestException("The parameters " + PARAM_QUERY_ID + " and "
-                        + PARAM_QUERY_FILTER + " are mutually exclusive");
-            }
-
-            if (request.getQueryId() != null && request.getQueryExpression() != null) {
-                // FIXME: i18n.
-                throw new BadRequestException("The parameters " + PARAM_QUERY_ID + " and "
-                        + PARAM_QUERY_EXPRESSION + " are mutually exclusive");
-            }
-
-            if (request.getQueryFilter() != null && request.getQueryExpression() != null) {
-                // FIXME: i18n.
-                throw new BadRequestException("The parameters " + PARAM_QUERY_FILTER + " and "
-                        + PARAM_QUERY_EXPRESSION + " are mutually exclusive");
-            }
-
-            if (request.getPagedResultsOffset() > 0 && request.getPagedResultsCookie() != null) {
-                // FIXME: i18n.
-                throw new BadRequestException("The parameters " + PARAM_PAGED_RESULTS_OFFSET + " and "
-                        + PARAM_PAGED_RESULTS_COOKIE + " are mutually exclusive");
-            }
+            checkQueryParameters(request);
 
             return doRequest(context, req, resp, request);
         } catch (final Exception e) {
@@ -351,6 +344,33 @@ final class HttpAdapter implements Handler {
         }
     }
 
+    /** Check for incompatible arguments. */
+    private static void checkQueryParameters(final QueryRequest request) throws BadRequestException {
+        if (request.getQueryId() != null && request.getQueryFilter() != null) {
+            // FIXME: i18n.
+            throw new BadRequestException("The parameters " + PARAM_QUERY_ID + " and "
+                    + PARAM_QUERY_FILTER + " are mutually exclusive");
+        }
+
+        if (request.getQueryId() != null && request.getQueryExpression() != null) {
+            // FIXME: i18n.
+            throw new BadRequestException("The parameters " + PARAM_QUERY_ID + " and "
+                    + PARAM_QUERY_EXPRESSION + " are mutually exclusive");
+        }
+
+        if (request.getQueryFilter() != null && request.getQueryExpression() != null) {
+            // FIXME: i18n.
+            throw new BadRequestException("The parameters " + PARAM_QUERY_FILTER + " and "
+                    + PARAM_QUERY_EXPRESSION + " are mutually exclusive");
+        }
+
+        if (request.getPagedResultsOffset() > 0 && request.getPagedResultsCookie() != null) {
+            // FIXME: i18n.
+            throw new BadRequestException("The parameters " + PARAM_PAGED_RESULTS_OFFSET + " and "
+                    + PARAM_PAGED_RESULTS_COOKIE + " are mutually exclusive");
+        }
+    }
+
     Promise<Response, NeverThrowsException> doPatch(Context context, org.forgerock.http.protocol.Request req) {
         try {
             Version requestedResourceVersion = getRequestedResourceVersion(req);
@@ -541,13 +561,8 @@ final class HttpAdapter implements Handler {
 
     private Promise<Response, NeverThrowsException> doRequest(Context context, org.forgerock.http.protocol.Request req,
             Response resp, Request request) throws Exception {
-        Context ctx = newRequestContext(context, req);
-        final AcceptLanguageHeader acceptLanguageHeader = req.getHeaders().get(AcceptLanguageHeader.class);
-        if (acceptLanguageHeader != null) {
-            request.setPreferredLocales(acceptLanguageHeader.getLocales());
-        } else {
-            request.setPreferredLocales(new PreferredLocales(null));
-        }
+        Context ctx = newRequestContext(context, req, request);
+        setPreferredLocales(req, request);
         final RequestRunner runner = new RequestRunner(ctx, request, req, resp);
         return connectionFactory.getConnectionAsync()
                 .thenAsync(new AsyncFunction<Connection, Response, NeverThrowsException>() {
@@ -563,6 +578,174 @@ final class HttpAdapter implements Handler {
                 });
     }
 
+    Promise<Response, NeverThrowsException> doBatch(Context context, org.forgerock.http.protocol.Request req) {
+        try {
+            Version requestedResourceVersion = getRequestedResourceVersion(req);
+
+            // Prepare response.
+            Response resp = prepareResponse(req);
+
+            // Validate request.
+            preprocessRequest(req);
+            rejectIfNoneMatch(req);
+            rejectIfMatch(req);
+
+            if (!asBooleanValue(PARAM_BATCH, getParameter(req, PARAM_BATCH))) {
+                // FIXME: i18n.
+                throw new BadRequestException("The parameter " + PARAM_BATCH + " can only be set to true");
+            }
+            if (hasParameter(req, PARAM_ACTION)) {
+                // FIXME: i18n.
+                throw new BadRequestException("The parameters " + PARAM_BATCH + " and " + PARAM_ACTION
+                        + " cannot be used together");
+            }
+            return doBatch(context, req, resp, requestedResourceVersion);
+        } catch (final Exception e) {
+            return fail(req, e);
+        }
+    }
+
+    private Promise<Response, NeverThrowsException> doBatch(Context context, org.forgerock.http.protocol.Request req,
+            Response resp, Version requestedResourceVersion) throws Exception {
+        final JsonValue content = getJsonActionContent(req);
+        if (!content.isList()) {
+            // FIXME: i18n.
+            throw new BadRequestException("The content of a batch must be an array of requests");
+        }
+        if (content.size() > MAX_BATCH_SIZE) {
+            // FIXME: i18n.
+            throw new BadRequestException("A batch cannot contain more than " + MAX_BATCH_SIZE + " requests");
+        }
+        final ResourcePath resourcePath = getResourcePath(context, req);
+        final List<Request> requests = new ArrayList<>(content.size());
+        for (final JsonValue batchedRequest : content) {
+            final Request request = parseBatchedRequest(batchedRequest, resourcePath);
+            request.setResourceVersion(requestedResourceVersion);
+            setPreferredLocales(req, request);
+            requests.add(request);
+        }
+
+        // The requests share the security and HTTP contexts, obtained once for the whole batch
+        final Context ctx = new HttpContext(contextFactory.createContext(context, req), req);
+        final BatchRunner runner = new BatchRunner(ctx, requests, BATCH_PARALLELISM, req, resp);
+        return connectionFactory.getConnectionAsync()
+                .thenAsync(new AsyncFunction<Connection, Response, NeverThrowsException>() {
+                    @Override
+                    public Promise<Response, NeverThrowsException> apply(Connection connection) {
+                        return runner.handleResult(connection);
+                    }
+                }, new AsyncFunction<ResourceException, Response, NeverThrowsException>() {
+                    @Override
+                    public Promise<Response, NeverThrowsException> apply(ResourceException error) {
+                        return runner.handleError(error);
+                    }
+                });
+    }
+
+    /**
+     * Parses a request of a batch from its JSON representation, using the field names of
+     * {@link Request#toJsonValue()}. The resource path of the request is relative to the resource path of the batch.
+     */
+    private static Request parseBatchedRequest(final JsonValue json, final ResourcePath batchPath)
+            throws ResourceException {
+        try {
+            final String method = json.get(BATCH_FIELD_METHOD).required().asString();
+            final String resourcePath = json.get(Request.FIELD_RESOURCE_PATH).defaultTo("").asString();
+            final ResourcePath path = batchPath.concat(ResourcePath.valueOf(resourcePath));
+            final Request request;
+            switch (RequestType.valueOf(method.toUpperCase(Locale.ROOT))) {
+            case CREATE:
+                request = Requests.newCreateRequest(path, json.get(CreateRequest.FIELD_CONTENT).required())
+                        .setNewResourceId(json.get(CreateRequest.FIELD_NEW_RESOURCE_ID).asString());
+                break;
+            case READ:
+                request = Requests.newReadRequest(path);
+                break;
+            case UPDATE:
+                request = Requests.newUpdateRequest(path, json.get(UpdateRequest.FIELD_CONTENT).required())
+                        .setRevision(json.get(UpdateRequest.FIELD_REVISION).asString());
+                break;
+            case DELETE:
+                request = Requests.newDeleteRequest(path)
+                        .setRevision(json.get(DeleteRequest.FIELD_REVISION).asString());
+                break;
+            case PATCH:
+                final PatchRequest patchRequest = Requests.newPatchRequest(path)
+                        .setRevision(json.get(PatchRequest.FIELD_REVISION).asString());
+                patchRequest.getPatchOperations().addAll(
+                        PatchOperation.valueOfList(json.get(PatchRequest.FIELD_PATCH_OPERATIONS).required()));
+                request = patchRequest;
+                break;
+            case ACTION:
+                request = Requests.newActionRequest(path, json.get(ActionRequest.FIELD_ACTION).required().asString())
+                        .setContent(json.get(ActionRequest.FIELD_CONTENT));
+                break;
+            case QUERY:
+                request = parseBatchedQueryRequest(json, path);
+                break;
+            default:
+                throw new IllegalArgumentException("Unsupported method " + method);
+            }
+            if (json.isDefined(Request.FIELD_FIELDS)) {
+                for (final String field : json.get(Request.FIELD_FIELDS).asList(String.class)) {
+                    request.addField(field);
+                }
+            }
+            if (json.isDefined(Request.FIELD_ADDITIONAL_PARAMETERS)) {
+                for (final Map.Entry<String, String> parameter
+                        : json.get(Request.FIELD_ADDITIONAL_PARAMETERS).asMap(String.class).entrySet()) {
+                    request.setAdditionalParameter(parameter.getKey(), parameter.getValue());
+                }
+            }
+            return request;
+        } catch (final JsonValueException | IllegalArgumentException e) {
+            // FIXME: i18n.
+            throw new BadRequestException("The batched request " + json + " is not valid: " + e.getMessage());
+        }
+    }
+
+    private static QueryRequest parseBatchedQueryRequest(final JsonValue json, final ResourcePath path)
+            throws ResourceException {
+        final QueryRequest request = Requests.newQueryRequest(path)
+                .setQueryId(json.get(QueryRequest.FIELD_QUERY_ID).asString())
+                .setQueryExpression(json.get(QueryRequest.FIELD_QUERY_EXPRESSION).asString())
+                .setPagedResultsCookie(json.get(QueryRequest.FIELD_PAGED_RESULTS_COOKIE).asString());
+        if (json.isDefined(QueryRequest.FIELD_QUERY_FILTER)) {
+            request.setQueryFilter(QueryFilters.parse(json.get(QueryRequest.FIELD_QUERY_FILTER).asString()));
+        }
+        if (json.isDefined(QueryRequest.FIELD_SORT_KEYS)) {
+            for (final String sortKey : json.get(QueryRequest.FIELD_SORT_KEYS).asList(String.class)) {
+                request.addSortKey(sortKey);
+            }
+        }
+        if (json.isDefined(QueryRequest.FIELD_PAGE_SIZE)) {
+            request.setPageSize(json.get(QueryRequest.FIELD_PAGE_SIZE).asInteger());
+        }
+        if (json.isDefined(QueryRequest.FIELD_PAGED_RESULTS_OFFSET)) {
+            request.setPagedResultsOffset(json.get(QueryRequest.FIELD_PAGED_RESULTS_OFFSET).asInteger());
+        }
+        if (json.isDefined(QueryRequest.FIELD_TOTAL_PAGED_RESULTS_POLICY)) {
+            request.setTotalPagedResultsPolicy(CountPolicy.valueOf(
+                    json.get(QueryRequest.FIELD_TOTAL_PAGED_RESULTS_POLICY).asString().toUpperCase(Locale.ROOT)));
+        }
+        if (request.getQueryId() == null && request.getQueryFilter() == null && request.getQueryExpression() == null) {
+            // FIXME: i18n.
+            throw new BadRequestException("A query requires a query ID, a query filter or a query expression");
+        }
+        checkQueryParameters(request);
+        return request;
+    }
+
+    private static void setPreferredLocales(org.forgerock.http.protocol.Request req, Request request)
+            throws MalformedHeaderException {
+        final AcceptLanguageHeader acceptLanguageHeader = req.getHeaders().get(AcceptLanguageHeader.class);
+        if (acceptLanguageHeader != null) {
+            request.setPreferredLocales(acceptLanguageHeader.getLocales());
+        } else {
+            request.setPreferredLocales(new PreferredLocales(null));
+        }
+    }
+
     /**
      * Gets the raw (still url-encoded) resource name from the request. Removes leading and trailing forward slashes.
      */
@@ -596,10 +779,15 @@ final class HttpAdapter implements Handler {
         return matchedUri;
     }
 
-    private Context newRequestContext(Context context, org.forgerock.http.protocol.Request req)
+    private Context newRequestContext(Context context, org.forgerock.http.protocol.Request req, Request request)
             throws ResourceException {
         final Context parent = contextFactory.createContext(context, req);
-        return new AdviceContext(new HttpContext(parent, req), RESTRICTED_HEADER_NAMES);
+        final Context adviceContext = new AdviceContext(new HttpContext(parent, req), RESTRICTED_HEADER_NAMES);
+        if (request.getFields().isEmpty()) {
+            return adviceContext;
+        }
+        // The requested fields are selected by the RequestRunner when writing the response
+        return new ProjectionContext(adviceContext, request.getFields());
     }
 
     private boolean parseCommonParameter(final String name, final List<String> values,
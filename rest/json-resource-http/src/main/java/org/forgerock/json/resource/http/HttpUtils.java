@@ -121,6 +121,12 @@ public final class HttpUtils {
 
     /** the HTTP request parameter for an action. */
     public static final String PARAM_ACTION = param(ActionRequest.FIELD_ACTION);
+    /**
+     * the HTTP request parameter for a batch: the content of a POST request with this parameter set to
+     * {@code true} is an array of JSON requests which are sent relative to the resource, and the response lists
+     * their outcomes in the same order.
+     */
+    public static final String PARAM_BATCH = "_batch";
     /** the HTTP request parameter to specify which fields to return. */
     public static final String PARAM_FIELDS = param(Request.FIELD_FIELDS);
     /** the HTTP request parameter to request a certain page size. */
@@ -557,9 +563,24 @@ public final class HttpUtils {
 
         PipeBufferedStream pipeStream = new PipeBufferedStream();
         resp.setEntity(pipeStream.getOut());
+        return getJsonGenerator(req, pipeStream.getIn());
+    }
 
-        final JsonGenerator writer =
-                JSON_MAPPER.getFactory().createGenerator(pipeStream.getIn());
+    /**
+     * Creates a JSON generator which can be used for serializing JSON content
+     * to the provided output stream, which is not closed with the generator.
+     *
+     * @param req
+     *            The HTTP request.
+     * @param out
+     *            The output stream to which the JSON content is written.
+     * @return A JSON generator which can be used to write out a JSON response.
+     * @throws IOException
+     *             If an error occurred while creating the generator.
+     */
+    static JsonGenerator getJsonGenerator(org.forgerock.http.protocol.Request req,
+            OutputStream out) throws IOException {
+        final JsonGenerator writer = JSON_MAPPER.getFactory().createGenerator(out);
         writer.configure(JsonGenerator.Feature.AUTO_CLOSE_TARGET, false);
 
         // Enable pretty printer if requested.
@@ -12,6 +12,7 @@
  * information: "Portions Copyright [year] [name of copyright owner]".
  *
  * Portions Copyright 2014-2015 ForgeRock AS.
+ * Portions copyright 2026 Open Source Solution Technology Corporation
  */
 
 package org.forgerock.json.resource.http;
@@ -98,6 +99,11 @@ final class PipeBufferedStream {
             }
         }
 
+        @Override
+        public int available() throws IOException {
+            return Math.max(buffer.length() - position, 0);
+        }
+
         @Override
         public void close() throws IOException {
             closeBufferIfNeeded();
@@ -12,6 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2012-2015 ForgeRock AS.
+ * Portions copyright 2026 Open Source Solution Technology Corporation
  */
 
 package org.forgerock.json.resource.http;
@@ -21,6 +22,7 @@ import static org.forgerock.json.resource.Requests.newUpdateRequest;
 import static org.forgerock.json.resource.ResourceException.newResourceException;
 import static org.forgerock.json.resource.ResourceResponse.FIELD_CONTENT_ID;
 import static org.forgerock.json.resource.ResourceResponse.FIELD_CONTENT_REVISION;
+import static org.forgerock.json.resource.Resources.filterResource;
 import static org.forgerock.json.resource.http.HttpUtils.*;
 import static org.forgerock.util.Utils.closeSilently;
 import static org.forgerock.util.promise.Promises.newResultPromise;
@@ -28,8 +30,11 @@ import static org.forgerock.util.promise.Promises.newResultPromise;
 import javax.mail.internet.ContentType;
 import javax.mail.internet.ParseException;
 import java.io.IOException;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 
@@ -40,6 +45,7 @@ import org.forgerock.http.protocol.Response;
 import org.forgerock.http.protocol.Status;
 import org.forgerock.http.routing.UriRouterContext;
 import org.forgerock.http.routing.Version;
+import org.forgerock.json.JsonPointer;
 import org.forgerock.json.JsonValue;
 import org.forgerock.json.resource.ActionRequest;
 import org.forgerock.json.resource.ActionResponse;
@@ -49,6 +55,7 @@ import org.forgerock.json.resource.CreateRequest;
 import org.forgerock.json.resource.DeleteRequest;
 import org.forgerock.json.resource.PatchRequest;
 import org.forgerock.json.resource.PreconditionFailedException;
+import org.forgerock.json.resource.ProjectionContext;
 import org.forgerock.json.resource.QueryRequest;
 import org.forgerock.json.resource.QueryResourceHandler;
 import org.forgerock.json.resource.QueryResponse;
@@ -80,6 +87,8 @@ final class RequestRunner implements RequestVisitor<Promise<Response, NeverThrow
     private final Version protocolVersion;
     private final Request request;
     private final JsonGenerator writer;
+    // Projection of the request's fields applied when writing the resources, or null.
+    private final ProjectionContext projection;
 
     RequestRunner(Context context, Request request, org.forgerock.http.protocol.Request httpRequest,
             Response httpResponse) throws Exception {
@@ -90,6 +99,10 @@ final class RequestRunner implements RequestVisitor<Promise<Response, NeverThrow
         // cache the request's protocol version to avoid repeated BadRequestExceptions at call-sites
         this.protocolVersion = getRequestedProtocolVersion(httpRequest);
         this.writer = getJsonGenerator(httpRequest, httpResponse);
+        this.projection = context.containsContext(ProjectionContext.class)
+                && context.asContext(ProjectionContext.class).appliesTo(request)
+                ? context.asContext(ProjectionContext.class)
+                : null;
     }
 
     /**
@@ -448,9 +461,9 @@ final class RequestRunner implements RequestVisitor<Promise<Response, NeverThrow
         if (contentType.match(MIME_TYPE_APPLICATION_JSON)) {
             writeResourceJsonContent(resource);
         } else if (contentType.match(MIME_TYPE_TEXT_PLAIN)) {
-            writeTextValue(resource.getContent());
+            writeTextValue(filterResource(resource.getContent(), getDeferredFields(resource)));
         } else {
-            writeBinaryValue(resource.getContent());
+            writeBinaryValue(filterResource(resource.getContent(), getDeferredFields(resource)));
         }
     }
 
@@ -460,18 +473,31 @@ final class RequestRunner implements RequestVisitor<Promise<Response, NeverThrow
      * ResourceResponse object's "id" and "revision" properties. In addition, it is reasonable to assume that query
      * results should always include at least the _id field otherwise it will be difficult to perform any useful
      * client side result processing.
+     *
+     * Fields which have not been filtered by the connection are selected while writing the content, producing the
+     * same JSON object as Resources.filterResource without copying the selected fields.
      */
     private void writeResourceJsonContent(final ResourceResponse resource) throws IOException {
+        JsonValue content = resource.getContent();
+        List<JsonPointer> fields = getDeferredFields(resource);
+        if (!fields.isEmpty() && (content.isNull() || content.size() == 0)) {
+            // Nothing to select
+            fields = Collections.emptyList();
+        } else if (!fields.isEmpty() && !isProjectable(fields)) {
+            // Fields selecting the same keys, let the filter decide which value is retained
+            content = filterResource(content, fields);
+            fields = Collections.emptyList();
+        }
+
         if (getRequestedProtocolVersion(httpRequest).getMajor() >= PROTOCOL_VERSION_2.getMajor()) {
             writer.writeStartObject();
-            final JsonValue content = resource.getContent();
 
             if (resource.getId() != null) {
                 writer.writeObjectField(FIELD_CONTENT_ID, resource.getId());
             } else {
                 // Defensively extract an object instead of a string in case application code has stored a UUID
                 // object, or some other non-JSON primitive. Also assume that a null ID means no ID.
-                final Object id = content.get(FIELD_CONTENT_ID).getObject();
+                final Object id = getProjectedField(content, fields, FIELD_CONTENT_ID);
                 if (id != null) {
                     writer.writeObjectField(FIELD_CONTENT_ID, id.toString());
                 }
@@ -482,21 +508,83 @@ final class RequestRunner implements RequestVisitor<Promise<Response, NeverThrow
             } else {
                 // Defensively extract an object instead of a string in case application code has stored a Number
                 // object, or some other non-JSON primitive. Also assume that a null revision means no revision.
-                final Object rev = content.get(FIELD_CONTENT_REVISION).getObject();
+                final Object rev = getProjectedField(content, fields, FIELD_CONTENT_REVISION);
                 if (rev != null) {
                     writer.writeObjectField(FIELD_CONTENT_REVISION, rev.toString());
                 }
             }
 
-            for (Map.Entry<String, Object> property : content.asMap().entrySet()) {
-                final String key = property.getKey();
-                if (!FIELD_CONTENT_ID.equals(key) && !FIELD_CONTENT_REVISION.equals(key)) {
-                    writer.writeObjectField(key, property.getValue());
+            if (fields.isEmpty()) {
+                for (Map.Entry<String, Object> property : content.asMap().entrySet()) {
+                    final String key = property.getKey();
+                    if (!FIELD_CONTENT_ID.equals(key) && !FIELD_CONTENT_REVISION.equals(key)) {
+                        writer.writeObjectField(key, property.getValue());
+                    }
                 }
+            } else {
+                writeProjectedFields(content, fields, true);
             }
             writer.writeEndObject();
+        } else if (fields.isEmpty()) {
+            writer.writeObject(content.getObject());
         } else {
-            writer.writeObject(resource.getContent().getObject());
+            writer.writeStartObject();
+            writeProjectedFields(content, fields, false);
+            writer.writeEndObject();
+        }
+    }
+
+    /*
+     * Returns the fields which remain to be selected from the resource, which is the case when the connection
+     * leaves the projection of the request's fields to the serialization.
+     */
+    private List<JsonPointer> getDeferredFields(final ResourceResponse resource) {
+        if (projection == null) {
+            return Collections.emptyList();
+        }
+        return resource.hasFields() ? resource.getFields() : projection.getFields();
+    }
+
+    /*
+     * Returns true if the fields can be written one after the other, i.e. none of them selects the whole resource
+     * and they all select different keys.
+     */
+    private static boolean isProjectable(final List<JsonPointer> fields) {
+        final Set<String> keys = new HashSet<>(fields.size());
+        for (final JsonPointer field : fields) {
+            if (field.isEmpty() || !keys.add(field.leaf())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static Object getProjectedField(final JsonValue content, final List<JsonPointer> fields,
+            final String key) {
+        if (fields.isEmpty()) {
+            return content.get(key).getObject();
+        }
+        for (final JsonPointer field : fields) {
+            if (key.equals(field.leaf())) {
+                final JsonValue value = content.get(field);
+                return value != null ? value.getObject() : null;
+            }
+        }
+        return null;
+    }
+
+    private void writeProjectedFields(final JsonValue content, final List<JsonPointer> fields,
+            final boolean skipIdAndRevision) throws IOException {
+        for (final JsonPointer field : fields) {
+            final String key = field.leaf();
+            if (skipIdAndRevision && (FIELD_CONTENT_ID.equals(key) || FIELD_CONTENT_REVISION.equals(key))) {
+                continue;
+            }
+            // As with Resources.filterResource, an array element is written under its index, e.g. "0" for "/roles/0"
+            final JsonValue value = content.get(field);
+            if (value != null) {
+                writer.writeObjectField(key, value.getObject());
+            }
         }
     }
 
@@ -0,0 +1,196 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Open Source Solution Technology Corporation
+ */
+
+package org.forgerock.json.resource.http;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+
+/**
+ * Represents a pipe for transferring bytes from an {@link OutputStream} to an {@link InputStream} read by another
+ * thread while they are written.
+ * <p>
+ * Unlike {@link PipeBufferedStream}, reading from the pipe blocks until more bytes are written or the output stream
+ * is closed, so that the bytes can be sent to the client as soon as they are written. Writing never blocks: the
+ * bytes which have not been read yet are kept in memory.
+ */
+final class StreamingPipe {
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final InputStream inputStream = new PipeInputStream();
+    private final OutputStream outputStream = new PipeOutputStream();
+
+    /** The bytes written and not read yet are between readPosition and writePosition, guarded by this. */
+    private byte[] buffer = new byte[INITIAL_CAPACITY];
+    private int readPosition;
+    private int writePosition;
+    /** Whether the output stream has been closed, guarded by this. */
+    private boolean outputClosed;
+    /** Whether the input stream has been closed, guarded by this. */
+    private boolean inputClosed;
+    /** The error returned to the reader once the pipe has been aborted, guarded by this. */
+    private IOException error;
+
+    /**
+     * Returns the input stream which reads from the pipe.
+     *
+     * @return The input stream.
+     */
+    InputStream getInputStream() {
+        return inputStream;
+    }
+
+    /**
+     * Returns the output stream which writes to the pipe.
+     *
+     * @return The output stream.
+     */
+    OutputStream getOutputStream() {
+        return outputStream;
+    }
+
+    /**
+     * Aborts the transfer: the bytes which have not been read yet are discarded, and reading from the pipe throws
+     * the provided exception rather than reaching the end of the stream.
+     *
+     * @param cause
+     *            The reason why the transfer is aborted.
+     */
+    synchronized void abort(final IOException cause) {
+        if (error == null) {
+            error = cause;
+        }
+        outputClosed = true;
+        readPosition = writePosition = 0;
+        notifyAll();
+    }
+
+    private synchronized int read(final byte[] b, final int off, final int len) throws IOException {
+        while (readPosition == writePosition && !outputClosed && !inputClosed) {
+            try {
+                wait();
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting for the content of the response");
+            }
+        }
+        if (inputClosed) {
+            throw new IOException("The pipe has been closed");
+        } else if (error != null) {
+            throw error;
+        } else if (readPosition == writePosition) {
+            return -1;
+        }
+        final int n = Math.min(len, writePosition - readPosition);
+        System.arraycopy(buffer, readPosition, b, off, n);
+        readPosition += n;
+        if (readPosition == writePosition) {
+            readPosition = writePosition = 0;
+        }
+        return n;
+    }
+
+    private synchronized int available() throws IOException {
+        if (inputClosed) {
+            throw new IOException("The pipe has been closed");
+        }
+        return writePosition - readPosition;
+    }
+
+    private synchronized void write(final byte[] b, final int off, final int len) throws IOException {
+        if (inputClosed) {
+            throw new IOException("The reader closed the pipe");
+        } else if (outputClosed) {
+            throw new IOException("The pipe has been closed");
+        }
+        if (writePosition + len > buffer.length) {
+            // Discard the bytes already read before growing the buffer
+            final int length = writePosition - readPosition;
+            final byte[] target = length + len > buffer.length
+                    ? new byte[Math.max(length + len, buffer.length * 2)]
+                    : buffer;
+            System.arraycopy(buffer, readPosition, target, 0, length);
+            buffer = target;
+            readPosition = 0;
+            writePosition = length;
+        }
+        System.arraycopy(b, off, buffer, writePosition, len);
+        writePosition += len;
+        notifyAll();
+    }
+
+    private synchronized void closeOutput() {
+        outputClosed = true;
+        notifyAll();
+    }
+
+    private synchronized void closeInput() {
+        inputClosed = true;
+        buffer = new byte[0];
+        readPosition = writePosition = 0;
+        notifyAll();
+    }
+
+    private final class PipeInputStream extends InputStream {
+        @Override
+        public int read() throws IOException {
+            final byte[] b = new byte[1];
+            return read(b, 0, 1) == -1 ? -1 : b[0] & 0xff;
+        }
+
+        @Override
+        public int read(final byte[] b, final int off, final int len) throws IOException {
+            if (off < 0 || len < 0 || len > b.length - off) {
+                throw new IndexOutOfBoundsException();
+            } else if (len == 0) {
+                return 0;
+            }
+            return StreamingPipe.this.read(b, off, len);
+        }
+
+        @Override
+        public int available() throws IOException {
+            return StreamingPipe.this.available();
+        }
+
+        @Override
+        public void close() {
+            closeInput();
+        }
+    }
+
+    private final class PipeOutputStream extends OutputStream {
+        @Override
+        public void write(final int b) throws IOException {
+            write(new byte[] { (byte) b }, 0, 1);
+        }
+
+        @Override
+        public void write(final byte[] b, final int off, final int len) throws IOException {
+            if (off < 0 || len < 0 || len > b.length - off) {
+                throw new IndexOutOfBoundsException();
+            }
+            StreamingPipe.this.write(b, off, len);
+        }
+
+        @Override
+        public void close() {
+            closeOutput();
+        }
+    }
+}
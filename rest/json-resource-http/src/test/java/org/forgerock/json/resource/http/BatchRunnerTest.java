@@ -0,0 +1,289 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Open Source Solution Technology Corporation
+ */
+
+package org.forgerock.json.resource.http;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.forgerock.json.JsonValue.array;
+import static org.forgerock.json.JsonValue.field;
+import static org.forgerock.json.JsonValue.json;
+import static org.forgerock.json.JsonValue.object;
+import static org.forgerock.json.resource.Router.uriTemplate;
+import static org.forgerock.json.resource.http.HttpUtils.PARAM_BATCH;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.forgerock.http.protocol.Request;
+import org.forgerock.http.protocol.Response;
+import org.forgerock.http.protocol.Status;
+import org.forgerock.json.JsonValue;
+import org.forgerock.json.resource.AbstractRequestHandler;
+import org.forgerock.json.resource.ActionRequest;
+import org.forgerock.json.resource.ActionResponse;
+import org.forgerock.json.resource.MemoryBackend;
+import org.forgerock.json.resource.QueryRequest;
+import org.forgerock.json.resource.QueryResourceHandler;
+import org.forgerock.json.resource.QueryResponse;
+import org.forgerock.json.resource.ReadRequest;
+import org.forgerock.json.resource.RequestHandler;
+import org.forgerock.json.resource.ResourceException;
+import org.forgerock.json.resource.ResourceResponse;
+import org.forgerock.json.resource.Resources;
+import org.forgerock.json.resource.Responses;
+import org.forgerock.json.resource.Router;
+import org.forgerock.services.context.Context;
+import org.forgerock.services.context.RootContext;
+import org.forgerock.util.promise.NeverThrowsException;
+import org.forgerock.util.promise.Promise;
+import org.forgerock.util.promise.PromiseImpl;
+import org.testng.annotations.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+@SuppressWarnings("javadoc")
+public class BatchRunnerTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    @Test
+    public void shouldReturnOutcomesOfBatchedRequestsInOrder() throws Exception {
+        Router router = new Router();
+        router.addRoute(uriTemplate("users"), new MemoryBackend());
+        HttpAdapter adapter = new HttpAdapter(Resources.newInternalConnectionFactory(router), new RootContext());
+
+        JsonValue creates = handleBatch(adapter, array(
+                object(field("method", "create"), field("resourcePath", "users"), field("newResourceId", "alice"),
+                        field("content", object(field("name", "Alice"), field("mail", "alice@example.com")))),
+                object(field("method", "create"), field("resourcePath", "users"), field("newResourceId", "bob"),
+                        field("content", object(field("name", "Bob"))))));
+        assertThat(creates.get(0).get("code").asInteger()).isEqualTo(201);
+        assertThat(creates.get(1).get("code").asInteger()).isEqualTo(201);
+
+        JsonValue outcomes = handleBatch(adapter, array(
+                object(field("method", "read"), field("resourcePath", "users/alice"), field("fields", array("name"))),
+                object(field("method", "read"), field("resourcePath", "users/carol")),
+                object(field("method", "query"), field("resourcePath", "users"), field("queryFilter", "name eq \"Bob\"")),
+                object(field("method", "delete"), field("resourcePath", "users/bob")),
+                object(field("method", "read"), field("resourcePath", "users/bob"))));
+
+        assertThat(outcomes.size()).isEqualTo(5);
+        assertThat(outcomes.get(0).getObject()).isEqualTo(object(field("code", 200),
+                field("result", object(field("_id", "alice"), field("_rev", "0"), field("name", "Alice")))));
+        assertThat(outcomes.get(1).get("code").asInteger()).isEqualTo(404);
+        assertThat(outcomes.get(1).get("error").get("code").asInteger()).isEqualTo(404);
+        assertThat(outcomes.get(2).get("code").asInteger()).isEqualTo(200);
+        assertThat(outcomes.get(2).get("result").get("resultCount").asInteger()).isEqualTo(1);
+        assertThat(outcomes.get(2).get("result").get("result").get(0).get("_id").asString()).isEqualTo("bob");
+        assertThat(outcomes.get(3).get("code").asInteger()).isEqualTo(200);
+        assertThat(outcomes.get(4).get("code").asInteger()).isEqualTo(404);
+    }
+
+    @Test
+    public void shouldBoundParallelismAndKeepRequestOrder() throws Exception {
+        final AtomicInteger inProgress = new AtomicInteger();
+        final AtomicInteger maxInProgress = new AtomicInteger();
+        final List<PromiseImpl<ResourceResponse, ResourceException>> promises =
+                Collections.synchronizedList(new ArrayList<PromiseImpl<ResourceResponse, ResourceException>>());
+        RequestHandler handler = new AbstractRequestHandler() {
+            @Override
+            public Promise<ResourceResponse, ResourceException> handleRead(Context context, ReadRequest request) {
+                maxInProgress.set(Math.max(maxInProgress.get(), inProgress.incrementAndGet()));
+                PromiseImpl<ResourceResponse, ResourceException> promise = PromiseImpl.create();
+                promises.add(promise);
+                return promise;
+            }
+        };
+        HttpAdapter adapter = new HttpAdapter(Resources.newInternalConnectionFactory(handler), new RootContext());
+        List<Object> requests = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            requests.add(object(field("method", "read"), field("resourcePath", String.valueOf(i))));
+        }
+
+        Promise<Response, NeverThrowsException> response = adapter.handle(new RootContext(), newBatchRequest(requests));
+
+        // Complete the requests in progress in reverse order until all of them are complete
+        int completed = 0;
+        while (completed < 20) {
+            List<PromiseImpl<ResourceResponse, ResourceException>> pending = new ArrayList<>();
+            synchronized (promises) {
+                pending.addAll(promises.subList(completed, promises.size()));
+            }
+            Collections.reverse(pending);
+            for (PromiseImpl<ResourceResponse, ResourceException> promise : pending) {
+                inProgress.decrementAndGet();
+                int index = promises.indexOf(promise);
+                promise.handleResult(Responses.newResourceResponse(String.valueOf(index), null, json(object())));
+            }
+            completed += pending.size();
+        }
+
+        JsonValue outcomes = getContent(response.getOrThrowUninterruptibly());
+        assertThat(maxInProgress.get()).isEqualTo(8);
+        assertThat(outcomes.size()).isEqualTo(20);
+        for (int i = 0; i < 20; i++) {
+            assertThat(outcomes.get(i).get("result").get("_id").asString()).isEqualTo(String.valueOf(i));
+        }
+    }
+
+    @Test
+    public void shouldStreamOutcomesAsSoonAsPrecedingOutcomesAreComplete() throws Exception {
+        final PromiseImpl<ResourceResponse, ResourceException> pending = PromiseImpl.create();
+        RequestHandler handler = new AbstractRequestHandler() {
+            @Override
+            public Promise<ResourceResponse, ResourceException> handleRead(Context context, ReadRequest request) {
+                if (request.getResourcePath().equals("pending")) {
+                    return pending;
+                }
+                return Responses.newResourceResponse(request.getResourcePath(), null, json(object())).asPromise();
+            }
+        };
+        HttpAdapter adapter = new HttpAdapter(Resources.newInternalConnectionFactory(handler), new RootContext());
+
+        Promise<Response, NeverThrowsException> promise = adapter.handle(new RootContext(), newBatchRequest(array(
+                object(field("method", "read"), field("resourcePath", "done")),
+                object(field("method", "read"), field("resourcePath", "pending")),
+                object(field("method", "read"), field("resourcePath", "after")))));
+
+        // The response is returned and its first outcome can be read while the second request is in progress
+        assertThat(promise.isDone()).isTrue();
+        Response response = promise.getOrThrowUninterruptibly();
+        assertThat(response.getStatus()).isEqualTo(Status.OK);
+        InputStream content = response.getEntity().getRawContentInputStream();
+        byte[] buffer = new byte[1024];
+        int length = content.read(buffer);
+        assertThat(new String(buffer, 0, length, StandardCharsets.UTF_8))
+                .isEqualTo("[{\"code\":200,\"result\":{\"_id\":\"done\"}}");
+        assertThat(content.available()).isEqualTo(0);
+
+        pending.handleResult(Responses.newResourceResponse("pending", null, json(object())));
+        int n;
+        while ((n = content.read(buffer, length, buffer.length - length)) != -1) {
+            length += n;
+        }
+        JsonValue outcomes = json(MAPPER.readValue(buffer, 0, length, Object.class));
+        assertThat(outcomes.size()).isEqualTo(3);
+        assertThat(outcomes.get(1).get("result").get("_id").asString()).isEqualTo("pending");
+        assertThat(outcomes.get(2).get("result").get("_id").asString()).isEqualTo("after");
+    }
+
+    @Test
+    public void shouldNotHideActionsNamedLikeTheBatchParameter() throws Exception {
+        RequestHandler handler = new AbstractRequestHandler() {
+            @Override
+            public Promise<ActionResponse, ResourceException> handleAction(Context context, ActionRequest request) {
+                return Responses.newActionResponse(json(object(field("action", request.getAction())))).asPromise();
+            }
+        };
+        HttpAdapter adapter = new HttpAdapter(Resources.newInternalConnectionFactory(handler), new RootContext());
+        Request request = new Request();
+        request.setMethod("POST");
+        request.setUri("http://localhost/?_action=" + PARAM_BATCH);
+
+        Response response = adapter.handle(new RootContext(), request).getOrThrowUninterruptibly();
+
+        assertThat(response.getStatus()).isEqualTo(Status.OK);
+        assertThat(getContent(response).get("action").asString()).isEqualTo(PARAM_BATCH);
+    }
+
+    @Test
+    public void shouldRejectBatchWithAction() throws Exception {
+        HttpAdapter adapter = new HttpAdapter(Resources.newInternalConnectionFactory(new Router()), new RootContext());
+        Request request = newBatchRequest(array());
+        request.setUri(request.getUri() + "&_action=cancel");
+
+        Response response = adapter.handle(new RootContext(), request).getOrThrowUninterruptibly();
+
+        assertThat(response.getStatus()).isEqualTo(Status.BAD_REQUEST);
+    }
+
+    @Test
+    public void shouldReturnResourcesWithoutContent() throws Exception {
+        RequestHandler handler = new AbstractRequestHandler() {
+            @Override
+            public Promise<ResourceResponse, ResourceException> handleRead(Context context, ReadRequest request) {
+                JsonValue content = request.getResourcePath().equals("list") ? json(array(1, 2)) : null;
+                return Responses.newResourceResponse(request.getResourcePath(), "1", content).asPromise();
+            }
+
+            @Override
+            public Promise<QueryResponse, ResourceException> handleQuery(Context context, QueryRequest request,
+                    QueryResourceHandler handler) {
+                handler.handleResource(Responses.newResourceResponse("empty", null, null));
+                return Responses.newQueryResponse().asPromise();
+            }
+        };
+        HttpAdapter adapter = new HttpAdapter(Resources.newInternalConnectionFactory(handler), new RootContext());
+
+        JsonValue outcomes = handleBatch(adapter, array(
+                object(field("method", "read"), field("resourcePath", "empty")),
+                object(field("method", "read"), field("resourcePath", "list")),
+                object(field("method", "query"), field("resourcePath", ""), field("queryFilter", "true"))));
+
+        assertThat(outcomes.size()).isEqualTo(3);
+        assertThat(outcomes.get(0).getObject()).isEqualTo(object(field("code", 200),
+                field("result", object(field("_id", "empty"), field("_rev", "1")))));
+        assertThat(outcomes.get(1).getObject()).isEqualTo(object(field("code", 200), field("result", array(1, 2))));
+        assertThat(outcomes.get(2).get("code").asInteger()).isEqualTo(200);
+        assertThat(outcomes.get(2).get("result").get("result").getObject())
+                .isEqualTo(array(object(field("_id", "empty"))));
+    }
+
+    @Test
+    public void shouldRejectBatchWhichIsNotAnArray() throws Exception {
+        HttpAdapter adapter = new HttpAdapter(Resources.newInternalConnectionFactory(new Router()), new RootContext());
+
+        Response response = adapter.handle(new RootContext(), newBatchRequest(object()))
+                .getOrThrowUninterruptibly();
+
+        assertThat(response.getStatus()).isEqualTo(Status.BAD_REQUEST);
+    }
+
+    @Test
+    public void shouldRejectBatchWithInvalidRequest() throws Exception {
+        HttpAdapter adapter = new HttpAdapter(Resources.newInternalConnectionFactory(new Router()), new RootContext());
+
+        Response response = adapter.handle(new RootContext(), newBatchRequest(array(
+                object(field("method", "read"), field("resourcePath", "users/alice")),
+                object(field("method", "query"), field("resourcePath", "users")))))
+                .getOrThrowUninterruptibly();
+
+        assertThat(response.getStatus()).isEqualTo(Status.BAD_REQUEST);
+    }
+
+    private static JsonValue handleBatch(HttpAdapter adapter, List<Object> requests) throws Exception {
+        Response response = adapter.handle(new RootContext(), newBatchRequest(requests)).getOrThrowUninterruptibly();
+        assertThat(response.getStatus()).isEqualTo(Status.OK);
+        return getContent(response);
+    }
+
+    private static Request newBatchRequest(Object content) throws Exception {
+        Request request = new Request();
+        request.setMethod("POST");
+        request.setUri("http://localhost/?" + PARAM_BATCH + "=true");
+        request.getHeaders().put("Content-Type", "application/json");
+        request.setEntity(MAPPER.writeValueAsString(content));
+        return request;
+    }
+
+    private static JsonValue getContent(Response response) throws Exception {
+        return json(MAPPER.readValue(response.getEntity().getString(), Object.class));
+    }
+}
@@ -12,6 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2013-2015 ForgeRock AS.
+ * Portions copyright 2026 Open Source Solution Technology Corporation
  */
 
 package org.forgerock.json.resource.http;
@@ -31,15 +32,19 @@ import java.io.IOException;
 import java.net.URI;
 
 import org.forgerock.services.context.Context;
+import org.forgerock.services.context.RootContext;
 import org.forgerock.http.protocol.Request;
 import org.forgerock.http.protocol.Response;
+import org.forgerock.json.resource.AbstractRequestHandler;
 import org.forgerock.json.resource.Connection;
+import org.forgerock.json.resource.ProjectionContext;
 import org.forgerock.json.resource.QueryRequest;
 import org.forgerock.json.resource.QueryResourceHandler;
 import org.forgerock.json.resource.QueryResponse;
 import org.forgerock.json.resource.Requests;
 import org.forgerock.json.resource.ResourceException;
 import org.forgerock.json.resource.ResourceResponse;
+import org.forgerock.json.resource.Resources;
 import org.forgerock.util.promise.Promise;
 import org.mockito.invocation.InvocationOnMock;
 import org.mockito.stubbing.Answer;
@@ -101,6 +106,42 @@ public class RequestRunnerTest {
         assertEquals(getResponseContent(response), "{\"code\":404,\"reason\":\"Not Found\",\"message\":\"Not Found\"}");
     }
 
+    @Test
+    public void testHandleResourceProjectedWhenSerializedInVisitQueryAsync() throws Exception {
+        Response response = getProjectedQueryResponse(new String[] { "/stringField", "/nested/intField" },
+                newResourceResponse("id", "rev",
+                        json(object(field("intField", 42), field("stringField", "stringValue"),
+                                field("nested", object(field("intField", 43), field("other", true)))))));
+        assertEquals(getResponseContent(response), "{" + "\"result\":["
+                + "{\"_id\":\"id\",\"_rev\":\"rev\",\"stringField\":\"stringValue\",\"intField\":43}],"
+                + "\"resultCount\":1,\"pagedResultsCookie\":null,\"totalPagedResultsPolicy\":\"NONE\","
+                + "\"totalPagedResults\":-1,\"remainingPagedResults\":-1}");
+    }
+
+    @Test
+    public void testHandleResourceWithOverlappingProjectionInVisitQueryAsync() throws Exception {
+        Response response = getProjectedQueryResponse(new String[] { "/nested/intField", "/intField" },
+                newResourceResponse(null, null,
+                        json(object(field("_id", "id"), field("intField", 42),
+                                field("nested", object(field("intField", 43)))))));
+        assertEquals(getResponseContent(response), "{" + "\"result\":["
+                + "{\"intField\":42}],"
+                + "\"resultCount\":1,\"pagedResultsCookie\":null,\"totalPagedResultsPolicy\":\"NONE\","
+                + "\"totalPagedResults\":-1,\"remainingPagedResults\":-1}");
+    }
+
+    @Test
+    public void testHandleResourceWithProjectedArrayElementInVisitQueryAsync() throws Exception {
+        Response response = getProjectedQueryResponse(new String[] { "/stringField", "/roles/1", "/other/5" },
+                newResourceResponse("id", "rev",
+                        json(object(field("stringField", "stringValue"), field("roles", array("admin", "user")),
+                                field("other", array("a"))))));
+        assertEquals(getResponseContent(response), "{" + "\"result\":["
+                + "{\"_id\":\"id\",\"_rev\":\"rev\",\"stringField\":\"stringValue\",\"1\":\"user\"}],"
+                + "\"resultCount\":1,\"pagedResultsCookie\":null,\"totalPagedResultsPolicy\":\"NONE\","
+                + "\"totalPagedResults\":-1,\"remainingPagedResults\":-1}");
+    }
+
     private String getResponseContent(Response response) throws IOException {
         ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
         response.getEntity().copyDecodedContentTo(outputStream);
@@ -134,6 +175,25 @@ public class RequestRunnerTest {
         return requestRunner.handleResult(connection).getOrThrowUninterruptibly();
     }
 
+    private Response getProjectedQueryResponse(final String[] fields, final ResourceResponse... resources)
+            throws Exception {
+        QueryRequest request = Requests.newQueryRequest("").addField(fields);
+        Context context = new ProjectionContext(new RootContext(), request.getFields());
+        Connection connection = Resources.newInternalConnection(new AbstractRequestHandler() {
+            @Override
+            public Promise<QueryResponse, ResourceException> handleQuery(Context context, QueryRequest request,
+                    QueryResourceHandler handler) {
+                for (ResourceResponse resource : resources) {
+                    handler.handleResource(resource);
+                }
+                return QUERY_RESULT;
+            }
+        });
+
+        RequestRunner requestRunner = new RequestRunner(context, request, newRequest(), new Response());
+        return requestRunner.handleResult(connection).getOrThrowUninterruptibly();
+    }
+
     private Request newRequest() {
         Request request = new Request();
         request.setUri(URI.create(""));
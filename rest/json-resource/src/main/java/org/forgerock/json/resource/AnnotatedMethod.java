@@ -12,12 +12,16 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2015-2016 ForgeRock AS.
+ * Portions copyright 2026 Open Source Solution Technology Corporation
  */
 
 package org.forgerock.json.resource;
 
 import java.lang.annotation.Annotation;
-import java.lang.reflect.InvocationTargetException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Array;
 import java.lang.reflect.Method;
 import java.util.Arrays;
 
@@ -35,29 +39,97 @@ import org.forgerock.util.promise.Promise;
  * implementations for annotated classes. The returned instances can then be used to invoke the
  * found method.
  * <p>
+ * The found method is bound to its request handler once, when this instance is created, as a
+ * {@link MethodHandle} adapted to the common {@code (Context, Request, QueryResourceHandler, String)}
+ * invoker signature. Each invocation is therefore a single {@code invokeExact} call, without
+ * reflective access checks or argument array allocation. As the handle is held in an instance field,
+ * the JIT cannot treat it as a constant and does not inline the target method through it.
+ * <p>
  * If no appropriately annotated method is found, an attempt to invoke that method will result in
  * it being handled with a {@link NotSupportedException}.
  */
 final class AnnotatedMethod {
-    private final Object requestHandler;
+    private static final MethodType INVOKER_TYPE = MethodType.methodType(Object.class,
+            Context.class, Request.class, QueryResourceHandler.class, String.class);
+    private static final int CONTEXT_INVOKER_PARAMETER = 0;
+    private static final int REQUEST_INVOKER_PARAMETER = 1;
+    private static final int QUERY_HANDLER_INVOKER_PARAMETER = 2;
+    private static final int ID_INVOKER_PARAMETER = 3;
+
     private final Method method;
-    private final int idParameter;
-    private final int contextParameter;
-    private final int requestParameter;
-    private final int queryHandlerParameter;
-    private final int numberOfParameters;
+    private final MethodHandle invoker;
+    private final IllegalAccessException accessFailure;
     private final String operation;
 
     AnnotatedMethod(String operation, Object requestHandler, Method method, int idParameter, int contextParameter,
             int requestParameter, int queryHandlerParameter, int numberOfParameters) {
         this.operation = operation;
-        this.requestHandler = requestHandler;
         this.method = method;
-        this.idParameter = idParameter;
-        this.contextParameter = contextParameter;
-        this.requestParameter = requestParameter;
-        this.queryHandlerParameter = queryHandlerParameter;
-        this.numberOfParameters = numberOfParameters;
+        MethodHandle handle = null;
+        IllegalAccessException failure = null;
+        if (method != null) {
+            try {
+                handle = createInvoker(requestHandler, method, idParameter, contextParameter, requestParameter,
+                        queryHandlerParameter, numberOfParameters);
+            } catch (IllegalAccessException e) {
+                failure = e;
+            }
+        }
+        this.invoker = handle;
+        this.accessFailure = failure;
+    }
+
+    /**
+     * Binds the method to the request handler and adapts it to the {@link #INVOKER_TYPE} signature: the
+     * method's own parameters are fed from the invoker's parameters according to the provided indexes, and
+     * any parameter that is not one of the recognised types is always passed {@code null}, or the default value
+     * of its type if it is a primitive.
+     */
+    private static MethodHandle createInvoker(Object requestHandler, Method method, int idParameter,
+            int contextParameter, int requestParameter, int queryHandlerParameter, int numberOfParameters)
+            throws IllegalAccessException {
+        MethodHandle handle = MethodHandles.lookup().unreflect(method).bindTo(requestHandler);
+
+        Class<?>[] parameterTypes = new Class<?>[numberOfParameters];
+        int[] reorder = new int[numberOfParameters];
+        for (int i = 0; i < numberOfParameters; i++) {
+            if (i == idParameter) {
+                parameterTypes[i] = String.class;
+                reorder[i] = ID_INVOKER_PARAMETER;
+            } else if (i == contextParameter) {
+                parameterTypes[i] = Context.class;
+                reorder[i] = CONTEXT_INVOKER_PARAMETER;
+            } else if (i == requestParameter) {
+                parameterTypes[i] = Request.class;
+                reorder[i] = REQUEST_INVOKER_PARAMETER;
+            } else if (i == queryHandlerParameter) {
+                parameterTypes[i] = QueryResourceHandler.class;
+                reorder[i] = QUERY_HANDLER_INVOKER_PARAMETER;
+            } else {
+                parameterTypes[i] = method.getParameterTypes()[i];
+                reorder[i] = -1;
+            }
+        }
+        handle = handle.asType(MethodType.methodType(Object.class, parameterTypes));
+
+        // Fill unrecognised parameters, from the last one down so that indexes remain valid.
+        for (int i = numberOfParameters - 1; i >= 0; i--) {
+            if (reorder[i] == -1) {
+                handle = MethodHandles.insertArguments(handle, i, defaultValue(parameterTypes[i]));
+            }
+        }
+        int[] permutation = new int[handle.type().parameterCount()];
+        for (int i = 0, j = 0; i < numberOfParameters; i++) {
+            if (reorder[i] != -1) {
+                permutation[j++] = reorder[i];
+            }
+        }
+        return MethodHandles.permuteArguments(handle, INVOKER_TYPE, permutation);
+    }
+
+    /** Returns {@code null}, or the zero value of a primitive type, boxed. */
+    private static Object defaultValue(Class<?> type) {
+        return type.isPrimitive() && type != void.class ? Array.get(Array.newInstance(type, 1), 0) : null;
     }
 
     <T> Promise<T, ResourceException> invoke(Context context, Request request) {
@@ -79,25 +151,13 @@ final class AnnotatedMethod {
         if (method == null) {
             return new NotSupportedException(operation + " not supported").asPromise();
         }
-        Object[] args = new Object[numberOfParameters];
-        if (idParameter > -1) {
-            args[idParameter] = id;
-        }
-        if (requestParameter > -1) {
-            args[requestParameter] = request;
-        }
-        if (contextParameter > -1) {
-            args[contextParameter] = context;
-        }
-        if (queryHandlerParameter > -1) {
-            args[queryHandlerParameter] = queryHandler;
+        if (accessFailure != null) {
+            throw new IllegalStateException("Cannot access the annotated method: " + method.getName(), accessFailure);
         }
         try {
-            return (Promise<T, ResourceException>) method.invoke(requestHandler, args);
-        } catch (IllegalAccessException e) {
-            throw new IllegalStateException("Cannot access the annotated method: " + method.getName(), e);
-        } catch (InvocationTargetException e) {
-            throw new IllegalStateException("Exception from invocation expected to be handled by promise", e);
+            return (Promise<T, ResourceException>) (Object) invoker.invokeExact(context, request, queryHandler, id);
+        } catch (Throwable t) {
+            throw new IllegalStateException("Exception from invocation expected to be handled by promise", t);
         }
     }
 
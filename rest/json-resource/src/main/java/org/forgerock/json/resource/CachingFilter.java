@@ -0,0 +1,275 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Open Source Solution Technology Corporation
+ */
+
+package org.forgerock.json.resource;
+
+import static org.forgerock.json.resource.Responses.newResourceResponse;
+import static org.forgerock.util.promise.Promises.newResultPromise;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.forgerock.json.JsonPointer;
+import org.forgerock.services.context.Context;
+import org.forgerock.util.Reject;
+import org.forgerock.util.promise.Promise;
+import org.forgerock.util.promise.ResultHandler;
+
+/**
+ * A filter which caches the resources returned by read requests, keyed on their resource path. Repeated reads of
+ * a resource are answered from the cache without invoking the next handler, as long as no create, update, patch,
+ * delete or action request targeting the resource has passed through this filter in the meantime. Since the cached
+ * resources keep their revision, a read carrying an {@code If-None-Match} header matching the cached revision
+ * results in a {@code 304 Not Modified} HTTP response without reaching the backend.
+ * <p>
+ * Only resources having a revision are cached, and reads with additional parameters always reach the next handler.
+ * Reads requesting different fields or a different resource version are cached separately.
+ * <p>
+ * Modifications which do not go through this filter, for instance those performed by other nodes of a cluster, are
+ * not detected. They must be reported by calling {@link #invalidate(ResourcePath)} or {@link #invalidateAll()};
+ * conversely, an {@link InvalidationListener} may be registered in order to propagate the invalidations performed
+ * by this filter to other nodes.
+ * <p>
+ * Cached resources are shared by all callers: this filter must therefore be placed after any filter whose outcome
+ * depends on the caller, such as authorization filters.
+ *
+ * @since 20.1.2
+ */
+public final class CachingFilter implements Filter {
+
+    /**
+     * A listener notified when resources are invalidated because of a request passing through a
+     * {@link CachingFilter}.
+     */
+    public interface InvalidationListener {
+        /**
+         * Invoked once a request that may have modified the resource at the provided path has completed.
+         *
+         * @param path
+         *            The path of the resource which has been invalidated.
+         * @param descendants
+         *            {@code true} if the resources below {@code path} have been invalidated as well.
+         */
+        void invalidated(ResourcePath path, boolean descendants);
+    }
+
+    /** The maximum number of variants, i.e. distinct field selections or versions, cached for a resource. */
+    private static final int MAX_VARIANTS_PER_RESOURCE = 4;
+
+    private final Map<ResourcePath, Map<List<Object>, ResourceResponse>> cache;
+    private final InvalidationListener listener;
+
+    /**
+     * Incremented on each invalidation, so that a read racing with a modification does not cache the resource it
+     * obtained before the modification completed.
+     */
+    private final AtomicLong invalidations = new AtomicLong();
+
+    /**
+     * Creates a new caching filter.
+     *
+     * @param maxResources
+     *            The maximum number of resources kept in the cache, the least recently read resources being evicted
+     *            first.
+     */
+    public CachingFilter(final int maxResources) {
+        this(maxResources, null);
+    }
+
+    /**
+     * Creates a new caching filter notifying the provided listener of its invalidations.
+     *
+     * @param maxResources
+     *            The maximum number of resources kept in the cache, the least recently read resources being evicted
+     *            first.
+     * @param listener
+     *            The listener to notify when resources are invalidated by requests passing through this filter, may
+     *            be {@code null}.
+     */
+    public CachingFilter(final int maxResources, final InvalidationListener listener) {
+        Reject.ifTrue(maxResources <= 0, "The maximum number of resources must be positive");
+        this.listener = listener;
+        this.cache = new LinkedHashMap<ResourcePath, Map<List<Object>, ResourceResponse>>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(
+                    final Map.Entry<ResourcePath, Map<List<Object>, ResourceResponse>> eldest) {
+                return size() > maxResources;
+            }
+        };
+    }
+
+    /**
+     * Removes the resource at the provided path from the cache.
+     *
+     * @param path
+     *            The path of the resource to remove.
+     */
+    public void invalidate(final ResourcePath path) {
+        invalidate(path, false);
+    }
+
+    /**
+     * Removes all the resources from the cache.
+     */
+    public void invalidateAll() {
+        synchronized (cache) {
+            invalidations.incrementAndGet();
+            cache.clear();
+        }
+    }
+
+    @Override
+    public Promise<ActionResponse, ResourceException> filterAction(final Context context,
+            final ActionRequest request, final RequestHandler next) {
+        // Actions may modify the targeted resource, or any resource of the targeted collection
+        return next.handleAction(context, request).thenAlways(invalidation(request.getResourcePathObject(), true));
+    }
+
+    @Override
+    public Promise<ResourceResponse, ResourceException> filterCreate(final Context context,
+            final CreateRequest request, final RequestHandler next) {
+        final ResourcePath container = request.getResourcePathObject();
+        return next.handleCreate(context, request).thenOnResult(new ResultHandler<ResourceResponse>() {
+            @Override
+            public void handleResult(final ResourceResponse resource) {
+                if (resource.getId() != null) {
+                    invalidateAndNotify(container.child(resource.getId()), false);
+                }
+            }
+        });
+    }
+
+    @Override
+    public Promise<ResourceResponse, ResourceException> filterDelete(final Context context,
+            final DeleteRequest request, final RequestHandler next) {
+        return next.handleDelete(context, request).thenAlways(invalidation(request.getResourcePathObject(), false));
+    }
+
+    @Override
+    public Promise<ResourceResponse, ResourceException> filterPatch(final Context context,
+            final PatchRequest request, final RequestHandler next) {
+        return next.handlePatch(context, request).thenAlways(invalidation(request.getResourcePathObject(), false));
+    }
+
+    @Override
+    public Promise<QueryResponse, ResourceException> filterQuery(final Context context,
+            final QueryRequest request, final QueryResourceHandler handler, final RequestHandler next) {
+        return next.handleQuery(context, request, handler);
+    }
+
+    @Override
+    public Promise<ResourceResponse, ResourceException> filterRead(final Context context,
+            final ReadRequest request, final RequestHandler next) {
+        if (!request.getAdditionalParameters().isEmpty()) {
+            return next.handleRead(context, request);
+        }
+        final ResourcePath path = request.getResourcePathObject();
+        final List<Object> variant = Arrays.<Object>asList(new ArrayList<JsonPointer>(request.getFields()),
+                request.getResourceVersion());
+        final long generation;
+        synchronized (cache) {
+            final Map<List<Object>, ResourceResponse> variants = cache.get(path);
+            final ResourceResponse cached = variants != null ? variants.get(variant) : null;
+            if (cached != null) {
+                return newResultPromise(copyOf(cached));
+            }
+            generation = invalidations.get();
+        }
+        return next.handleRead(context, request).thenOnResult(new ResultHandler<ResourceResponse>() {
+            @Override
+            public void handleResult(final ResourceResponse resource) {
+                if (resource.getRevision() != null) {
+                    put(path, variant, copyOf(resource), generation);
+                }
+            }
+        });
+    }
+
+    @Override
+    public Promise<ResourceResponse, ResourceException> filterUpdate(final Context context,
+            final UpdateRequest request, final RequestHandler next) {
+        return next.handleUpdate(context, request).thenAlways(invalidation(request.getResourcePathObject(), false));
+    }
+
+    private void put(final ResourcePath path, final List<Object> variant, final ResourceResponse resource,
+            final long generation) {
+        synchronized (cache) {
+            if (invalidations.get() != generation) {
+                // The resource may have been modified while it was read
+                return;
+            }
+            Map<List<Object>, ResourceResponse> variants = cache.get(path);
+            if (variants == null) {
+                variants = new LinkedHashMap<List<Object>, ResourceResponse>() {
+                    private static final long serialVersionUID = 1L;
+
+                    @Override
+                    protected boolean removeEldestEntry(final Map.Entry<List<Object>, ResourceResponse> eldest) {
+                        return size() > MAX_VARIANTS_PER_RESOURCE;
+                    }
+                };
+                cache.put(path, variants);
+            }
+            variants.put(variant, resource);
+        }
+    }
+
+    private Runnable invalidation(final ResourcePath path, final boolean descendants) {
+        return new Runnable() {
+            @Override
+            public void run() {
+                invalidateAndNotify(path, descendants);
+            }
+        };
+    }
+
+    private void invalidateAndNotify(final ResourcePath path, final boolean descendants) {
+        invalidate(path, descendants);
+        if (listener != null) {
+            listener.invalidated(path, descendants);
+        }
+    }
+
+    private void invalidate(final ResourcePath path, final boolean descendants) {
+        synchronized (cache) {
+            invalidations.incrementAndGet();
+            if (!descendants) {
+                cache.remove(path);
+                return;
+            }
+            for (final Iterator<ResourcePath> i = cache.keySet().iterator(); i.hasNext();) {
+                if (i.next().startsWith(path)) {
+                    i.remove();
+                }
+            }
+        }
+    }
+
+    /** Cached resources are copied on their way in and out, so that callers cannot alter them. */
+    private static ResourceResponse copyOf(final ResourceResponse resource) {
+        final ResourceResponse copy = newResourceResponse(resource.getId(), resource.getRevision(),
+                resource.getContent().copy());
+        copy.addField(resource.getFields().toArray(new JsonPointer[0]));
+        return copy;
+    }
+}
@@ -12,6 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2012-2015 ForgeRock AS.
+ * Portions copyright 2026 Open Source Solution Technology Corporation
  */
 
 package org.forgerock.json.resource;
@@ -42,14 +43,14 @@ final class InternalConnection extends AbstractAsynchronousConnection {
     public Promise<ResourceResponse, ResourceException> createAsync(final Context context,
             final CreateRequest request) {
         return requestHandler.handleCreate(context, request)
-                             .then(filterResponse(request));
+                             .then(filterResponse(context, request));
     }
 
     @Override
     public Promise<ResourceResponse, ResourceException> deleteAsync(final Context context,
             final DeleteRequest request) {
         return requestHandler.handleDelete(context, request)
-                             .then(filterResponse(request));
+                             .then(filterResponse(context, request));
 
     }
 
@@ -68,13 +69,16 @@ final class InternalConnection extends AbstractAsynchronousConnection {
     @Override
     public Promise<ResourceResponse, ResourceException> patchAsync(final Context context, final PatchRequest request) {
         return requestHandler.handlePatch(context, request)
-                             .then(filterResponse(request));
+                             .then(filterResponse(context, request));
 
     }
 
     @Override
     public Promise<QueryResponse, ResourceException> queryAsync(final Context context,
             final QueryRequest request, final QueryResourceHandler handler) {
+        if (isProjected(context, request)) {
+            return requestHandler.handleQuery(context, request, handler);
+        }
         return requestHandler.handleQuery(context, request,
                 new QueryResourceHandler() {
                     @Override
@@ -87,23 +91,37 @@ final class InternalConnection extends AbstractAsynchronousConnection {
     @Override
     public Promise<ResourceResponse, ResourceException> readAsync(final Context context, final ReadRequest request) {
         return requestHandler.handleRead(context, request)
-                             .then(filterResponse(request));
+                             .then(filterResponse(context, request));
     }
 
     @Override
     public Promise<ResourceResponse, ResourceException> updateAsync(final Context context,
             final UpdateRequest request) {
         return requestHandler.handleUpdate(context, request)
-                             .then(filterResponse(request));
+                             .then(filterResponse(context, request));
     }
 
-    private Function<ResourceResponse, ResourceResponse, ResourceException> filterResponse(final Request request) {
+    private Function<ResourceResponse, ResourceResponse, ResourceException> filterResponse(final Context context,
+            final Request request) {
+        final boolean projected = isProjected(context, request);
         return new Function<ResourceResponse, ResourceResponse, ResourceException>() {
             @Override
             public ResourceResponse apply(final ResourceResponse response)
                     throws ResourceException {
+                if (projected) {
+                    return response;
+                }
                 return Resources.filterResource(response, request.getFields());
             }
         };
     }
+
+    /**
+     * Returns {@code true} if the projection of the context selects the fields of the request, in which case the
+     * resources are not filtered and left to the serialization, saving a copy of their selected fields.
+     */
+    private static boolean isProjected(final Context context, final Request request) {
+        return !request.getFields().isEmpty() && context.containsContext(ProjectionContext.class)
+                && context.asContext(ProjectionContext.class).appliesTo(request);
+    }
 }
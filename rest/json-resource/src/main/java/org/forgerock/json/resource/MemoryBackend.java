@@ -12,6 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2012-2015 ForgeRock AS.
+ * Portions copyright 2026 Open Source Solution Technology Corporation
  */
 
 package org.forgerock.json.resource;
@@ -30,12 +31,15 @@ import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.atomic.AtomicLong;
 
 import org.forgerock.services.context.Context;
 import org.forgerock.json.JsonPointer;
 import org.forgerock.json.JsonValue;
+import org.forgerock.json.JsonValueFilterCompiler;
 import org.forgerock.json.JsonValueException;
+import org.forgerock.util.Predicate;
 import org.forgerock.util.encode.Base64;
 import org.forgerock.util.promise.Promise;
 import org.forgerock.util.query.QueryFilter;
@@ -107,6 +111,137 @@ public final class MemoryBackend implements CollectionResourceProvider {
         }
     }
 
+    /**
+     * A stored resource. Holders have no {@code equals} method: conditional updates of the map compare them by
+     * identity, so that they fail if the resource has been replaced in the meantime, even by a resource with the same
+     * revision after a delete and a create.
+     */
+    private static final class StoredResource {
+        private final ResourceResponse resource;
+
+        private StoredResource(final ResourceResponse resource) {
+            this.resource = resource;
+        }
+    }
+
+    /**
+     * The operations of a patch request, checked and decoded once so that they can be applied again cheaply if the
+     * resource is concurrently updated.
+     */
+    private static final class CompiledPatch {
+        private enum Kind {
+            ADD, REMOVE_FIELD, REMOVE_VALUE, REPLACE, INCREMENT, IGNORED
+        }
+
+        private final Kind[] kinds;
+        private final JsonPointer[] fields;
+        private final Object[] values;
+
+        private CompiledPatch(final List<PatchOperation> operations) throws ResourceException {
+            final int size = operations.size();
+            kinds = new Kind[size];
+            fields = new JsonPointer[size];
+            values = new Object[size];
+            for (int i = 0; i < size; i++) {
+                final PatchOperation operation = operations.get(i);
+                fields[i] = operation.getField();
+                try {
+                    if (operation.isAdd()) {
+                        kinds[i] = Kind.ADD;
+                        values[i] = operation.getValue().getObject();
+                    } else if (operation.isRemove()) {
+                        kinds[i] = operation.getValue().isNull() ? Kind.REMOVE_FIELD : Kind.REMOVE_VALUE;
+                        values[i] = operation.getValue().getObject();
+                    } else if (operation.isReplace()) {
+                        kinds[i] = Kind.REPLACE;
+                        values[i] = operation.getValue().getObject();
+                    } else if (operation.isIncrement()) {
+                        kinds[i] = Kind.INCREMENT;
+                        values[i] = operation.getValue().asNumber();
+                    } else {
+                        kinds[i] = Kind.IGNORED;
+                    }
+                } catch (final JsonValueException e) {
+                    throw new ConflictException("The field '" + fields[i] + "' does not exist");
+                }
+            }
+        }
+
+        /** Applies the patch to a private copy of the content of a resource. */
+        private void apply(final JsonValue content) throws ResourceException {
+            for (int i = 0; i < kinds.length; i++) {
+                final JsonPointer field = fields[i];
+                try {
+                    switch (kinds[i]) {
+                    case ADD:
+                        content.putPermissive(field, values[i]);
+                        break;
+                    case REMOVE_FIELD:
+                        // Remove entire value.
+                        content.remove(field);
+                        break;
+                    case REMOVE_VALUE:
+                        // Find matching value(s) and remove (assumes reference to array).
+                        final JsonValue value = content.get(field);
+                        if (value == null) {
+                            break;
+                        } else if (value.isList()) {
+                            final Iterator<Object> iterator = value.asList().iterator();
+                            while (iterator.hasNext()) {
+                                if (values[i].equals(iterator.next())) {
+                                    iterator.remove();
+                                }
+                            }
+                        } else if (values[i].equals(value.getObject())) {
+                            // Single valued field.
+                            content.remove(field);
+                        }
+                        break;
+                    case REPLACE:
+                        content.remove(field);
+                        if (values[i] != null) {
+                            content.putPermissive(field, values[i]);
+                        }
+                        break;
+                    case INCREMENT:
+                        final JsonValue number = content.get(field);
+                        final Number amount = (Number) values[i];
+                        if (number == null) {
+                            throw new BadRequestException("The field '" + field + "' does not exist");
+                        } else if (number.isList()) {
+                            final List<Object> elements = number.asList();
+                            for (int j = 0; j < elements.size(); j++) {
+                                elements.set(j, increment(field, elements.get(j), amount));
+                            }
+                        } else {
+                            content.put(field, increment(field, number.getObject(), amount));
+                        }
+                        break;
+                    default:
+                        break;
+                    }
+                } catch (final JsonValueException e) {
+                    throw new ConflictException("The field '" + field + "' does not exist");
+                }
+            }
+        }
+
+        private static Object increment(final JsonPointer field, final Object object, final Number amount)
+                throws BadRequestException {
+            if (object instanceof Long) {
+                return ((Long) object) + amount.longValue();
+            } else if (object instanceof Integer) {
+                return ((Integer) object) + amount.intValue();
+            } else if (object instanceof Float) {
+                return ((Float) object) + amount.floatValue();
+            } else if (object instanceof Double) {
+                return ((Double) object) + amount.doubleValue();
+            } else {
+                throw new BadRequestException("The field '" + field + "' is not a number");
+            }
+        }
+    }
+
     private static final class ResourceComparator implements Comparator<ResourceResponse> {
         private final List<SortKey> sortKeys;
 
@@ -347,6 +482,8 @@ public final class MemoryBackend implements CollectionResourceProvider {
 
         };
 
+    private static final JsonValueFilterCompiler FILTER_COMPILER = JsonValueFilterCompiler.defaultCompiler();
+
     private static final Comparator<Object> VALUE_COMPARATOR = new Comparator<Object>() {
         @Override
         public int compare(final Object o1, final Object o2) {
@@ -374,6 +511,14 @@ public final class MemoryBackend implements CollectionResourceProvider {
         }
     }
 
+    private static boolean matches(final QueryFilter<JsonPointer> filter, final Predicate<JsonValue> compiledFilter,
+            final ResourceResponse resource) {
+        if (compiledFilter != null) {
+            return compiledFilter.test(resource.getContent());
+        }
+        return filter == null || filter.accept(RESOURCE_FILTER, resource).toBoolean();
+    }
+
     private static boolean isCompatible(final Object v1, final Object v2) {
         return (v1 instanceof String && v2 instanceof String)
                 || (v1 instanceof Number && v2 instanceof Number)
@@ -381,8 +526,12 @@ public final class MemoryBackend implements CollectionResourceProvider {
     }
 
     private final AtomicLong nextResourceId = new AtomicLong();
-    private final Map<String, ResourceResponse> resources = new ConcurrentHashMap<>();
-    private final Object writeLock = new Object();
+    /*
+     * Writes are lock free: they compute the new resource from the one they read, then replace it only if it has not
+     * changed in the meantime, retrying otherwise. Stored resources are compared by identity, so concurrent writes to
+     * distinct resources never contend.
+     */
+    private final ConcurrentMap<String, StoredResource> resources = new ConcurrentHashMap<>();
 
     /**
      * Creates a new in-memory collection containing no resources.
@@ -399,10 +548,11 @@ public final class MemoryBackend implements CollectionResourceProvider {
             final ActionRequest request) {
         try {
             if (request.getAction().equals("clear")) {
-                final int size;
-                synchronized (writeLock) {
-                    size = resources.size();
-                    resources.clear();
+                int size = 0;
+                for (final String id : resources.keySet()) {
+                    if (resources.remove(id) != null) {
+                        size++;
+                    }
                 }
                 final JsonValue result = new JsonValue(new LinkedHashMap<>(1));
                 result.put("cleared", size);
@@ -442,24 +592,17 @@ public final class MemoryBackend implements CollectionResourceProvider {
                 final String eid =
                         id != null ? id : String.valueOf(nextResourceId.getAndIncrement());
                 final ResourceResponse tmp = newResourceResponse(eid, rev, value);
-                synchronized (writeLock) {
-                    final ResourceResponse existingResource = resources.put(eid, tmp);
-                    if (existingResource != null) {
-                        if (id != null) {
-                            // Already exists - put the existing resource back.
-                            resources.put(id, existingResource);
-                            throw new PreconditionFailedException("The resource with ID '" + id
-                                    + "' could not be created because "
-                                    + "there is already another resource with the same ID");
-                        } else {
-                            // Retry with next available resource ID.
-                        }
-                    } else {
-                        // Add succeeded.
-                        addIdAndRevision(tmp);
-                        resource = tmp;
-                        break;
-                    }
+                addIdAndRevision(tmp);
+                if (resources.putIfAbsent(eid, new StoredResource(tmp)) == null) {
+                    // Add succeeded.
+                    resource = tmp;
+                    break;
+                } else if (id != null) {
+                    throw new PreconditionFailedException("The resource with ID '" + id
+                            + "' could not be created because "
+                            + "there is already another resource with the same ID");
+                } else {
+                    // Retry with next available resource ID.
                 }
             }
             return newResultPromise(resource);
@@ -476,12 +619,11 @@ public final class MemoryBackend implements CollectionResourceProvider {
             final DeleteRequest request) {
         final String rev = request.getRevision();
         try {
-            final ResourceResponse resource;
-            synchronized (writeLock) {
-                resource = getResourceForUpdate(id, rev);
-                resources.remove(id);
-            }
-            return newResultPromise(resource);
+            StoredResource existing;
+            do {
+                existing = getResourceForUpdate(id, rev);
+            } while (!resources.remove(id, existing));
+            return newResultPromise(existing.resource);
         } catch (final ResourceException e) {
             return newExceptionPromise(e);
         }
@@ -495,75 +637,21 @@ public final class MemoryBackend implements CollectionResourceProvider {
             final PatchRequest request) {
         final String rev = request.getRevision();
         try {
-            final ResourceResponse resource;
-            synchronized (writeLock) {
-                final ResourceResponse existingResource = getResourceForUpdate(id, rev);
+            StoredResource existing = getResourceForUpdate(id, rev);
+            // Compiled once the resource is known to exist, so that a missing resource is reported as such
+            final CompiledPatch patch = new CompiledPatch(request.getPatchOperations());
+            while (true) {
+                final ResourceResponse existingResource = existing.resource;
                 final String newRev = getNextRevision(existingResource.getRevision());
                 final JsonValue newContent = existingResource.getContent().copy();
-                for (final PatchOperation operation : request.getPatchOperations()) {
-                    try {
-                        if (operation.isAdd()) {
-                            newContent.putPermissive(operation.getField(), operation.getValue()
-                                    .getObject());
-                        } else if (operation.isRemove()) {
-                            if (operation.getValue().isNull()) {
-                                // Remove entire value.
-                                newContent.remove(operation.getField());
-                            } else {
-                                // Find matching value(s) and remove (assumes reference to array).
-                                final JsonValue value = newContent.get(operation.getField());
-                                if (value != null) {
-                                    if (value.isList()) {
-                                        final Object valueToBeRemoved =
-                                                operation.getValue().getObject();
-                                        final Iterator<Object> iterator = value.asList().iterator();
-                                        while (iterator.hasNext()) {
-                                            if (valueToBeRemoved.equals(iterator.next())) {
-                                                iterator.remove();
-                                            }
-                                        }
-                                    } else {
-                                        // Single valued field.
-                                        final Object valueToBeRemoved =
-                                                operation.getValue().getObject();
-                                        if (valueToBeRemoved.equals(value.getObject())) {
-                                            newContent.remove(operation.getField());
-                                        }
-                                    }
-                                }
-                            }
-                        } else if (operation.isReplace()) {
-                            newContent.remove(operation.getField());
-                            if (!operation.getValue().isNull()) {
-                                newContent.putPermissive(operation.getField(), operation.getValue()
-                                        .getObject());
-                            }
-                        } else if (operation.isIncrement()) {
-                            final JsonValue value = newContent.get(operation.getField());
-                            final Number amount = operation.getValue().asNumber();
-                            if (value == null) {
-                                throw new BadRequestException("The field '" + operation.getField()
-                                        + "' does not exist");
-                            } else if (value.isList()) {
-                                final List<Object> elements = value.asList();
-                                for (int i = 0; i < elements.size(); i++) {
-                                    elements.set(i, increment(operation, elements.get(i), amount));
-                                }
-                            } else {
-                                newContent.put(operation.getField(), increment(operation, value
-                                        .getObject(), amount));
-                            }
-                        }
-                    } catch (final JsonValueException e) {
-                        throw new ConflictException("The field '" + operation.getField()
-                                + "' does not exist");
-                    }
-                }
-                resource = newResourceResponse(id, newRev, newContent);
+                patch.apply(newContent);
+                final ResourceResponse resource = newResourceResponse(id, newRev, newContent);
                 addIdAndRevision(resource);
-                resources.put(id, resource);
+                if (resources.replace(id, existing, new StoredResource(resource))) {
+                    return newResultPromise(resource);
+                }
+                existing = getResourceForUpdate(id, rev);
             }
-            return newResultPromise(resource);
         } catch (final ResourceException e) {
             return newExceptionPromise(e);
         }
@@ -582,6 +670,8 @@ public final class MemoryBackend implements CollectionResourceProvider {
         } else {
             // No filtering or query by filter.
             final QueryFilter<JsonPointer> filter = request.getQueryFilter();
+            // Filters which cannot be compiled are interpreted for each resource.
+            final Predicate<JsonValue> compiledFilter = filter != null ? FILTER_COMPILER.compile(filter) : null;
 
             // If paged results are requested then decode the cookie in order to determine
             // the index of the first result to be returned.
@@ -614,8 +704,9 @@ public final class MemoryBackend implements CollectionResourceProvider {
             int resultCount;
             if (sortKeys.isEmpty()) {
                 // No sorting so stream the results.
-                for (final ResourceResponse resource : resources.values()) {
-                    if (filter == null || filter.accept(RESOURCE_FILTER, resource).toBoolean()) {
+                for (final StoredResource stored : resources.values()) {
+                    final ResourceResponse resource = stored.resource;
+                    if (matches(filter, compiledFilter, resource)) {
                         if (resultIndex >= firstResultIndex && resultIndex < lastResultIndex) {
                             handler.handleResource(resource);
                         }
@@ -628,9 +719,9 @@ public final class MemoryBackend implements CollectionResourceProvider {
                 // Server side sorting: aggregate the result set then sort. A robust implementation
                 // would need to impose administrative limits in order to control memory utilization.
                 final List<ResourceResponse> results = new ArrayList<>();
-                for (final ResourceResponse resource : resources.values()) {
-                    if (filter == null || filter.accept(RESOURCE_FILTER, resource).toBoolean()) {
-                        results.add(resource);
+                for (final StoredResource stored : resources.values()) {
+                    if (matches(filter, compiledFilter, stored.resource)) {
+                        results.add(stored.resource);
                     }
                 }
                 Collections.sort(results, new ResourceComparator(sortKeys));
@@ -677,12 +768,12 @@ public final class MemoryBackend implements CollectionResourceProvider {
     public Promise<ResourceResponse, ResourceException> readInstance(final Context context, final String id,
             final ReadRequest request) {
         try {
-            final ResourceResponse resource = resources.get(id);
-            if (resource == null) {
+            final StoredResource stored = resources.get(id);
+            if (stored == null) {
                 throw new NotFoundException("The resource with ID '" + id
                         + "' could not be read because it does not exist");
             }
-            return newResultPromise(resource);
+            return newResultPromise(stored.resource);
         } catch (final ResourceException e) {
             return newExceptionPromise(e);
         }
@@ -696,14 +787,14 @@ public final class MemoryBackend implements CollectionResourceProvider {
             final UpdateRequest request) {
         final String rev = request.getRevision();
         try {
-            final ResourceResponse resource;
-            synchronized (writeLock) {
-                final ResourceResponse existingResource = getResourceForUpdate(id, rev);
-                final String newRev = getNextRevision(existingResource.getRevision());
+            StoredResource existing;
+            ResourceResponse resource;
+            do {
+                existing = getResourceForUpdate(id, rev);
+                final String newRev = getNextRevision(existing.resource.getRevision());
                 resource = newResourceResponse(id, newRev, request.getContent());
                 addIdAndRevision(resource);
-                resources.put(id, resource);
-            }
+            } while (!resources.replace(id, existing, new StoredResource(resource)));
             return newResultPromise(resource);
         } catch (final ResourceException e) {
             return newExceptionPromise(e);
@@ -737,32 +828,16 @@ public final class MemoryBackend implements CollectionResourceProvider {
         }
     }
 
-    private ResourceResponse getResourceForUpdate(final String id, final String rev)
+    private StoredResource getResourceForUpdate(final String id, final String rev)
             throws NotFoundException, PreconditionFailedException {
-        final ResourceResponse existingResource = resources.get(id);
-        if (existingResource == null) {
+        final StoredResource existing = resources.get(id);
+        if (existing == null) {
             throw new NotFoundException("The resource with ID '" + id
                     + "' could not be updated because it does not exist");
-        } else if (rev != null && !existingResource.getRevision().equals(rev)) {
+        } else if (rev != null && !existing.resource.getRevision().equals(rev)) {
             throw new PreconditionFailedException("The resource with ID '" + id
                     + "' could not be updated because " + "it does not have the required version");
         }
-        return existingResource;
-    }
-
-    private Object increment(final PatchOperation operation, final Object object,
-            final Number amount) throws BadRequestException {
-        if (object instanceof Long) {
-            return ((Long) object) + amount.longValue();
-        } else if (object instanceof Integer) {
-            return ((Integer) object) + amount.intValue();
-        } else if (object instanceof Float) {
-            return ((Float) object) + amount.floatValue();
-        } else if (object instanceof Double) {
-            return ((Double) object) + amount.doubleValue();
-        } else {
-            throw new BadRequestException("The field '" + operation.getField()
-                    + "' is not a number");
-        }
+        return existing;
     }
 }
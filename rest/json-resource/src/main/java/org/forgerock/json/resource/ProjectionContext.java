@@ -0,0 +1,155 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Open Source Solution Technology Corporation
+ */
+
+package org.forgerock.json.resource;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import org.forgerock.json.JsonPointer;
+import org.forgerock.json.JsonValue;
+import org.forgerock.services.context.AbstractContext;
+import org.forgerock.services.context.Context;
+import org.forgerock.util.Reject;
+
+/**
+ * A {@link Context} containing the fields which will be returned to the client, as requested with
+ * {@link Request#getFields()}.
+ * <p>
+ * The context is created by the component which serializes the responses, and which will only write the projected
+ * fields: request handlers can use {@link #isIncluded(JsonPointer)} to avoid loading or computing the fields which
+ * will not be returned. Resources returned with this context may nevertheless contain other fields.
+ * <p>
+ * The projection is applied by that component to the responses of the requests it {@link #appliesTo(Request) applies
+ * to}. Connections must therefore return the resources of these requests unfiltered, saving a copy of the selected
+ * fields.
+ *
+ * @since 20.1.2
+ */
+public final class ProjectionContext extends AbstractContext {
+
+    /** The persisted attribute name for the projected fields. */
+    private static final String FIELDS_ATTR = "fields";
+
+    private final List<JsonPointer> fields;
+
+    /**
+     * Creates a new projection context with the provided parent.
+     *
+     * @param parent
+     *            The parent context.
+     * @param fields
+     *            The projected fields, which must not be empty.
+     */
+    public ProjectionContext(final Context parent, final Collection<JsonPointer> fields) {
+        super(parent, "projection");
+        Reject.ifTrue(fields.isEmpty(), "A projection requires at least one field");
+        this.fields = Collections.unmodifiableList(new ArrayList<>(fields));
+        final List<String> pointers = new ArrayList<>(fields.size());
+        for (final JsonPointer field : fields) {
+            pointers.add(field.toString());
+        }
+        data.put(FIELDS_ATTR, pointers);
+    }
+
+    /**
+     * Restore from JSON representation.
+     *
+     * @param savedContext
+     *            The JSON representation from which this context's attributes
+     *            should be parsed.
+     * @param classLoader
+     *            The ClassLoader which can properly resolve the persisted class-name.
+     */
+    public ProjectionContext(final JsonValue savedContext, final ClassLoader classLoader) {
+        super(savedContext, classLoader);
+        final List<JsonPointer> pointers = new ArrayList<>();
+        for (final String pointer : data.get(FIELDS_ATTR).asList(String.class)) {
+            pointers.add(new JsonPointer(pointer));
+        }
+        this.fields = Collections.unmodifiableList(pointers);
+    }
+
+    /**
+     * Returns the projected fields.
+     *
+     * @return The unmodifiable list of projected fields, never empty.
+     */
+    public List<JsonPointer> getFields() {
+        return fields;
+    }
+
+    /**
+     * Returns {@code true} if the value of the provided field, or part of it, will be returned to the client. This
+     * is the case if the field is projected, or is the parent or the child of a projected field.
+     *
+     * @param field
+     *            The field of the resource.
+     * @return {@code true} if the value of the field must be provided.
+     */
+    public boolean isIncluded(final JsonPointer field) {
+        for (final JsonPointer projected : fields) {
+            if (isPrefix(projected, field) || isPrefix(field, projected)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns {@code true} if the provided field of the resource, or part of it, will be returned to the client.
+     *
+     * @param field
+     *            The name of a field of the resource.
+     * @return {@code true} if the value of the field must be provided.
+     * @see #isIncluded(JsonPointer)
+     */
+    public boolean isIncluded(final String field) {
+        for (final JsonPointer projected : fields) {
+            if (projected.isEmpty() || projected.get(0).equals(field)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns {@code true} if the projection of the context selects the fields of the provided request, in which
+     * case the resources returned for the request are filtered when they are serialized rather than by the
+     * connection.
+     *
+     * @param request
+     *            The request.
+     * @return {@code true} if the projection applies to the responses of the request.
+     */
+    public boolean appliesTo(final Request request) {
+        return fields.equals(request.getFields());
+    }
+
+    private static boolean isPrefix(final JsonPointer prefix, final JsonPointer pointer) {
+        if (prefix.size() > pointer.size()) {
+            return false;
+        }
+        for (int i = 0; i < prefix.size(); i++) {
+            if (!prefix.get(i).equals(pointer.get(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
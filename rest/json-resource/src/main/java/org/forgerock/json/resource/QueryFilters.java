@@ -12,6 +12,7 @@
  * information: "Portions Copyrighted [year] [name of copyright owner]".
  *
  * Copyright 2012-2015 ForgeRock AS.
+ * Portions copyright 2026 Open Source Solution Technology Corporation
  */
 
 package org.forgerock.json.resource;
@@ -28,7 +29,10 @@ import org.forgerock.util.query.QueryFilterParser;
  */
 public final class QueryFilters {
 
-    private static final QueryFilterParser<JsonPointer> PARSER = new QueryFilterParser<JsonPointer>() {
+    /** Maximum number of parsed filters, and of filter structures, kept by the parser. */
+    private static final int PARSE_CACHE_SIZE = 1024;
+
+    private static final QueryFilterParser<JsonPointer> PARSER = new QueryFilterParser<JsonPointer>(PARSE_CACHE_SIZE) {
         @Override
         protected JsonPointer parseField(String s) {
             return new JsonPointer(s);
@@ -36,7 +40,8 @@ public final class QueryFilters {
     };
 
     /**
-     * Parses the provided query string into a {@link QueryFilter}.
+     * Parses the provided query string into a {@link QueryFilter}. Frequently used query strings, and query strings
+     * only differing from them by their assertion values, are not parsed again.
      *
      * @param query The query string to parse.
      * @return A {@code QueryFilter}.
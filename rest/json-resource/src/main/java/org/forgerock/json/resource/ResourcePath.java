@@ -12,6 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2013-2015 ForgeRock AS.
+ * Portions copyright 2026 Open Source Solution Technology Corporation
  */
 
 package org.forgerock.json.resource;
@@ -23,7 +24,6 @@ import java.util.Collection;
 import java.util.Iterator;
 import java.util.Locale;
 import java.util.NoSuchElementException;
-import java.util.regex.Pattern;
 
 /**
  * A relative path, or URL, to a resource. A resource path is an ordered list of
@@ -122,10 +122,22 @@ public final class ResourcePath implements Comparable<ResourcePath>, Iterable<St
     }
 
     /**
-     * Compiled regular expression for splitting resource paths into path
-     * elements.
+     * The number of slots in the {@link #CACHE} of recently parsed resource paths. Must be a power of two.
      */
-    private static final Pattern PATH_SPLITTER = Pattern.compile("/");
+    private static final int CACHE_SIZE = 512;
+
+    /**
+     * A small, direct-mapped cache of recently parsed resource paths keyed by their unparsed string
+     * representation. Applications typically route requests to a limited number of distinct resource paths,
+     * so most calls to {@link #valueOf(String)} can be satisfied without parsing or allocating. Colliding paths
+     * simply overwrite each other, which keeps the cache bounded and lock-free.
+     */
+    private static final CacheEntry[] CACHE = new CacheEntry[CACHE_SIZE];
+
+    /**
+     * The maximum length of a path which will be stored in the {@link #CACHE}.
+     */
+    private static final int MAX_CACHED_PATH_LENGTH = 256;
 
     /**
      * Parses the provided string representation of a resource path.
@@ -156,34 +168,80 @@ public final class ResourcePath implements Comparable<ResourcePath>, Iterable<St
             // Fast-path.
             return EMPTY;
         }
+        if (path.length() > MAX_CACHED_PATH_LENGTH) {
+            return parse(path);
+        }
 
-        // Split on path separators and trim leading slash or trailing slash.
-        final String[] elements = PATH_SPLITTER.split(path, -1);
-        final int sz = elements.length;
-        final int startIndex = elements[0].isEmpty() ? 1 : 0;
-        final int endIndex = sz > 1 && elements[sz - 1].isEmpty() ? sz - 1 : sz;
-        if (startIndex == endIndex) {
-            return EMPTY;
+        final int slot = path.hashCode() & (CACHE_SIZE - 1);
+        final CacheEntry entry = CACHE[slot];
+        if (entry != null && entry.key.equals(path)) {
+            return entry.value;
         }
+        final ResourcePath value = parse(path);
+        CACHE[slot] = new CacheEntry(path, value);
+        return value;
+    }
 
-        // Normalize the path elements checking for empty elements.
-        final StringBuilder trimmedPath = new StringBuilder(path.length());
-        final StringBuilder normalizedPath = new StringBuilder(path.length());
-        for (int i = startIndex; i < endIndex; i++) {
-            final String element = elements[i];
-            if (element.isEmpty()) {
+    private static ResourcePath parse(final String path) {
+        // Trim leading slash or trailing slash.
+        final int length = path.length();
+        final int startIndex = path.charAt(0) == '/' ? 1 : 0;
+        final int endIndex = path.charAt(length - 1) == '/' ? length - 1 : length;
+        if (startIndex > endIndex) {
+            // The path is a single slash.
+            return EMPTY;
+        }
+        final String trimmedPath = path.substring(startIndex, endIndex);
+
+        // Scan the path elements once, checking for empty elements and whether any require normalization.
+        int size = 0;
+        boolean isNormalized = true;
+        int elementStart = 0;
+        while (true) {
+            final int elementEnd = nextElementEndIndex(trimmedPath, elementStart);
+            if (elementEnd == elementStart) {
                 throw new IllegalArgumentException("Resource path '" + path
                         + "' contains empty path elements");
             }
-            final String normalizedElement = normalizePathElement(element, true);
-            if (i != startIndex) {
-                trimmedPath.append('/');
+            isNormalized = isNormalized && isNormalizedPathElement(trimmedPath, elementStart, elementEnd);
+            size++;
+            if (elementEnd == trimmedPath.length()) {
+                break;
+            }
+            elementStart = elementEnd + 1;
+        }
+        if (isNormalized) {
+            // Common case: no escaping and no upper case characters, so both representations share a string.
+            return new ResourcePath(trimmedPath, trimmedPath, size);
+        }
+
+        final StringBuilder normalizedPath = new StringBuilder(trimmedPath.length());
+        elementStart = 0;
+        for (int i = 0; i < size; i++) {
+            final int elementEnd = nextElementEndIndex(trimmedPath, elementStart);
+            if (i != 0) {
                 normalizedPath.append('/');
             }
-            trimmedPath.append(element);
-            normalizedPath.append(normalizedElement);
+            normalizedPath.append(normalizePathElement(trimmedPath.substring(elementStart, elementEnd), true));
+            elementStart = elementEnd + 1;
         }
-        return new ResourcePath(trimmedPath.toString(), normalizedPath.toString(), endIndex - startIndex);
+        return new ResourcePath(trimmedPath, normalizedPath.toString(), size);
+    }
+
+    /**
+     * Returns {@code true} if the URL-encoded path element between the provided indexes only contains characters
+     * which are left unchanged by normalization, meaning lower case letters, digits and the other unreserved
+     * characters of RFC 3986.
+     */
+    private static boolean isNormalizedPathElement(final String s, final int beginIndex, final int endIndex) {
+        for (int i = beginIndex; i < endIndex; i++) {
+            final char c = s.charAt(i);
+            if (!((c >= 'a' && c <= 'z') || (c >= '0' && c <= '9') || c == '-' || c == '.' || c == '_'
+                    || c == '~')) {
+                return false;
+            }
+        }
+        return true;
     }
 
     private static String normalizePathElement(final String element, final boolean needsDecoding) {
@@ -198,6 +256,12 @@ public final class ResourcePath implements Comparable<ResourcePath>, Iterable<St
     private final String normalizedPath; // uri encoded
     private final int size;
 
+    /**
+     * The offsets of the path elements within {@link #path} and {@link #normalizedPath}, lazily computed the
+     * first time an element is accessed by index. Racy initialization is safe because the offsets are immutable.
+     */
+    private Offsets offsets;
+
     /**
      * Creates a new empty resource path whose string representation is the
      * empty string and which has zero path elements. This method is provided in
@@ -362,13 +426,8 @@ public final class ResourcePath implements Comparable<ResourcePath>, Iterable<St
         if (index < 0 || index >= size) {
             throw new IndexOutOfBoundsException();
         }
-        int startIndex = 0;
-        int endIndex = nextElementEndIndex(path, 0);
-        for (int i = 0; i < index; i++) {
-            startIndex = endIndex + 1;
-            endIndex = nextElementEndIndex(path, startIndex);
-        }
-        return urlDecode(path.substring(startIndex, endIndex));
+        final Offsets offsets = getOffsets();
+        return urlDecode(path.substring(offsets.pathStart(index), offsets.pathEnds[index]));
     }
 
     /**
@@ -560,8 +619,12 @@ public final class ResourcePath implements Comparable<ResourcePath>, Iterable<St
         if (endIndex - beginIndex == 0) {
             return EMPTY;
         }
-        final String subPath = subPath(path, beginIndex, endIndex);
-        final String subNormalizedPath = subPath(normalizedPath, beginIndex, endIndex);
+        final Offsets offsets = getOffsets();
+        final String subPath = path.substring(offsets.pathStart(beginIndex), offsets.pathEnds[endIndex - 1]);
+        final String subNormalizedPath = path == normalizedPath
+                ? subPath
+                : normalizedPath.substring(offsets.normalizedPathStart(beginIndex),
+                        offsets.normalizedPathEnds[endIndex - 1]);
         return new ResourcePath(subPath, subNormalizedPath, endIndex - beginIndex);
     }
 
@@ -599,23 +662,64 @@ public final class ResourcePath implements Comparable<ResourcePath>, Iterable<St
         return path;
     }
 
-    private int nextElementEndIndex(final String s, final int startIndex) {
+    private Offsets getOffsets() {
+        Offsets result = offsets;
+        if (result == null) {
+            final int[] pathEnds = elementEndIndexes(path, size);
+            final int[] normalizedPathEnds = path == normalizedPath ? pathEnds : elementEndIndexes(normalizedPath, size);
+            result = new Offsets(pathEnds, normalizedPathEnds);
+            offsets = result;
+        }
+        return result;
+    }
+
+    private static int[] elementEndIndexes(final String s, final int size) {
+        final int[] ends = new int[size];
+        int startIndex = 0;
+        for (int i = 0; i < size; i++) {
+            ends[i] = nextElementEndIndex(s, startIndex);
+            startIndex = ends[i] + 1;
+        }
+        return ends;
+    }
+
+    private static int nextElementEndIndex(final String s, final int startIndex) {
         final int index = s.indexOf('/', startIndex);
         return index < 0 ? s.length() : index;
     }
 
-    private String subPath(final String s, final int beginIndex, final int endIndex) {
-        int startCharIndex = 0;
-        int endCharIndex = nextElementEndIndex(s, 0);
-        for (int i = 0; i < beginIndex; i++) {
-            startCharIndex = endCharIndex + 1;
-            endCharIndex = nextElementEndIndex(s, startCharIndex);
+    /**
+     * The end index of each path element in the encoded and normalized representations of a resource path. The
+     * start index of an element is one past the end of the previous element.
+     */
+    private static final class Offsets {
+        private final int[] pathEnds;
+        private final int[] normalizedPathEnds;
+
+        private Offsets(final int[] pathEnds, final int[] normalizedPathEnds) {
+            this.pathEnds = pathEnds;
+            this.normalizedPathEnds = normalizedPathEnds;
+        }
+
+        private int pathStart(final int index) {
+            return index == 0 ? 0 : pathEnds[index - 1] + 1;
+        }
+
+        private int normalizedPathStart(final int index) {
+            return index == 0 ? 0 : normalizedPathEnds[index - 1] + 1;
         }
-        int tmpStartCharIndex;
-        for (int i = beginIndex + 1; i < endIndex; i++) {
-            tmpStartCharIndex = endCharIndex + 1;
-            endCharIndex = nextElementEndIndex(s, tmpStartCharIndex);
+    }
+
+    /**
+     * An immutable entry in the cache of recently parsed resource paths.
+     */
+    private static final class CacheEntry {
+        private final String key;
+        private final ResourcePath value;
+
+        private CacheEntry(final String key, final ResourcePath value) {
+            this.key = key;
+            this.value = value;
         }
-        return s.substring(startCharIndex, endCharIndex);
     }
 }
@@ -0,0 +1,107 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Open Source Solution Technology Corporation
+ */
+
+package org.forgerock.json.resource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.forgerock.json.JsonValue.json;
+import static org.forgerock.json.JsonValue.object;
+import static org.forgerock.json.resource.Requests.newUpdateRequest;
+import static org.forgerock.json.resource.Responses.newResourceResponse;
+
+import org.forgerock.json.resource.annotations.Update;
+import org.forgerock.services.context.Context;
+import org.forgerock.services.context.RootContext;
+import org.forgerock.util.promise.Promise;
+import org.testng.annotations.Test;
+
+/**
+ * Tests {@link AnnotatedMethod}.
+ */
+@SuppressWarnings("javadoc")
+public final class AnnotatedMethodTest {
+
+    @Test
+    public void shouldPassArgumentsInTheOrderOfTheMethodParameters() throws Exception {
+        ReorderedHandler handler = new ReorderedHandler();
+        AnnotatedMethod method = AnnotatedMethod.findMethod(handler, Update.class, true);
+        Context context = new RootContext();
+        UpdateRequest request = newUpdateRequest("users/alice", json(object()));
+
+        ResourceResponse response = method.<ResourceResponse>invoke(context, request, "alice").getOrThrow();
+
+        assertThat(response.getId()).isEqualTo("alice");
+        assertThat(handler.request).isSameAs(request);
+        assertThat(handler.context).isSameAs(context);
+    }
+
+    @Test
+    public void shouldPassDefaultValuesToUnrecognisedParameters() throws Exception {
+        UnrecognisedParametersHandler handler = new UnrecognisedParametersHandler();
+        AnnotatedMethod method = AnnotatedMethod.findMethod(handler, Update.class, true);
+
+        ResourceResponse response = method.<ResourceResponse>invoke(new RootContext(),
+                newUpdateRequest("users/alice", json(object())), "alice").getOrThrow();
+
+        assertThat(response.getId()).isEqualTo("alice");
+        assertThat(handler.extra).isNull();
+        assertThat(handler.count).isEqualTo(0);
+        assertThat(handler.flag).isFalse();
+    }
+
+    @Test
+    public void shouldNotSupportMissingMethod() throws Exception {
+        AnnotatedMethod method = AnnotatedMethod.findMethod(new Object(), Update.class, true);
+
+        Promise<ResourceResponse, ResourceException> promise =
+                method.invoke(new RootContext(), newUpdateRequest("users/alice", json(object())), "alice");
+
+        try {
+            promise.getOrThrow();
+            throw new AssertionError("Expected NotSupportedException");
+        } catch (NotSupportedException e) {
+            // Expected.
+        }
+    }
+
+    public static final class ReorderedHandler {
+        private Context context;
+        private UpdateRequest request;
+
+        @Update
+        public Promise<ResourceResponse, ResourceException> update(UpdateRequest request, String id,
+                Context context) {
+            this.request = request;
+            this.context = context;
+            return newResourceResponse(id, "0", json(object())).asPromise();
+        }
+    }
+
+    public static final class UnrecognisedParametersHandler {
+        private Object extra = "unset";
+        private int count = -1;
+        private boolean flag = true;
+
+        @Update
+        public Promise<ResourceResponse, ResourceException> update(String id, Integer extra, UpdateRequest request,
+                int count, boolean flag) {
+            this.extra = extra;
+            this.count = count;
+            this.flag = flag;
+            return newResourceResponse(id, "0", json(object())).asPromise();
+        }
+    }
+}
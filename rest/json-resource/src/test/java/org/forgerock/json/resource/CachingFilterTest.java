@@ -0,0 +1,213 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Open Source Solution Technology Corporation
+ */
+
+package org.forgerock.json.resource;
+
+import static java.util.Collections.singletonList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.forgerock.json.JsonValue.field;
+import static org.forgerock.json.JsonValue.json;
+import static org.forgerock.json.JsonValue.object;
+import static org.forgerock.json.resource.Requests.newActionRequest;
+import static org.forgerock.json.resource.Requests.newCreateRequest;
+import static org.forgerock.json.resource.Requests.newReadRequest;
+import static org.forgerock.json.resource.Requests.newUpdateRequest;
+import static org.forgerock.json.resource.Responses.newActionResponse;
+import static org.forgerock.json.resource.Responses.newResourceResponse;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.forgerock.json.JsonValue;
+import org.forgerock.services.context.Context;
+import org.forgerock.services.context.RootContext;
+import org.forgerock.util.promise.Promise;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+@SuppressWarnings("javadoc")
+public class CachingFilterTest {
+
+    private Backend backend;
+    private List<String> invalidated;
+    private CachingFilter filter;
+    private FilterChain chain;
+
+    @BeforeMethod
+    public void setUp() {
+        backend = new Backend();
+        backend.resources.put("users/alice", json(object(field("name", "alice"))));
+        backend.resources.put("users/bob", json(object(field("name", "bob"))));
+        invalidated = new ArrayList<>();
+        filter = new CachingFilter(1, new CachingFilter.InvalidationListener() {
+            @Override
+            public void invalidated(final ResourcePath path, final boolean descendants) {
+                invalidated.add(path + (descendants ? "/*" : ""));
+            }
+        });
+        chain = new FilterChain(backend, filter);
+    }
+
+    @Test
+    public void shouldAnswerRepeatedReadsFromCache() throws Exception {
+        ResourceResponse first = read("users/alice");
+        ResourceResponse second = read("users/alice");
+
+        assertThat(backend.reads).isEqualTo(1);
+        assertThat(second.getRevision()).isEqualTo(first.getRevision());
+        assertThat(second.getContent().getObject()).isEqualTo(first.getContent().getObject());
+    }
+
+    @Test
+    public void shouldNotExposeCachedContent() throws Exception {
+        read("users/alice").getContent().put("name", "mallory");
+
+        assertThat(read("users/alice").getContent().get("name").asString()).isEqualTo("alice");
+    }
+
+    @Test
+    public void shouldCacheFieldSelectionsSeparately() throws Exception {
+        read("users/alice");
+        chain.handleRead(context(), newReadRequest("users/alice").addField("name")).getOrThrow();
+
+        assertThat(backend.reads).isEqualTo(2);
+    }
+
+    @Test
+    public void shouldEvictLeastRecentlyReadResources() throws Exception {
+        read("users/alice");
+        read("users/bob");
+        read("users/alice");
+
+        assertThat(backend.reads).isEqualTo(3);
+    }
+
+    @Test
+    public void shouldInvalidateUpdatedResources() throws Exception {
+        String revision = read("users/alice").getRevision();
+        chain.handleUpdate(context(), newUpdateRequest("users/alice", json(object(field("name", "alice2")))))
+                .getOrThrow();
+
+        ResourceResponse resource = read("users/alice");
+        assertThat(backend.reads).isEqualTo(2);
+        assertThat(resource.getRevision().equals(revision)).isFalse();
+        assertThat(resource.getContent().get("name").asString()).isEqualTo("alice2");
+        assertThat(invalidated).isEqualTo(singletonList("users/alice"));
+    }
+
+    @Test
+    public void shouldInvalidateCreatedResources() throws Exception {
+        chain.handleCreate(context(), newCreateRequest("users", "alice", json(object()))).getOrThrow();
+
+        assertThat(invalidated).isEqualTo(singletonList("users/alice"));
+    }
+
+    @Test
+    public void shouldInvalidateCollectionOnAction() throws Exception {
+        read("users/alice");
+        chain.handleAction(context(), newActionRequest("users", "reset")).getOrThrow();
+        read("users/alice");
+
+        assertThat(backend.reads).isEqualTo(2);
+        assertThat(invalidated).isEqualTo(singletonList("users/*"));
+    }
+
+    @Test
+    public void shouldNotCacheReadsRacingWithModifications() throws Exception {
+        backend.onRead = new Runnable() {
+            @Override
+            public void run() {
+                filter.invalidate(ResourcePath.valueOf("users/alice"));
+            }
+        };
+        read("users/alice");
+        backend.onRead = null;
+        read("users/alice");
+
+        assertThat(backend.reads).isEqualTo(2);
+    }
+
+    @Test
+    public void shouldInvalidateOnExternalRequest() throws Exception {
+        read("users/alice");
+        filter.invalidateAll();
+        read("users/alice");
+
+        assertThat(backend.reads).isEqualTo(2);
+        assertThat(invalidated.isEmpty()).isTrue();
+    }
+
+    private ResourceResponse read(final String path) throws ResourceException {
+        return chain.handleRead(context(), newReadRequest(path)).getOrThrowUninterruptibly();
+    }
+
+    private static Context context() {
+        return new RootContext();
+    }
+
+    /** Keeps resources in a map, bumping their revision on each update. */
+    private static final class Backend extends AbstractRequestHandler {
+        private final Map<String, JsonValue> resources = new HashMap<>();
+        private final Map<String, Integer> revisions = new HashMap<>();
+        private Runnable onRead;
+        private int reads;
+
+        @Override
+        public Promise<ActionResponse, ResourceException> handleAction(final Context context,
+                final ActionRequest request) {
+            return newActionResponse(json(object())).asPromise();
+        }
+
+        @Override
+        public Promise<ResourceResponse, ResourceException> handleCreate(final Context context,
+                final CreateRequest request) {
+            String path = request.getResourcePathObject().child(request.getNewResourceId()).toString();
+            resources.put(path, request.getContent());
+            return resource(request.getNewResourceId(), path).asPromise();
+        }
+
+        @Override
+        public Promise<ResourceResponse, ResourceException> handleRead(final Context context,
+                final ReadRequest request) {
+            reads++;
+            if (onRead != null) {
+                onRead.run();
+            }
+            String path = request.getResourcePath();
+            return resource(request.getResourcePathObject().leaf(), path).asPromise();
+        }
+
+        @Override
+        public Promise<ResourceResponse, ResourceException> handleUpdate(final Context context,
+                final UpdateRequest request) {
+            String path = request.getResourcePath();
+            resources.put(path, request.getContent());
+            revisions.put(path, revision(path) + 1);
+            return resource(request.getResourcePathObject().leaf(), path).asPromise();
+        }
+
+        private ResourceResponse resource(final String id, final String path) {
+            return newResourceResponse(id, String.valueOf(revision(path)), resources.get(path).copy());
+        }
+
+        private int revision(final String path) {
+            Integer revision = revisions.get(path);
+            return revision != null ? revision : 0;
+        }
+    }
+}
@@ -12,6 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2013-2015 ForgeRock AS.
+ * Portions copyright 2026 Open Source Solution Technology Corporation
  */
 
 package org.forgerock.json.resource;
@@ -35,6 +36,7 @@ import org.testng.annotations.Test;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 
 /**
@@ -141,6 +143,58 @@ public final class MemoryBackendTest {
                 userBobWithIdAndRev(0, 1).getObject());
     }
 
+    @Test(expectedExceptions = NotFoundException.class)
+    public void testPatchMissingInstance() throws Exception {
+        final Connection connection = getConnection();
+        connection.patch(ctx(), newPatchRequest("users/0", increment("/age", 1)));
+    }
+
+    @Test
+    public void testConcurrentPatchesOfSameInstanceAreNotLost() throws Exception {
+        final Connection connection = getConnection();
+        connection.create(ctx(), newCreateRequest("users", userAlice()));
+        final List<Thread> threads = new ArrayList<>();
+        final List<Exception> failures = Collections.synchronizedList(new ArrayList<Exception>());
+        for (int i = 0; i < 4; i++) {
+            threads.add(new Thread() {
+                @Override
+                public void run() {
+                    try {
+                        for (int j = 0; j < 250; j++) {
+                            connection.patch(ctx(), newPatchRequest("users/0", increment("/age", 1)));
+                        }
+                    } catch (final Exception e) {
+                        failures.add(e);
+                    }
+                }
+            });
+        }
+        for (final Thread thread : threads) {
+            thread.start();
+        }
+        for (final Thread thread : threads) {
+            thread.join();
+        }
+        final ResourceResponse resource = connection.read(ctx(), newReadRequest("users/0"));
+        assertThat(failures).isEmpty();
+        assertThat(resource.getRevision()).isEqualTo("1000");
+        assertThat(resource.getContent().get("age").asInteger()).isEqualTo(1020);
+    }
+
+    @Test
+    public void testPatchInstanceFailureLeavesInstanceUnchanged() throws Exception {
+        final Connection connection = getConnection();
+        connection.create(ctx(), newCreateRequest("users", userAlice()));
+        try {
+            connection.patch(ctx(), newPatchRequest("users/0", replace("/name", "bob"), increment("/name", 1)));
+            fail("Patch succeeded unexpectedly");
+        } catch (final BadRequestException e) {
+            // Expected.
+        }
+        final ResourceResponse resource = connection.read(ctx(), newReadRequest("users/0"));
+        assertThat(resource.getContent().getObject()).isEqualTo(userAliceWithIdAndRev(0, 0).getObject());
+    }
+
     @Test
     public void testQueryCollection() throws Exception {
         final Connection connection = getConnectionWithAliceAndBob();
@@ -0,0 +1,137 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Open Source Solution Technology Corporation
+ */
+
+package org.forgerock.json.resource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.forgerock.json.JsonValue.field;
+import static org.forgerock.json.JsonValue.json;
+import static org.forgerock.json.JsonValue.object;
+import static org.forgerock.json.resource.Requests.newReadRequest;
+import static org.forgerock.json.resource.Responses.newResourceResponse;
+import static org.forgerock.util.promise.Promises.newResultPromise;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.forgerock.json.JsonPointer;
+import org.forgerock.services.context.Context;
+import org.forgerock.services.context.RootContext;
+import org.forgerock.util.promise.Promise;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+@SuppressWarnings("javadoc")
+public class ProjectionContextTest {
+
+    private static final ResourceResponse RESOURCE = newResourceResponse("id", "rev",
+            json(object(field("name", "alice"), field("mail", "alice@example.com"),
+                    field("address", object(field("city", "Tokyo"), field("zip", "100-0001"))))));
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void shouldRejectEmptyProjection() {
+        new ProjectionContext(new RootContext(), Collections.<JsonPointer>emptyList());
+    }
+
+    @DataProvider
+    private Object[][] includedFields() {
+        return new Object[][] {
+            { "/name", true },
+            { "/mail", false },
+            { "/address", true },
+            { "/address/city", true },
+            { "/address/zip", false },
+            { "/address/city/ward", true },
+            { "", true },
+        };
+    }
+
+    @Test(dataProvider = "includedFields")
+    public void shouldIncludeProjectedFieldsWithTheirParentsAndChildren(String field, boolean included) {
+        ProjectionContext context = newProjectionContext(new RootContext(), "/name", "/address/city");
+
+        assertThat(context.isIncluded(new JsonPointer(field))).isEqualTo(included);
+        if (!field.isEmpty()) {
+            assertThat(context.isIncluded(new JsonPointer(field).get(0))).isEqualTo(!field.equals("/mail"));
+        }
+    }
+
+    @Test
+    public void shouldIncludeAllFieldsWhenProjectingTheWholeResource() {
+        ProjectionContext context = newProjectionContext(new RootContext(), "");
+
+        assertThat(context.isIncluded(new JsonPointer("/mail"))).isTrue();
+        assertThat(context.isIncluded("mail")).isTrue();
+    }
+
+    @Test
+    public void shouldRestoreProjectedFields() {
+        ProjectionContext context = newProjectionContext(new RootContext(), "/name", "/address/city");
+
+        ProjectionContext restored = new ProjectionContext(context.toJsonValue(), getClass().getClassLoader());
+
+        assertThat(restored.getFields()).isEqualTo(context.getFields());
+    }
+
+    @Test
+    public void shouldLeaveProjectionOfRequestedFieldsToSerialization() throws Exception {
+        ProjectionContext context = newProjectionContext(new RootContext(), "/name");
+        ReadRequest request = newReadRequest("users/alice").addField("/name");
+
+        ResourceResponse resource = Resources.newInternalConnection(new ReadHandler())
+                .read(context, request);
+
+        assertThat(context.appliesTo(request)).isTrue();
+        assertThat(resource).isSameAs(RESOURCE);
+    }
+
+    @Test
+    public void shouldFilterResourcesWhenRequestFieldsDifferFromProjection() throws Exception {
+        ProjectionContext context = newProjectionContext(new RootContext(), "/name");
+        ReadRequest request = newReadRequest("users/alice").addField("/mail");
+
+        ResourceResponse resource = Resources.newInternalConnection(new ReadHandler())
+                .read(context, request);
+
+        assertThat(context.appliesTo(request)).isFalse();
+        assertThat(resource.getContent().asMap().keySet()).containsOnly("mail");
+    }
+
+    @Test
+    public void shouldFilterResourcesWithoutProjection() throws Exception {
+        ReadRequest request = newReadRequest("users/alice").addField("/name");
+
+        ResourceResponse resource = Resources.newInternalConnection(new ReadHandler())
+                .read(new RootContext(), request);
+
+        assertThat(resource.getContent().asMap().keySet()).containsOnly("name");
+    }
+
+    private static ProjectionContext newProjectionContext(Context parent, String... fields) {
+        JsonPointer[] pointers = new JsonPointer[fields.length];
+        for (int i = 0; i < fields.length; i++) {
+            pointers[i] = new JsonPointer(fields[i]);
+        }
+        return new ProjectionContext(parent, Arrays.asList(pointers));
+    }
+
+    private static final class ReadHandler extends AbstractRequestHandler {
+        @Override
+        public Promise<ResourceResponse, ResourceException> handleRead(Context context, ReadRequest request) {
+            return newResultPromise(RESOURCE);
+        }
+    }
+}
@@ -12,6 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2015 ForgeRock AS.
+ * Portions copyright 2026 Open Source Solution Technology Corporation
  */
 
 package org.forgerock.json.resource;
@@ -357,4 +358,18 @@ public final class ResourcePathTest {
     public void testStartsWith(final String name, final String prefix, final boolean expected) {
         assertThat(resourcePath(name).startsWith(prefix)).isEqualTo(expected);
     }
+
+    @Test
+    public void valueOfShouldReuseRecentlyParsedPaths() {
+        assertThat(resourcePath("/users/bjensen")).isSameAs(resourcePath("/users/bjensen"));
+    }
+
+    @Test
+    public void testSubSequenceOfNormalizedPath() {
+        final ResourcePath path = resourcePath("Users/B%20Jensen/Devices/1");
+        assertThat(path.subSequence(1, 3).toString()).isEqualTo("B%20Jensen/Devices");
+        assertThat(path.subSequence(1, 3)).isEqualTo(resourcePath("b%20jensen/devices"));
+        assertThat(path.get(1)).isEqualTo("B Jensen");
+        assertThat(path.get(3)).isEqualTo("1");
+    }
 }
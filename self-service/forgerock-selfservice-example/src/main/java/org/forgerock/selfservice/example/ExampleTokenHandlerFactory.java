@@ -21,6 +21,8 @@ import org.forgerock.json.jose.jws.handlers.SigningHandler;
 import org.forgerock.selfservice.core.snapshot.SnapshotTokenConfig;
 import org.forgerock.selfservice.core.snapshot.SnapshotTokenHandler;
 import org.forgerock.selfservice.core.snapshot.SnapshotTokenHandlerFactory;
+import org.forgerock.selfservice.stages.tokenhandlers.CompactTokenHandler;
+import org.forgerock.selfservice.stages.tokenhandlers.CompactTokenHandlerConfig;
 import org.forgerock.selfservice.stages.tokenhandlers.JwtTokenHandler;
 import org.forgerock.selfservice.stages.tokenhandlers.JwtTokenHandlerConfig;
 
@@ -39,6 +41,8 @@ final class ExampleTokenHandlerFactory implements SnapshotTokenHandlerFactory {
         switch (snapshotTokenConfig.getType()) {
         case JwtTokenHandlerConfig.TYPE:
             return createJwtTokenHandler((JwtTokenHandlerConfig) snapshotTokenConfig);
+        case CompactTokenHandlerConfig.TYPE:
+            return createCompactTokenHandler((CompactTokenHandlerConfig) snapshotTokenConfig);
         default:
             throw new IllegalArgumentException("Unknown type " + snapshotTokenConfig.getType());
         }
@@ -65,4 +69,11 @@ final class ExampleTokenHandlerFactory implements SnapshotTokenHandlerFactory {
         }
     }
 
+    private SnapshotTokenHandler createCompactTokenHandler(CompactTokenHandlerConfig config) {
+        return new CompactTokenHandler(
+                config.getSharedKey(),
+                config.getCompressionAlgorithm(),
+                config.getTokenLifeTimeInSeconds());
+    }
+
 }
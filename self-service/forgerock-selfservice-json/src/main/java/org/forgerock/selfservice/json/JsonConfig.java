@@ -30,6 +30,7 @@ import org.forgerock.selfservice.stages.kba.SecurityAnswerDefinitionConfig;
 import org.forgerock.selfservice.stages.kba.SecurityAnswerVerificationConfig;
 import org.forgerock.selfservice.stages.registration.UserRegistrationConfig;
 import org.forgerock.selfservice.stages.reset.ResetStageConfig;
+import org.forgerock.selfservice.stages.tokenhandlers.CompactTokenHandlerConfig;
 import org.forgerock.selfservice.stages.tokenhandlers.JwtTokenHandlerConfig;
 import org.forgerock.selfservice.stages.user.EmailUsernameConfig;
 import org.forgerock.selfservice.stages.user.RetrieveUsernameConfig;
@@ -71,7 +72,8 @@ final class JsonConfig {
                         new NamedType(EmailUsernameConfig.class, EmailUsernameConfig.NAME),
 
                         // token handler config object mapping
-                        new NamedType(JwtTokenHandlerConfig.class, JwtTokenHandlerConfig.TYPE));
+                        new NamedType(JwtTokenHandlerConfig.class, JwtTokenHandlerConfig.TYPE),
+                        new NamedType(CompactTokenHandlerConfig.class, CompactTokenHandlerConfig.TYPE));
     }
 
     /**
@@ -0,0 +1,227 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Open Source Solution Technology Corporation
+ */
+
+package org.forgerock.selfservice.stages.tokenhandlers;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Binary encoding of JSON object models, used by the {@link CompactTokenHandler} to serialise process state.
+ * <p>
+ * Each value is a one byte type tag followed by its payload: integers are zig-zag varints, doubles are eight bytes,
+ * strings are a varint byte length followed by their UTF-8 bytes, and arrays and objects are a varint element count
+ * followed by their elements, object members being a string key then a value. Integers decode as {@code Integer}
+ * when they fit and as {@code Long} otherwise, as a JSON parser would.
+ */
+final class BinaryJsonCodec {
+
+    private static final int NULL = 0;
+    private static final int FALSE = 1;
+    private static final int TRUE = 2;
+    private static final int INTEGER = 3;
+    private static final int DOUBLE = 4;
+    private static final int STRING = 5;
+    private static final int ARRAY = 6;
+    private static final int OBJECT = 7;
+    private static final int BIG_INTEGER = 8;
+    private static final int BIG_DECIMAL = 9;
+
+    private static final int MAX_DEPTH = 256;
+
+    private BinaryJsonCodec() {
+        // Static methods only.
+    }
+
+    /**
+     * Encodes a JSON object model.
+     *
+     * @param value
+     *         the value to encode
+     * @return the encoded value
+     * @throws IOException
+     *         if the value contains objects which are not part of the JSON object model
+     */
+    static byte[] encode(Object value) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(256);
+        write(out, value);
+        return out.toByteArray();
+    }
+
+    /**
+     * Decodes a JSON object model.
+     *
+     * @param bytes
+     *         the encoded value
+     * @return the decoded value
+     * @throws IOException
+     *         if the bytes are not a valid encoding
+     */
+    static Object decode(byte[] bytes) throws IOException {
+        ByteBuffer in = ByteBuffer.wrap(bytes);
+        try {
+            Object value = read(in, 0);
+            if (in.hasRemaining()) {
+                throw new IOException("Trailing bytes after encoded value");
+            }
+            return value;
+        } catch (RuntimeException e) {
+            throw new IOException("Malformed encoded value", e);
+        }
+    }
+
+    private static void write(ByteArrayOutputStream out, Object value) throws IOException {
+        if (value == null) {
+            out.write(NULL);
+        } else if (value instanceof Boolean) {
+            out.write((Boolean) value ? TRUE : FALSE);
+        } else if (value instanceof Integer || value instanceof Long
+                || value instanceof Short || value instanceof Byte) {
+            out.write(INTEGER);
+            long l = ((Number) value).longValue();
+            writeVarint(out, (l << 1) ^ (l >> 63));
+        } else if (value instanceof Double || value instanceof Float) {
+            out.write(DOUBLE);
+            long bits = Double.doubleToLongBits(((Number) value).doubleValue());
+            for (int shift = 56; shift >= 0; shift -= 8) {
+                out.write((int) (bits >>> shift));
+            }
+        } else if (value instanceof BigInteger) {
+            out.write(BIG_INTEGER);
+            writeString(out, value.toString());
+        } else if (value instanceof BigDecimal) {
+            out.write(BIG_DECIMAL);
+            writeString(out, value.toString());
+        } else if (value instanceof String) {
+            out.write(STRING);
+            writeString(out, (String) value);
+        } else if (value instanceof List) {
+            List<?> list = (List<?>) value;
+            out.write(ARRAY);
+            writeVarint(out, list.size());
+            for (Object element : list) {
+                write(out, element);
+            }
+        } else if (value instanceof Map) {
+            Map<?, ?> map = (Map<?, ?>) value;
+            out.write(OBJECT);
+            writeVarint(out, map.size());
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                writeString(out, String.valueOf(entry.getKey()));
+                write(out, entry.getValue());
+            }
+        } else {
+            throw new IOException("Unsupported JSON value of type " + value.getClass().getName());
+        }
+    }
+
+    private static Object read(ByteBuffer in, int depth) throws IOException {
+        if (depth > MAX_DEPTH) {
+            throw new IOException("Encoded value is nested too deeply");
+        }
+        int type = in.get();
+        switch (type) {
+        case NULL:
+            return null;
+        case FALSE:
+            return Boolean.FALSE;
+        case TRUE:
+            return Boolean.TRUE;
+        case INTEGER:
+            long zigzag = readVarint(in);
+            long l = (zigzag >>> 1) ^ -(zigzag & 1);
+            if (l == (int) l) {
+                return (int) l;
+            }
+            return l;
+        case DOUBLE:
+            return Double.longBitsToDouble(in.getLong());
+        case BIG_INTEGER:
+            return new BigInteger(readString(in));
+        case BIG_DECIMAL:
+            return new BigDecimal(readString(in));
+        case STRING:
+            return readString(in);
+        case ARRAY:
+            int size = readSize(in);
+            List<Object> list = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                list.add(read(in, depth + 1));
+            }
+            return list;
+        case OBJECT:
+            int count = readSize(in);
+            Map<String, Object> map = new LinkedHashMap<>(count * 2);
+            for (int i = 0; i < count; i++) {
+                String key = readString(in);
+                map.put(key, read(in, depth + 1));
+            }
+            return map;
+        default:
+            throw new IOException("Unknown value type " + type);
+        }
+    }
+
+    private static void writeString(ByteArrayOutputStream out, String s) {
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        writeVarint(out, bytes.length);
+        out.write(bytes, 0, bytes.length);
+    }
+
+    private static String readString(ByteBuffer in) throws IOException {
+        int length = readSize(in);
+        String s = new String(in.array(), in.position(), length, StandardCharsets.UTF_8);
+        in.position(in.position() + length);
+        return s;
+    }
+
+    private static void writeVarint(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    private static long readVarint(ByteBuffer in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = in.get();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed varint");
+    }
+
+    /** Reads a size, which can never exceed the number of remaining bytes. */
+    private static int readSize(ByteBuffer in) throws IOException {
+        long size = readVarint(in);
+        if (size < 0 || size > in.remaining()) {
+            throw new IOException("Invalid size " + size);
+        }
+        return (int) size;
+    }
+}
@@ -0,0 +1,141 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Open Source Solution Technology Corporation
+ */
+
+package org.forgerock.selfservice.stages.tokenhandlers;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import org.forgerock.json.jose.jwe.CompressionAlgorithm;
+import org.forgerock.selfservice.core.snapshot.SnapshotTokenConfig;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+
+/**
+ * Configuration for the {@link CompactTokenHandler}.
+ *
+ * @since 20.1.2
+ */
+public final class CompactTokenHandlerConfig implements SnapshotTokenConfig {
+
+    /**
+     * Type of the token handler.
+     */
+    public static final String TYPE = "compact";
+
+    @JsonProperty
+    private String sharedKey;
+    @JsonProperty
+    private CompressionAlgorithm compressionAlgorithm = CompressionAlgorithm.DEF;
+    @JsonProperty("tokenExpiry")
+    private long tokenLifeTimeInSeconds;
+
+    /**
+     * Gets token handler type.
+     *
+     * @return the type
+     */
+    public String getType() {
+        return TYPE;
+    }
+
+    /**
+     * Gets the shared key.
+     *
+     * @return the shared key as UTF-8 encoded bytes
+     */
+    public byte[] getSharedKey() {
+        return sharedKey.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Gets the compression algorithm.
+     *
+     * @return the compression algorithm
+     */
+    public CompressionAlgorithm getCompressionAlgorithm() {
+        return compressionAlgorithm;
+    }
+
+    /**
+     * Gets the token life time.
+     *
+     * @return the token life time in seconds
+     */
+    public long getTokenLifeTimeInSeconds() {
+        return tokenLifeTimeInSeconds;
+    }
+
+    /**
+     * Set the shared key.
+     *
+     * @param sharedKey
+     *         the shared key
+     *
+     * @return this config instance
+     */
+    public CompactTokenHandlerConfig setSharedKey(String sharedKey) {
+        this.sharedKey = sharedKey;
+        return this;
+    }
+
+    /**
+     * Set the compression algorithm.
+     *
+     * @param compressionAlgorithm
+     *         the compression algorithm
+     *
+     * @return this config instance
+     */
+    public CompactTokenHandlerConfig setCompressionAlgorithm(CompressionAlgorithm compressionAlgorithm) {
+        this.compressionAlgorithm = compressionAlgorithm;
+        return this;
+    }
+
+    /**
+     * Set the token life (seconds).
+     *
+     * @param tokenLifeTimeInSeconds
+     *         the token life
+     *
+     * @return this config instance
+     */
+    public CompactTokenHandlerConfig setTokenLifeTimeInSeconds(long tokenLifeTimeInSeconds) {
+        this.tokenLifeTimeInSeconds = tokenLifeTimeInSeconds;
+        return this;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+
+        if (!(o instanceof CompactTokenHandlerConfig)) {
+            return false;
+        }
+
+        CompactTokenHandlerConfig that = (CompactTokenHandlerConfig) o;
+        return Objects.equals(tokenLifeTimeInSeconds, that.tokenLifeTimeInSeconds)
+                && Objects.equals(sharedKey, that.sharedKey)
+                && Objects.equals(compressionAlgorithm, that.compressionAlgorithm);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(sharedKey, compressionAlgorithm, tokenLifeTimeInSeconds);
+    }
+
+}
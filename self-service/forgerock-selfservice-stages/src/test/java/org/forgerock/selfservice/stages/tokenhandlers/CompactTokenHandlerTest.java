@@ -0,0 +1,160 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Open Source Solution Technology Corporation
+ */
+package org.forgerock.selfservice.stages.tokenhandlers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.forgerock.json.JsonValue.*;
+
+import java.nio.charset.StandardCharsets;
+
+import org.forgerock.json.JsonValue;
+import org.forgerock.json.jose.jwe.CompressionAlgorithm;
+import org.forgerock.json.resource.BadRequestException;
+import org.forgerock.util.encode.Base64url;
+import org.forgerock.util.time.TimeService;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/**
+ * Unit test for {@link CompactTokenHandler}.
+ *
+ * @since 20.1.2
+ */
+public final class CompactTokenHandlerTest {
+
+    private static final byte[] SHARED_KEY = "!tHiSsOmEsHaReDkEy!".getBytes(StandardCharsets.UTF_8);
+
+    private CompactTokenHandler tokenHandler;
+    private long now;
+    private TimeService time;
+
+    @BeforeMethod
+    public void setUp() {
+        tokenHandler = new CompactTokenHandler(SHARED_KEY, CompressionAlgorithm.DEF, 60L);
+        now = 1_000_000L;
+        time = new TimeService() {
+            @Override
+            public long now() {
+                return now;
+            }
+
+            @Override
+            public long since(final long past) {
+                return now - past;
+            }
+        };
+    }
+
+    @Test
+    public void testRoundTrip() throws Exception {
+        // Given
+        JsonValue state = json(object(
+                field("stageIndex", 2),
+                field("state", object(field("mail", "alice@example.com"), field("verified", true)))));
+
+        // When
+        String token = tokenHandler.generate(state);
+        JsonValue extracted = tokenHandler.validateAndExtractState(token);
+
+        // Then
+        assertThat(extracted.getObject()).isEqualTo(state.getObject());
+    }
+
+    @Test
+    public void testRoundTripPreservesJsonTypes() throws Exception {
+        // Given
+        JsonValue state = json(object(
+                field("int", -3),
+                field("long", 1L << 40),
+                field("double", 2.5),
+                field("string", "caf\u00e9"),
+                field("null", null),
+                field("false", false),
+                field("array", array(1, "two", array(), object()))));
+
+        // When
+        JsonValue extracted = tokenHandler.validateAndExtractState(tokenHandler.generate(state));
+
+        // Then
+        assertThat(extracted.getObject()).isEqualTo(state.getObject());
+    }
+
+    @Test
+    public void testTokenIsValidUntilItExpires() throws Exception {
+        // Given
+        CompactTokenHandler shortLivedHandler = new CompactTokenHandler(SHARED_KEY, CompressionAlgorithm.DEF, 1L, time);
+        String token = shortLivedHandler.generate(json(object(field("key", "value"))));
+        now += 1000L;
+
+        // When
+        JsonValue extracted = shortLivedHandler.validateAndExtractState(token);
+
+        // Then
+        assertThat(extracted.get("key").asString()).isEqualTo("value");
+    }
+
+    @Test(expectedExceptions = BadRequestException.class)
+    public void testExpiredTokenIsRejected() throws Exception {
+        // Given
+        CompactTokenHandler shortLivedHandler = new CompactTokenHandler(SHARED_KEY, CompressionAlgorithm.DEF, 1L, time);
+        String token = shortLivedHandler.generate(json(object(field("key", "value"))));
+        now += 1001L;
+
+        // When
+        shortLivedHandler.validate(token);
+    }
+
+    @Test
+    public void testTokenIsDifferentForEachGeneration() throws Exception {
+        // Given
+        JsonValue state = json(object(field("key", "value")));
+
+        // When
+        String token1 = tokenHandler.generate(state);
+        String token2 = tokenHandler.generate(state);
+
+        // Then
+        assertThat(token1).isNotEqualTo(token2);
+    }
+
+    @Test(expectedExceptions = BadRequestException.class)
+    public void testTamperedTokenIsRejected() throws Exception {
+        // Given
+        byte[] token = Base64url.decode(tokenHandler.generate(json(object(field("key", "value")))));
+        token[token.length - 1] ^= 1;
+
+        // When
+        tokenHandler.validate(Base64url.encode(token));
+    }
+
+    @Test(expectedExceptions = BadRequestException.class)
+    public void testTokenFromDifferentKeyIsRejected() throws Exception {
+        // Given
+        CompactTokenHandler otherHandler = new CompactTokenHandler("otherkey".getBytes(StandardCharsets.UTF_8),
+                CompressionAlgorithm.DEF, 60L);
+        String token = otherHandler.generate(json(object(field("key", "value"))));
+
+        // When
+        tokenHandler.validate(token);
+    }
+
+    @Test(expectedExceptions = BadRequestException.class)
+    public void testTruncatedTokenIsRejected() throws Exception {
+        // When
+        tokenHandler.validate("AQAAAA");
+    }
+
+}
@@ -12,6 +12,7 @@
  * information: "Portions Copyrighted [year] [name of copyright owner]".
  *
  * Copyright 2011-2015 ForgeRock AS.
+ * Portions copyright 2026 Open Source Solution Technology Corporation
  */
 
 package org.forgerock.json;
@@ -22,21 +23,49 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
+import java.util.Objects;
 
 /**
  * Identifies a specific value within a JSON structure. Conforms with
  * <a href="http://tools.ietf.org/html/draft-pbryan-zyp-json-pointer-02">draft-pbryan-zip-json-pointer-02</a>.
+ * <p>
+ * JSON pointers are immutable. Pointers returned by {@link #child(String)} share the structure of their parent
+ * rather than copying its reference tokens, so that building a pointer for each step while navigating a JSON
+ * structure is a constant time operation. The hash code and string value of a pointer are computed once, on
+ * demand.
  */
 public class JsonPointer implements Iterable<String> {
 
-    /** The reference tokens that make-up the JSON pointer. */
-    private String[] tokens = new String[0];
+    /** A pointer to the root value of a JSON structure, shared by JSON values which do not specify a pointer. */
+    static final JsonPointer ROOT = new JsonPointer();
+
+    /**
+     * The reference tokens that make-up the JSON pointer, or {@code null} if this pointer is a child of
+     * {@link #parent} identified by {@link #leaf}.
+     */
+    private final String[] tokens;
+
+    /** The parent of this pointer when it was derived using {@link #child(String)}. */
+    private final JsonPointer parent;
+
+    /** The last reference token of this pointer when it was derived using {@link #child(String)}. */
+    private final String leaf;
+
+    /** The number of reference tokens in the pointer. */
+    private final int size;
+
+    /** The cached hash code, or {@code 0} if it has not been computed yet. */
+    private int hashCode;
+
+    /** The cached string value, or {@code null} if it has not been computed yet. */
+    private String stringValue;
 
     /**
      * Constructs a JSON pointer, identifying the root value of a JSON structure.
      */
     public JsonPointer() {
         // empty tokens represents pointer to root value
+        this(new String[0], null, null);
     }
 
     /**
@@ -46,19 +75,7 @@ public class JsonPointer implements Iterable<String> {
      * @throws JsonException if the pointer is malformed.
      */
     public JsonPointer(String pointer) {
-        String[] split = pointer.split("/", -1);
-        int length = split.length;
-        ArrayList<String> list = new ArrayList<>(length);
-        for (int n = 0; n < length; n++) {
-            if (n == 0 && split[n].length() == 0) {
-                continue; // leading slash ignored
-            } else if (n == length - 1 && split[n].length() == 0) {
-                continue; // trailing slash ignored
-            } else {
-                list.add(decode(split[n]));
-            }
-        }
-        tokens = list.toArray(tokens);
+        this(parse(pointer), null, null);
     }
 
     /**
@@ -67,7 +84,7 @@ public class JsonPointer implements Iterable<String> {
      * @param tokens an array of string reference tokens.
      */
     public JsonPointer(String[] tokens) {
-        this.tokens = Arrays.copyOf(tokens, tokens.length);
+        this(Arrays.copyOf(tokens, tokens.length), null, null);
     }
 
     /**
@@ -76,11 +93,38 @@ public class JsonPointer implements Iterable<String> {
      * @param iterable an iterable collection of reference tokens.
      */
     public JsonPointer(Iterable<String> iterable) {
+        this(toArray(iterable), null, null);
+    }
+
+    private JsonPointer(String[] tokens, JsonPointer parent, String leaf) {
+        this.tokens = tokens;
+        this.parent = parent;
+        this.leaf = leaf;
+        this.size = tokens != null ? tokens.length : parent.size + 1;
+    }
+
+    private static String[] parse(String pointer) {
+        String[] split = pointer.split("/", -1);
+        int length = split.length;
+        ArrayList<String> list = new ArrayList<>(length);
+        for (int n = 0; n < length; n++) {
+            if (n == 0 && split[n].length() == 0) {
+                continue; // leading slash ignored
+            } else if (n == length - 1 && split[n].length() == 0) {
+                continue; // trailing slash ignored
+            } else {
+                list.add(decode(split[n]));
+            }
+        }
+        return list.toArray(new String[list.size()]);
+    }
+
+    private static String[] toArray(Iterable<String> iterable) {
         ArrayList<String> list = new ArrayList<>();
         for (String element : iterable) {
             list.add(element);
         }
-        tokens = list.toArray(tokens);
+        return list.toArray(new String[list.size()]);
     }
 
     /**
@@ -90,7 +134,7 @@ public class JsonPointer implements Iterable<String> {
      * @param value the reference token value to be encoded.
      * @return the encode reference token value.
      */
-    private String encode(String value) {
+    private static String encode(String value) {
         try {
             return new URI(null, null, null, null, value).toASCIIString().substring(1).replaceAll("/", "%2F");
         } catch (URISyntaxException use) { // shouldn't happen
@@ -105,7 +149,7 @@ public class JsonPointer implements Iterable<String> {
      * @return the decoded reference token value.
      * @throws JsonException if the reference token value is malformed.
      */
-    private String decode(String value) {
+    private static String decode(String value) {
         try {
             return new URI("#" + value).getFragment();
         } catch (URISyntaxException use) {
@@ -119,7 +163,7 @@ public class JsonPointer implements Iterable<String> {
      * @return the number of reference tokens in the pointer.
      */
     public int size() {
-        return tokens.length;
+        return size;
     }
 
     /**
@@ -130,10 +174,14 @@ public class JsonPointer implements Iterable<String> {
      * @throws IndexOutOfBoundsException if the index is out of range.
      */
     public String get(int index) {
-        if (index < 0 || index >= tokens.length) {
+        if (index < 0 || index >= size) {
             throw new IndexOutOfBoundsException();
         }
-        return tokens[index];
+        JsonPointer pointer = this;
+        while (pointer.tokens == null && pointer.size - 1 > index) {
+            pointer = pointer.parent;
+        }
+        return pointer.tokens != null ? pointer.tokens[index] : pointer.leaf;
     }
 
     /**
@@ -144,7 +192,17 @@ public class JsonPointer implements Iterable<String> {
      * @return a newly allocated array of strings, containing the pointer's reference tokens.
      */
     public String[] toArray() {
-        return Arrays.copyOf(tokens, tokens.length);
+        if (tokens != null) {
+            return Arrays.copyOf(tokens, size);
+        }
+        String[] result = new String[size];
+        JsonPointer pointer = this;
+        while (pointer.tokens == null) {
+            result[pointer.size - 1] = pointer.leaf;
+            pointer = pointer.parent;
+        }
+        System.arraycopy(pointer.tokens, 0, result, 0, pointer.size);
+        return result;
     }
 
     /**
@@ -154,12 +212,13 @@ public class JsonPointer implements Iterable<String> {
      * @return a pointer to the parent of of this JSON pointer. Can be null.
      */
     public JsonPointer parent() {
-        JsonPointer parent = null;
-        if (this.tokens.length > 0) {
-            parent = new JsonPointer();
-            parent.tokens = Arrays.copyOf(this.tokens, this.tokens.length - 1);
+        if (size == 0) {
+            return null;
+        } else if (tokens == null) {
+            return parent;
+        } else {
+            return new JsonPointer(Arrays.copyOf(tokens, size - 1), null, null);
         }
-        return parent;
     }
 
     /**
@@ -196,7 +255,7 @@ public class JsonPointer implements Iterable<String> {
      *         in this pointer.
      */
     public JsonPointer relativePointer() {
-        return tokens.length > 0 ? relativePointer(tokens.length - 1) : this;
+        return size > 0 ? relativePointer(size - 1) : this;
     }
 
     /**
@@ -241,17 +300,14 @@ public class JsonPointer implements Iterable<String> {
      *             If {@code sz} is negative or greater than {@code size()}.
      */
     public JsonPointer relativePointer(int sz) {
-        int length = tokens.length;
-        if (sz < 0 || sz > length) {
+        if (sz < 0 || sz > size) {
             throw new IndexOutOfBoundsException();
-        } else if (sz == length) {
+        } else if (sz == size) {
             return this;
         } else if (sz == 0) {
             return new JsonPointer();
         } else {
-            JsonPointer relativePointer = new JsonPointer();
-            relativePointer.tokens = Arrays.copyOfRange(tokens, length - sz, length);
-            return relativePointer;
+            return new JsonPointer(Arrays.copyOfRange(toArray(), size - sz, size), null, null);
         }
     }
 
@@ -262,7 +318,10 @@ public class JsonPointer implements Iterable<String> {
      * @return the last (leaf) reference token of the JSON pointer if it exists, {@code null} otherwise
      */
     public String leaf() {
-        return tokens.length > 0 ? tokens[tokens.length - 1] : null;
+        if (tokens == null) {
+            return leaf;
+        }
+        return size > 0 ? tokens[size - 1] : null;
     }
 
     /**
@@ -277,10 +336,7 @@ public class JsonPointer implements Iterable<String> {
         if (child == null) {
             throw new NullPointerException();
         }
-        JsonPointer pointer = new JsonPointer();
-        pointer.tokens = Arrays.copyOf(this.tokens, this.tokens.length + 1);
-        pointer.tokens[pointer.tokens.length - 1] = child;
-        return pointer;
+        return new JsonPointer(null, this, child);
     }
 
     /**
@@ -317,18 +373,19 @@ public class JsonPointer implements Iterable<String> {
      */
     @Override
     public Iterator<String> iterator() {
+        final String[] iteratedTokens = tokens != null ? tokens : toArray();
         return new Iterator<String>() {
             int cursor = 0;
             @Override
             public boolean hasNext() {
-                return cursor < tokens.length;
+                return cursor < iteratedTokens.length;
             }
             @Override
             public String next() {
-                if (cursor >= tokens.length) {
+                if (cursor >= iteratedTokens.length) {
                     throw new NoSuchElementException();
                 }
-                return tokens[cursor++];
+                return iteratedTokens[cursor++];
             }
             @Override
             public void remove() {
@@ -344,14 +401,23 @@ public class JsonPointer implements Iterable<String> {
      */
     @Override
     public String toString() {
-        final StringBuilder sb = new StringBuilder();
-        for (String token : tokens) {
-            sb.append('/').append(encode(token));
-        }
-        if (sb.length() == 0) {
-            sb.append('/');
+        String result = stringValue;
+        if (result == null) {
+            if (tokens == null && parent.stringValue != null) {
+                result = parent.size == 0 ? "/" + encode(leaf) : parent.stringValue + "/" + encode(leaf);
+            } else {
+                final StringBuilder sb = new StringBuilder();
+                for (String token : tokens != null ? tokens : toArray()) {
+                    sb.append('/').append(encode(token));
+                }
+                if (sb.length() == 0) {
+                    sb.append('/');
+                }
+                result = sb.toString();
+            }
+            stringValue = result;
         }
-        return sb.toString();
+        return result;
     }
 
     /**
@@ -364,9 +430,33 @@ public class JsonPointer implements Iterable<String> {
      */
     @Override
     public boolean equals(Object o) {
-        return o instanceof JsonPointer
-                && ((JsonPointer) o).size() == size()
-                && Arrays.equals(tokens, ((JsonPointer) o).tokens);
+        if (this == o) {
+            return true;
+        } else if (!(o instanceof JsonPointer)) {
+            return false;
+        }
+        JsonPointer that = (JsonPointer) o;
+        if (that.size != size || hashCode != 0 && that.hashCode != 0 && hashCode != that.hashCode) {
+            return false;
+        }
+        JsonPointer pointer = this;
+        while (pointer != that) {
+            if (pointer.tokens != null || that.tokens != null) {
+                for (int i = 0; i < pointer.size; i++) {
+                    if (!Objects.equals(pointer.get(i), that.get(i))) {
+                        return false;
+                    }
+                }
+                return true;
+            }
+            if (!pointer.leaf.equals(that.leaf)) {
+                return false;
+            }
+            // Pointers derived from a common ancestor share it, so the walk usually stops early.
+            pointer = pointer.parent;
+            that = that.parent;
+        }
+        return true;
     }
 
     /**
@@ -376,6 +466,15 @@ public class JsonPointer implements Iterable<String> {
      */
     @Override
     public int hashCode() {
-        return Arrays.hashCode(tokens);
+        int result = hashCode;
+        if (result == 0) {
+            if (tokens == null && parent.hashCode != 0) {
+                result = 31 * parent.hashCode + leaf.hashCode();
+            } else {
+                result = Arrays.hashCode(tokens != null ? tokens : toArray());
+            }
+            hashCode = result;
+        }
+        return result;
     }
 }
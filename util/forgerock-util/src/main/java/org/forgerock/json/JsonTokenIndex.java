@@ -0,0 +1,568 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Open Source Solution Technology Corporation
+ */
+
+package org.forgerock.json;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.forgerock.util.Factory;
+import org.forgerock.util.LazyList;
+import org.forgerock.util.LazyMap;
+
+/**
+ * A token index over UTF-8 encoded JSON data, used to materialise JSON objects and arrays only when they are accessed.
+ * <p>
+ * {@link #parse(byte[])} validates the whole document in a single pass and records, for every value and member name,
+ * its type and byte range in the raw data together with the index of the token following it. Objects and arrays are
+ * exposed as {@code Map}s and {@code List}s which are populated from the index when they are first accessed: their
+ * members are located by following the recorded token links, without scanning the raw data again, and only the
+ * strings and numbers of the populated container are decoded. Nested objects and arrays are exposed lazily in turn, so
+ * reading one or two fields of a large document only decodes the path to those fields.
+ * <p>
+ * The values produced match those of a Jackson {@code ObjectMapper} reading into {@code Object}: objects are
+ * {@code LinkedHashMap}s, arrays are {@code ArrayList}s, integers are {@code Integer}s, {@code Long}s or
+ * {@code BigInteger}s depending on their magnitude and decimal numbers are {@code Double}s.
+ * <p>
+ * Containers that have not been populated yet are shared rather than copied by {@link JsonValue#copy()}: the copy
+ * gets its own container over the same immutable index, which it will populate independently of the original.
+ */
+public final class JsonTokenIndex {
+
+    /* Token types. */
+    private static final int OBJECT = 0;
+    private static final int ARRAY = 1;
+    private static final int STRING = 2;
+    private static final int INTEGER = 3;
+    private static final int DECIMAL = 4;
+    private static final int TRUE = 5;
+    private static final int FALSE = 6;
+    private static final int NULL = 7;
+    /** Set on the type of strings containing escape sequences. */
+    private static final int ESCAPED = 0x10;
+    private static final int TYPE_MASK = 0x0f;
+
+    /* Each token is recorded as 4 consecutive ints: its type, its start and end offsets and the next token. */
+    private static final int STRIDE = 4;
+    private static final int TYPE = 0;
+    private static final int START = 1;
+    private static final int END = 2;
+    private static final int NEXT = 3;
+
+    /** Integers with at most this many digits always fit in an {@code int}. */
+    private static final int MAX_INT_DIGITS = 9;
+    /** Integers with at most this many digits always fit in a {@code long}. */
+    private static final int MAX_LONG_DIGITS = 18;
+
+    /**
+     * Parses the provided UTF-8 encoded JSON data, deferring the construction of JSON objects and arrays until they
+     * are accessed.
+     * <p>
+     * The data is fully validated before this method returns. The returned {@code Map} or {@code List} is populated
+     * from the token index on first access, and its own object and array members are populated in the same way. The
+     * raw data is retained until every container sharing it has been populated or discarded.
+     *
+     * @param json
+     *            The UTF-8 encoded data to parse. The array must not be modified after calling this method.
+     * @return Any of {@code Map<String, Object>}, {@code List<Object>}, {@code String}, {@code Number},
+     *         {@code Boolean} or {@code null}.
+     * @throws IOException
+     *             If the data is not valid JSON.
+     */
+    public static Object parse(final byte[] json) throws IOException {
+        final JsonTokenIndex index = new JsonTokenIndex(json);
+        index.scan();
+        return index.valueAt(0);
+    }
+
+    private final byte[] json;
+    private int[] tokens = new int[STRIDE * 16];
+    private int tokenCount;
+
+    private JsonTokenIndex(final byte[] json) {
+        this.json = json;
+    }
+
+    /**
+     * Returns the value of the token at the provided position, which is lazily populated if it is an object or an
+     * array.
+     */
+    private Object valueAt(final int token) {
+        final int offset = token * STRIDE;
+        switch (tokens[offset + TYPE] & TYPE_MASK) {
+        case OBJECT:
+            return new IndexedMap(this, token);
+        case ARRAY:
+            return new IndexedList(this, token);
+        case STRING:
+            return decodeString(offset);
+        case INTEGER:
+            return decodeInteger(tokens[offset + START], tokens[offset + END]);
+        case DECIMAL:
+            return Double.valueOf(new String(json, tokens[offset + START],
+                    tokens[offset + END] - tokens[offset + START], UTF_8));
+        case TRUE:
+            return Boolean.TRUE;
+        case FALSE:
+            return Boolean.FALSE;
+        default:
+            return null;
+        }
+    }
+
+    private Map<String, Object> populateObject(final int token) {
+        final Map<String, Object> map = new LinkedHashMap<>();
+        final int end = tokens[token * STRIDE + NEXT];
+        int member = token + 1;
+        while (member < end) {
+            final String name = decodeString(member * STRIDE);
+            final int value = member + 1;
+            map.put(name, valueAt(value));
+            member = tokens[value * STRIDE + NEXT];
+        }
+        return map;
+    }
+
+    private List<Object> populateArray(final int token) {
+        final List<Object> list = new ArrayList<>();
+        final int end = tokens[token * STRIDE + NEXT];
+        int element = token + 1;
+        while (element < end) {
+            list.add(valueAt(element));
+            element = tokens[element * STRIDE + NEXT];
+        }
+        return list;
+    }
+
+    private String decodeString(final int offset) {
+        // The recorded range includes the quotes.
+        final int start = tokens[offset + START] + 1;
+        final int end = tokens[offset + END] - 1;
+        if ((tokens[offset + TYPE] & ESCAPED) == 0) {
+            return new String(json, start, end - start, UTF_8);
+        }
+        final StringBuilder sb = new StringBuilder(end - start);
+        int segment = start;
+        int i = start;
+        while (i < end) {
+            if (json[i] != '\\') {
+                i++;
+                continue;
+            }
+            sb.append(new String(json, segment, i - segment, UTF_8));
+            final byte escaped = json[i + 1];
+            switch (escaped) {
+            case 'b':
+                sb.append('\b');
+                break;
+            case 'f':
+                sb.append('\f');
+                break;
+            case 'n':
+                sb.append('\n');
+                break;
+            case 'r':
+                sb.append('\r');
+                break;
+            case 't':
+                sb.append('\t');
+                break;
+            case 'u':
+                sb.append((char) Integer.parseInt(new String(json, i + 2, 4, UTF_8), 16));
+                i += 4;
+                break;
+            default:
+                // '"', '\\' and '/' stand for themselves.
+                sb.append((char) escaped);
+                break;
+            }
+            i += 2;
+            segment = i;
+        }
+        sb.append(new String(json, segment, end - segment, UTF_8));
+        return sb.toString();
+    }
+
+    private Number decodeInteger(final int start, final int end) {
+        final boolean negative = json[start] == '-';
+        final int digits = negative ? end - start - 1 : end - start;
+        if (digits <= MAX_LONG_DIGITS) {
+            long value = 0;
+            for (int i = negative ? start + 1 : start; i < end; i++) {
+                value = value * 10 + (json[i] - '0');
+            }
+            value = negative ? -value : value;
+            if (digits <= MAX_INT_DIGITS || (value >= Integer.MIN_VALUE && value <= Integer.MAX_VALUE)) {
+                return (int) value;
+            }
+            return value;
+        }
+        final BigInteger value = new BigInteger(new String(json, start, end - start, UTF_8));
+        return value.bitLength() < Long.SIZE ? (Number) value.longValue() : value;
+    }
+
+    /** Validates the whole document and records its tokens. */
+    private void scan() throws IOException {
+        // The containers enclosing the current position.
+        int[] open = new int[16];
+        int depth = 0;
+        int pos = skipWhitespace(0);
+        boolean expectValue = true;
+        while (true) {
+            if (expectValue) {
+                if (pos >= json.length) {
+                    throw error("Unexpected end of input", pos);
+                }
+                final byte b = json[pos];
+                if (b == '{' || b == '[') {
+                    if (depth == open.length) {
+                        open = Arrays.copyOf(open, depth * 2);
+                    }
+                    open[depth++] = addToken(b == '{' ? OBJECT : ARRAY, pos, pos);
+                    pos = skipWhitespace(pos + 1);
+                    if (pos < json.length && json[pos] == (b == '{' ? '}' : ']')) {
+                        expectValue = false;
+                        continue;
+                    }
+                    if (b == '{') {
+                        pos = scanMemberName(pos);
+                    }
+                    continue;
+                }
+                pos = scanScalar(pos);
+                expectValue = false;
+            }
+            pos = skipWhitespace(pos);
+            if (depth == 0) {
+                if (pos != json.length) {
+                    throw error("Unexpected content after the end of the JSON value", pos);
+                }
+                return;
+            }
+            if (pos >= json.length) {
+                throw error("Unexpected end of input", pos);
+            }
+            final int container = open[depth - 1];
+            final boolean inObject = tokens[container * STRIDE + TYPE] == OBJECT;
+            final byte b = json[pos];
+            if (b == ',') {
+                pos = skipWhitespace(pos + 1);
+                if (inObject) {
+                    pos = scanMemberName(pos);
+                }
+                expectValue = true;
+            } else if (b == (inObject ? '}' : ']')) {
+                tokens[container * STRIDE + END] = pos + 1;
+                tokens[container * STRIDE + NEXT] = tokenCount;
+                depth--;
+                pos++;
+            } else {
+                throw error("Unexpected character '" + (char) b + "'", pos);
+            }
+        }
+    }
+
+    /** Scans a member name and the following colon, returning the position of the member value. */
+    private int scanMemberName(final int pos) throws IOException {
+        if (pos >= json.length || json[pos] != '"') {
+            throw error("Expected a member name", pos);
+        }
+        final int colon = skipWhitespace(scanString(pos));
+        if (colon >= json.length || json[colon] != ':') {
+            throw error("Expected ':' after the member name", colon);
+        }
+        return skipWhitespace(colon + 1);
+    }
+
+    /** Scans the string, number or literal at the provided position, returning the position following it. */
+    private int scanScalar(final int pos) throws IOException {
+        final byte b = json[pos];
+        switch (b) {
+        case '"':
+            return scanString(pos);
+        case 't':
+            return scanLiteral(pos, "true", TRUE);
+        case 'f':
+            return scanLiteral(pos, "false", FALSE);
+        case 'n':
+            return scanLiteral(pos, "null", NULL);
+        default:
+            if (b == '-' || (b >= '0' && b <= '9')) {
+                return scanNumber(pos);
+            }
+            throw error("Unexpected character '" + (char) b + "'", pos);
+        }
+    }
+
+    private int scanString(final int start) throws IOException {
+        int type = STRING;
+        int pos = start + 1;
+        while (true) {
+            if (pos >= json.length) {
+                throw error("Unterminated string", start);
+            }
+            final int b = json[pos] & 0xff;
+            if (b == '"') {
+                break;
+            } else if (b == '\\') {
+                type = STRING | ESCAPED;
+                pos = scanEscape(pos);
+            } else if (b < 0x20) {
+                throw error("Unescaped control character in string", pos);
+            } else if (b < 0x80) {
+                pos++;
+            } else {
+                pos = scanMultiByte(pos, b);
+            }
+        }
+        addToken(type, start, pos + 1);
+        return pos + 1;
+    }
+
+    private int scanEscape(final int pos) throws IOException {
+        if (pos + 1 >= json.length) {
+            throw error("Unterminated string", pos);
+        }
+        switch (json[pos + 1]) {
+        case '"':
+        case '\\':
+        case '/':
+        case 'b':
+        case 'f':
+        case 'n':
+        case 'r':
+        case 't':
+            return pos + 2;
+        case 'u':
+            for (int i = pos + 2; i < pos + 6; i++) {
+                if (i >= json.length || Character.digit(json[i], 16) < 0) {
+                    throw error("Invalid unicode escape", pos);
+                }
+            }
+            return pos + 6;
+        default:
+            throw error("Invalid escape sequence", pos);
+        }
+    }
+
+    /** Checks that a multi-byte UTF-8 sequence is well formed, returning the position following it. */
+    private int scanMultiByte(final int pos, final int lead) throws IOException {
+        final int length;
+        if (lead >= 0xc2 && lead <= 0xdf) {
+            length = 2;
+        } else if (lead >= 0xe0 && lead <= 0xef) {
+            length = 3;
+        } else if (lead >= 0xf0 && lead <= 0xf4) {
+            length = 4;
+        } else {
+            throw error("Invalid UTF-8 start byte", pos);
+        }
+        for (int i = pos + 1; i < pos + length; i++) {
+            if (i >= json.length || (json[i] & 0xc0) != 0x80) {
+                throw error("Invalid UTF-8 continuation byte", i);
+            }
+        }
+        return pos + length;
+    }
+
+    private int scanLiteral(final int start, final String literal, final int type) throws IOException {
+        final int end = start + literal.length();
+        if (end > json.length) {
+            throw error("Unrecognized token", start);
+        }
+        for (int i = 0; i < literal.length(); i++) {
+            if (json[start + i] != literal.charAt(i)) {
+                throw error("Unrecognized token", start);
+            }
+        }
+        if (end < json.length && isIdentifierPart(json[end])) {
+            throw error("Unrecognized token", start);
+        }
+        addToken(type, start, end);
+        return end;
+    }
+
+    private int scanNumber(final int start) throws IOException {
+        int pos = start;
+        if (json[pos] == '-') {
+            pos++;
+        }
+        if (pos >= json.length || !isDigit(json[pos])) {
+            throw error("Invalid number", start);
+        }
+        if (json[pos] == '0') {
+            pos++;
+            if (pos < json.length && isDigit(json[pos])) {
+                throw error("Leading zeroes are not allowed", start);
+            }
+        } else {
+            pos = skipDigits(pos);
+        }
+        int type = INTEGER;
+        if (pos < json.length && json[pos] == '.') {
+            type = DECIMAL;
+            pos++;
+            if (pos >= json.length || !isDigit(json[pos])) {
+                throw error("Invalid number", start);
+            }
+            pos = skipDigits(pos);
+        }
+        if (pos < json.length && (json[pos] == 'e' || json[pos] == 'E')) {
+            type = DECIMAL;
+            pos++;
+            if (pos < json.length && (json[pos] == '+' || json[pos] == '-')) {
+                pos++;
+            }
+            if (pos >= json.length || !isDigit(json[pos])) {
+                throw error("Invalid number", start);
+            }
+            pos = skipDigits(pos);
+        }
+        if (pos < json.length && isIdentifierPart(json[pos])) {
+            throw error("Invalid number", start);
+        }
+        addToken(type, start, pos);
+        return pos;
+    }
+
+    private int skipDigits(int pos) {
+        while (pos < json.length && isDigit(json[pos])) {
+            pos++;
+        }
+        return pos;
+    }
+
+    private int skipWhitespace(int pos) {
+        while (pos < json.length) {
+            final byte b = json[pos];
+            if (b != ' ' && b != '\t' && b != '\n' && b != '\r') {
+                break;
+            }
+            pos++;
+        }
+        return pos;
+    }
+
+    private static boolean isDigit(final byte b) {
+        return b >= '0' && b <= '9';
+    }
+
+    private static boolean isIdentifierPart(final byte b) {
+        return isDigit(b) || (b >= 'a' && b <= 'z') || (b >= 'A' && b <= 'Z') || b == '_' || b == '.'
+                || b == '-' || b == '+';
+    }
+
+    /**
+     * Records a token and returns its position. The end offset and next token of objects and arrays are recorded
+     * when they are closed.
+     */
+    private int addToken(final int type, final int start, final int end) {
+        if ((tokenCount + 1) * STRIDE > tokens.length) {
+            tokens = Arrays.copyOf(tokens, tokens.length * 2);
+        }
+        final int offset = tokenCount * STRIDE;
+        tokens[offset + TYPE] = type;
+        tokens[offset + START] = start;
+        tokens[offset + END] = end;
+        tokens[offset + NEXT] = tokenCount + 1;
+        return tokenCount++;
+    }
+
+    private static IOException error(final String message, final int pos) {
+        return new IOException(message + " at byte offset " + pos);
+    }
+
+    /**
+     * A JSON object or array populated from a token index when first accessed, which can be shared by
+     * {@link JsonValue#copy()} until then.
+     */
+    interface Container {
+
+        /**
+         * Returns a new container over the same token index if this container has not been populated yet, so that
+         * the original and the copy can be populated and modified independently.
+         *
+         * @return a new unpopulated container, or {@code null} if this container has already been populated and must
+         *         therefore be copied member by member.
+         */
+        Object copyIfUnpopulated();
+    }
+
+    /** A JSON object populated from the token index. */
+    private static final class IndexedMap extends LazyMap<String, Object> implements Container {
+        private final JsonTokenIndex index;
+        private final int token;
+        private volatile boolean populated;
+
+        IndexedMap(final JsonTokenIndex index, final int token) {
+            this.index = index;
+            this.token = token;
+            this.factory = new Factory<Map<String, Object>>() {
+                @Override
+                public Map<String, Object> newInstance() {
+                    populated = true;
+                    return index.populateObject(token);
+                }
+            };
+        }
+
+        @Override
+        public Object copyIfUnpopulated() {
+            return populated ? null : new IndexedMap(index, token);
+        }
+
+        @Override
+        public String toString() {
+            return new LinkedHashMap<>(this).toString();
+        }
+    }
+
+    /** A JSON array populated from the token index. */
+    private static final class IndexedList extends LazyList<Object> implements Container {
+        private final JsonTokenIndex index;
+        private final int token;
+        private volatile boolean populated;
+
+        IndexedList(final JsonTokenIndex index, final int token) {
+            this.index = index;
+            this.token = token;
+            this.factory = new Factory<List<Object>>() {
+                @Override
+                public List<Object> newInstance() {
+                    populated = true;
+                    return index.populateArray(token);
+                }
+            };
+        }
+
+        @Override
+        public Object copyIfUnpopulated() {
+            return populated ? null : new IndexedList(index, token);
+        }
+
+        @Override
+        public String toString() {
+            return new ArrayList<>(this).toString();
+        }
+    }
+}
@@ -13,6 +13,7 @@
  *
  * Copyright © 2010–2011 ApexIdentity Inc. All rights reserved.
  * Portions Copyrighted 2011-2016 ForgeRock AS.
+ * Portions copyright 2026 Open Source Solution Technology Corporation
  */
 
 package org.forgerock.json;
@@ -227,9 +228,18 @@ public class JsonValue implements Cloneable, Iterable<JsonValue> {
     /** The Java object representing this JSON value. */
     private Object object;
 
-    /** The pointer to the value within a JSON structure. */
+    /**
+     * The pointer to the value within a JSON structure, or {@code null} if it has not been resolved yet from
+     * {@link #parentPointer} and {@link #pointerLeaf}.
+     */
     private JsonPointer pointer;
 
+    /** The pointer to the parent of this value, when this value was obtained from its parent. */
+    private JsonPointer parentPointer;
+
+    /** The reference token of this value within its parent, when this value was obtained from its parent. */
+    private String pointerLeaf;
+
     /** Transformers to apply to the value; are inherited by its members. */
     private final ArrayList<JsonTransformer> transformers = new ArrayList<>(0);
 
@@ -293,7 +303,7 @@ public class JsonValue implements Cloneable, Iterable<JsonValue> {
             final JsonValue jv = (JsonValue) object;
             this.object = jv.object;
             if (pointer == null) {
-                this.pointer = jv.pointer;
+                this.pointer = jv.getPointer();
             }
             if (transformers == null) {
                 this.transformers.addAll(jv.transformers);
@@ -303,13 +313,37 @@ public class JsonValue implements Cloneable, Iterable<JsonValue> {
             this.transformers.addAll(transformers);
         }
         if (this.pointer == null) {
-            this.pointer = new JsonPointer();
+            this.pointer = JsonPointer.ROOT;
         }
         if (this.transformers.size() > 0) {
             applyTransformers();
         }
     }
 
+    /**
+     * Constructs a JSON value object for a member of a parent JSON value. The pointer of the member is only
+     * constructed if it is requested, since most members are read without ever inspecting their pointer.
+     *
+     * @param object
+     *            the Java object representing the JSON value.
+     * @param parentPointer
+     *            the pointer to the parent value in a JSON structure.
+     * @param pointerLeaf
+     *            the reference token of the value within its parent.
+     * @param transformers
+     *            a list of transformers to apply the value and its members.
+     */
+    private JsonValue(final Object object, final JsonPointer parentPointer, final String pointerLeaf,
+            final Collection<? extends JsonTransformer> transformers) {
+        this.object = object instanceof JsonValue ? ((JsonValue) object).object : object;
+        this.parentPointer = parentPointer;
+        this.pointerLeaf = pointerLeaf;
+        this.transformers.addAll(transformers);
+        if (this.transformers.size() > 0) {
+            applyTransformers();
+        }
+    }
+
     /**
      * Adds the specified value to the list. Adding a value to a list shifts any
      * existing elements at or above the specified index to the right by one.
@@ -1081,7 +1115,7 @@ public class JsonValue implements Cloneable, Iterable<JsonValue> {
      */
     @Override
     public JsonValue clone() {
-        final JsonValue result = new JsonValue(this.object, this.pointer);
+        final JsonValue result = new JsonValue(this.object, getPointer());
         result.transformers.addAll(this.transformers); // avoid re-applying transformers
         if (isMap()) {
             result.object = new LinkedHashMap<>(this.asMap());
@@ -1121,12 +1155,24 @@ public class JsonValue implements Cloneable, Iterable<JsonValue> {
      * Note: This method is recursive, and currently has no ability to detect or
      * correct for structures containing cyclic references. Processing such a
      * structure will result in a {@link StackOverflowError} being thrown.
+     * <p>
+     * Objects and arrays parsed by {@link JsonTokenIndex} which have not been
+     * accessed yet are not traversed: the copy shares their immutable token
+     * index, and each side populates its own members when it first accesses
+     * them.
      *
      * @return a deep copy of this JSON value.
      */
     public JsonValue copy() {
         // TODO: track original values to resolve cyclic references
-        final JsonValue result = new JsonValue(object, pointer); // start with shallow copy
+        final JsonValue result = new JsonValue(object, getPointer()); // start with shallow copy
+        if (object instanceof JsonTokenIndex.Container && transformers.isEmpty()) {
+            final Object shared = ((JsonTokenIndex.Container) object).copyIfUnpopulated();
+            if (shared != null) {
+                result.object = shared;
+                return result;
+            }
+        }
         if (this.isMap()) {
             final Map<String, Object> map = new LinkedHashMap<>(size());
             for (final String key : keys()) {
@@ -1158,7 +1204,7 @@ public class JsonValue implements Cloneable, Iterable<JsonValue> {
      * @return this JSON value or a new JSON value containing the default value.
      */
     public JsonValue defaultTo(final Object object) {
-        return (this.object != null ? this : new JsonValue(object, this.pointer, this.transformers));
+        return (this.object != null ? this : new JsonValue(object, getPointer(), this.transformers));
     }
 
     /**
@@ -1202,7 +1248,7 @@ public class JsonValue implements Cloneable, Iterable<JsonValue> {
                 result = list.get(index);
             }
         }
-        return new JsonValue(result, pointer.child(index), transformers);
+        return new JsonValue(result, getPointer(), Integer.toString(index), transformers);
     }
 
     /**
@@ -1250,7 +1296,7 @@ public class JsonValue implements Cloneable, Iterable<JsonValue> {
                 result = list.get(index);
             }
         }
-        return new JsonValue(result, pointer.child(key), transformers);
+        return new JsonValue(result, getPointer(), key, transformers);
     }
 
     /**
@@ -1268,6 +1314,9 @@ public class JsonValue implements Cloneable, Iterable<JsonValue> {
      * @return the pointer of the JSON value in its JSON structure.
      */
     public JsonPointer getPointer() {
+        if (pointer == null) {
+            pointer = parentPointer.child(pointerLeaf);
+        }
         return pointer;
     }
 
@@ -1410,7 +1459,7 @@ public class JsonValue implements Cloneable, Iterable<JsonValue> {
                 @Override
                 public JsonValue next() {
                     final Object element = i.next();
-                    return new JsonValue(element, pointer.child(cursor++), transformers);
+                    return new JsonValue(element, getPointer(), Integer.toString(cursor++), transformers);
                 }
 
                 @Override
@@ -1430,7 +1479,7 @@ public class JsonValue implements Cloneable, Iterable<JsonValue> {
                 @Override
                 public JsonValue next() {
                     final Object element = i.next();
-                    return new JsonValue(element, pointer.child(String.valueOf(object)), transformers);
+                    return new JsonValue(element, getPointer(), String.valueOf(object), transformers);
                 }
 
                 @Override
@@ -0,0 +1,779 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Open Source Solution Technology Corporation
+ */
+
+package org.forgerock.json;
+
+import static org.forgerock.util.query.QueryFilterOperators.CONTAINS;
+import static org.forgerock.util.query.QueryFilterOperators.EQUALS;
+import static org.forgerock.util.query.QueryFilterOperators.GREATER_EQUAL;
+import static org.forgerock.util.query.QueryFilterOperators.GREATER_THAN;
+import static org.forgerock.util.query.QueryFilterOperators.LESS_EQUAL;
+import static org.forgerock.util.query.QueryFilterOperators.LESS_THAN;
+import static org.forgerock.util.query.QueryFilterOperators.STARTS_WITH;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.forgerock.util.Predicate;
+import org.forgerock.util.Reject;
+import org.forgerock.util.query.QueryFilter;
+import org.forgerock.util.query.QueryFilterVisitor;
+
+/**
+ * Compiles {@link QueryFilter query filters} into {@link Predicate predicates} which can be applied to many
+ * {@link JsonValue}s without interpreting the filter tree for each of them.
+ * <p>
+ * Compilation resolves the JSON pointers of the filter once, selects the comparison to use from the type of each
+ * value assertion, folds boolean literals and orders the operands of {@code and} and {@code or} filters so that the
+ * cheapest ones are evaluated first. Compiled predicates are immutable, thread-safe and cached, so compiling the same
+ * filter again is cheap.
+ * <p>
+ * The compiled predicates match values the same way {@code MemoryBackend} does:
+ * <ul>
+ *     <li>a comparison matches if any of the field values matches; fields holding a list provide each of their
+ *     elements as a value, missing fields provide no values;</li>
+ *     <li>strings are compared ignoring case, numbers are compared as doubles and booleans are compared with each
+ *     other, values of different types never match;</li>
+ *     <li>{@code co} and {@code sw} assertions on numbers and booleans are equality matches;</li>
+ *     <li>extended match filters are not supported: filters using them are not compiled.</li>
+ * </ul>
+ * Subclasses may change how individual filters are compiled by overriding the corresponding {@code visit} method,
+ * using {@link #literal(boolean)}, {@link #anyValue(JsonPointer, String, Object)} and
+ * {@link #everyValue(JsonPointer, String, Object)} to build the replacement predicates.
+ * <p>
+ * Values having {@link JsonValue#getTransformers() transformers} are resolved through
+ * {@link JsonValue#get(JsonPointer)}, all other values are resolved directly from their underlying objects.
+ */
+public class JsonValueFilterCompiler implements QueryFilterVisitor<Predicate<JsonValue>, Void, JsonPointer> {
+
+    /** The default maximum number of compiled filters cached by a compiler. */
+    public static final int DEFAULT_CACHE_SIZE = 256;
+
+    private static final JsonValueFilterCompiler DEFAULT_COMPILER = new JsonValueFilterCompiler();
+
+    /** Returned by the visitor methods when a filter cannot be compiled, never exposed. */
+    private static final Predicate<JsonValue> NOT_COMPILABLE = new Literal(false);
+
+    /** Cost of predicates which have not been built by this class. */
+    private static final int FOREIGN_COST = 8;
+
+    private static final Comparator<Node> BY_COST = new Comparator<Node>() {
+        @Override
+        public int compare(final Node n1, final Node n2) {
+            return n1.cost < n2.cost ? -1 : (n1.cost == n2.cost ? 0 : 1);
+        }
+    };
+
+    private final Map<QueryFilter<JsonPointer>, Predicate<JsonValue>> cache;
+
+    /**
+     * Returns the shared compiler using the default semantics and cache size.
+     *
+     * @return The shared compiler.
+     */
+    public static JsonValueFilterCompiler defaultCompiler() {
+        return DEFAULT_COMPILER;
+    }
+
+    /**
+     * Creates a new compiler caching up to {@link #DEFAULT_CACHE_SIZE} compiled filters.
+     */
+    public JsonValueFilterCompiler() {
+        this(DEFAULT_CACHE_SIZE);
+    }
+
+    /**
+     * Creates a new compiler caching up to {@code cacheSize} compiled filters, the least recently used filters
+     * being evicted first.
+     *
+     * @param cacheSize
+     *            The maximum number of compiled filters to cache, {@code 0} disables caching.
+     */
+    public JsonValueFilterCompiler(final int cacheSize) {
+        Reject.ifTrue(cacheSize < 0, "The cache size must not be negative");
+        this.cache = new LinkedHashMap<QueryFilter<JsonPointer>, Predicate<JsonValue>>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<QueryFilter<JsonPointer>, Predicate<JsonValue>> e) {
+                return size() > cacheSize;
+            }
+        };
+    }
+
+    /**
+     * Compiles the provided filter, or returns the cached predicate if the filter has already been compiled.
+     *
+     * @param filter
+     *            The filter to compile.
+     * @return The compiled predicate, or {@code null} if the filter cannot be compiled, in which case callers should
+     *         interpret the filter with a {@link QueryFilterVisitor} instead.
+     */
+    public Predicate<JsonValue> compile(final QueryFilter<JsonPointer> filter) {
+        Reject.ifNull(filter);
+        Predicate<JsonValue> compiled;
+        synchronized (cache) {
+            compiled = cache.get(filter);
+        }
+        if (compiled == null) {
+            compiled = filter.accept(this, null);
+            if (compiled == null) {
+                compiled = NOT_COMPILABLE;
+            }
+            synchronized (cache) {
+                cache.put(filter, compiled);
+            }
+        }
+        return compiled != NOT_COMPILABLE ? compiled : null;
+    }
+
+    @Override
+    public Predicate<JsonValue> visitAndFilter(final Void p, final List<QueryFilter<JsonPointer>> subFilters) {
+        final List<Node> operands = new ArrayList<>(subFilters.size());
+        for (final QueryFilter<JsonPointer> subFilter : subFilters) {
+            final Node operand = node(subFilter.accept(this, p));
+            if (operand == null) {
+                return null;
+            } else if (operand instanceof Literal) {
+                if (!((Literal) operand).value) {
+                    return literal(false);
+                }
+            } else if (operand instanceof And) {
+                Collections.addAll(operands, ((And) operand).operands);
+            } else {
+                operands.add(operand);
+            }
+        }
+        if (operands.isEmpty()) {
+            return literal(true);
+        } else if (operands.size() == 1) {
+            return operands.get(0);
+        }
+        Collections.sort(operands, BY_COST);
+        return new And(operands.toArray(new Node[operands.size()]));
+    }
+
+    @Override
+    public Predicate<JsonValue> visitBooleanLiteralFilter(final Void p, final boolean value) {
+        return literal(value);
+    }
+
+    @Override
+    public Predicate<JsonValue> visitContainsFilter(final Void p, final JsonPointer field,
+            final Object valueAssertion) {
+        return anyValue(field, CONTAINS, valueAssertion);
+    }
+
+    @Override
+    public Predicate<JsonValue> visitEqualsFilter(final Void p, final JsonPointer field,
+            final Object valueAssertion) {
+        return anyValue(field, EQUALS, valueAssertion);
+    }
+
+    /**
+     * Extended match filters are not supported by default: returns {@code null}, so that filters using them are not
+     * compiled.
+     *
+     * @param p
+     *            Unused.
+     * @param field
+     *            The field of the filter.
+     * @param operator
+     *            The matching rule of the filter.
+     * @param valueAssertion
+     *            The value assertion of the filter.
+     * @return {@code null}.
+     */
+    @Override
+    public Predicate<JsonValue> visitExtendedMatchFilter(final Void p, final JsonPointer field,
+            final String operator, final Object valueAssertion) {
+        return null;
+    }
+
+    @Override
+    public Predicate<JsonValue> visitGreaterThanFilter(final Void p, final JsonPointer field,
+            final Object valueAssertion) {
+        return anyValue(field, GREATER_THAN, valueAssertion);
+    }
+
+    @Override
+    public Predicate<JsonValue> visitGreaterThanOrEqualToFilter(final Void p, final JsonPointer field,
+            final Object valueAssertion) {
+        return anyValue(field, GREATER_EQUAL, valueAssertion);
+    }
+
+    @Override
+    public Predicate<JsonValue> visitLessThanFilter(final Void p, final JsonPointer field,
+            final Object valueAssertion) {
+        return anyValue(field, LESS_THAN, valueAssertion);
+    }
+
+    @Override
+    public Predicate<JsonValue> visitLessThanOrEqualToFilter(final Void p, final JsonPointer field,
+            final Object valueAssertion) {
+        return anyValue(field, LESS_EQUAL, valueAssertion);
+    }
+
+    @Override
+    public Predicate<JsonValue> visitNotFilter(final Void p, final QueryFilter<JsonPointer> subFilter) {
+        final Node operand = node(subFilter.accept(this, p));
+        if (operand == null) {
+            return null;
+        } else if (operand instanceof Literal) {
+            return literal(!((Literal) operand).value);
+        } else if (operand instanceof Not) {
+            return ((Not) operand).operand;
+        }
+        return new Not(operand);
+    }
+
+    @Override
+    public Predicate<JsonValue> visitOrFilter(final Void p, final List<QueryFilter<JsonPointer>> subFilters) {
+        final List<Node> operands = new ArrayList<>(subFilters.size());
+        for (final QueryFilter<JsonPointer> subFilter : subFilters) {
+            final Node operand = node(subFilter.accept(this, p));
+            if (operand == null) {
+                return null;
+            } else if (operand instanceof Literal) {
+                if (((Literal) operand).value) {
+                    return literal(true);
+                }
+            } else if (operand instanceof Or) {
+                Collections.addAll(operands, ((Or) operand).operands);
+            } else {
+                operands.add(operand);
+            }
+        }
+        if (operands.isEmpty()) {
+            return literal(false);
+        } else if (operands.size() == 1) {
+            return operands.get(0);
+        }
+        Collections.sort(operands, BY_COST);
+        return new Or(operands.toArray(new Node[operands.size()]));
+    }
+
+    @Override
+    public Predicate<JsonValue> visitPresentFilter(final Void p, final JsonPointer field) {
+        return new Present(new Path(field));
+    }
+
+    @Override
+    public Predicate<JsonValue> visitStartsWithFilter(final Void p, final JsonPointer field,
+            final Object valueAssertion) {
+        return anyValue(field, STARTS_WITH, valueAssertion);
+    }
+
+    /**
+     * Returns a predicate always returning the provided value.
+     *
+     * @param value
+     *            The value returned by the predicate.
+     * @return The predicate.
+     */
+    protected final Predicate<JsonValue> literal(final boolean value) {
+        return value ? Literal.TRUE : Literal.FALSE;
+    }
+
+    /**
+     * Returns a predicate matching JSON values if any value of the provided field matches the value assertion.
+     *
+     * @param field
+     *            The field to match.
+     * @param operator
+     *            One of the comparison operators defined in {@link org.forgerock.util.query.QueryFilterOperators}:
+     *            {@code eq}, {@code gt}, {@code ge}, {@code lt}, {@code le}, {@code co} or {@code sw}.
+     * @param valueAssertion
+     *            The value assertion.
+     * @return The predicate.
+     */
+    protected final Predicate<JsonValue> anyValue(final JsonPointer field, final String operator,
+            final Object valueAssertion) {
+        final Matcher matcher = matcher(operator, valueAssertion);
+        if (matcher == Matcher.NONE) {
+            return literal(false);
+        }
+        return new AnyValue(new Path(field), matcher);
+    }
+
+    /**
+     * Returns a predicate matching JSON values if every value of the provided field matches the value assertion. The
+     * predicate matches JSON values where the field is missing or holds an empty list.
+     *
+     * @param field
+     *            The field to match.
+     * @param operator
+     *            One of the comparison operators defined in {@link org.forgerock.util.query.QueryFilterOperators}:
+     *            {@code eq}, {@code gt}, {@code ge}, {@code lt}, {@code le}, {@code co} or {@code sw}.
+     * @param valueAssertion
+     *            The value assertion.
+     * @return The predicate.
+     */
+    protected final Predicate<JsonValue> everyValue(final JsonPointer field, final String operator,
+            final Object valueAssertion) {
+        return new EveryValue(new Path(field), matcher(operator, valueAssertion));
+    }
+
+    private static Node node(final Predicate<JsonValue> predicate) {
+        if (predicate == null || predicate instanceof Node) {
+            return (Node) predicate;
+        }
+        return new Foreign(predicate);
+    }
+
+    private static Matcher matcher(final String operator, final Object valueAssertion) {
+        final Relation relation = Relation.of(operator);
+        if (valueAssertion instanceof String) {
+            final String assertion = (String) valueAssertion;
+            switch (relation) {
+            case EQ:
+                return new StringEquals(assertion);
+            case CO:
+                return new StringContains(assertion);
+            case SW:
+                return new StringStartsWith(assertion);
+            default:
+                return new StringOrdering(assertion, relation);
+            }
+        } else if (valueAssertion instanceof Number) {
+            return new NumberOrdering(((Number) valueAssertion).doubleValue(), relation.ordering());
+        } else if (valueAssertion instanceof Boolean) {
+            return new BooleanOrdering((Boolean) valueAssertion, relation.ordering());
+        } else {
+            // Only strings, numbers and booleans can be compared
+            return Matcher.NONE;
+        }
+    }
+
+    /** The relation between the value assertion and a candidate value required by a comparison filter. */
+    private enum Relation {
+        EQ {
+            @Override
+            boolean holds(final int comparison) {
+                return comparison == 0;
+            }
+        },
+        GT {
+            @Override
+            boolean holds(final int comparison) {
+                return comparison < 0;
+            }
+        },
+        GE {
+            @Override
+            boolean holds(final int comparison) {
+                return comparison <= 0;
+            }
+        },
+        LT {
+            @Override
+            boolean holds(final int comparison) {
+                return comparison > 0;
+            }
+        },
+        LE {
+            @Override
+            boolean holds(final int comparison) {
+                return comparison >= 0;
+            }
+        },
+        CO {
+            @Override
+            boolean holds(final int comparison) {
+                return comparison == 0;
+            }
+        },
+        SW {
+            @Override
+            boolean holds(final int comparison) {
+                return comparison == 0;
+            }
+        };
+
+        /**
+         * Returns whether the relation holds given the result of comparing the value assertion to the candidate.
+         */
+        abstract boolean holds(int comparison);
+
+        /** Returns the relation to use for values which are not strings, for which substrings are meaningless. */
+        Relation ordering() {
+            return this == CO || this == SW ? EQ : this;
+        }
+
+        static Relation of(final String operator) {
+            switch (operator) {
+            case EQUALS:
+                return EQ;
+            case GREATER_THAN:
+                return GT;
+            case GREATER_EQUAL:
+                return GE;
+            case LESS_THAN:
+                return LT;
+            case LESS_EQUAL:
+                return LE;
+            case CONTAINS:
+                return CO;
+            case STARTS_WITH:
+                return SW;
+            default:
+                throw new IllegalArgumentException("Unsupported comparison operator: " + operator);
+            }
+        }
+    }
+
+    /** Matches a single candidate value against a value assertion. */
+    private abstract static class Matcher {
+        static final Matcher NONE = new Matcher(0) {
+            @Override
+            boolean matches(final Object candidate) {
+                return false;
+            }
+        };
+
+        final int cost;
+
+        Matcher(final int cost) {
+            this.cost = cost;
+        }
+
+        abstract boolean matches(Object candidate);
+    }
+
+    private static final class StringEquals extends Matcher {
+        private final String assertion;
+
+        StringEquals(final String assertion) {
+            super(2);
+            this.assertion = assertion;
+        }
+
+        @Override
+        boolean matches(final Object candidate) {
+            return candidate instanceof String && assertion.equalsIgnoreCase((String) candidate);
+        }
+    }
+
+    private static final class StringOrdering extends Matcher {
+        private final String assertion;
+        private final Relation relation;
+
+        StringOrdering(final String assertion, final Relation relation) {
+            super(3);
+            this.assertion = assertion;
+            this.relation = relation;
+        }
+
+        @Override
+        boolean matches(final Object candidate) {
+            return candidate instanceof String && relation.holds(assertion.compareToIgnoreCase((String) candidate));
+        }
+    }
+
+    private static final class StringContains extends Matcher {
+        private final String assertion;
+
+        StringContains(final String assertion) {
+            super(5);
+            this.assertion = assertion.toLowerCase(Locale.ENGLISH);
+        }
+
+        @Override
+        boolean matches(final Object candidate) {
+            return candidate instanceof String
+                    && ((String) candidate).toLowerCase(Locale.ENGLISH).contains(assertion);
+        }
+    }
+
+    private static final class StringStartsWith extends Matcher {
+        private final String assertion;
+
+        StringStartsWith(final String assertion) {
+            super(4);
+            this.assertion = assertion.toLowerCase(Locale.ENGLISH);
+        }
+
+        @Override
+        boolean matches(final Object candidate) {
+            return candidate instanceof String
+                    && ((String) candidate).toLowerCase(Locale.ENGLISH).startsWith(assertion);
+        }
+    }
+
+    private static final class NumberOrdering extends Matcher {
+        private final double assertion;
+        private final Relation relation;
+
+        NumberOrdering(final double assertion, final Relation relation) {
+            super(1);
+            this.assertion = assertion;
+            this.relation = relation;
+        }
+
+        @Override
+        boolean matches(final Object candidate) {
+            return candidate instanceof Number
+                    && relation.holds(Double.compare(assertion, ((Number) candidate).doubleValue()));
+        }
+    }
+
+    private static final class BooleanOrdering extends Matcher {
+        private final boolean assertion;
+        private final Relation relation;
+
+        BooleanOrdering(final boolean assertion, final Relation relation) {
+            super(1);
+            this.assertion = assertion;
+            this.relation = relation;
+        }
+
+        @Override
+        boolean matches(final Object candidate) {
+            if (candidate instanceof Boolean) {
+                final boolean value = (Boolean) candidate;
+                return relation.holds(assertion == value ? 0 : (assertion ? 1 : -1));
+            }
+            return false;
+        }
+    }
+
+    /** A JSON pointer resolved once, whose tokens are looked up directly in maps and lists. */
+    private static final class Path {
+        /** Returned when the field is not defined. */
+        static final Object MISSING = new Object();
+
+        private final JsonPointer pointer;
+        private final String[] tokens;
+        private final int[] indexes;
+
+        Path(final JsonPointer pointer) {
+            this.pointer = pointer;
+            this.tokens = pointer.toArray();
+            this.indexes = new int[tokens.length];
+            for (int i = 0; i < tokens.length; i++) {
+                indexes[i] = JsonValue.toIndex(tokens[i]);
+            }
+        }
+
+        Object resolve(final JsonValue value) {
+            if (!value.getTransformers().isEmpty()) {
+                final JsonValue field = value.get(pointer);
+                return field != null ? field.getObject() : MISSING;
+            }
+            Object object = value.getObject();
+            for (int i = 0; i < tokens.length; i++) {
+                if (object instanceof Map) {
+                    final Map<?, ?> map = (Map<?, ?>) object;
+                    object = map.get(tokens[i]);
+                    if (object == null && !map.containsKey(tokens[i])) {
+                        return MISSING;
+                    }
+                } else if (object instanceof List) {
+                    final List<?> list = (List<?>) object;
+                    final int index = indexes[i];
+                    if (index < 0 || index >= list.size()) {
+                        return MISSING;
+                    }
+                    object = list.get(index);
+                } else {
+                    return MISSING;
+                }
+                if (object instanceof JsonValue) {
+                    object = ((JsonValue) object).getObject();
+                }
+            }
+            return object;
+        }
+
+        int cost() {
+            return tokens.length;
+        }
+    }
+
+    /** A compiled filter, along with the estimated cost of evaluating it. */
+    private abstract static class Node implements Predicate<JsonValue> {
+        final int cost;
+
+        Node(final int cost) {
+            this.cost = cost;
+        }
+    }
+
+    private static final class Literal extends Node {
+        static final Literal TRUE = new Literal(true);
+        static final Literal FALSE = new Literal(false);
+
+        private final boolean value;
+
+        private Literal(final boolean value) {
+            super(0);
+            this.value = value;
+        }
+
+        @Override
+        public boolean test(final JsonValue value) {
+            return this.value;
+        }
+    }
+
+    private static final class And extends Node {
+        private final Node[] operands;
+
+        And(final Node[] operands) {
+            super(sumOfCosts(operands));
+            this.operands = operands;
+        }
+
+        @Override
+        public boolean test(final JsonValue value) {
+            for (final Node operand : operands) {
+                if (!operand.test(value)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    private static final class Or extends Node {
+        private final Node[] operands;
+
+        Or(final Node[] operands) {
+            super(sumOfCosts(operands));
+            this.operands = operands;
+        }
+
+        @Override
+        public boolean test(final JsonValue value) {
+            for (final Node operand : operands) {
+                if (operand.test(value)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    private static final class Not extends Node {
+        private final Node operand;
+
+        Not(final Node operand) {
+            super(operand.cost);
+            this.operand = operand;
+        }
+
+        @Override
+        public boolean test(final JsonValue value) {
+            return !operand.test(value);
+        }
+    }
+
+    private static final class Present extends Node {
+        private final Path path;
+
+        Present(final Path path) {
+            super(path.cost());
+            this.path = path;
+        }
+
+        @Override
+        public boolean test(final JsonValue value) {
+            return path.resolve(value) != Path.MISSING;
+        }
+    }
+
+    private static final class AnyValue extends Node {
+        private final Path path;
+        private final Matcher matcher;
+
+        AnyValue(final Path path, final Matcher matcher) {
+            super(path.cost() + matcher.cost);
+            this.path = path;
+            this.matcher = matcher;
+        }
+
+        @Override
+        public boolean test(final JsonValue value) {
+            final Object object = path.resolve(value);
+            if (object == Path.MISSING) {
+                return false;
+            } else if (object instanceof List) {
+                for (final Object element : (List<?>) object) {
+                    if (matcher.matches(element)) {
+                        return true;
+                    }
+                }
+                return false;
+            }
+            return matcher.matches(object);
+        }
+    }
+
+    private static final class EveryValue extends Node {
+        private final Path path;
+        private final Matcher matcher;
+
+        EveryValue(final Path path, final Matcher matcher) {
+            super(path.cost() + matcher.cost);
+            this.path = path;
+            this.matcher = matcher;
+        }
+
+        @Override
+        public boolean test(final JsonValue value) {
+            final Object object = path.resolve(value);
+            if (object == Path.MISSING) {
+                return true;
+            } else if (object instanceof List) {
+                for (final Object element : (List<?>) object) {
+                    if (!matcher.matches(element)) {
+                        return false;
+                    }
+                }
+                return true;
+            }
+            return matcher.matches(object);
+        }
+    }
+
+    /** Wraps predicates returned by subclasses. */
+    private static final class Foreign extends Node {
+        private final Predicate<JsonValue> predicate;
+
+        Foreign(final Predicate<JsonValue> predicate) {
+            super(FOREIGN_COST);
+            this.predicate = predicate;
+        }
+
+        @Override
+        public boolean test(final JsonValue value) {
+            return predicate.test(value);
+        }
+    }
+
+    private static int sumOfCosts(final Node[] operands) {
+        int cost = 0;
+        for (final Node operand : operands) {
+            cost += operand.cost;
+        }
+        return cost;
+    }
+}
@@ -0,0 +1,46 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Open Source Solution Technology Corporation
+ */
+package org.forgerock.util;
+
+/**
+ * A synchronous boolean-valued function of one argument, typically used to select values.
+ * <p>
+ * Example usage:
+ *
+ * <pre>
+ * Predicate&lt;JsonValue&gt; isActive = JsonValueFilterCompiler.defaultCompiler().compile(filter);
+ * for (JsonValue user : users) {
+ *     if (isActive.test(user)) {
+ *         ...
+ *     }
+ * }
+ * </pre>
+ *
+ * @param <T>
+ *            The type of the value tested by the predicate.
+ * @see Function
+ */
+// @FunctionalInterface
+public interface Predicate<T> {
+    /**
+     * Evaluates this predicate on the given value.
+     *
+     * @param value
+     *            The value to be tested.
+     * @return {@code true} if the value matches this predicate, {@code false} otherwise.
+     */
+    boolean test(T value);
+}
@@ -12,6 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2015 ForgeRock AS.
+ * Portions copyright 2026 Open Source Solution Technology Corporation
  */
 
 package org.forgerock.util.query;
@@ -21,6 +22,7 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.Objects;
 
 /**
  * A filter which can be used to select resources, which is compatible with the CREST query filters.
@@ -141,13 +143,13 @@ public class QueryFilter<F> {
         }
 
         @Override
-        public final boolean equals(final Object obj) {
+        public boolean equals(final Object obj) {
             if (this == obj) {
                 return true;
             } else if (obj instanceof ComparatorImpl) {
                 final ComparatorImpl<?> o = (ComparatorImpl<?>) obj;
                 return field.equals(o.field) && getClass().equals(o.getClass())
-                        && valueAssertion.equals(o.valueAssertion);
+                        && Objects.equals(valueAssertion, o.valueAssertion);
             } else {
                 return false;
             }
@@ -156,7 +158,7 @@ public class QueryFilter<F> {
         @Override
         public int hashCode() {
             return (field.hashCode() * 31 + getClass().hashCode()) * 31
-                    + valueAssertion.hashCode();
+                    + Objects.hashCode(valueAssertion);
         }
 
         @Override
@@ -218,9 +220,16 @@ public class QueryFilter<F> {
             return v.visitExtendedMatchFilter(p, field, operator, valueAssertion);
         }
 
+        @Override
+        public boolean equals(final Object obj) {
+            // The comparison of the classes in the parent implementation guarantees the cast
+            return super.equals(obj) && (this == obj || operator.equals(((ExtendedMatchImpl<?>) obj).operator));
+        }
+
+        @Override
         public int hashCode() {
             return (field.hashCode() * 31 + operator.hashCode()) * 31
-                    + valueAssertion.hashCode();
+                    + Objects.hashCode(valueAssertion);
         }
 
         @Override
@@ -12,16 +12,22 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2015 ForgeRock AS.
+ * Portions copyright 2026 Open Source Solution Technology Corporation
  */
 
 package org.forgerock.util.query;
 
 import static org.forgerock.util.query.QueryFilterOperators.*;
 
+import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.forgerock.util.Reject;
 
 /**
  * A query string has the following string representation:
@@ -61,6 +67,12 @@ import java.util.NoSuchElementException;
  * can be applied to multi-valued properties. When operating on properties that are an
  * array or list type the operation should be evaluated on each element in the array,
  * passing if any of the elements in the array or list pass the operation.
+ * <p>
+ * Parsers created with a cache size keep the filters they parse, which must therefore only use immutable field
+ * descriptions, and return them when the same filter string is parsed again. They also remember the structure of the
+ * filters they parse: parsing a filter which only differs from a previously parsed filter by its assertion values,
+ * e.g. {@code /name eq "bob"} after {@code /name eq "alice"}, reuses the parsed structure and its field descriptions
+ * instead of parsing the filter again.
  *
  * @param <F> The type of field description used in parsed {@link QueryFilter} objects.
  */
@@ -69,6 +81,48 @@ public abstract class QueryFilterParser<F> {
     // Maximum permitted query filter nesting depth.
     private static final int VALUE_OF_MAX_DEPTH = 256;
 
+    // Filter strings longer than this are never cached.
+    private static final int MAX_CACHED_FILTER_LENGTH = 4096;
+
+    // Stands for the assertion values in the structure of a filter string: a lone double quote cannot be a token.
+    private static final String VALUE_PLACEHOLDER = "\"";
+
+    // States of the structure scanner, named after what is expected next.
+    private static final int EXPRESSION = 0;
+    private static final int OPERATOR = 1;
+    private static final int VALUE = 2;
+    private static final int OPERAND_END = 3;
+
+    private static final String[] COMPARISON_OPERATORS = {
+        EQUALS, GREATER_THAN, GREATER_EQUAL, LESS_THAN, LESS_EQUAL, CONTAINS, STARTS_WITH
+    };
+
+    private final int cacheSize;
+    private final ConcurrentMap<String, QueryFilter<F>> filters;
+    private final ConcurrentMap<String, QueryFilter<F>> structures;
+    private final QueryFilterVisitor<QueryFilter<F>, Iterator<Object>, F> instantiator = new Instantiator<>();
+
+    /**
+     * Creates a new parser which does not cache the filters it parses.
+     */
+    protected QueryFilterParser() {
+        this(0);
+    }
+
+    /**
+     * Creates a new parser caching up to {@code cacheSize} parsed filters, along with up to {@code cacheSize}
+     * filter structures. The field descriptions returned by {@link #parseField(String)} must be immutable.
+     *
+     * @param cacheSize
+     *            The maximum number of filters to cache, {@code 0} disables caching.
+     */
+    protected QueryFilterParser(final int cacheSize) {
+        Reject.ifTrue(cacheSize < 0, "The cache size must not be negative");
+        this.cacheSize = cacheSize;
+        this.filters = cacheSize > 0 ? new ConcurrentHashMap<String, QueryFilter<F>>() : null;
+        this.structures = cacheSize > 0 ? new ConcurrentHashMap<String, QueryFilter<F>>() : null;
+    }
+
     /**
      * Parses the field description from the current filter token into the type of field
      * description the QueryFilter uses.
@@ -90,6 +144,28 @@ public abstract class QueryFilterParser<F> {
      *             query filter.
      */
     public QueryFilter<F> valueOf(final String string) {
+        if (filters == null || string.length() > MAX_CACHED_FILTER_LENGTH) {
+            return parse(string);
+        }
+        QueryFilter<F> filter = filters.get(string);
+        if (filter == null) {
+            final List<Object> values = new ArrayList<>();
+            final String structure = structureOf(string, values);
+            final QueryFilter<F> template = structure != null ? structures.get(structure) : null;
+            if (template != null) {
+                filter = template.accept(instantiator, values.iterator());
+            } else {
+                filter = parse(string);
+                if (structure != null) {
+                    cache(structures, structure, filter);
+                }
+            }
+            cache(filters, string, filter);
+        }
+        return filter;
+    }
+
+    private QueryFilter<F> parse(final String string) {
         // Use recursive descent of grammar described in class Javadoc.
         final FilterTokenizer tokenizer = new FilterTokenizer(string);
         final QueryFilter<F> filter = valueOfOrExpr(tokenizer, 0);
@@ -100,6 +176,78 @@ public abstract class QueryFilterParser<F> {
         }
     }
 
+    private void cache(final ConcurrentMap<String, QueryFilter<F>> cache, final String key,
+            final QueryFilter<F> filter) {
+        if (cache.size() >= cacheSize) {
+            // Evict an arbitrary entry: the cache is meant to hold the few filters which are used over and over
+            final Iterator<String> keys = cache.keySet().iterator();
+            if (keys.hasNext()) {
+                keys.next();
+                keys.remove();
+            }
+        }
+        cache.put(key, filter);
+    }
+
+    /**
+     * Returns the structure of the provided filter string, i.e. its tokens with the assertion values replaced by a
+     * placeholder, and collects its assertion values. Filters having the same structure only differ by their
+     * assertion values.
+     *
+     * @return The structure, or {@code null} if the tokens do not follow the grammar, in which case parsing the
+     *         filter string will report the error.
+     */
+    private String structureOf(final String string, final List<Object> values) {
+        final StringBuilder structure = new StringBuilder(string.length());
+        try {
+            final FilterTokenizer tokenizer = new FilterTokenizer(string);
+            int state = EXPRESSION;
+            while (tokenizer.hasNext()) {
+                switch (state) {
+                case EXPRESSION:
+                    if (tokenizer.peekIs('"') || tokenizer.peekIs('\'') || tokenizer.peekIs(')')) {
+                        return null;
+                    } else if (tokenizer.peekIs(TRUE) || tokenizer.peekIs(FALSE)) {
+                        state = OPERAND_END;
+                    } else if (!tokenizer.peekIs('(') && !tokenizer.peekIs(NOT)) {
+                        // A field
+                        state = OPERATOR;
+                    }
+                    tokenizer.skip(structure);
+                    break;
+                case OPERATOR:
+                    if (tokenizer.peekIs('"') || tokenizer.peekIs('\'')
+                            || tokenizer.peekIs('(') || tokenizer.peekIs(')')) {
+                        return null;
+                    }
+                    state = tokenizer.peekIs(PRESENT) ? OPERAND_END : VALUE;
+                    tokenizer.skip(structure);
+                    break;
+                case VALUE:
+                    final Object value = valueOfAssertion(tokenizer);
+                    if (value == null) {
+                        return null;
+                    }
+                    values.add(value);
+                    structure.append(VALUE_PLACEHOLDER).append(' ');
+                    state = OPERAND_END;
+                    break;
+                default: // OPERAND_END
+                    if (tokenizer.peekIs(AND) || tokenizer.peekIs(OR)) {
+                        state = EXPRESSION;
+                    } else if (!tokenizer.peekIs(')')) {
+                        return null;
+                    }
+                    tokenizer.skip(structure);
+                    break;
+                }
+            }
+            return state == OPERAND_END ? structure.toString() : null;
+        } catch (final IllegalArgumentException e) {
+            return null;
+        }
+    }
+
     private void checkDepth(final FilterTokenizer tokenizer, final int depth) {
         if (depth > VALUE_OF_MAX_DEPTH) {
             throw new IllegalArgumentException("The query filter '" + tokenizer
@@ -112,8 +260,8 @@ public abstract class QueryFilterParser<F> {
         checkDepth(tokenizer, depth);
         QueryFilter<F> filter = valueOfNotExpr(tokenizer, depth + 1);
         List<QueryFilter<F>> subFilters = null;
-        while (tokenizer.hasNext() && tokenizer.peek().equalsIgnoreCase(AND)) {
-            tokenizer.next();
+        while (tokenizer.peekIs(AND)) {
+            tokenizer.skip();
             if (subFilters == null) {
                 subFilters = new LinkedList<>();
                 subFilters.add(filter);
@@ -132,8 +280,8 @@ public abstract class QueryFilterParser<F> {
 
     private QueryFilter<F> valueOfNotExpr(final FilterTokenizer tokenizer, final int depth) {
         checkDepth(tokenizer, depth);
-        if (tokenizer.hasNext() && tokenizer.peek().equalsIgnoreCase(NOT)) {
-            tokenizer.next();
+        if (tokenizer.peekIs(NOT)) {
+            tokenizer.skip();
             final QueryFilter<F> rhs = valueOfPrimaryExpr(tokenizer, depth + 1);
             return QueryFilter.not(rhs);
         } else {
@@ -145,8 +293,8 @@ public abstract class QueryFilterParser<F> {
         checkDepth(tokenizer, depth);
         QueryFilter<F> filter = valueOfAndExpr(tokenizer, depth + 1);
         List<QueryFilter<F>> subFilters = null;
-        while (tokenizer.hasNext() && tokenizer.peek().equalsIgnoreCase(OR)) {
-            tokenizer.next();
+        while (tokenizer.peekIs(OR)) {
+            tokenizer.skip();
             if (subFilters == null) {
                 subFilters = new LinkedList<>();
                 subFilters.add(filter);
@@ -164,64 +312,39 @@ public abstract class QueryFilterParser<F> {
         if (!tokenizer.hasNext()) {
             return valueOfIllegalArgument(tokenizer);
         }
-        String nextToken = tokenizer.next();
-        if (nextToken.equals("(")) {
+        if (tokenizer.peekIs('(')) {
             // Nested expression.
+            tokenizer.skip();
             final QueryFilter<F> filter = valueOfOrExpr(tokenizer, depth + 1);
-            if (!tokenizer.hasNext() || !tokenizer.next().equals(")")) {
+            if (!tokenizer.peekIs(')')) {
                 return valueOfIllegalArgument(tokenizer);
             }
+            tokenizer.skip();
             return filter;
-        } else if (nextToken.equalsIgnoreCase(TRUE)) {
+        } else if (tokenizer.peekIs(TRUE)) {
+            tokenizer.skip();
             return QueryFilter.alwaysTrue();
-        } else if (nextToken.equalsIgnoreCase(FALSE)) {
+        } else if (tokenizer.peekIs(FALSE)) {
+            tokenizer.skip();
             return QueryFilter.alwaysFalse();
-        } else if (nextToken.equals("\"")) {
+        } else if (tokenizer.peekIs('"')) {
             return valueOfIllegalArgument(tokenizer);
         } else {
             // Assertion.
-            final F pointer = parseField(nextToken);
+            final F pointer = parseField(tokenizer.next());
             if (!tokenizer.hasNext()) {
                 return valueOfIllegalArgument(tokenizer);
             }
-            final String operator = tokenizer.next();
-            if (operator.equalsIgnoreCase(PRESENT)) {
+            if (tokenizer.peekIs(PRESENT)) {
+                tokenizer.skip();
                 return QueryFilter.present(pointer);
             } else {
+                final String operator = tokenizer.next(COMPARISON_OPERATORS);
                 // Read assertion value: NUMBER | BOOLEAN | '"' UTF8STRING '"'
-                if (!tokenizer.hasNext()) {
+                final Object assertionValue = valueOfAssertion(tokenizer);
+                if (assertionValue == null) {
                     return valueOfIllegalArgument(tokenizer);
                 }
-                final Object assertionValue;
-                nextToken = tokenizer.next();
-                if (nextToken.equals("\"")) {
-                    // UTF8STRING delimited by quotes
-                    if (!tokenizer.hasNext()) {
-                        return valueOfIllegalArgument(tokenizer);
-                    }
-                    assertionValue = tokenizer.next();
-                    if (!tokenizer.hasNext() || !tokenizer.next().equals("\"")) {
-                        return valueOfIllegalArgument(tokenizer);
-                    }
-                } else if (nextToken.equals("'")) {
-                    // UTF8STRING delimited by single quotes
-                    if (!tokenizer.hasNext()) {
-                        return valueOfIllegalArgument(tokenizer);
-                    }
-                    assertionValue = tokenizer.next();
-                    if (!tokenizer.hasNext() || !tokenizer.next().equals("'")) {
-                        return valueOfIllegalArgument(tokenizer);
-                    }
-                } else if (nextToken.equalsIgnoreCase(TRUE)
-                        || nextToken.equalsIgnoreCase(FALSE)) {
-                    assertionValue = Boolean.parseBoolean(nextToken);
-                } else if (nextToken.indexOf('.') >= 0) {
-                    // Floating point number.
-                    assertionValue = Double.parseDouble(nextToken);
-                } else {
-                    // Must be an integer.
-                    assertionValue = Long.parseLong(nextToken);
-                }
                 try {
                     return comparisonFilter(pointer, operator, assertionValue);
                 } catch (final IllegalArgumentException e) {
@@ -231,6 +354,45 @@ public abstract class QueryFilterParser<F> {
         }
     }
 
+    /**
+     * Reads an assertion value: NUMBER | BOOLEAN | '"' UTF8STRING '"' | ''' UTF8STRING '''.
+     *
+     * @return The assertion value, or {@code null} if the tokens do not make up a value.
+     * @throws NumberFormatException
+     *             If the value is neither a string nor a boolean, and is not a valid number.
+     */
+    private static Object valueOfAssertion(final FilterTokenizer tokenizer) {
+        if (!tokenizer.hasNext()) {
+            return null;
+        }
+        if (tokenizer.peekIs('"') || tokenizer.peekIs('\'')) {
+            // UTF8STRING delimited by quotes or single quotes
+            final char delimiter = tokenizer.peekIs('"') ? '"' : '\'';
+            tokenizer.skip();
+            if (!tokenizer.hasNext()) {
+                return null;
+            }
+            final String value = tokenizer.next();
+            if (!tokenizer.peekIs(delimiter)) {
+                return null;
+            }
+            tokenizer.skip();
+            return value;
+        } else if (tokenizer.peekIs(TRUE) || tokenizer.peekIs(FALSE)) {
+            final Boolean value = tokenizer.peekIs(TRUE);
+            tokenizer.skip();
+            return value;
+        }
+        final String token = tokenizer.next();
+        if (token.indexOf('.') >= 0) {
+            // Floating point number.
+            return Double.parseDouble(token);
+        } else {
+            // Must be an integer.
+            return Long.parseLong(token);
+        }
+    }
+
     /**
      * Creates a new generic comparison filter using the provided field name,
      * operator, and value assertion. When the provided operator name represents
@@ -273,13 +435,109 @@ public abstract class QueryFilterParser<F> {
         }
     }
 
-    private static final class FilterTokenizer implements Iterator<String> {
+    /**
+     * Rebuilds a filter with the same structure as the visited filter, taking the assertion values from the
+     * iterator.
+     */
+    private static final class Instantiator<F> implements QueryFilterVisitor<QueryFilter<F>, Iterator<Object>, F> {
+
+        @Override
+        public QueryFilter<F> visitAndFilter(final Iterator<Object> values, final List<QueryFilter<F>> subFilters) {
+            final List<QueryFilter<F>> filters = new ArrayList<>(subFilters.size());
+            for (final QueryFilter<F> subFilter : subFilters) {
+                filters.add(subFilter.accept(this, values));
+            }
+            return QueryFilter.and(filters);
+        }
+
+        @Override
+        public QueryFilter<F> visitBooleanLiteralFilter(final Iterator<Object> values, final boolean value) {
+            return value ? QueryFilter.<F>alwaysTrue() : QueryFilter.<F>alwaysFalse();
+        }
+
+        @Override
+        public QueryFilter<F> visitContainsFilter(final Iterator<Object> values, final F field,
+                final Object valueAssertion) {
+            return QueryFilter.contains(field, values.next());
+        }
+
+        @Override
+        public QueryFilter<F> visitEqualsFilter(final Iterator<Object> values, final F field,
+                final Object valueAssertion) {
+            return QueryFilter.equalTo(field, values.next());
+        }
+
+        @Override
+        public QueryFilter<F> visitExtendedMatchFilter(final Iterator<Object> values, final F field,
+                final String operator, final Object valueAssertion) {
+            return QueryFilter.extendedMatch(field, operator, values.next());
+        }
+
+        @Override
+        public QueryFilter<F> visitGreaterThanFilter(final Iterator<Object> values, final F field,
+                final Object valueAssertion) {
+            return QueryFilter.greaterThan(field, values.next());
+        }
+
+        @Override
+        public QueryFilter<F> visitGreaterThanOrEqualToFilter(final Iterator<Object> values, final F field,
+                final Object valueAssertion) {
+            return QueryFilter.greaterThanOrEqualTo(field, values.next());
+        }
+
+        @Override
+        public QueryFilter<F> visitLessThanFilter(final Iterator<Object> values, final F field,
+                final Object valueAssertion) {
+            return QueryFilter.lessThan(field, values.next());
+        }
+
+        @Override
+        public QueryFilter<F> visitLessThanOrEqualToFilter(final Iterator<Object> values, final F field,
+                final Object valueAssertion) {
+            return QueryFilter.lessThanOrEqualTo(field, values.next());
+        }
+
+        @Override
+        public QueryFilter<F> visitNotFilter(final Iterator<Object> values, final QueryFilter<F> subFilter) {
+            return QueryFilter.not(subFilter.accept(this, values));
+        }
+
+        @Override
+        public QueryFilter<F> visitOrFilter(final Iterator<Object> values, final List<QueryFilter<F>> subFilters) {
+            final List<QueryFilter<F>> filters = new ArrayList<>(subFilters.size());
+            for (final QueryFilter<F> subFilter : subFilters) {
+                filters.add(subFilter.accept(this, values));
+            }
+            return QueryFilter.or(filters);
+        }
+
+        @Override
+        public QueryFilter<F> visitPresentFilter(final Iterator<Object> values, final F field) {
+            return QueryFilter.present(field);
+        }
+
+        @Override
+        public QueryFilter<F> visitStartsWithFilter(final Iterator<Object> values, final F field,
+                final Object valueAssertion) {
+            return QueryFilter.startsWith(field, values.next());
+        }
+    }
+
+    /**
+     * Splits a filter string into tokens. Tokens are located by their offsets in the filter string and are only
+     * copied into strings when they are read with {@link #next()}.
+     */
+    private static final class FilterTokenizer {
         private static final int NEED_END_STRING = 2;
         private static final int NEED_START_STRING = 1;
         private static final int NEED_TOKEN = 0;
 
-        private String filterString;
-        private String nextToken;
+        private final String filterString;
+        // Offsets of the next token, tokenStart is negative when there are no more tokens
+        private int tokenStart;
+        private int tokenEnd;
+        // Whether the next token is a string containing escaped characters
+        private boolean tokenEscaped;
         private int pos;
         private int state;
         private char stringDelimiter;
@@ -291,21 +549,49 @@ public abstract class QueryFilterParser<F> {
             readNextToken();
         }
 
-        @Override
-        public boolean hasNext() {
-            return nextToken != null;
+        boolean hasNext() {
+            return tokenStart >= 0;
         }
 
-        @Override
-        public String next() {
-            final String next = peek();
+        /** Returns whether the next token is the provided character. */
+        boolean peekIs(final char c) {
+            return tokenStart >= 0 && tokenEnd - tokenStart == 1 && filterString.charAt(tokenStart) == c;
+        }
+
+        /** Returns whether the next token is the provided string, ignoring case. */
+        boolean peekIs(final String s) {
+            return tokenStart >= 0 && tokenEnd - tokenStart == s.length()
+                    && filterString.regionMatches(true, tokenStart, s, 0, s.length());
+        }
+
+        String next() {
+            checkHasNext();
+            final String next = tokenEscaped ? unescape() : filterString.substring(tokenStart, tokenEnd);
             readNextToken();
             return next;
         }
 
-        @Override
-        public void remove() {
-            throw new UnsupportedOperationException();
+        /** Returns the first of the candidates equal to the next token ignoring case, or the next token. */
+        String next(final String[] candidates) {
+            for (final String candidate : candidates) {
+                if (peekIs(candidate)) {
+                    readNextToken();
+                    return candidate;
+                }
+            }
+            return next();
+        }
+
+        void skip() {
+            checkHasNext();
+            readNextToken();
+        }
+
+        /** Skips the next token, after appending it and a space to the provided builder. */
+        void skip(final StringBuilder builder) {
+            checkHasNext();
+            builder.append(filterString, tokenStart, tokenEnd).append(' ');
+            readNextToken();
         }
 
         @Override
@@ -313,45 +599,58 @@ public abstract class QueryFilterParser<F> {
             return filterString;
         }
 
-        private String peek() {
-            if (nextToken == null) {
+        private void checkHasNext() {
+            if (tokenStart < 0) {
                 throw new NoSuchElementException();
             }
-            return nextToken;
+        }
+
+        private String unescape() {
+            final StringBuilder builder = new StringBuilder(tokenEnd - tokenStart);
+            for (int i = tokenStart; i < tokenEnd; i++) {
+                char c = filterString.charAt(i);
+                if (c == '\\') {
+                    c = filterString.charAt(++i);
+                }
+                builder.append(c);
+            }
+            return builder.toString();
         }
 
         private void readNextToken() {
+            tokenEscaped = false;
             switch (state) {
             case NEED_START_STRING:
-                final int stringStart = pos;
+                tokenStart = pos;
                 for (; pos < filterString.length() && filterString.charAt(pos) != stringDelimiter; pos++) {
                     if (filterString.charAt(pos) == '\\') {
                         if ((pos + 1) == filterString.length()) {
                             throw new IllegalArgumentException("The filter string cannot end with an escape character");
                         }
-                        // Found an escaped character, so remove the '\')
-                        filterString = new StringBuilder(filterString).deleteCharAt(pos).toString();
+                        // Found an escaped character, skip it
+                        tokenEscaped = true;
+                        pos++;
                     }
-                    // Do nothing
                 }
-                nextToken = filterString.substring(stringStart, pos);
+                tokenEnd = pos;
                 state = NEED_END_STRING;
                 break;
             case NEED_END_STRING:
                 // NEED_START_STRING guarantees that we are either at the end of the string
                 // or the next character is a quote.
                 if (pos < filterString.length()) {
-                    nextToken = filterString.substring(pos, ++pos);
+                    tokenStart = pos;
+                    tokenEnd = ++pos;
                 } else {
-                    nextToken = null;
+                    tokenStart = -1;
                 }
                 state = NEED_TOKEN;
                 break;
             default: // NEED_TOKEN:
                 if (!skipWhiteSpace()) {
-                    nextToken = null;
+                    tokenStart = -1;
                 } else {
-                    final int tokenStart = pos;
+                    tokenStart = pos;
                     switch (filterString.charAt(pos++)) {
                     case '(':
                     case ')':
@@ -373,7 +672,7 @@ public abstract class QueryFilterParser<F> {
                         }
                         break;
                     }
-                    nextToken = filterString.substring(tokenStart, pos);
+                    tokenEnd = pos;
                 }
             }
         }
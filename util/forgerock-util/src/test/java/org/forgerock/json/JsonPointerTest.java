@@ -13,6 +13,7 @@
  *
  * Copyright © 2010–2011 ApexIdentity Inc. All rights reserved.
  * Portions Copyrighted 2011-2015 ForgeRock AS.
+ * Portions copyright 2026 Open Source Solution Technology Corporation
  */
 
 package org.forgerock.json;
@@ -207,4 +208,31 @@ public class JsonPointerTest {
     public void relativePathOffsetTooLarge() {
         new JsonPointer("/a/b/c").relativePointer(4);
     }
+
+    @Test
+    public void childPointerSharesParent() {
+        JsonPointer parent = new JsonPointer("/a/b");
+        JsonPointer child = parent.child("c");
+        assertThat(child.parent()).isSameAs(parent);
+        assertThat(child.size()).isEqualTo(3);
+        assertThat(child.get(1)).isEqualTo("b");
+        assertThat(child.leaf()).isEqualTo("c");
+        assertThat(child.toArray()).containsExactly("a", "b", "c");
+        assertThat(child.toString()).isEqualTo("/a/b/c");
+    }
+
+    @Test
+    public void childPointerHashCodeMatchesParsedPointer() {
+        JsonPointer parsed = new JsonPointer("/a/b/c");
+        JsonPointer derived = new JsonPointer().child("a").child("b").child("c");
+        assertThat(derived.hashCode()).isEqualTo(parsed.hashCode());
+        assertThat(derived.child("d").hashCode()).isEqualTo(parsed.child("d").hashCode());
+    }
+
+    @Test
+    public void siblingPointersAreNotEqual() {
+        JsonPointer parent = new JsonPointer("/a");
+        assertThat((Object) parent.child("b")).isNotEqualTo(parent.child("c"));
+        assertThat((Object) parent.child("b")).isEqualTo(parent.child("b"));
+    }
 }
@@ -0,0 +1,154 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Open Source Solution Technology Corporation
+ */
+
+package org.forgerock.json;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.forgerock.json.JsonValue.json;
+
+import java.io.IOException;
+import java.math.BigInteger;
+
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+@SuppressWarnings("javadoc")
+public class JsonTokenIndexTest {
+
+    private static final String DOCUMENT = "{ \"name\": \"café \\\"\\u00e9\\\" \\\\ \\/ \\b\\f\\n\\r\\t \\ud83d\\ude00\","
+            + " \"small\": -42, \"int\": 2147483647, \"long\": 2147483648, \"negative\": -9223372036854775808,"
+            + " \"big\": 92233720368547758070, \"decimal\": -1.5e-3, \"zero\": -0,"
+            + " \"flags\": [true, false, null], \"empty\": {}, \"none\": [],"
+            + " \"nested\": { \"roles\": [ { \"id\": 1 }, [ 2, [ 3 ] ] ], \"name\": \"inner\" },"
+            + " \"name\": \"duplicate\" }";
+
+    @Test
+    public void shouldProduceTheSameValuesAsJackson() throws Exception {
+        final Object expected = new ObjectMapper().readValue(DOCUMENT, Object.class);
+
+        final Object actual = JsonTokenIndex.parse(DOCUMENT.getBytes(UTF_8));
+
+        assertThat(actual).isEqualTo(expected);
+        assertThat(actual.toString()).isEqualTo(expected.toString());
+    }
+
+    @Test
+    public void shouldProduceTheSameNumberTypesAsJackson() throws Exception {
+        final JsonValue value = json(JsonTokenIndex.parse(DOCUMENT.getBytes(UTF_8)));
+
+        assertThat(value.get("small").getObject()).isEqualTo(-42);
+        assertThat(value.get("int").getObject()).isEqualTo(Integer.MAX_VALUE);
+        assertThat(value.get("long").getObject()).isEqualTo(2147483648L);
+        assertThat(value.get("negative").getObject()).isEqualTo(Long.MIN_VALUE);
+        assertThat(value.get("big").getObject()).isEqualTo(new BigInteger("92233720368547758070"));
+        assertThat(value.get("decimal").getObject()).isEqualTo(-1.5e-3);
+        assertThat(value.get("zero").getObject()).isEqualTo(0);
+    }
+
+    @Test
+    public void shouldParseScalarDocuments() throws Exception {
+        assertThat(JsonTokenIndex.parse(" \"text\" ".getBytes(UTF_8))).isEqualTo("text");
+        assertThat(JsonTokenIndex.parse("12".getBytes(UTF_8))).isEqualTo(12);
+        assertThat(JsonTokenIndex.parse("true".getBytes(UTF_8))).isEqualTo(true);
+        assertThat(JsonTokenIndex.parse("null".getBytes(UTF_8))).isNull();
+    }
+
+    @DataProvider
+    public Object[][] invalidDocuments() {
+        return new Object[][] {
+            { "" },
+            { "{" },
+            { "[1, 2" },
+            { "{\"a\" 1}" },
+            { "{\"a\": 1,}" },
+            { "[1,]" },
+            { "{'a': 1}" },
+            { "[01]" },
+            { "[1.]" },
+            { "[-]" },
+            { "[tru]" },
+            { "[nulls]" },
+            { "\"unterminated" },
+            { "\"bad \\x escape\"" },
+            { "\"bad \\u12 escape\"" },
+            { "\"control \t character\"" },
+            { "[1] [2]" },
+            { "{\"a\": 1]" },
+        };
+    }
+
+    @Test(dataProvider = "invalidDocuments", expectedExceptions = IOException.class)
+    public void shouldRejectInvalidDocuments(final String document) throws Exception {
+        JsonTokenIndex.parse(document.getBytes(UTF_8));
+    }
+
+    @Test(expectedExceptions = IOException.class)
+    public void shouldRejectMalformedUtf8() throws Exception {
+        JsonTokenIndex.parse(new byte[] { '"', (byte) 0xc3, '"' });
+    }
+
+    @Test
+    public void shouldOnlyPopulateAccessedContainers() throws Exception {
+        final JsonValue value = json(JsonTokenIndex.parse(DOCUMENT.getBytes(UTF_8)));
+
+        assertThat(value.get("nested").get("name").asString()).isEqualTo("inner");
+
+        assertThat(isPopulated(value.getObject())).isTrue();
+        assertThat(isPopulated(value.get("nested").getObject())).isTrue();
+        assertThat(isPopulated(value.get("nested").get("roles").getObject())).isFalse();
+        assertThat(isPopulated(value.get("flags").getObject())).isFalse();
+    }
+
+    @Test
+    public void shouldShareUnpopulatedContainersBetweenCopies() throws Exception {
+        final JsonValue original = json(JsonTokenIndex.parse(DOCUMENT.getBytes(UTF_8)));
+
+        final JsonValue copy = original.copy();
+
+        assertThat(copy.getObject()).isNotSameAs(original.getObject());
+        assertThat(isPopulated(original.getObject())).isFalse();
+        copy.get("nested").get("roles").remove(0);
+        copy.put("added", true);
+        original.get("flags").add(1);
+        assertThat(original.get("nested").get("roles").size()).isEqualTo(2);
+        assertThat(original.isDefined("added")).isFalse();
+        assertThat(copy.get("flags").size()).isEqualTo(3);
+        assertThat(copy.get("nested").get("roles").size()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldCopyPopulatedContainersMemberByMember() throws Exception {
+        final JsonValue original = json(JsonTokenIndex.parse(DOCUMENT.getBytes(UTF_8)));
+        original.get("nested").put("name", "changed");
+
+        final JsonValue copy = original.copy();
+        copy.get("nested").put("name", "copied");
+
+        assertThat(copy.get("nested").get("roles").getObject()).isNotSameAs(
+                original.get("nested").get("roles").getObject());
+        assertThat(original.get("nested").get("name").asString()).isEqualTo("changed");
+        assertThat(copy.get("nested").get("name").asString()).isEqualTo("copied");
+        assertThat(copy.get("nested").get("roles").getObject()).isEqualTo(
+                original.get("nested").get("roles").getObject());
+    }
+
+    private static boolean isPopulated(final Object container) {
+        return ((JsonTokenIndex.Container) container).copyIfUnpopulated() == null;
+    }
+}
@@ -0,0 +1,176 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Open Source Solution Technology Corporation
+ */
+package org.forgerock.json;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.forgerock.json.JsonValue.array;
+import static org.forgerock.json.JsonValue.field;
+import static org.forgerock.json.JsonValue.json;
+import static org.forgerock.json.JsonValue.object;
+import static org.forgerock.util.query.QueryFilter.alwaysFalse;
+import static org.forgerock.util.query.QueryFilter.alwaysTrue;
+import static org.forgerock.util.query.QueryFilter.and;
+import static org.forgerock.util.query.QueryFilter.contains;
+import static org.forgerock.util.query.QueryFilter.equalTo;
+import static org.forgerock.util.query.QueryFilter.extendedMatch;
+import static org.forgerock.util.query.QueryFilter.greaterThan;
+import static org.forgerock.util.query.QueryFilter.greaterThanOrEqualTo;
+import static org.forgerock.util.query.QueryFilter.lessThan;
+import static org.forgerock.util.query.QueryFilter.lessThanOrEqualTo;
+import static org.forgerock.util.query.QueryFilter.not;
+import static org.forgerock.util.query.QueryFilter.or;
+import static org.forgerock.util.query.QueryFilter.present;
+import static org.forgerock.util.query.QueryFilter.startsWith;
+import static org.forgerock.util.query.QueryFilterOperators.EQUALS;
+
+import java.util.Collections;
+
+import org.forgerock.util.Predicate;
+import org.forgerock.util.query.QueryFilter;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+@SuppressWarnings("javadoc")
+public class JsonValueFilterCompilerTest {
+
+    private static final JsonValue USER = json(object(
+            field("name", "Alice"),
+            field("age", 42),
+            field("admin", false),
+            field("roles", array("User", "Auditor")),
+            field("address", object(field("city", "Grenoble"))),
+            field("manager", null)));
+
+    @DataProvider
+    public static Object[][] filters() {
+        return new Object[][] {
+            { alwaysTrue(), true },
+            { alwaysFalse(), false },
+            { equalTo(ptr("/name"), "alice"), true },
+            { equalTo(ptr("/name"), "bob"), false },
+            { equalTo(ptr("/age"), 42L), true },
+            { equalTo(ptr("/age"), 42.0), true },
+            { equalTo(ptr("/age"), "42"), false },
+            { equalTo(ptr("/admin"), false), true },
+            { equalTo(ptr("/roles"), "auditor"), true },
+            { equalTo(ptr("/roles/0"), "user"), true },
+            { equalTo(ptr("/roles/2"), "user"), false },
+            { equalTo(ptr("/address/city"), "GRENOBLE"), true },
+            { equalTo(ptr("/manager"), "bob"), false },
+            { equalTo(ptr("/missing"), "bob"), false },
+            { greaterThan(ptr("/age"), 41), true },
+            { greaterThan(ptr("/age"), 42), false },
+            { greaterThanOrEqualTo(ptr("/age"), 42), true },
+            { lessThan(ptr("/name"), "Bob"), true },
+            { lessThan(ptr("/name"), "Aa"), false },
+            { lessThanOrEqualTo(ptr("/name"), "ALICE"), true },
+            { greaterThan(ptr("/admin"), false), false },
+            { contains(ptr("/name"), "LIC"), true },
+            { contains(ptr("/roles"), "dit"), true },
+            { contains(ptr("/age"), 42), true },
+            { startsWith(ptr("/name"), "al"), true },
+            { startsWith(ptr("/name"), "li"), false },
+            { present(ptr("/manager")), true },
+            { present(ptr("/address/city")), true },
+            { present(ptr("/address/zip")), false },
+            { present(ptr("/name/first")), false },
+            { not(present(ptr("/missing"))), true },
+            { and(equalTo(ptr("/name"), "alice"), greaterThan(ptr("/age"), 18)), true },
+            { and(equalTo(ptr("/name"), "alice"), alwaysFalse()), false },
+            { and(), true },
+            { or(equalTo(ptr("/name"), "bob"), contains(ptr("/roles"), "audit")), true },
+            { or(equalTo(ptr("/name"), "bob"), alwaysFalse()), false },
+            { or(), false },
+            { not(and(present(ptr("/name")), not(or(equalTo(ptr("/age"), 1), present(ptr("/age")))))), true },
+        };
+    }
+
+    @Test(dataProvider = "filters")
+    public void shouldMatchAsInterpretedFilters(QueryFilter<JsonPointer> filter, boolean expected) {
+        Predicate<JsonValue> predicate = new JsonValueFilterCompiler().compile(filter);
+
+        assertThat(predicate.test(USER)).isEqualTo(expected);
+    }
+
+    @Test
+    public void shouldNotCompileExtendedMatchFilters() {
+        JsonValueFilterCompiler compiler = new JsonValueFilterCompiler();
+
+        assertThat(compiler.compile(or(present(ptr("/name")), extendedMatch(ptr("/name"), "regex", "a.*"))))
+                .isNull();
+    }
+
+    @Test
+    public void shouldReturnCachedPredicates() {
+        JsonValueFilterCompiler compiler = new JsonValueFilterCompiler();
+
+        Predicate<JsonValue> predicate = compiler.compile(equalTo(ptr("/name"), "alice"));
+
+        assertThat(compiler.compile(equalTo(ptr("/name"), "alice"))).isSameAs(predicate);
+        assertThat(compiler.compile(equalTo(ptr("/name"), "bob"))).isNotSameAs(predicate);
+    }
+
+    @Test
+    public void shouldEvictLeastRecentlyUsedPredicates() {
+        JsonValueFilterCompiler compiler = new JsonValueFilterCompiler(1);
+
+        Predicate<JsonValue> predicate = compiler.compile(equalTo(ptr("/name"), "alice"));
+        compiler.compile(equalTo(ptr("/name"), "bob"));
+
+        assertThat(compiler.compile(equalTo(ptr("/name"), "alice"))).isNotSameAs(predicate);
+    }
+
+    @Test
+    public void shouldAllowSubclassesToOverrideFilters() {
+        JsonValueFilterCompiler compiler = new JsonValueFilterCompiler() {
+            @Override
+            public Predicate<JsonValue> visitEqualsFilter(Void p, JsonPointer field, Object valueAssertion) {
+                return everyValue(field, EQUALS, valueAssertion);
+            }
+
+            @Override
+            public Predicate<JsonValue> visitExtendedMatchFilter(Void p, JsonPointer field, String operator,
+                    Object valueAssertion) {
+                return literal(false);
+            }
+        };
+
+        assertThat(compiler.compile(equalTo(ptr("/roles"), "user")).test(USER)).isFalse();
+        assertThat(compiler.compile(equalTo(ptr("/missing"), "user")).test(USER)).isTrue();
+        assertThat(compiler.compile(not(extendedMatch(ptr("/name"), "regex", "a.*"))).test(USER)).isTrue();
+    }
+
+    @Test
+    public void shouldResolveFieldsThroughTransformers() {
+        JsonValue value = new JsonValue(object(field("name", "alice")), null,
+                Collections.singletonList(new JsonTransformer() {
+                    @Override
+                    public void transform(JsonValue value) {
+                        if ("alice".equals(value.getObject())) {
+                            value.setObject("bob");
+                        }
+                    }
+                }));
+
+        Predicate<JsonValue> predicate = new JsonValueFilterCompiler().compile(equalTo(ptr("/name"), "bob"));
+
+        assertThat(predicate.test(value)).isTrue();
+    }
+
+    private static JsonPointer ptr(String pointer) {
+        return new JsonPointer(pointer);
+    }
+}
@@ -12,6 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2015 ForgeRock AS.
+ * Portions copyright 2026 Open Source Solution Technology Corporation
  */
 
 package org.forgerock.util.query;
@@ -31,6 +32,13 @@ public class QueryFilterParserTest {
         }
     };
 
+    private QueryFilterParser<String> cachingParser = new QueryFilterParser<String>(4) {
+        @Override
+        protected String parseField(String fieldDescription) {
+            return fieldDescription;
+        }
+    };
+
     @DataProvider
     public Object[][] toIllegalStringData() {
         return new Object[][] {
@@ -122,4 +130,39 @@ public class QueryFilterParserTest {
         assertThat(parser.valueOf(filterString)).isEqualTo(filter);
     }
 
-}
\ No newline at end of file
+    @Test(dataProvider = "toIllegalStringData", expectedExceptions = IllegalArgumentException.class)
+    public void testCachingValueOfIllegalStrings(String filterString) throws Exception {
+        try {
+            cachingParser.valueOf(filterString);
+        } catch (IllegalArgumentException e) {
+            // Failures must not be cached
+        }
+        cachingParser.valueOf(filterString);
+    }
+
+    @Test(dataProvider = "toStringData")
+    public void testCachingValueOf(QueryFilter<String> filter, String filterString) {
+        assertThat(cachingParser.valueOf(filterString)).isEqualTo(filter);
+        assertThat(cachingParser.valueOf(filterString)).isEqualTo(filter);
+    }
+
+    @Test
+    public void testCachingValueOfReturnsCachedFilters() {
+        QueryFilter<String> filter = cachingParser.valueOf("/name eq \"alice\" and /age gt 18");
+
+        assertThat(cachingParser.valueOf("/name eq \"alice\" and /age gt 18")).isSameAs(filter);
+    }
+
+    @Test
+    public void testCachingValueOfReusesFilterStructures() {
+        cachingParser.valueOf("(/name eq \"alice\" or /name sw 'al') and ! (/age gt 18) and /mail pr");
+
+        assertThat(cachingParser.valueOf("(/name eq 'bob' or /name sw \"b\\\"o\")  and !(/age gt 1.5) and /mail pr"))
+                .isEqualTo(and(or(equalTo("/name", "bob"), startsWith("/name", "b\"o")),
+                        not(greaterThan("/age", 1.5)), present("/mail")));
+        assertThat(cachingParser.valueOf("(/name eq true or /name sw 12) and ! (/age gt false) and /mail pr"))
+                .isEqualTo(and(or(equalTo("/name", true), startsWith("/name", 12L)),
+                        not(greaterThan("/age", false)), present("/mail")));
+    }
+
+}